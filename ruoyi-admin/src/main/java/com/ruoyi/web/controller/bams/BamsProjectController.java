@@ -20,6 +20,7 @@ import com.ruoyi.common.utils.poi.ExcelUtil;
 import com.ruoyi.system.domain.BamsProject;
 import com.ruoyi.system.domain.BamsProjectStage;
 import com.ruoyi.system.service.IBamsProjectService;
+import com.ruoyi.system.service.IBamsExportJobService;
 
 /**
  * 项目信息 信息操作处理
@@ -32,6 +33,9 @@ public class BamsProjectController extends BaseController {
     @Autowired
     private IBamsProjectService projectService;
 
+    @Autowired
+    private IBamsExportJobService exportJobService;
+
     /**
      * 获取项目列表
      */
@@ -128,6 +132,17 @@ public class BamsProjectController extends BaseController {
         util.exportExcel(response, list, "项目信息数据");
     }
 
+    /**
+     * 提交项目后台导出任务
+     */
+    @PreAuthorize("@ss.hasPermi('bams:project:export')")
+    @Log(title = "项目信息", businessType = BusinessType.EXPORT)
+    @PostMapping("/exportJob")
+    public AjaxResult exportJob(BamsProject project) {
+        return success(exportJobService.submitExportJob("project", "项目信息数据", BamsProject.class, project, null,
+                writer -> writer.accept(projectService.selectProjectList(project))));
+    }
+
     /**
      * 刷新项目统计数据
      */
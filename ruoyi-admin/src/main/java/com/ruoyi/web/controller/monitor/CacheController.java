@@ -1,12 +1,12 @@
 package com.ruoyi.web.controller.monitor;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
 import java.util.TreeSet;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisCallback;
@@ -17,8 +17,12 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import com.alibaba.fastjson2.JSON;
 import com.ruoyi.common.constant.CacheConstants;
 import com.ruoyi.common.core.domain.AjaxResult;
+import com.ruoyi.common.core.redis.JsonbRedisSerializer;
+import com.ruoyi.common.core.redis.NearCacheManager;
+import com.ruoyi.common.core.redis.RedisCache;
 import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.system.domain.SysCache;
 
@@ -34,6 +38,12 @@ public class CacheController
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    private NearCacheManager nearCacheManager;
+
+    @Autowired
+    private RedisCache redisCache;
+
     private final static List<SysCache> caches = new ArrayList<SysCache>();
     {
         caches.add(new SysCache(CacheConstants.LOGIN_TOKEN_KEY, "用户信息"));
@@ -43,6 +53,11 @@ public class CacheController
         caches.add(new SysCache(CacheConstants.REPEAT_SUBMIT_KEY, "防重提交"));
         caches.add(new SysCache(CacheConstants.RATE_LIMIT_KEY, "限流处理"));
         caches.add(new SysCache(CacheConstants.PWD_ERR_CNT_KEY, "密码错误次数"));
+        caches.add(new SysCache(CacheConstants.BAMS_UPLOAD_SESSION_KEY, "分片上传会话"));
+        caches.add(new SysCache(CacheConstants.BAMS_ARCHIVE_SEQ_KEY, "档案流水号"));
+        caches.add(new SysCache(CacheConstants.BAMS_LIST_COUNT_KEY, "列表总数"));
+        caches.add(new SysCache(CacheConstants.BAMS_ARCHIVE_KEY, "档案详情"));
+        caches.add(new SysCache(CacheConstants.BAMS_ARCHIVE_VERSIONS_KEY, "档案版本"));
     }
 
     @SuppressWarnings("deprecation")
@@ -81,7 +96,7 @@ public class CacheController
     @GetMapping("/getKeys/{cacheName}")
     public AjaxResult getCacheKeys(@PathVariable String cacheName)
     {
-        Set<String> cacheKeys = redisTemplate.keys(cacheName + "*");
+        Collection<String> cacheKeys = redisCache.keys(cacheName + "*");
         return AjaxResult.success(new TreeSet<>(cacheKeys));
     }
 
@@ -89,7 +104,11 @@ public class CacheController
     @GetMapping("/getValue/{cacheName}/{cacheKey}")
     public AjaxResult getCacheValue(@PathVariable String cacheName, @PathVariable String cacheKey)
     {
-        String cacheValue = redisTemplate.opsForValue().get(cacheKey);
+        byte[] rawValue = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands()
+                .get(cacheKey.getBytes(StandardCharsets.UTF_8)));
+        // 二进制格式的缓存解析后按 JSON 显示
+        String cacheValue = JsonbRedisSerializer.isBinary(rawValue) ? JSON.toJSONString(redisCache.getCacheObject(cacheKey))
+                : rawValue != null ? new String(rawValue, StandardCharsets.UTF_8) : null;
         SysCache sysCache = new SysCache(cacheName, cacheKey, cacheValue);
         return AjaxResult.success(sysCache);
     }
@@ -98,8 +117,9 @@ public class CacheController
     @DeleteMapping("/clearCacheName/{cacheName}")
     public AjaxResult clearCacheName(@PathVariable String cacheName)
     {
-        Collection<String> cacheKeys = redisTemplate.keys(cacheName + "*");
-        redisTemplate.delete(cacheKeys);
+        redisCache.deleteKeys(cacheName + "*");
+        // 同时清除各节点的本地副本
+        nearCacheManager.clear(cacheName);
         return AjaxResult.success();
     }
 
@@ -108,6 +128,7 @@ public class CacheController
     public AjaxResult clearCacheKey(@PathVariable String cacheKey)
     {
         redisTemplate.delete(cacheKey);
+        nearCacheManager.evictKey(cacheKey);
         return AjaxResult.success();
     }
 
@@ -115,8 +136,8 @@ public class CacheController
     @DeleteMapping("/clearCacheAll")
     public AjaxResult clearCacheAll()
     {
-        Collection<String> cacheKeys = redisTemplate.keys("*");
-        redisTemplate.delete(cacheKeys);
+        redisCache.deleteKeys("*");
+        nearCacheManager.clearAll();
         return AjaxResult.success();
     }
 }
@@ -1,8 +1,6 @@
 package com.ruoyi.web.controller.monitor;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,10 +14,14 @@ import com.ruoyi.common.constant.CacheConstants;
 import com.ruoyi.common.core.controller.BaseController;
 import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.core.page.PageDomain;
 import com.ruoyi.common.core.page.TableDataInfo;
+import com.ruoyi.common.core.page.TableSupport;
 import com.ruoyi.common.core.redis.RedisCache;
 import com.ruoyi.common.enums.BusinessType;
 import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.framework.web.service.OnlineSessionRegistry;
+import com.ruoyi.framework.web.service.TokenService;
 import com.ruoyi.system.domain.SysUserOnline;
 import com.ruoyi.system.service.ISysUserOnlineService;
 
@@ -38,35 +40,70 @@ public class SysUserOnlineController extends BaseController
     @Autowired
     private RedisCache redisCache;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private OnlineSessionRegistry sessionRegistry;
+
+    /**
+     * 在线用户列表，通过会话索引按最近访问倒序分页，只读取当前页的会话
+     */
     @PreAuthorize("@ss.hasPermi('monitor:online:list')")
     @GetMapping("/list")
     public TableDataInfo list(String ipaddr, String userName)
     {
-        Collection<String> keys = redisCache.keys(CacheConstants.LOGIN_TOKEN_KEY + "*");
+        PageDomain pageDomain = TableSupport.buildPageRequest();
+        int pageSize = Math.max(1, pageDomain.getPageSize());
+        long offset = (long) (Math.max(1, pageDomain.getPageNum()) - 1) * pageSize;
+
+        List<String> tokens;
+        long total;
+        if (StringUtils.isEmpty(ipaddr) && StringUtils.isEmpty(userName))
+        {
+            total = sessionRegistry.countSessions();
+            tokens = sessionRegistry.selectTokens(offset, pageSize);
+        }
+        else
+        {
+            List<String> matched = sessionRegistry.selectTokens(userName, ipaddr);
+            total = matched.size();
+            int fromIndex = (int) Math.min(offset, matched.size());
+            tokens = matched.subList(fromIndex, Math.min(fromIndex + pageSize, matched.size()));
+        }
+
+        List<String> keys = new ArrayList<String>(tokens.size());
+        for (String token : tokens)
+        {
+            keys.add(CacheConstants.LOGIN_TOKEN_KEY + token);
+        }
+        List<LoginUser> users = keys.isEmpty() ? new ArrayList<LoginUser>() : redisCache.getMultiCacheObject(keys);
         List<SysUserOnline> userOnlineList = new ArrayList<SysUserOnline>();
-        for (String key : keys)
+        List<String> staleTokens = new ArrayList<String>();
+        for (int i = 0; i < tokens.size(); i++)
         {
-            LoginUser user = redisCache.getCacheObject(key);
-            if (StringUtils.isNotEmpty(ipaddr) && StringUtils.isNotEmpty(userName))
+            LoginUser user = users.get(i);
+            if (user == null)
             {
-                userOnlineList.add(userOnlineService.selectOnlineByInfo(ipaddr, userName, user));
-            }
-            else if (StringUtils.isNotEmpty(ipaddr))
-            {
-                userOnlineList.add(userOnlineService.selectOnlineByIpaddr(ipaddr, user));
-            }
-            else if (StringUtils.isNotEmpty(userName) && StringUtils.isNotNull(user.getUser()))
-            {
-                userOnlineList.add(userOnlineService.selectOnlineByUserName(userName, user));
-            }
-            else
-            {
-                userOnlineList.add(userOnlineService.loginUserToUserOnline(user));
+                staleTokens.add(tokens.get(i));
+                continue;
             }
+            userOnlineList.add(userOnlineService.loginUserToUserOnline(user));
         }
-        Collections.reverse(userOnlineList);
-        userOnlineList.removeAll(Collections.singleton(null));
-        return getDataTable(userOnlineList);
+        // 会话已被删除（如清空缓存），从索引中移除
+        sessionRegistry.removeStale(userName, ipaddr, staleTokens);
+        return getDataTable(userOnlineList, total - staleTokens.size());
+    }
+
+    /**
+     * 强退用户的全部会话
+     */
+    @PreAuthorize("@ss.hasPermi('monitor:online:forceLogout')")
+    @Log(title = "在线用户", businessType = BusinessType.FORCE)
+    @DeleteMapping("/user/{userName}")
+    public AjaxResult forceLogoutUser(@PathVariable String userName)
+    {
+        return success(tokenService.delLoginUsers(userName, null));
     }
 
     /**
@@ -77,7 +114,7 @@ public class SysUserOnlineController extends BaseController
     @DeleteMapping("/{tokenId}")
     public AjaxResult forceLogout(@PathVariable String tokenId)
     {
-        redisCache.deleteObject(CacheConstants.LOGIN_TOKEN_KEY + tokenId);
+        tokenService.delLoginUser(tokenId);
         return success();
     }
 }
@@ -17,6 +17,8 @@ import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.common.enums.BusinessType;
 import com.ruoyi.system.domain.BamsArchiveAuditLog;
 import com.ruoyi.system.service.IBamsArchiveAuditLogService;
+import com.ruoyi.common.core.page.CursorPage;
+import com.ruoyi.common.core.page.TableCursorInfo;
 import com.ruoyi.common.core.page.TableDataInfo;
 
 /**
@@ -44,6 +46,20 @@ public class BamsArchiveAuditLogController extends BaseController
         return getDataTable(list);
     }
 
+    /**
+     * 游标分页查询档案审计日志列表（按操作时间倒序，翻页耗时与页数无关；withCount=true 时返回缓存的总数）
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:list')")
+    @GetMapping("/cursorList")
+    public TableCursorInfo cursorList(BamsArchiveAuditLog bamsArchiveAuditLog)
+    {
+        CursorPage page = startCursorPage();
+        Long total = page.isWithCount() ? bamsArchiveAuditLogService.countAuditLogList(bamsArchiveAuditLog) : null;
+        page.applyTo(bamsArchiveAuditLog.getParams());
+        List<BamsArchiveAuditLog> list = bamsArchiveAuditLogService.selectAuditLogListByCursor(bamsArchiveAuditLog);
+        return getCursorTable(list, page, BamsArchiveAuditLog::getOperationTime, BamsArchiveAuditLog::getLogId, total);
+    }
+
     /**
      * 根据档案ID查询审计日志
      */
@@ -66,6 +82,16 @@ public class BamsArchiveAuditLogController extends BaseController
         return success(list);
     }
 
+    /**
+     * 查询审计日志写入队列运行指标
+     */
+    @PreAuthorize("@ss.hasPermi('monitor:server:list')")
+    @GetMapping("/writer/stats")
+    public AjaxResult writerStats()
+    {
+        return success(bamsArchiveAuditLogService.selectWriterStatistics());
+    }
+
     /**
      * 导出档案审计日志列表
      */
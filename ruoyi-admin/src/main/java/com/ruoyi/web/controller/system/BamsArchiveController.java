@@ -4,9 +4,13 @@ import java.util.List;
 import jakarta.servlet.http.HttpServletResponse;
 
 import com.ruoyi.common.utils.poi.ExcelUtil;
+import com.ruoyi.system.domain.BamsArchiveImportError;
+import com.ruoyi.system.domain.BamsArchiveImportJob;
 import com.ruoyi.system.domain.BamsArchiveVersion;
+import com.ruoyi.system.service.IBamsArchiveImportService;
+import com.ruoyi.system.service.IBamsArchiveSearchService;
+import com.ruoyi.system.service.IBamsExportJobService;
 import com.ruoyi.system.service.IBamsArchiveVersionService;
-import com.ruoyi.system.service.IBamsProjectService;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,13 +20,18 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 import com.ruoyi.common.annotation.Log;
 import com.ruoyi.common.core.controller.BaseController;
 import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.common.enums.BusinessType;
+import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.system.domain.BamsArchive;
 import com.ruoyi.system.service.IBamsArchiveService;
+import com.ruoyi.common.core.page.CursorPage;
+import com.ruoyi.common.core.page.TableCursorInfo;
 import com.ruoyi.common.core.page.TableDataInfo;
 
 /**
@@ -42,7 +51,13 @@ public class BamsArchiveController extends BaseController
     private IBamsArchiveVersionService bamsArchiveVersionService;
 
     @Autowired
-    private IBamsProjectService bamsProjectService;
+    private IBamsArchiveSearchService bamsArchiveSearchService;
+
+    @Autowired
+    private IBamsExportJobService exportJobService;
+
+    @Autowired
+    private IBamsArchiveImportService archiveImportService;
 
     /**
      * 查询档案列表
@@ -56,6 +71,71 @@ public class BamsArchiveController extends BaseController
         return getDataTable(list);
     }
 
+    /**
+     * 游标分页查询档案列表（按创建时间倒序，翻页耗时与页数无关；withCount=true 时返回缓存的总数）
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:list')")
+    @GetMapping("/cursorList")
+    public TableCursorInfo cursorList(BamsArchive bamsArchive)
+    {
+        CursorPage page = startCursorPage();
+        Long total = page.isWithCount() ? bamsArchiveService.countBamsArchiveList(bamsArchive) : null;
+        page.applyTo(bamsArchive.getParams());
+        List<BamsArchive> list = bamsArchiveService.selectBamsArchiveListByCursor(bamsArchive);
+        return getCursorTable(list, page, BamsArchive::getCreateTime, BamsArchive::getArchiveId, total);
+    }
+
+    /**
+     * 按列表查询条件统计各分面（门类、阶段、文件类型、年度、标签）取值的档案数量
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:list')")
+    @GetMapping("/facets")
+    public AjaxResult facets(BamsArchive bamsArchive)
+    {
+        return success(bamsArchiveService.selectArchiveFacets(bamsArchive));
+    }
+
+    /**
+     * 按列表查询条件统计各标签的档案数量
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:list')")
+    @GetMapping("/tagFacets")
+    public AjaxResult tagFacets(BamsArchive bamsArchive, @RequestParam(value = "limit", defaultValue = "50") int limit)
+    {
+        return success(bamsArchiveService.selectTagFacets(bamsArchive, limit));
+    }
+
+    /**
+     * 全文检索档案（题名、编号、描述、摘要、标签及文件正文，按相关度排序）
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:list')")
+    @GetMapping("/search")
+    public TableDataInfo search(@RequestParam("keyword") String keyword, BamsArchive bamsArchive)
+    {
+        if (StringUtils.isBlank(keyword))
+        {
+            return list(bamsArchive);
+        }
+        startPage();
+        List<BamsArchive> list = bamsArchiveSearchService.searchArchives(keyword, bamsArchive);
+        return getDataTable(list);
+    }
+
+    /**
+     * 重建全文检索索引
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:edit')")
+    @Log(title = "档案检索索引", businessType = BusinessType.OTHER)
+    @PostMapping("/search/rebuild")
+    public AjaxResult rebuildSearchIndex()
+    {
+        if (!bamsArchiveSearchService.rebuildIndex())
+        {
+            return warn("索引正在重建中，请稍后再试");
+        }
+        return success("索引重建任务已开始执行");
+    }
+
     /**
      * 导出档案列表
      */
@@ -64,9 +144,84 @@ public class BamsArchiveController extends BaseController
     @PostMapping("/export")
     public void export(HttpServletResponse response, BamsArchive bamsArchive)
     {
-        List<BamsArchive> list = bamsArchiveService.selectBamsArchiveList(bamsArchive);
         ExcelUtil<BamsArchive> util = new ExcelUtil<BamsArchive>(BamsArchive.class);
-        util.exportExcel(response, list, "档案数据");
+        bamsArchiveService.exportBamsArchiveList(bamsArchive, rows -> util.exportExcelStream(response, rows, "档案数据"));
+    }
+
+    /**
+     * 提交档案后台导出任务
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:export')")
+    @Log(title = "档案管理", businessType = BusinessType.EXPORT)
+    @PostMapping("/exportJob")
+    public AjaxResult exportJob(BamsArchive bamsArchive)
+    {
+        Long total = bamsArchiveService.countBamsArchiveList(bamsArchive);
+        return success(exportJobService.submitExportJob("archive", "档案数据", BamsArchive.class, bamsArchive, total,
+                writer -> bamsArchiveService.exportBamsArchiveList(bamsArchive, writer)));
+    }
+
+    /**
+     * 提交档案批量导入任务（附件来源为导入目录下的子目录或 ZIP 文件）
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:add')")
+    @Log(title = "档案管理", businessType = BusinessType.IMPORT)
+    @PostMapping("/importData")
+    public AjaxResult importData(MultipartFile file, String sourcePath)
+    {
+        return success(archiveImportService.submitImport(file, sourcePath));
+    }
+
+    @PostMapping("/importTemplate")
+    public void importTemplate(HttpServletResponse response)
+    {
+        ExcelUtil<BamsArchive> util = new ExcelUtil<BamsArchive>(BamsArchive.class);
+        util.importTemplateExcel(response, "档案数据");
+    }
+
+    /**
+     * 查询档案导入任务列表
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:add')")
+    @GetMapping("/import/list")
+    public TableDataInfo importList(BamsArchiveImportJob importJob)
+    {
+        startPage();
+        List<BamsArchiveImportJob> list = archiveImportService.selectImportJobList(importJob);
+        return getDataTable(list);
+    }
+
+    /**
+     * 查询档案导入任务进度
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:add')")
+    @GetMapping("/import/{jobId}")
+    public AjaxResult getImportJob(@PathVariable("jobId") Long jobId)
+    {
+        return success(archiveImportService.selectImportJobById(jobId));
+    }
+
+    /**
+     * 从断点继续执行档案导入任务
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:add')")
+    @Log(title = "档案管理", businessType = BusinessType.IMPORT)
+    @PostMapping("/import/{jobId}/resume")
+    public AjaxResult resumeImport(@PathVariable("jobId") Long jobId)
+    {
+        return success(archiveImportService.resumeImport(jobId));
+    }
+
+    /**
+     * 导出档案导入错误报告
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:add')")
+    @PostMapping("/import/{jobId}/errors")
+    public void exportImportErrors(HttpServletResponse response, @PathVariable("jobId") Long jobId)
+    {
+        List<BamsArchiveImportError> list = archiveImportService.selectImportErrorList(jobId);
+        ExcelUtil<BamsArchiveImportError> util = new ExcelUtil<BamsArchiveImportError>(BamsArchiveImportError.class);
+        util.exportExcel(response, list, "导入错误报告");
     }
 
     /**
@@ -101,11 +256,6 @@ public class BamsArchiveController extends BaseController
         int result = bamsArchiveService.insertBamsArchive(bamsArchive);
         if (result > 0)
         {
-            // 更新项目统计数据
-            if (bamsArchive.getProjectId() != null)
-            {
-                bamsProjectService.updateProjectStatistics(bamsArchive.getProjectId());
-            }
             return success(bamsArchive.getArchiveId());
         }
         return error("新增档案失败");
@@ -119,25 +269,7 @@ public class BamsArchiveController extends BaseController
     @PutMapping
     public AjaxResult edit(@RequestBody BamsArchive bamsArchive)
     {
-        // 获取修改前的档案信息（用于处理项目变更的情况）
-        BamsArchive oldArchive = bamsArchiveService.selectBamsArchiveByArchiveId(bamsArchive.getArchiveId());
-        Long oldProjectId = oldArchive != null ? oldArchive.getProjectId() : null;
-
-        int result = bamsArchiveService.updateBamsArchive(bamsArchive);
-        if (result > 0)
-        {
-            // 更新新项目的统计数据
-            if (bamsArchive.getProjectId() != null)
-            {
-                bamsProjectService.updateProjectStatistics(bamsArchive.getProjectId());
-            }
-            // 如果项目ID发生了变更，也要更新旧项目的统计数据
-            if (oldProjectId != null && !oldProjectId.equals(bamsArchive.getProjectId()))
-            {
-                bamsProjectService.updateProjectStatistics(oldProjectId);
-            }
-        }
-        return toAjax(result);
+        return toAjax(bamsArchiveService.updateBamsArchive(bamsArchive));
     }
 
     /**
@@ -148,27 +280,7 @@ public class BamsArchiveController extends BaseController
     @DeleteMapping("/{archiveIds}")
     public AjaxResult remove(@PathVariable Long[] archiveIds)
     {
-        // 获取需要更新统计的项目ID列表
-        List<Long> projectIds = new java.util.ArrayList<>();
-        for (Long archiveId : archiveIds)
-        {
-            BamsArchive archive = bamsArchiveService.selectBamsArchiveByArchiveId(archiveId);
-            if (archive != null && archive.getProjectId() != null && !projectIds.contains(archive.getProjectId()))
-            {
-                projectIds.add(archive.getProjectId());
-            }
-        }
-
-        int result = bamsArchiveService.recycleBamsArchiveByIds(archiveIds);
-        if (result > 0)
-        {
-            // 更新所有相关项目的统计数据
-            for (Long projectId : projectIds)
-            {
-                bamsProjectService.updateProjectStatistics(projectId);
-            }
-        }
-        return toAjax(result);
+        return toAjax(bamsArchiveService.recycleBamsArchiveByIds(archiveIds));
     }
 
     /**
@@ -179,27 +291,7 @@ public class BamsArchiveController extends BaseController
     @PutMapping("/restore/{archiveIds}")
     public AjaxResult restore(@PathVariable Long[] archiveIds)
     {
-        // 获取需要更新统计的项目ID列表
-        List<Long> projectIds = new java.util.ArrayList<>();
-        for (Long archiveId : archiveIds)
-        {
-            BamsArchive archive = bamsArchiveService.selectBamsArchiveByArchiveId(archiveId);
-            if (archive != null && archive.getProjectId() != null && !projectIds.contains(archive.getProjectId()))
-            {
-                projectIds.add(archive.getProjectId());
-            }
-        }
-
-        int result = bamsArchiveService.restoreBamsArchiveByIds(archiveIds);
-        if (result > 0)
-        {
-            // 更新所有相关项目的统计数据
-            for (Long projectId : projectIds)
-            {
-                bamsProjectService.updateProjectStatistics(projectId);
-            }
-        }
-        return toAjax(result);
+        return toAjax(bamsArchiveService.restoreBamsArchiveByIds(archiveIds));
     }
 
     /**
@@ -210,27 +302,7 @@ public class BamsArchiveController extends BaseController
     @DeleteMapping("/permanent/{archiveIds}")
     public AjaxResult deletePermanently(@PathVariable Long[] archiveIds)
     {
-        // 获取需要更新统计的项目ID列表（永久删除前）
-        List<Long> projectIds = new java.util.ArrayList<>();
-        for (Long archiveId : archiveIds)
-        {
-            BamsArchive archive = bamsArchiveService.selectBamsArchiveByArchiveId(archiveId);
-            if (archive != null && archive.getProjectId() != null && !projectIds.contains(archive.getProjectId()))
-            {
-                projectIds.add(archive.getProjectId());
-            }
-        }
-
-        int result = bamsArchiveService.deleteBamsArchiveByArchiveIds(archiveIds);
-        if (result > 0)
-        {
-            // 更新所有相关项目的统计数据
-            for (Long projectId : projectIds)
-            {
-                bamsProjectService.updateProjectStatistics(projectId);
-            }
-        }
-        return toAjax(result);
+        return toAjax(bamsArchiveService.deleteBamsArchiveByArchiveIds(archiveIds));
     }
 
     /**
@@ -1,13 +1,11 @@
 package com.ruoyi.web.controller.system;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import com.ruoyi.common.config.RuoYiConfig;
@@ -18,8 +16,11 @@ import com.ruoyi.common.annotation.Log;
 import com.ruoyi.common.core.controller.BaseController;
 import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.common.enums.BusinessType;
+import com.ruoyi.common.utils.file.FileRangeUtils;
 import com.ruoyi.system.domain.BamsArchiveVersion;
 import com.ruoyi.system.service.IBamsArchiveVersionService;
+import com.ruoyi.system.service.IBamsFileTextService;
+import com.ruoyi.system.service.IBamsRenditionService;
 import com.ruoyi.common.core.page.TableDataInfo;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -35,6 +36,12 @@ public class BamsArchiveVersionController extends BaseController {
     @Autowired
     private IBamsArchiveVersionService bamsArchiveVersionService;
 
+    @Autowired
+    private IBamsFileTextService fileTextService;
+
+    @Autowired
+    private IBamsRenditionService renditionService;
+
     /**
      * 查询档案版本列表
      */
@@ -78,6 +85,59 @@ public class BamsArchiveVersionController extends BaseController {
         return success(version);
     }
 
+    /**
+     * 初始化分片上传（大文件断点续传）
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:edit')")
+    @Log(title = "档案版本", businessType = BusinessType.INSERT)
+    @PostMapping("/chunk/init/{archiveId}")
+    public AjaxResult initChunkUpload(@PathVariable Long archiveId,
+            @RequestParam("fileName") String fileName,
+            @RequestParam("fileSize") Long fileSize,
+            @RequestParam(value = "versionRemark", required = false) String versionRemark) {
+        return success(bamsArchiveVersionService.initChunkUpload(archiveId, fileName, fileSize, versionRemark));
+    }
+
+    /**
+     * 查询分片上传进度（断点续传时获取已上传偏移量）
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:edit')")
+    @GetMapping("/chunk/{uploadId}")
+    public AjaxResult getChunkUpload(@PathVariable String uploadId) {
+        return success(bamsArchiveVersionService.selectUploadSession(uploadId));
+    }
+
+    /**
+     * 上传分片
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:edit')")
+    @PostMapping("/chunk/{uploadId}")
+    public AjaxResult uploadChunk(@PathVariable String uploadId,
+            @RequestParam("offset") Long offset,
+            @RequestParam("file") MultipartFile file) {
+        return success(bamsArchiveVersionService.uploadChunk(uploadId, offset, file));
+    }
+
+    /**
+     * 完成分片上传
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:edit')")
+    @Log(title = "档案版本", businessType = BusinessType.INSERT)
+    @PostMapping("/chunk/{uploadId}/complete")
+    public AjaxResult completeChunkUpload(@PathVariable String uploadId) {
+        return success(bamsArchiveVersionService.completeChunkUpload(uploadId));
+    }
+
+    /**
+     * 取消分片上传
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:edit')")
+    @DeleteMapping("/chunk/{uploadId}")
+    public AjaxResult abortChunkUpload(@PathVariable String uploadId) {
+        bamsArchiveVersionService.abortChunkUpload(uploadId);
+        return success();
+    }
+
     /**
      * 修改版本说明
      */
@@ -99,95 +159,110 @@ public class BamsArchiveVersionController extends BaseController {
     }
 
     /**
-     * 下载版本文件
+     * 查询临时文件的识别结果（按 uploadTemp 返回的文件哈希值轮询）
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:add')")
+    @GetMapping("/text/{fileHash}")
+    public AjaxResult textSuggestion(@PathVariable String fileHash) {
+        return success(fileTextService.selectTextSuggestion(fileHash));
+    }
+
+    /**
+     * 查询版本文件的正文抽取状态（withContent=true 时包含正文）
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:query')")
+    @GetMapping("/{versionId}/text")
+    public AjaxResult versionText(@PathVariable Long versionId,
+            @RequestParam(value = "withContent", defaultValue = "false") boolean withContent) {
+        return success(fileTextService.selectVersionFileText(versionId, withContent));
+    }
+
+    /**
+     * 下载版本文件（支持 Range 断点续传）
      */
     @PreAuthorize("@ss.hasPermi('system:archive:query')")
     @Log(title = "档案版本", businessType = BusinessType.EXPORT)
     @GetMapping("/download/{versionId}")
-    public void download(@PathVariable Long versionId, HttpServletResponse response) {
+    public void download(@PathVariable Long versionId, HttpServletRequest request, HttpServletResponse response) {
         BamsArchiveVersion version = bamsArchiveVersionService.selectBamsArchiveVersionByVersionId(versionId);
         if (version == null) {
             return;
         }
 
         try {
-            String filePath = RuoYiConfig.getProfile() + version.getFilePath();
-            File file = new File(filePath);
-
-            if (!file.exists()) {
-                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                response.getWriter().write("文件不存在");
-                return;
-            }
-
-            // 根据文件类型设置 Content-Type
-            String contentType = getContentType(version.getFileName());
-            response.setContentType(contentType);
-            response.setCharacterEncoding("UTF-8");
-            response.setContentLengthLong(file.length());
-
             // 设置下载文件名
             String fileName = URLEncoder.encode(version.getFileName(), StandardCharsets.UTF_8);
-            response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
-
-            // 读取文件并输出
-            try (InputStream inputStream = new FileInputStream(file);
-                    OutputStream outputStream = response.getOutputStream()) {
-                byte[] buffer = new byte[8192];
-                int bytesRead;
-                while ((bytesRead = inputStream.read(buffer)) != -1) {
-                    outputStream.write(buffer, 0, bytesRead);
-                }
-                outputStream.flush();
-            }
+            writeVersionFile(version, request, response, "attachment; filename=\"" + fileName + "\"");
         } catch (IOException e) {
             logger.error("下载文件失败：{}", e.getMessage());
         }
     }
 
     /**
-     * 在线预览文件
+     * 在线预览文件（支持 Range 分段加载和 ETag 协商缓存）
      */
     @PreAuthorize("@ss.hasPermi('system:archive:query')")
     @GetMapping("/preview/{versionId}")
-    public void preview(@PathVariable Long versionId, HttpServletResponse response) {
+    public void preview(@PathVariable Long versionId, HttpServletRequest request, HttpServletResponse response) {
         BamsArchiveVersion version = bamsArchiveVersionService.selectBamsArchiveVersionByVersionId(versionId);
         if (version == null) {
             return;
         }
 
         try {
-            String filePath = RuoYiConfig.getProfile() + version.getFilePath();
-            File file = new File(filePath);
-
-            if (!file.exists()) {
-                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                response.getWriter().write("文件不存在");
-                return;
-            }
-
-            // 根据文件类型设置 Content-Type
-            String contentType = getContentType(version.getFileName());
-            response.setContentType(contentType);
-            response.setCharacterEncoding("UTF-8");
-            response.setContentLengthLong(file.length());
-            response.setHeader("Content-Disposition", "inline");
-
-            // 读取文件并输出
-            try (InputStream inputStream = new FileInputStream(file);
-                    OutputStream outputStream = response.getOutputStream()) {
-                byte[] buffer = new byte[8192];
-                int bytesRead;
-                while ((bytesRead = inputStream.read(buffer)) != -1) {
-                    outputStream.write(buffer, 0, bytesRead);
-                }
-                outputStream.flush();
-            }
+            writeVersionFile(version, request, response, "inline");
         } catch (IOException e) {
             logger.error("预览文件失败：{}", e.getMessage());
         }
     }
 
+    /**
+     * 获取缩略图（type=thumb）或预览图（type=preview），尚未生成时返回 404 并在后台生成
+     */
+    @PreAuthorize("@ss.hasPermi('system:archive:query')")
+    @GetMapping("/rendition/{versionId}")
+    public void rendition(@PathVariable Long versionId,
+            @RequestParam(value = "type", defaultValue = IBamsRenditionService.TYPE_THUMB) String type,
+            HttpServletRequest request, HttpServletResponse response) {
+        BamsArchiveVersion version = bamsArchiveVersionService.selectBamsArchiveVersionByVersionId(versionId);
+        File file = version != null ? renditionService.getRendition(version, type) : null;
+        if (file == null) {
+            response.setHeader("Cache-Control", "no-store");
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        try {
+            response.setContentType(renditionService.getContentType(type));
+            response.setHeader("Content-Disposition", "inline");
+            // 版本文件不可变，缩略图随之不变，允许浏览器长期缓存
+            response.setHeader("Cache-Control", "private, max-age=31536000, immutable");
+            FileRangeUtils.writeFile(request, response, file, version.getFileHash() + "-" + type);
+        } catch (IOException e) {
+            logger.error("获取缩略图失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 输出版本文件，使用文件哈希值作为强 ETag
+     */
+    private void writeVersionFile(BamsArchiveVersion version, HttpServletRequest request,
+            HttpServletResponse response, String contentDisposition) throws IOException {
+        File file = new File(RuoYiConfig.getProfile() + version.getFilePath());
+        if (!file.exists()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            response.getWriter().write("文件不存在");
+            return;
+        }
+
+        // 根据文件类型设置 Content-Type
+        response.setContentType(getContentType(version.getFileName()));
+        response.setHeader("Content-Disposition", contentDisposition);
+        // 版本文件内容不可变，允许浏览器私有缓存，每次使用前通过 ETag 校验
+        response.setHeader("Cache-Control", "private, no-cache");
+        FileRangeUtils.writeFile(request, response, file, version.getFileHash());
+    }
+
     /**
      * 根据文件名获取 Content-Type
      */
@@ -0,0 +1,79 @@
+package com.ruoyi.web.controller.system;
+
+import java.io.File;
+import java.util.List;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.ruoyi.common.annotation.Log;
+import com.ruoyi.common.core.controller.BaseController;
+import com.ruoyi.common.core.domain.AjaxResult;
+import com.ruoyi.common.core.page.TableDataInfo;
+import com.ruoyi.common.enums.BusinessType;
+import com.ruoyi.common.utils.file.FileRangeUtils;
+import com.ruoyi.common.utils.file.FileUtils;
+import com.ruoyi.system.domain.BamsExportJob;
+import com.ruoyi.system.service.IBamsExportJobService;
+
+/**
+ * 后台导出任务Controller（任务由各模块的 /exportJob 接口提交，这里只负责查询、下载和删除本人的任务）
+ *
+ * @author ruoyi
+ */
+@RestController
+@RequestMapping("/system/exportJob")
+public class BamsExportJobController extends BaseController
+{
+    @Autowired
+    private IBamsExportJobService exportJobService;
+
+    /**
+     * 查询当前用户的导出任务列表
+     */
+    @GetMapping("/list")
+    public TableDataInfo list(BamsExportJob bamsExportJob)
+    {
+        startPage();
+        List<BamsExportJob> list = exportJobService.selectExportJobList(bamsExportJob);
+        return getDataTable(list);
+    }
+
+    /**
+     * 查询导出任务状态及进度
+     */
+    @GetMapping("/{jobId}")
+    public AjaxResult getInfo(@PathVariable("jobId") Long jobId)
+    {
+        return success(exportJobService.selectExportJobById(jobId));
+    }
+
+    /**
+     * 下载导出结果文件（支持断点续传）
+     */
+    @GetMapping("/{jobId}/download")
+    public void download(@PathVariable("jobId") Long jobId, HttpServletRequest request, HttpServletResponse response)
+            throws Exception
+    {
+        BamsExportJob job = exportJobService.selectExportJobById(jobId);
+        File file = exportJobService.getExportFile(job);
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        FileUtils.setAttachmentResponseHeader(response, job.getFileName());
+        FileRangeUtils.writeFile(request, response, file, null);
+    }
+
+    /**
+     * 删除导出任务
+     */
+    @Log(title = "导出任务", businessType = BusinessType.DELETE)
+    @DeleteMapping("/{jobIds}")
+    public AjaxResult remove(@PathVariable Long[] jobIds)
+    {
+        return toAjax(exportJobService.deleteExportJobByIds(jobIds));
+    }
+}
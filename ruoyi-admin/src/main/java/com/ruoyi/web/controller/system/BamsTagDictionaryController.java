@@ -20,6 +20,7 @@ import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.common.enums.BusinessType;
 import com.ruoyi.system.domain.BamsTagDictionary;
 import com.ruoyi.system.service.IBamsTagDictionaryService;
+import com.ruoyi.system.service.IBamsTagRegistryService;
 import com.ruoyi.common.core.page.TableDataInfo;
 
 /**
@@ -35,6 +36,9 @@ public class BamsTagDictionaryController extends BaseController
     @Autowired
     private IBamsTagDictionaryService bamsTagDictionaryService;
 
+    @Autowired
+    private IBamsTagRegistryService tagRegistryService;
+
     /**
      * 查询标签字典列表
      */
@@ -113,6 +117,17 @@ public class BamsTagDictionaryController extends BaseController
         return toAjax(bamsTagDictionaryService.deleteBamsTagDictionaryByTagIds(tagIds));
     }
 
+    /**
+     * 按档案标签校准使用次数
+     */
+    @PreAuthorize("@ss.hasPermi('system:tag:edit')")
+    @Log(title = "标签字典", businessType = BusinessType.UPDATE)
+    @PostMapping("/reconcile")
+    public AjaxResult reconcile()
+    {
+        return success(tagRegistryService.reconcileUsageCount());
+    }
+
     /**
      * 校验标签名称唯一性
      */
@@ -12,6 +12,21 @@ public class CacheConstants
      */
     public static final String LOGIN_TOKEN_KEY = "login_tokens:";
 
+    /**
+     * 在线会话索引 redis key（有序集合，成员为令牌 uuid，分值为会话过期时间）
+     */
+    public static final String LOGIN_SESSION_INDEX_KEY = "login_sessions";
+
+    /**
+     * 按用户名的在线会话索引 redis key
+     */
+    public static final String LOGIN_SESSION_USER_KEY = "login_sessions:user:";
+
+    /**
+     * 按登录IP的在线会话索引 redis key
+     */
+    public static final String LOGIN_SESSION_IP_KEY = "login_sessions:ip:";
+
     /**
      * 验证码 redis key
      */
@@ -41,4 +56,39 @@ public class CacheConstants
      * 登录账户密码错误次数 redis key
      */
     public static final String PWD_ERR_CNT_KEY = "pwd_err_cnt:";
+
+    /**
+     * 档案分片上传会话 redis key
+     */
+    public static final String BAMS_UPLOAD_SESSION_KEY = "bams_upload_session:";
+
+    /**
+     * 档案编号流水号 redis key
+     */
+    public static final String BAMS_ARCHIVE_SEQ_KEY = "bams_archive_seq:";
+
+    /**
+     * 列表总数缓存 redis key
+     */
+    public static final String BAMS_LIST_COUNT_KEY = "bams_list_count:";
+
+    /**
+     * 档案详情（含版本列表） redis key
+     */
+    public static final String BAMS_ARCHIVE_KEY = "bams_archive:";
+
+    /**
+     * 档案版本列表 redis key
+     */
+    public static final String BAMS_ARCHIVE_VERSIONS_KEY = "bams_archive_versions:";
+
+    /**
+     * 档案分面统计 redis key
+     */
+    public static final String BAMS_ARCHIVE_FACET_KEY = "bams_archive_facet:";
+
+    /**
+     * 二级缓存失效通知频道
+     */
+    public static final String NEAR_CACHE_EVICT_CHANNEL = "near_cache_evict";
 }
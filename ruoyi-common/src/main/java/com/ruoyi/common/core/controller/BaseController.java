@@ -3,6 +3,7 @@ package com.ruoyi.common.core.controller;
 import java.beans.PropertyEditorSupport;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.WebDataBinder;
@@ -12,7 +13,9 @@ import com.github.pagehelper.PageInfo;
 import com.ruoyi.common.constant.HttpStatus;
 import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.core.page.CursorPage;
 import com.ruoyi.common.core.page.PageDomain;
+import com.ruoyi.common.core.page.TableCursorInfo;
 import com.ruoyi.common.core.page.TableDataInfo;
 import com.ruoyi.common.core.page.TableSupport;
 import com.ruoyi.common.utils.DateUtils;
@@ -90,6 +93,58 @@ public class BaseController
         return rspData;
     }
 
+    /**
+     * 响应请求分页数据（非数据库查询，已在内存中分页）
+     *
+     * @param list 当前页数据
+     * @param total 总记录数
+     */
+    protected TableDataInfo getDataTable(List<?> list, long total)
+    {
+        TableDataInfo rspData = new TableDataInfo();
+        rspData.setCode(HttpStatus.SUCCESS);
+        rspData.setMsg("查询成功");
+        rspData.setRows(list);
+        rspData.setTotal(total);
+        return rspData;
+    }
+
+    /**
+     * 设置请求游标分页数据
+     */
+    protected CursorPage startCursorPage()
+    {
+        return CursorPage.buildCursorRequest();
+    }
+
+    /**
+     * 响应请求游标分页数据
+     *
+     * @param list 按游标查询的结果（最多 pageSize + 1 条）
+     * @param page 游标分页
+     * @param timeOf 取记录时间
+     * @param idOf 取记录主键
+     * @param total 总记录数，未统计时为空
+     */
+    protected <T> TableCursorInfo getCursorTable(List<T> list, CursorPage page, Function<T, Date> timeOf,
+            Function<T, Long> idOf, Long total)
+    {
+        boolean hasMore = list.size() > page.getPageSize();
+        List<T> rows = hasMore ? list.subList(0, page.getPageSize()) : list;
+        TableCursorInfo rspData = new TableCursorInfo();
+        rspData.setCode(HttpStatus.SUCCESS);
+        rspData.setMsg("查询成功");
+        rspData.setRows(rows);
+        rspData.setHasMore(hasMore);
+        rspData.setTotal(total);
+        if (hasMore)
+        {
+            T last = rows.get(rows.size() - 1);
+            rspData.setNextCursor(CursorPage.encode(timeOf.apply(last), idOf.apply(last)));
+        }
+        return rspData;
+    }
+
     /**
      * 返回成功
      */
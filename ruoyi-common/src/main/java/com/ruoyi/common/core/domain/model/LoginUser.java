@@ -71,6 +71,11 @@ public class LoginUser implements UserDetails
      */
     private SysUser user;
 
+    /**
+     * 编译后的权限，不缓存到 Redis，权限或用户信息变更时清除
+     */
+    private transient volatile PermissionBits permissionBits;
+
     public LoginUser()
     {
     }
@@ -246,6 +251,7 @@ public class LoginUser implements UserDetails
     public void setPermissions(Set<String> permissions)
     {
         this.permissions = permissions;
+        this.permissionBits = null;
     }
 
     public SysUser getUser()
@@ -256,6 +262,18 @@ public class LoginUser implements UserDetails
     public void setUser(SysUser user)
     {
         this.user = user;
+        this.permissionBits = null;
+    }
+
+    @JSONField(serialize = false)
+    public PermissionBits getPermissionBits()
+    {
+        return permissionBits;
+    }
+
+    public void setPermissionBits(PermissionBits permissionBits)
+    {
+        this.permissionBits = permissionBits;
     }
 
     @Override
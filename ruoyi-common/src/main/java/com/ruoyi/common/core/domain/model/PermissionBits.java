@@ -0,0 +1,78 @@
+package com.ruoyi.common.core.domain.model;
+
+import java.util.Set;
+
+/**
+ * 登录用户编译后的权限（权限按编号存为位图，角色存为集合）
+ *
+ * 权限编号由权限编号表统一分配，只增不减，同一权限字符串在进程内编号不变。
+ *
+ * @author ruoyi
+ */
+public class PermissionBits
+{
+    /** 权限位图，第 n 位表示编号为 n 的权限 */
+    private final long[] bits;
+
+    /** 是否拥有所有权限（*:*:*） */
+    private final boolean allPermission;
+
+    /** 角色权限字符串 */
+    private final Set<String> roleKeys;
+
+    /** 是否为超级管理员角色 */
+    private final boolean superAdmin;
+
+    public PermissionBits(long[] bits, boolean allPermission, Set<String> roleKeys, boolean superAdmin)
+    {
+        this.bits = bits;
+        this.allPermission = allPermission;
+        this.roleKeys = roleKeys;
+        this.superAdmin = superAdmin;
+    }
+
+    /**
+     * 是否拥有指定编号的权限
+     *
+     * @param id 权限编号，小于 0 表示未登记的权限
+     * @return 结果
+     */
+    public boolean has(int id)
+    {
+        if (allPermission)
+        {
+            return true;
+        }
+        int index = id >>> 6;
+        return id >= 0 && index < bits.length && (bits[index] & (1L << id)) != 0;
+    }
+
+    /**
+     * 是否拥有任意一个编号的权限
+     *
+     * @param ids 权限编号
+     * @return 结果
+     */
+    public boolean hasAny(int[] ids)
+    {
+        for (int id : ids)
+        {
+            if (has(id))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否拥有角色（超级管理员拥有所有角色）
+     *
+     * @param roleKey 角色权限字符串
+     * @return 结果
+     */
+    public boolean hasRole(String roleKey)
+    {
+        return superAdmin || roleKeys.contains(roleKey);
+    }
+}
@@ -0,0 +1,126 @@
+package com.ruoyi.common.core.page;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import com.ruoyi.common.core.text.Convert;
+import com.ruoyi.common.exception.ServiceException;
+import com.ruoyi.common.utils.ServletUtils;
+import com.ruoyi.common.utils.StringUtils;
+
+/**
+ * 游标分页请求（按 时间 DESC, 主键 DESC 翻页）
+ *
+ * 游标是上一页最后一条记录的（时间，主键），编码为不透明字符串，翻页时只查询游标之后的 pageSize + 1 条，
+ * 多出的一条用于判断是否还有下一页；每页耗时与所在页数无关。
+ *
+ * @author ruoyi
+ */
+public class CursorPage
+{
+    /** 游标参数名 */
+    public static final String CURSOR = "cursor";
+
+    /** 是否统计总数参数名 */
+    public static final String WITH_COUNT = "withCount";
+
+    /** 每页最大记录数 */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /** 游标版本前缀 */
+    private static final String TOKEN_PREFIX = "c1:";
+
+    /** 游标时间（为空表示第一页） */
+    private Date cursorTime;
+
+    /** 游标主键 */
+    private Long cursorId;
+
+    /** 每页显示记录数 */
+    private int pageSize;
+
+    /** 是否统计总数 */
+    private boolean withCount;
+
+    /**
+     * 从请求参数（cursor、pageSize、withCount）构建游标分页
+     */
+    public static CursorPage buildCursorRequest()
+    {
+        CursorPage page = new CursorPage();
+        int pageSize = Convert.toInt(ServletUtils.getParameter(TableSupport.PAGE_SIZE), 10);
+        page.pageSize = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        page.withCount = ServletUtils.getParameterToBool(WITH_COUNT, false);
+        String cursor = ServletUtils.getParameter(CURSOR);
+        if (StringUtils.isNotEmpty(cursor))
+        {
+            page.decode(cursor);
+        }
+        return page;
+    }
+
+    /**
+     * 生成游标
+     *
+     * @param time 记录时间
+     * @param id 记录主键
+     * @return 游标
+     */
+    public static String encode(Date time, Long id)
+    {
+        String raw = TOKEN_PREFIX + time.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void decode(String cursor)
+    {
+        try
+        {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(TOKEN_PREFIX))
+            {
+                throw new IllegalArgumentException(raw);
+            }
+            String[] parts = raw.substring(TOKEN_PREFIX.length()).split(":");
+            this.cursorTime = new Date(Long.parseLong(parts[0]));
+            this.cursorId = Long.parseLong(parts[1]);
+        }
+        catch (RuntimeException e)
+        {
+            throw new ServiceException("分页游标无效，请从第一页重新查询");
+        }
+    }
+
+    /**
+     * 将游标条件写入查询参数（params.cursorTime、params.cursorId、params.cursorLimit）
+     *
+     * @param params 查询对象的 params
+     */
+    public void applyTo(Map<String, Object> params)
+    {
+        params.put("cursorTime", cursorTime);
+        params.put("cursorId", cursorId);
+        params.put("cursorLimit", pageSize + 1);
+    }
+
+    public Date getCursorTime()
+    {
+        return cursorTime;
+    }
+
+    public Long getCursorId()
+    {
+        return cursorId;
+    }
+
+    public int getPageSize()
+    {
+        return pageSize;
+    }
+
+    public boolean isWithCount()
+    {
+        return withCount;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ruoyi.common.core.page;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页数据对象
+ *
+ * @author ruoyi
+ */
+public class TableCursorInfo implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    /** 总记录数（未请求统计时为空） */
+    private Long total;
+
+    /** 列表数据 */
+    private List<?> rows;
+
+    /** 下一页游标（没有下一页时为空） */
+    private String nextCursor;
+
+    /** 是否还有下一页 */
+    private boolean hasMore;
+
+    /** 消息状态码 */
+    private int code;
+
+    /** 消息内容 */
+    private String msg;
+
+    public Long getTotal()
+    {
+        return total;
+    }
+
+    public void setTotal(Long total)
+    {
+        this.total = total;
+    }
+
+    public List<?> getRows()
+    {
+        return rows;
+    }
+
+    public void setRows(List<?> rows)
+    {
+        this.rows = rows;
+    }
+
+    public String getNextCursor()
+    {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor)
+    {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore()
+    {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore)
+    {
+        this.hasMore = hasMore;
+    }
+
+    public int getCode()
+    {
+        return code;
+    }
+
+    public void setCode(int code)
+    {
+        this.code = code;
+    }
+
+    public String getMsg()
+    {
+        return msg;
+    }
+
+    public void setMsg(String msg)
+    {
+        this.msg = msg;
+    }
+}
@@ -0,0 +1,170 @@
+package com.ruoyi.common.core.redis;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.filter.Filter;
+import com.ruoyi.common.constant.Constants;
+
+/**
+ * Redis使用二进制格式（FastJson2 JSONB）序列化
+ *
+ * 数据格式：魔数(1) + 版本(1) + 标志(1) + [压缩前长度(4)] + 数据，超过阈值的数据使用 Deflate 压缩。
+ * 读取时同时兼容原有的 JSON 文本格式，JSON 与二进制格式可按键前缀逐步切换。
+ * 反序列化后的结构与 JSON 格式一致（集合为 JSONArray，Map 为 JSONObject，实体类保持原类型）。
+ *
+ * @author ruoyi
+ */
+public class JsonbRedisSerializer implements RedisSerializer<Object>
+{
+    /** 魔数，JSON 文本的首字节均为 ASCII 字符，不会与之冲突 */
+    private static final byte MAGIC = (byte) 0xFE;
+
+    /** 当前格式版本 */
+    private static final byte VERSION = 1;
+
+    /** 标志位：数据已压缩 */
+    private static final byte FLAG_COMPRESSED = 1;
+
+    private static final int HEADER_LENGTH = 3;
+
+    static final Filter AUTO_TYPE_FILTER = JSONReader.autoTypeFilter(Constants.JSON_WHITELIST_STR);
+
+    /** 压缩阈值（字节），小于等于 0 时不压缩 */
+    private final int compressThreshold;
+
+    public JsonbRedisSerializer(int compressThreshold)
+    {
+        this.compressThreshold = compressThreshold;
+    }
+
+    /**
+     * 判断数据是否为二进制格式
+     *
+     * @param bytes Redis 中的原始数据
+     * @return 结果
+     */
+    public static boolean isBinary(byte[] bytes)
+    {
+        return bytes != null && bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC;
+    }
+
+    @Override
+    public byte[] serialize(Object t) throws SerializationException
+    {
+        if (t == null)
+        {
+            return new byte[0];
+        }
+        byte[] data = JSONB.toBytes(t, JSONWriter.Feature.WriteClassName,
+                JSONWriter.Feature.NotWriteHashMapArrayListClassName);
+        if (compressThreshold > 0 && data.length > compressThreshold)
+        {
+            byte[] compressed = compress(data);
+            // 压缩后反而更大时按原样保存
+            if (compressed.length + 4 < data.length)
+            {
+                return ByteBuffer.allocate(HEADER_LENGTH + 4 + compressed.length)
+                        .put(MAGIC).put(VERSION).put(FLAG_COMPRESSED)
+                        .putInt(data.length).put(compressed).array();
+            }
+        }
+        return ByteBuffer.allocate(HEADER_LENGTH + data.length)
+                .put(MAGIC).put(VERSION).put((byte) 0).put(data).array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException
+    {
+        if (bytes == null || bytes.length <= 0)
+        {
+            return null;
+        }
+        if (!isBinary(bytes))
+        {
+            // 切换前写入的 JSON 格式
+            return JSON.parseObject(new String(bytes, StandardCharsets.UTF_8), Object.class, AUTO_TYPE_FILTER);
+        }
+        if (bytes[1] != VERSION)
+        {
+            throw new SerializationException("不支持的缓存数据版本：" + bytes[1]);
+        }
+        byte[] data;
+        if ((bytes[2] & FLAG_COMPRESSED) != 0)
+        {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+            int length = buffer.getInt();
+            data = decompress(bytes, HEADER_LENGTH + 4, length);
+        }
+        else
+        {
+            data = new byte[bytes.length - HEADER_LENGTH];
+            System.arraycopy(bytes, HEADER_LENGTH, data, 0, data.length);
+        }
+        return JSONB.parseObject(data, Object.class, AUTO_TYPE_FILTER);
+    }
+
+    private static byte[] compress(byte[] data)
+    {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try
+        {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished())
+            {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] bytes, int offset, int length)
+    {
+        Inflater inflater = new Inflater(true);
+        try
+        {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            byte[] data = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished())
+            {
+                int count = inflater.inflate(data, read, length - read);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    break;
+                }
+                read += count;
+            }
+            if (read != length)
+            {
+                throw new SerializationException("缓存数据解压失败：长度不一致");
+            }
+            return data;
+        }
+        catch (DataFormatException e)
+        {
+            throw new SerializationException("缓存数据解压失败", e);
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+}
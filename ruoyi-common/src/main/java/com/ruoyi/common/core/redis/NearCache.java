@@ -0,0 +1,166 @@
+package com.ruoyi.common.core.redis;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * 二级缓存（本地 Caffeine + Redis），由 NearCacheManager 创建
+ *
+ * 读取顺序为本地缓存、Redis、数据源，同一个键的并发加载只会访问一次数据源；
+ * 失效时删除 Redis 中的值，并通过发布订阅通知所有节点清除本地副本。
+ * 返回的对象在多个请求之间共享，调用方不得修改。
+ *
+ * @author ruoyi
+ */
+public class NearCache<V>
+{
+    private final String keyPrefix;
+
+    private final Type valueType;
+
+    private final int redisTimeout;
+
+    private final Cache<String, V> localCache;
+
+    private final RedisCache redisCache;
+
+    private final NearCacheManager manager;
+
+    NearCache(String keyPrefix, Type valueType, long maximumSize, int localTimeout, int redisTimeout,
+            RedisCache redisCache, NearCacheManager manager)
+    {
+        this.keyPrefix = keyPrefix;
+        this.valueType = valueType;
+        this.redisTimeout = redisTimeout;
+        this.redisCache = redisCache;
+        this.manager = manager;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(localTimeout, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 获取缓存的值，未命中时调用数据源加载并回填（数据源返回空时不缓存）
+     *
+     * @param key 缓存键
+     * @param loader 数据源
+     * @return 缓存的值
+     */
+    public V get(Object key, Supplier<V> loader)
+    {
+        return localCache.get(String.valueOf(key), id -> loadRemote(id, loader));
+    }
+
+    /**
+     * 写入缓存的值（Redis 及本节点），并通知其他节点清除本地副本
+     *
+     * @param key 缓存键
+     * @param value 缓存的值
+     */
+    public void put(Object key, V value)
+    {
+        String id = String.valueOf(key);
+        redisCache.setCacheObject(keyPrefix + id, value, redisTimeout, TimeUnit.SECONDS);
+        localCache.put(id, value);
+        manager.publishEvict(keyPrefix, Collections.singletonList(id));
+    }
+
+    /**
+     * 失效指定的键（本节点及其他节点）
+     *
+     * @param keys 缓存键集合
+     */
+    public void evict(Collection<?> keys)
+    {
+        if (keys == null || keys.isEmpty())
+        {
+            return;
+        }
+        List<String> ids = new ArrayList<>(keys.size());
+        List<String> redisKeys = new ArrayList<>(keys.size());
+        for (Object key : keys)
+        {
+            String id = String.valueOf(key);
+            ids.add(id);
+            redisKeys.add(keyPrefix + id);
+        }
+        localCache.invalidateAll(ids);
+        redisCache.deleteObject(redisKeys);
+        manager.publishEvict(keyPrefix, ids);
+    }
+
+    /**
+     * 清空缓存（本节点及其他节点）
+     */
+    public void clear()
+    {
+        localCache.invalidateAll();
+        redisCache.deleteKeys(keyPrefix + "*");
+        manager.publishEvict(keyPrefix, null);
+    }
+
+    /**
+     * 清除本地副本（收到其他节点的失效通知时调用）
+     *
+     * @param ids 缓存键集合，为空时清除全部
+     */
+    void evictLocal(Collection<String> ids)
+    {
+        if (ids == null)
+        {
+            localCache.invalidateAll();
+        }
+        else
+        {
+            localCache.invalidateAll(ids);
+        }
+    }
+
+    public String getKeyPrefix()
+    {
+        return keyPrefix;
+    }
+
+    private V loadRemote(String id, Supplier<V> loader)
+    {
+        String redisKey = keyPrefix + id;
+        Object cached = redisCache.getCacheObject(redisKey);
+        if (cached != null)
+        {
+            return decode(cached);
+        }
+        V value = loader.get();
+        if (value != null)
+        {
+            redisCache.setCacheObject(redisKey, value, redisTimeout, TimeUnit.SECONDS);
+        }
+        return value;
+    }
+
+    /**
+     * Redis 中的集合等类型反序列化后为 JSON 结构，需要转换为目标类型
+     */
+    @SuppressWarnings("unchecked")
+    private V decode(Object cached)
+    {
+        if (cached instanceof JSONArray)
+        {
+            return ((JSONArray) cached).to(valueType);
+        }
+        if (cached instanceof JSONObject)
+        {
+            return ((JSONObject) cached).to(valueType);
+        }
+        return (V) cached;
+    }
+}
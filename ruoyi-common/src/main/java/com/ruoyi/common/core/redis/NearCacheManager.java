@@ -0,0 +1,143 @@
+package com.ruoyi.common.core.redis;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.utils.uuid.IdUtils;
+
+/**
+ * 二级缓存管理
+ *
+ * 各节点通过 Redis 发布订阅频道互相通知本地缓存失效，本节点发出的通知会被忽略。
+ *
+ * @author ruoyi
+ */
+@Component
+public class NearCacheManager
+{
+    private static final Logger log = LoggerFactory.getLogger(NearCacheManager.class);
+
+    /** 当前节点标识 */
+    private final String nodeId = IdUtils.fastSimpleUUID();
+
+    /** 缓存键前缀 -> 缓存 */
+    private final Map<String, NearCache<?>> caches = new ConcurrentHashMap<>();
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 创建二级缓存
+     *
+     * @param keyPrefix Redis 键前缀（同时作为缓存名称）
+     * @param valueType 值类型（集合类型需带泛型参数）
+     * @param maximumSize 本地缓存最大条数
+     * @param localTimeout 本地缓存有效期（秒），作为失效通知丢失时的兜底
+     * @param redisTimeout Redis 缓存有效期（秒）
+     * @return 二级缓存
+     */
+    public <V> NearCache<V> createCache(String keyPrefix, Type valueType, long maximumSize, int localTimeout,
+            int redisTimeout)
+    {
+        NearCache<V> cache = new NearCache<V>(keyPrefix, valueType, maximumSize, localTimeout, redisTimeout,
+                redisCache, this);
+        caches.put(keyPrefix, cache);
+        return cache;
+    }
+
+    /**
+     * 清空缓存名称（键前缀）对应的二级缓存，未注册时不做处理
+     *
+     * @param keyPrefix 缓存键前缀
+     */
+    public void clear(String keyPrefix)
+    {
+        NearCache<?> cache = caches.get(keyPrefix);
+        if (cache != null)
+        {
+            cache.clear();
+        }
+    }
+
+    /**
+     * 按 Redis 键失效对应的二级缓存条目，键不属于任何二级缓存时不做处理
+     *
+     * @param redisKey Redis 键
+     */
+    public void evictKey(String redisKey)
+    {
+        for (NearCache<?> cache : caches.values())
+        {
+            if (redisKey.startsWith(cache.getKeyPrefix()))
+            {
+                cache.evict(Collections.singletonList(redisKey.substring(cache.getKeyPrefix().length())));
+            }
+        }
+    }
+
+    /**
+     * 清空全部二级缓存
+     */
+    public void clearAll()
+    {
+        for (NearCache<?> cache : caches.values())
+        {
+            cache.clear();
+        }
+    }
+
+    /**
+     * 发布失效通知
+     *
+     * @param keyPrefix 缓存键前缀
+     * @param ids 缓存键集合，为空表示全部
+     */
+    void publishEvict(String keyPrefix, Collection<String> ids)
+    {
+        JSONObject message = new JSONObject();
+        message.put("node", nodeId);
+        message.put("cache", keyPrefix);
+        message.put("keys", ids);
+        try
+        {
+            stringRedisTemplate.convertAndSend(CacheConstants.NEAR_CACHE_EVICT_CHANNEL, message.toJSONString());
+        }
+        catch (RuntimeException e)
+        {
+            // 其他节点的本地副本会在有效期后自动过期
+            log.warn("发布缓存失效通知失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 处理其他节点的失效通知
+     *
+     * @param body 消息内容
+     */
+    public void handleEvictMessage(String body)
+    {
+        JSONObject message = JSON.parseObject(body);
+        if (message == null || nodeId.equals(message.getString("node")))
+        {
+            return;
+        }
+        NearCache<?> cache = caches.get(message.getString("cache"));
+        if (cache != null)
+        {
+            cache.evictLocal(message.containsKey("keys") ? message.getList("keys", String.class) : null);
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.ruoyi.common.core.redis;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.BoundSetOperations;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
 /**
@@ -22,9 +29,32 @@ import org.springframework.stereotype.Component;
 @Component
 public class RedisCache
 {
+    /** SCAN 每次迭代及批量读取、删除的键数量 */
+    private static final int SCAN_BATCH_SIZE = 500;
+
     @Autowired
     public RedisTemplate redisTemplate;
 
+    /** 按键前缀单独指定值序列化方式的模板（键前缀 -> 模板） */
+    private final Map<String, RedisTemplate> prefixTemplates = new ConcurrentHashMap<>();
+
+    /**
+     * 指定键前缀写入时使用的值序列化方式，仅影响 setCacheObject；
+     * 读取仍使用默认的序列化方式，需要能够识别各前缀写入的格式
+     *
+     * @param keyPrefix 键前缀
+     * @param serializer 值序列化方式
+     */
+    public void setValueSerializer(final String keyPrefix, final RedisSerializer<?> serializer)
+    {
+        RedisTemplate template = new RedisTemplate();
+        template.setConnectionFactory(redisTemplate.getConnectionFactory());
+        template.setKeySerializer(redisTemplate.getKeySerializer());
+        template.setValueSerializer(serializer);
+        template.afterPropertiesSet();
+        prefixTemplates.put(keyPrefix, template);
+    }
+
     /**
      * 缓存基本的对象，Integer、String、实体类等
      *
@@ -33,7 +63,7 @@ public class RedisCache
      */
     public <T> void setCacheObject(final String key, final T value)
     {
-        redisTemplate.opsForValue().set(key, value);
+        getValueTemplate(key).opsForValue().set(key, value);
     }
 
     /**
@@ -46,7 +76,7 @@ public class RedisCache
      */
     public <T> void setCacheObject(final String key, final T value, final Integer timeout, final TimeUnit timeUnit)
     {
-        redisTemplate.opsForValue().set(key, value, timeout, timeUnit);
+        getValueTemplate(key).opsForValue().set(key, value, timeout, timeUnit);
     }
 
     /**
@@ -256,13 +286,108 @@ public class RedisCache
     }
 
     /**
-     * 获得缓存的基本对象列表
+     * 获得缓存的基本对象列表（使用 SCAN 迭代，不阻塞 Redis，重复返回的键只保留一次）
      *
      * @param pattern 字符串前缀
      * @return 对象列表
      */
     public Collection<String> keys(final String pattern)
     {
-        return redisTemplate.keys(pattern);
+        Set<String> keys = new LinkedHashSet<>();
+        scan(pattern, keys::addAll);
+        return keys;
+    }
+
+    /**
+     * 按批迭代匹配的键（SCAN），同一个键可能被返回多次，迭代期间新增或删除的键不保证返回
+     *
+     * @param pattern 匹配模式
+     * @param consumer 每批键的处理
+     */
+    public void scan(final String pattern, final Consumer<List<String>> consumer)
+    {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_BATCH_SIZE).build();
+        List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+        try (Cursor<String> cursor = redisTemplate.scan(options))
+        {
+            while (cursor.hasNext())
+            {
+                batch.add(cursor.next());
+                if (batch.size() >= SCAN_BATCH_SIZE)
+                {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>(SCAN_BATCH_SIZE);
+                }
+            }
+        }
+        if (!batch.isEmpty())
+        {
+            consumer.accept(batch);
+        }
+    }
+
+    /**
+     * 按批迭代匹配的键对应的值，每批使用一次 MGET 读取，已过期的键不返回
+     *
+     * @param pattern 匹配模式
+     * @param consumer 每批值的处理
+     */
+    public <T> void scanValues(final String pattern, final Consumer<List<T>> consumer)
+    {
+        scan(pattern, keys -> {
+            List<T> values = getMultiCacheObject(keys);
+            List<T> present = new ArrayList<>(values.size());
+            for (T value : values)
+            {
+                if (value != null)
+                {
+                    present.add(value);
+                }
+            }
+            consumer.accept(present);
+        });
+    }
+
+    /**
+     * 批量获取缓存的基本对象（MGET）
+     *
+     * @param keys 缓存键值集合
+     * @return 与键一一对应的值，不存在时为空
+     */
+    public <T> List<T> getMultiCacheObject(final Collection<String> keys)
+    {
+        List<T> values = redisTemplate.opsForValue().multiGet(keys);
+        return values != null ? values : new ArrayList<>();
+    }
+
+    /**
+     * 删除匹配的键，按批 SCAN 后使用 UNLINK 在后台释放内存
+     *
+     * @param pattern 匹配模式
+     * @return 删除的键数量
+     */
+    public long deleteKeys(final String pattern)
+    {
+        long[] count = { 0 };
+        scan(pattern, keys -> {
+            Long deleted = redisTemplate.unlink(keys);
+            count[0] += deleted != null ? deleted : 0;
+        });
+        return count[0];
+    }
+
+    /**
+     * 获取键写入时使用的模板
+     */
+    private RedisTemplate getValueTemplate(final String key)
+    {
+        for (Map.Entry<String, RedisTemplate> entry : prefixTemplates.entrySet())
+        {
+            if (key.startsWith(entry.getKey()))
+            {
+                return entry.getValue();
+            }
+        }
+        return redisTemplate;
     }
 }
@@ -105,7 +105,8 @@ public class ServletUtils
      */
     public static HttpServletRequest getRequest()
     {
-        return getRequestAttributes().getRequest();
+        ServletRequestAttributes attributes = getRequestAttributes();
+        return attributes == null ? null : attributes.getRequest();
     }
 
     /**
@@ -127,7 +128,8 @@ public class ServletUtils
     public static ServletRequestAttributes getRequestAttributes()
     {
         RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
-        return (ServletRequestAttributes) attributes;
+        // 后台线程中没有请求上下文
+        return attributes instanceof ServletRequestAttributes ? (ServletRequestAttributes) attributes : null;
     }
 
     /**
@@ -0,0 +1,227 @@
+package com.ruoyi.common.utils.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import com.ruoyi.common.utils.StringUtils;
+
+/**
+ * 文件分段输出工具类（支持 Range / ETag，容器支持 sendfile 时零拷贝传输）
+ *
+ * @author ruoyi
+ */
+public class FileRangeUtils
+{
+    /** Tomcat sendfile 相关的请求属性 */
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * 输出文件，支持条件请求（If-None-Match / If-Modified-Since）和单段 Range 请求
+     *
+     * @param request 请求
+     * @param response 响应，调用前需设置好 Content-Type、Content-Disposition 等头信息
+     * @param file 文件
+     * @param etag 强校验标识（如文件哈希值），为空时仅使用最后修改时间
+     */
+    public static void writeFile(HttpServletRequest request, HttpServletResponse response, File file, String etag)
+            throws IOException
+    {
+        long fileLength = file.length();
+        long lastModified = file.lastModified() / 1000 * 1000;
+        String quotedEtag = StringUtils.isNotEmpty(etag) ? "\"" + etag + "\"" : null;
+
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setDateHeader("Last-Modified", lastModified);
+        if (quotedEtag != null)
+        {
+            response.setHeader("ETag", quotedEtag);
+        }
+
+        // 缓存校验
+        if (isNotModified(request, quotedEtag, lastModified))
+        {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = fileLength - 1;
+        String range = request.getHeader("Range");
+        if (range != null && isRangeApplicable(request, quotedEtag, lastModified))
+        {
+            long[] bounds = parseRange(range, fileLength);
+            if (bounds == null)
+            {
+                response.setHeader("Content-Range", "bytes */" + fileLength);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2)
+            {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + fileLength);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (count <= 0 || "HEAD".equalsIgnoreCase(request.getMethod()))
+        {
+            return;
+        }
+        transfer(request, response, file, start, count);
+    }
+
+    /**
+     * 输出文件的指定区间
+     * 容器支持 sendfile 时交给 Tomcat 直接由内核发送（零拷贝）；否则经 Servlet 输出流复制，
+     * 此时 transferTo 的目标不是真正的通道，数据仍会经过堆内缓冲区
+     */
+    private static void transfer(HttpServletRequest request, HttpServletResponse response, File file, long start,
+            long count) throws IOException
+    {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR)))
+        {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.getCanonicalPath());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0)
+            {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0)
+                {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+            response.flushBuffer();
+        }
+    }
+
+    /**
+     * 判断客户端缓存是否仍然有效
+     */
+    private static boolean isNotModified(HttpServletRequest request, String quotedEtag, long lastModified)
+    {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null)
+        {
+            return quotedEtag != null && matchesEtag(ifNoneMatch, quotedEtag);
+        }
+        long ifModifiedSince = getDateHeader(request, "If-Modified-Since");
+        return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+    }
+
+    /**
+     * 判断 If-Range 条件是否满足，不满足时应返回完整文件
+     */
+    private static boolean isRangeApplicable(HttpServletRequest request, String quotedEtag, long lastModified)
+    {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null)
+        {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/"))
+        {
+            return ifRange.equals(quotedEtag);
+        }
+        long ifRangeDate = getDateHeader(request, "If-Range");
+        return ifRangeDate != -1 && lastModified <= ifRangeDate;
+    }
+
+    /**
+     * 解析 Range 请求头
+     *
+     * @return 单段区间 [start, end]；无法识别或多段时返回空数组（按完整文件输出）；区间无法满足时返回 null
+     */
+    private static long[] parseRange(String range, long fileLength)
+    {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0)
+        {
+            return new long[0];
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0)
+        {
+            return new long[0];
+        }
+        try
+        {
+            String startPart = spec.substring(0, dash).trim();
+            String endPart = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (startPart.isEmpty())
+            {
+                // bytes=-N 表示最后 N 个字节
+                long suffix = Long.parseLong(endPart);
+                if (suffix <= 0)
+                {
+                    return null;
+                }
+                start = Math.max(0, fileLength - suffix);
+                end = fileLength - 1;
+            }
+            else
+            {
+                start = Long.parseLong(startPart);
+                end = endPart.isEmpty() ? fileLength - 1 : Math.min(Long.parseLong(endPart), fileLength - 1);
+            }
+            if (start >= fileLength || start > end)
+            {
+                return null;
+            }
+            return new long[] { start, end };
+        }
+        catch (NumberFormatException e)
+        {
+            return new long[0];
+        }
+    }
+
+    private static boolean matchesEtag(String header, String quotedEtag)
+    {
+        for (String candidate : header.split(","))
+        {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || tag.equals(quotedEtag) || tag.equals("W/" + quotedEtag))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long getDateHeader(HttpServletRequest request, String name)
+    {
+        try
+        {
+            return request.getDateHeader(name);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return -1;
+        }
+    }
+}
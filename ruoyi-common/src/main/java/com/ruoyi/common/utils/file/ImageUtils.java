@@ -1,11 +1,26 @@
 package com.ruoyi.common.utils.file;
 
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.Arrays;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
 import org.apache.poi.util.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -95,4 +110,123 @@ public class ImageUtils
             IOUtils.closeQuietly(in);
         }
     }
+
+    /**
+     * 读取图片并缩小到指定尺寸以内
+     * 解码时按比例隔行采样，大图不会整张载入内存
+     *
+     * @param file 图片文件
+     * @param maxSize 宽、高的最大像素数
+     * @return 缩小后的图片，格式无法识别时返回 null
+     */
+    public static BufferedImage readScaled(File file, int maxSize) throws IOException
+    {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file))
+        {
+            if (in == null)
+            {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext())
+            {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try
+            {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                // 采样后仍保留不少于目标尺寸的像素，再做平滑缩放
+                int subsampling = Math.max(1, longest / maxSize);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return scale(reader.read(0, param), maxSize);
+            }
+            finally
+            {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 按比例缩小图片到指定尺寸以内，透明区域填充为白色
+     *
+     * @param source 原图
+     * @param maxSize 宽、高的最大像素数
+     * @return RGB 图片，原图已在尺寸以内时不放大
+     */
+    public static BufferedImage scale(BufferedImage source, int maxSize)
+    {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1d, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        // 缩小倍数较大时逐次减半，避免一次双线性插值丢失细节
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight)
+        {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current != source && current.getWidth() == targetWidth && current.getHeight() == targetHeight)
+        {
+            return current;
+        }
+        return draw(current, targetWidth, targetHeight);
+    }
+
+    /**
+     * 写出图片，jpg 格式按指定质量压缩
+     *
+     * @param image 图片
+     * @param format 格式（png、jpg）
+     * @param quality jpg 压缩质量（0-1）
+     * @param file 目标文件
+     */
+    public static void write(BufferedImage image, String format, float quality, File file) throws IOException
+    {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext())
+        {
+            throw new IOException("不支持的图片格式：" + format);
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file))
+        {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed() && !"png".equalsIgnoreCase(format))
+            {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        }
+        finally
+        {
+            writer.dispose();
+        }
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height)
+    {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try
+        {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        }
+        finally
+        {
+            g.dispose();
+        }
+        return target;
+    }
 }
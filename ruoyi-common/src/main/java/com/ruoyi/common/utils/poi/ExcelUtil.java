@@ -18,10 +18,12 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.ArrayUtils;
@@ -179,6 +181,11 @@ public class ExcelUtil<T>
      */
     private List<Field> subFields;
 
+    /**
+     * 导入数据对应的Excel行号（从1开始，跳过的空行不计入数据但保留行号）
+     */
+    private List<Integer> importRowNums = new ArrayList<Integer>();
+
     /**
      * 统计列表
      */
@@ -189,6 +196,21 @@ public class ExcelUtil<T>
      */
     private static final DecimalFormat DOUBLE_FORMAT = new DecimalFormat("######0.00");
 
+    /**
+     * 类声明字段缓存（含父类），每个类只反射一次
+     */
+    private static final Map<Class<?>, List<Field>> DECLARED_FIELD_CACHE = new ConcurrentHashMap<Class<?>, List<Field>>();
+
+    /**
+     * targetAttr 属性字段缓存
+     */
+    private static final Map<Class<?>, Map<String, Field>> TARGET_FIELD_CACHE = new ConcurrentHashMap<Class<?>, Map<String, Field>>();
+
+    /**
+     * 数据单元格样式缓存（按注解实例）
+     */
+    private Map<Excel, CellStyle> dataStyles = new IdentityHashMap<Excel, CellStyle>();
+
     /**
      * 实体对象
      */
@@ -333,6 +355,7 @@ public class ExcelUtil<T>
         this.type = Type.IMPORT;
         this.wb = WorkbookFactory.create(is);
         List<T> list = new ArrayList<T>();
+        this.importRowNums = new ArrayList<Integer>();
         // 如果指定sheet名,则取指定sheet中的内容 否则默认指向第1个sheet
         Sheet sheet = StringUtils.isNotEmpty(sheetName) ? wb.getSheet(sheetName) : wb.getSheetAt(0);
         if (sheet == null)
@@ -499,11 +522,22 @@ public class ExcelUtil<T>
                     }
                 }
                 list.add(entity);
+                importRowNums.add(i + 1);
             }
         }
         return list;
     }
 
+    /**
+     * 获取最近一次导入的数据对应的Excel行号，与导入结果一一对应
+     * 
+     * @return 行号集合（从1开始）
+     */
+    public List<Integer> getImportRowNums()
+    {
+        return importRowNums;
+    }
+
     /**
      * 对list数据源将其里面的数据导入到excel表单
      * 
@@ -560,6 +594,87 @@ public class ExcelUtil<T>
         exportExcel(response);
     }
 
+    /**
+     * 流式导出，逐行读取数据源（如 MyBatis Cursor）并经 SXSSF 滑动窗口直接写出到响应，内存占用与数据量无关
+     * 
+     * @param response 返回数据
+     * @param rows 导出数据源，只遍历一次
+     * @param sheetName 工作表的名称
+     */
+    public void exportExcelStream(HttpServletResponse response, Iterable<T> rows, String sheetName)
+    {
+        exportExcelStream(response, rows, sheetName, StringUtils.EMPTY);
+    }
+
+    /**
+     * 流式导出，逐行读取数据源（如 MyBatis Cursor）并经 SXSSF 滑动窗口直接写出到响应，内存占用与数据量无关
+     * 
+     * @param response 返回数据
+     * @param rows 导出数据源，只遍历一次
+     * @param sheetName 工作表的名称
+     * @param title 标题
+     */
+    public void exportExcelStream(HttpServletResponse response, Iterable<T> rows, String sheetName, String title)
+    {
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setCharacterEncoding("utf-8");
+        initStream(sheetName, title);
+        try
+        {
+            writeSheet(rows);
+            wb.write(response.getOutputStream());
+        }
+        catch (Exception e)
+        {
+            log.error("导出Excel异常{}", e.getMessage());
+        }
+        finally
+        {
+            ((SXSSFWorkbook) wb).dispose();
+            IOUtils.closeQuietly(wb);
+        }
+    }
+
+    /**
+     * 流式导出到输出流（如后台任务的结果文件），失败时抛出异常
+     * 
+     * @param out 输出流，由调用方关闭
+     * @param rows 导出数据源，只遍历一次
+     * @param sheetName 工作表的名称
+     */
+    public void exportExcelStream(OutputStream out, Iterable<T> rows, String sheetName)
+    {
+        initStream(sheetName, StringUtils.EMPTY);
+        try
+        {
+            writeSheet(rows);
+            wb.write(out);
+        }
+        catch (Exception e)
+        {
+            log.error("导出Excel异常{}", e.getMessage());
+            throw new UtilException("导出Excel失败，请联系网站管理员！");
+        }
+        finally
+        {
+            ((SXSSFWorkbook) wb).dispose();
+            IOUtils.closeQuietly(wb);
+        }
+    }
+
+    /**
+     * 初始化流式导出
+     */
+    private void initStream(String sheetName, String title)
+    {
+        this.init(null, sheetName, title, Type.EXPORT);
+        if (isSubList())
+        {
+            IOUtils.closeQuietly(wb);
+            throw new UtilException("流式导出不支持子列表字段");
+        }
+    }
+
     /**
      * 对list数据源将其里面的数据导入到excel表单
      * 
@@ -672,32 +787,72 @@ public class ExcelUtil<T>
             createSheet(sheetNo, index);
 
             // 产生一行
-            Row row = sheet.createRow(rownum);
-            int column = 0;
-            // 写入各个字段的列头名称
-            for (Object[] os : fields)
+            Row row = createHeadRow();
+            if (Type.EXPORT.equals(type))
             {
-                Field field = (Field) os[0];
-                Excel excel = (Excel) os[1];
-                if (Collection.class.isAssignableFrom(field.getType()))
-                {
-                    for (Field subField : subFields)
-                    {
-                        Excel subExcel = subField.getAnnotation(Excel.class);
-                        this.createHeadCell(subExcel, row, column++);
-                    }
-                }
-                else
+                fillExcelData(index, row);
+                addStatisticsRow();
+            }
+        }
+    }
+
+    /**
+     * 写入各个字段的列头名称
+     * 
+     * @return 列头行
+     */
+    private Row createHeadRow()
+    {
+        Row row = sheet.createRow(rownum);
+        int column = 0;
+        for (Object[] os : fields)
+        {
+            Field field = (Field) os[0];
+            Excel excel = (Excel) os[1];
+            if (Collection.class.isAssignableFrom(field.getType()))
+            {
+                for (Field subField : subFields)
                 {
-                    this.createHeadCell(excel, row, column++);
+                    Excel subExcel = subField.getAnnotation(Excel.class);
+                    this.createHeadCell(subExcel, row, column++);
                 }
             }
-            if (Type.EXPORT.equals(type))
+            else
+            {
+                this.createHeadCell(excel, row, column++);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * 流式写入数据到Sheet，边读取数据源边写入，超过 sheetSize 行时自动新建Sheet
+     * 
+     * @param rows 数据源
+     */
+    public void writeSheet(Iterable<T> rows)
+    {
+        int index = 0;
+        createHeadRow();
+        int rowNo = rownum;
+        for (T vo : rows)
+        {
+            if (rowNo - rownum >= sheetSize)
             {
-                fillExcelData(index, row);
                 addStatisticsRow();
+                index++;
+                createSheet(index + 1, index);
+                createHeadRow();
+                rowNo = rownum;
+            }
+            Row row = sheet.createRow(++rowNo);
+            int column = 0;
+            for (Object[] os : fields)
+            {
+                this.addCell((Excel) os[1], row, vo, (Field) os[0], column++);
             }
         }
+        addStatisticsRow();
     }
 
     /**
@@ -1088,7 +1243,7 @@ public class ExcelUtil<T>
                     CellRangeAddress cellAddress = new CellRangeAddress(subMergedFirstRowNum, subMergedLastRowNum, column, column);
                     sheet.addMergedRegion(cellAddress);
                 }
-                cell.setCellStyle(styles.get(StringUtils.format("data_{}_{}_{}_{}", attr.align(), attr.color(), attr.backgroundColor(), attr.cellType())));
+                cell.setCellStyle(getDataStyle(attr));
 
                 // 用于读取对象中的属性
                 Object value = getTargetValue(vo, field, attr);
@@ -1136,6 +1291,14 @@ public class ExcelUtil<T>
         return cell;
     }
 
+    /**
+     * 获取注解对应的数据单元格样式，按注解实例缓存，避免逐个单元格拼接样式键
+     */
+    private CellStyle getDataStyle(Excel attr)
+    {
+        return dataStyles.computeIfAbsent(attr, a -> styles.get(StringUtils.format("data_{}_{}_{}_{}", a.align(), a.color(), a.backgroundColor(), a.cellType())));
+    }
+
     /**
      * 设置 POI XSSFSheet 单元格提示或选择框
      * 
@@ -1461,9 +1624,14 @@ public class ExcelUtil<T>
     {
         if (StringUtils.isNotNull(o) && StringUtils.isNotEmpty(name))
         {
-            Class<?> clazz = o.getClass();
-            Field field = clazz.getDeclaredField(name);
-            field.setAccessible(true);
+            Map<String, Field> targetFields = TARGET_FIELD_CACHE.computeIfAbsent(o.getClass(), k -> new ConcurrentHashMap<String, Field>());
+            Field field = targetFields.get(name);
+            if (field == null)
+            {
+                field = o.getClass().getDeclaredField(name);
+                field.setAccessible(true);
+                targetFields.put(name, field);
+            }
             o = field.get(o);
         }
         return o;
@@ -1485,9 +1653,12 @@ public class ExcelUtil<T>
     public List<Object[]> getFields()
     {
         List<Object[]> fields = new ArrayList<Object[]>();
-        List<Field> tempFields = new ArrayList<>();
-        tempFields.addAll(Arrays.asList(clazz.getSuperclass().getDeclaredFields()));
-        tempFields.addAll(Arrays.asList(clazz.getDeclaredFields()));
+        List<Field> tempFields = DECLARED_FIELD_CACHE.computeIfAbsent(clazz, k -> {
+            List<Field> declaredFields = new ArrayList<>();
+            declaredFields.addAll(Arrays.asList(k.getSuperclass().getDeclaredFields()));
+            declaredFields.addAll(Arrays.asList(k.getDeclaredFields()));
+            return declaredFields;
+        });
         for (Field field : tempFields)
         {
             if (!ArrayUtils.contains(this.excludeFields, field.getName()))
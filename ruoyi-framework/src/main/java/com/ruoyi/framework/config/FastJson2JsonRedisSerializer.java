@@ -8,6 +8,7 @@ import com.alibaba.fastjson2.JSONReader;
 import com.alibaba.fastjson2.JSONWriter;
 import com.alibaba.fastjson2.filter.Filter;
 import com.ruoyi.common.constant.Constants;
+import com.ruoyi.common.core.redis.JsonbRedisSerializer;
 
 /**
  * Redis使用FastJson序列化
@@ -20,6 +21,9 @@ public class FastJson2JsonRedisSerializer<T> implements RedisSerializer<T>
 
     static final Filter AUTO_TYPE_FILTER = JSONReader.autoTypeFilter(Constants.JSON_WHITELIST_STR);
 
+    /** 读取按键前缀切换为二进制格式写入的数据 */
+    private static final JsonbRedisSerializer BINARY_SERIALIZER = new JsonbRedisSerializer(0);
+
     private Class<T> clazz;
 
     public FastJson2JsonRedisSerializer(Class<T> clazz)
@@ -39,12 +43,17 @@ public class FastJson2JsonRedisSerializer<T> implements RedisSerializer<T>
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public T deserialize(byte[] bytes) throws SerializationException
     {
         if (bytes == null || bytes.length <= 0)
         {
             return null;
         }
+        if (JsonbRedisSerializer.isBinary(bytes))
+        {
+            return (T) BINARY_SERIALIZER.deserialize(bytes);
+        }
         String str = new String(bytes, DEFAULT_CHARSET);
 
         return JSON.parseObject(str, clazz, AUTO_TYPE_FILTER);
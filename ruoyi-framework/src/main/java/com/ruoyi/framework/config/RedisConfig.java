@@ -1,5 +1,8 @@
 package com.ruoyi.framework.config;
 
+import java.nio.charset.StandardCharsets;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -7,7 +10,14 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.core.redis.JsonbRedisSerializer;
+import com.ruoyi.common.core.redis.NearCacheManager;
+import com.ruoyi.common.core.redis.RedisCache;
+import com.ruoyi.common.utils.StringUtils;
 
 /**
  * redis配置
@@ -40,6 +50,41 @@ public class RedisConfig extends CachingConfigurerSupport
         return template;
     }
 
+    /**
+     * 指定键前缀的缓存改用二进制格式写入，默认序列化可同时读取 JSON 和二进制两种格式
+     */
+    @Bean
+    public SmartInitializingSingleton redisValueSerializerInitializer(RedisCache redisCache,
+            @Value("${redis.serializer.binaryPrefixes:}") String[] binaryPrefixes,
+            @Value("${redis.serializer.compressThreshold:1024}") int compressThreshold)
+    {
+        return () -> {
+            JsonbRedisSerializer serializer = new JsonbRedisSerializer(compressThreshold);
+            for (String prefix : binaryPrefixes)
+            {
+                if (StringUtils.isNotBlank(prefix))
+                {
+                    redisCache.setValueSerializer(prefix.trim(), serializer);
+                }
+            }
+        };
+    }
+
+    /**
+     * 订阅二级缓存失效通知
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+            NearCacheManager nearCacheManager)
+    {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> nearCacheManager.handleEvictMessage(
+                new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CacheConstants.NEAR_CACHE_EVICT_CHANNEL));
+        return container;
+    }
+
     @Bean
     public DefaultRedisScript<Long> limitScript()
     {
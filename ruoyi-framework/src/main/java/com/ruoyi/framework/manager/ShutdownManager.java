@@ -2,7 +2,10 @@ package com.ruoyi.framework.manager;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import com.ruoyi.system.service.IBamsArchiveAuditLogService;
+import com.ruoyi.system.service.IBamsTagRegistryService;
 import jakarta.annotation.PreDestroy;
 
 /**
@@ -15,12 +18,52 @@ public class ShutdownManager
 {
     private static final Logger logger = LoggerFactory.getLogger("sys-user");
 
+    @Autowired
+    private IBamsArchiveAuditLogService auditLogService;
+
+    @Autowired
+    private IBamsTagRegistryService tagRegistryService;
+
     @PreDestroy
     public void destroy()
     {
+        shutdownAuditLogWriter();
+        shutdownTagRegistry();
         shutdownAsyncManager();
     }
 
+    /**
+     * 写完队列中剩余的档案审计日志
+     */
+    private void shutdownAuditLogWriter()
+    {
+        try
+        {
+            logger.info("====写入剩余档案审计日志====");
+            auditLogService.shutdownWriter();
+        }
+        catch (Exception e)
+        {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 写入内存中累计的标签使用次数
+     */
+    private void shutdownTagRegistry()
+    {
+        try
+        {
+            logger.info("====写入剩余标签使用次数====");
+            tagRegistryService.shutdown();
+        }
+        catch (Exception e)
+        {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
     /**
      * 停止异步执行任务
      */
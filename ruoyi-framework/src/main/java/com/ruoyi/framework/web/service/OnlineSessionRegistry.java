@@ -0,0 +1,250 @@
+package com.ruoyi.framework.web.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.core.redis.RedisCache;
+import com.ruoyi.common.utils.StringUtils;
+
+/**
+ * 在线会话索引
+ *
+ * 全部会话、各用户、各登录IP分别维护一个有序集合（成员为令牌 uuid，分值为会话过期时间，
+ * 每次刷新令牌时更新，即按最近访问排序）。查询、统计、批量下线只访问相关的会话；
+ * 已过期的成员在读取时按分值清理，会话被直接删除的成员在读取不到会话时清理。
+ *
+ * @author ruoyi
+ */
+@Component
+public class OnlineSessionRegistry
+{
+    private static final Logger log = LoggerFactory.getLogger(OnlineSessionRegistry.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    /**
+     * 索引不存在时（首次部署或被清空）按现有会话重建
+     */
+    @PostConstruct
+    public void init()
+    {
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(CacheConstants.LOGIN_SESSION_INDEX_KEY)))
+        {
+            return;
+        }
+        long[] count = { 0 };
+        redisCache.<LoginUser> scanValues(CacheConstants.LOGIN_TOKEN_KEY + "*", users -> {
+            for (LoginUser user : users)
+            {
+                register(user);
+                count[0]++;
+            }
+        });
+        log.info("重建在线会话索引，会话数：{}", count[0]);
+    }
+
+    /**
+     * 登记会话或更新会话的过期时间
+     *
+     * @param loginUser 登录用户
+     */
+    public void register(LoginUser loginUser)
+    {
+        if (loginUser == null || StringUtils.isEmpty(loginUser.getToken()) || loginUser.getExpireTime() == null)
+        {
+            return;
+        }
+        byte[] member = toBytes(loginUser.getToken());
+        double score = loginUser.getExpireTime();
+        long ttl = Math.max(1, loginUser.getExpireTime() - System.currentTimeMillis());
+        String userKey = getUserKey(loginUser.getUsername());
+        String ipKey = getIpKey(loginUser.getIpaddr());
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zAdd(toBytes(CacheConstants.LOGIN_SESSION_INDEX_KEY), score, member);
+            addSecondary(connection, userKey, score, member, ttl);
+            addSecondary(connection, ipKey, score, member, ttl);
+            return null;
+        });
+    }
+
+    /**
+     * 移除会话
+     *
+     * @param token 令牌 uuid
+     * @param loginUser 登录用户，已不存在时为空（只从全部会话中移除，其余索引按分值过期清理）
+     */
+    public void unregister(String token, LoginUser loginUser)
+    {
+        if (StringUtils.isEmpty(token))
+        {
+            return;
+        }
+        List<String> keys = new ArrayList<>(3);
+        keys.add(CacheConstants.LOGIN_SESSION_INDEX_KEY);
+        if (loginUser != null)
+        {
+            addIfNotNull(keys, getUserKey(loginUser.getUsername()));
+            addIfNotNull(keys, getIpKey(loginUser.getIpaddr()));
+        }
+        removeMembers(keys, List.of(token));
+    }
+
+    /**
+     * 统计在线会话数
+     *
+     * @return 会话数
+     */
+    public long countSessions()
+    {
+        prune(CacheConstants.LOGIN_SESSION_INDEX_KEY);
+        Long count = stringRedisTemplate.opsForZSet().zCard(CacheConstants.LOGIN_SESSION_INDEX_KEY);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 分页查询在线会话，按最近访问倒序
+     *
+     * @param offset 起始位置
+     * @param count 数量
+     * @return 令牌 uuid 集合
+     */
+    public List<String> selectTokens(long offset, long count)
+    {
+        prune(CacheConstants.LOGIN_SESSION_INDEX_KEY);
+        Set<String> tokens = stringRedisTemplate.opsForZSet().reverseRange(CacheConstants.LOGIN_SESSION_INDEX_KEY,
+                offset, offset + count - 1);
+        return tokens != null ? new ArrayList<>(tokens) : new ArrayList<>();
+    }
+
+    /**
+     * 按用户名、登录IP查询在线会话，按最近访问倒序
+     *
+     * @param userName 用户名，为空时不限
+     * @param ipaddr 登录IP，为空时不限
+     * @return 令牌 uuid 集合
+     */
+    public List<String> selectTokens(String userName, String ipaddr)
+    {
+        String userKey = getUserKey(userName);
+        String ipKey = getIpKey(ipaddr);
+        if (userKey == null && ipKey == null)
+        {
+            return selectTokens(0, Long.MAX_VALUE);
+        }
+        List<String> tokens = rangeAlive(userKey != null ? userKey : ipKey);
+        if (userKey != null && ipKey != null)
+        {
+            tokens.retainAll(new HashSet<>(rangeAlive(ipKey)));
+        }
+        return tokens;
+    }
+
+    /**
+     * 移除已不存在的会话（会话被直接删除或已过期）
+     *
+     * @param userName 查询时使用的用户名
+     * @param ipaddr 查询时使用的登录IP
+     * @param tokens 令牌 uuid 集合
+     */
+    public void removeStale(String userName, String ipaddr, Collection<String> tokens)
+    {
+        if (tokens.isEmpty())
+        {
+            return;
+        }
+        List<String> keys = new ArrayList<>(3);
+        keys.add(CacheConstants.LOGIN_SESSION_INDEX_KEY);
+        addIfNotNull(keys, getUserKey(userName));
+        addIfNotNull(keys, getIpKey(ipaddr));
+        removeMembers(keys, tokens);
+    }
+
+    /**
+     * 读取未过期的成员
+     */
+    private List<String> rangeAlive(String key)
+    {
+        prune(key);
+        Set<String> tokens = stringRedisTemplate.opsForZSet().reverseRangeByScore(key, System.currentTimeMillis(),
+                Double.POSITIVE_INFINITY);
+        return tokens != null ? new ArrayList<>(tokens) : new ArrayList<>();
+    }
+
+    /**
+     * 清理已过期的成员
+     */
+    private void prune(String key)
+    {
+        stringRedisTemplate.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY,
+                System.currentTimeMillis());
+    }
+
+    private void removeMembers(List<String> keys, Collection<String> tokens)
+    {
+        byte[][] members = new byte[tokens.size()][];
+        int i = 0;
+        for (String token : tokens)
+        {
+            members[i++] = toBytes(token);
+        }
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys)
+            {
+                connection.zSetCommands().zRem(toBytes(key), members);
+            }
+            return null;
+        });
+    }
+
+    private void addSecondary(RedisConnection connection, String key, double score, byte[] member, long ttl)
+    {
+        if (key == null)
+        {
+            return;
+        }
+        byte[] rawKey = toBytes(key);
+        connection.zSetCommands().zAdd(rawKey, score, member);
+        // 索引随该用户（IP）最晚过期的会话一起过期
+        connection.keyCommands().pExpire(rawKey, ttl);
+    }
+
+    private void addIfNotNull(List<String> keys, String key)
+    {
+        if (key != null)
+        {
+            keys.add(key);
+        }
+    }
+
+    private String getUserKey(String userName)
+    {
+        return StringUtils.isNotEmpty(userName) ? CacheConstants.LOGIN_SESSION_USER_KEY + userName : null;
+    }
+
+    private String getIpKey(String ipaddr)
+    {
+        return StringUtils.isNotEmpty(ipaddr) ? CacheConstants.LOGIN_SESSION_IP_KEY + ipaddr : null;
+    }
+
+    private static byte[] toBytes(String value)
+    {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,210 @@
+package com.ruoyi.framework.web.service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import com.ruoyi.common.constant.Constants;
+import com.ruoyi.common.core.domain.entity.SysRole;
+import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.core.domain.model.PermissionBits;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.system.service.ISysMenuService;
+
+/**
+ * 权限匹配
+ *
+ * 权限字符串统一登记为递增编号（启动时按菜单权限登记，之后出现的按需追加），用户权限编译为位图后缓存在登录用户上，
+ * 校验参数（如 @PreAuthorize 中的权限字符串）解析为编号后缓存，权限校验只需按编号测试位图。
+ *
+ * @author ruoyi
+ */
+@Component
+public class PermissionMatcher
+{
+    private static final Logger log = LoggerFactory.getLogger(PermissionMatcher.class);
+
+    /** @PreAuthorize 表达式中调用 ss 权限方法的字符串参数 */
+    private static final Pattern PERMI_EXPRESSION = Pattern
+            .compile("@ss\\.(hasPermi|lacksPermi|hasAnyPermi)\\(\\s*'([^']*)'\\s*\\)");
+
+    /** 不属于任何权限的编号 */
+    private static final int[] NO_PERMISSION = new int[0];
+
+    @Autowired
+    private ISysMenuService menuService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    /** 权限字符串 -> 编号 */
+    private final Map<String, Integer> permissionIds = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /** 单个权限参数 -> 编号 */
+    private final Map<String, Integer> resolvedPermissions = new ConcurrentHashMap<>();
+
+    /** 多个权限参数（逗号分隔） -> 编号 */
+    private final Map<String, int[]> resolvedAnyPermissions = new ConcurrentHashMap<>();
+
+    /**
+     * 启动后登记菜单权限，并预先解析所有接口 @PreAuthorize 中的权限参数
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init()
+    {
+        for (String perm : menuService.selectMenuPerms())
+        {
+            intern(perm);
+        }
+        int count = 0;
+        RequestMappingHandlerMapping handlerMapping = applicationContext.getBean("requestMappingHandlerMapping",
+                RequestMappingHandlerMapping.class);
+        for (HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values())
+        {
+            PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(),
+                    PreAuthorize.class);
+            if (preAuthorize == null)
+            {
+                continue;
+            }
+            Matcher matcher = PERMI_EXPRESSION.matcher(preAuthorize.value());
+            while (matcher.find())
+            {
+                if ("hasAnyPermi".equals(matcher.group(1)))
+                {
+                    resolveAny(matcher.group(2));
+                }
+                else
+                {
+                    resolve(matcher.group(2));
+                }
+                count++;
+            }
+        }
+        log.info("权限编号表初始化完成，权限数：{}，预解析接口权限：{}", permissionIds.size(), count);
+    }
+
+    /**
+     * 获取登录用户编译后的权限，尚未编译（刚登录、从 Redis 重新读取或权限变更）时编译并缓存
+     *
+     * @param loginUser 登录用户
+     * @return 编译后的权限
+     */
+    public PermissionBits getPermissionBits(LoginUser loginUser)
+    {
+        PermissionBits permissionBits = loginUser.getPermissionBits();
+        if (permissionBits == null)
+        {
+            permissionBits = compile(loginUser);
+            loginUser.setPermissionBits(permissionBits);
+        }
+        return permissionBits;
+    }
+
+    /**
+     * 解析单个权限参数
+     *
+     * @param permission 权限字符串
+     * @return 权限编号
+     */
+    public int resolve(String permission)
+    {
+        return resolvedPermissions.computeIfAbsent(permission, key -> intern(StringUtils.trim(key)));
+    }
+
+    /**
+     * 解析以 PERMISSION_DELIMETER 分隔的多个权限参数
+     *
+     * @param permissions 权限列表
+     * @return 权限编号
+     */
+    public int[] resolveAny(String permissions)
+    {
+        return resolvedAnyPermissions.computeIfAbsent(permissions, key -> {
+            String[] parts = key.split(Constants.PERMISSION_DELIMETER);
+            if (parts.length == 0)
+            {
+                return NO_PERMISSION;
+            }
+            int[] ids = new int[parts.length];
+            for (int i = 0; i < parts.length; i++)
+            {
+                ids[i] = intern(StringUtils.trim(parts[i]));
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * 编译登录用户的权限和角色
+     */
+    private PermissionBits compile(LoginUser loginUser)
+    {
+        Set<String> permissions = loginUser.getPermissions();
+        long[] bits = new long[0];
+        boolean allPermission = false;
+        if (permissions != null)
+        {
+            int[] ids = new int[permissions.size()];
+            int maxId = -1;
+            int i = 0;
+            for (String permission : permissions)
+            {
+                allPermission |= Constants.ALL_PERMISSION.equals(permission);
+                ids[i] = intern(permission);
+                maxId = Math.max(maxId, ids[i++]);
+            }
+            bits = new long[(maxId >>> 6) + 1];
+            for (int id : ids)
+            {
+                if (id >= 0)
+                {
+                    bits[id >>> 6] |= 1L << id;
+                }
+            }
+        }
+
+        Set<String> roleKeys = new HashSet<>();
+        boolean superAdmin = false;
+        if (loginUser.getUser() != null && loginUser.getUser().getRoles() != null)
+        {
+            for (SysRole role : loginUser.getUser().getRoles())
+            {
+                if (role.getRoleKey() != null)
+                {
+                    roleKeys.add(role.getRoleKey());
+                    superAdmin |= Constants.SUPER_ADMIN.equals(role.getRoleKey());
+                }
+            }
+        }
+        return new PermissionBits(bits, allPermission, roleKeys, superAdmin);
+    }
+
+    /**
+     * 获取权限字符串的编号，未登记时分配新编号
+     */
+    private int intern(String permission)
+    {
+        if (permission == null)
+        {
+            return -1;
+        }
+        return permissionIds.computeIfAbsent(permission, key -> nextId.getAndIncrement());
+    }
+}
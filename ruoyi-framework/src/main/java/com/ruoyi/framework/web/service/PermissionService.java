@@ -1,11 +1,11 @@
 package com.ruoyi.framework.web.service;
 
-import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import com.ruoyi.common.constant.Constants;
-import com.ruoyi.common.core.domain.entity.SysRole;
 import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.core.domain.model.PermissionBits;
 import com.ruoyi.common.utils.SecurityUtils;
 import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.framework.security.context.PermissionContextHolder;
@@ -13,11 +13,16 @@ import com.ruoyi.framework.security.context.PermissionContextHolder;
 /**
  * RuoYi首创 自定义权限实现，ss取自SpringSecurity首字母
  * 
+ * 用户权限在首次校验时编译为位图，校验参数解析为权限编号后缓存，见 PermissionMatcher
+ * 
  * @author ruoyi
  */
 @Service("ss")
 public class PermissionService
 {
+    @Autowired
+    private PermissionMatcher permissionMatcher;
+
     /**
      * 验证用户是否具备某权限
      * 
@@ -36,7 +41,7 @@ public class PermissionService
             return false;
         }
         PermissionContextHolder.setContext(permission);
-        return hasPermissions(loginUser.getPermissions(), permission);
+        return permissionMatcher.getPermissionBits(loginUser).has(permissionMatcher.resolve(permission));
     }
 
     /**
@@ -68,15 +73,7 @@ public class PermissionService
             return false;
         }
         PermissionContextHolder.setContext(permissions);
-        Set<String> authorities = loginUser.getPermissions();
-        for (String permission : permissions.split(Constants.PERMISSION_DELIMETER))
-        {
-            if (permission != null && hasPermissions(authorities, permission))
-            {
-                return true;
-            }
-        }
-        return false;
+        return permissionMatcher.getPermissionBits(loginUser).hasAny(permissionMatcher.resolveAny(permissions));
     }
 
     /**
@@ -96,15 +93,7 @@ public class PermissionService
         {
             return false;
         }
-        for (SysRole sysRole : loginUser.getUser().getRoles())
-        {
-            String roleKey = sysRole.getRoleKey();
-            if (Constants.SUPER_ADMIN.equals(roleKey) || roleKey.equals(StringUtils.trim(role)))
-            {
-                return true;
-            }
-        }
-        return false;
+        return permissionMatcher.getPermissionBits(loginUser).hasRole(StringUtils.trim(role));
     }
 
     /**
@@ -135,25 +124,14 @@ public class PermissionService
         {
             return false;
         }
+        PermissionBits permissionBits = permissionMatcher.getPermissionBits(loginUser);
         for (String role : roles.split(Constants.ROLE_DELIMETER))
         {
-            if (hasRole(role))
+            if (permissionBits.hasRole(StringUtils.trim(role)))
             {
                 return true;
             }
         }
         return false;
     }
-
-    /**
-     * 判断是否包含权限
-     * 
-     * @param permissions 权限列表
-     * @param permission 权限字符串
-     * @return 用户是否具备某权限
-     */
-    private boolean hasPermissions(Set<String> permissions, String permission)
-    {
-        return permissions.contains(Constants.ALL_PERMISSION) || permissions.contains(StringUtils.trim(permission));
-    }
 }
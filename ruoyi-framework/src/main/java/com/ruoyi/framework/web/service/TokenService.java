@@ -1,8 +1,11 @@
 package com.ruoyi.framework.web.service;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,12 +15,15 @@ import org.springframework.stereotype.Component;
 import com.ruoyi.common.constant.CacheConstants;
 import com.ruoyi.common.constant.Constants;
 import com.ruoyi.common.core.domain.model.LoginUser;
-import com.ruoyi.common.core.redis.RedisCache;
+import com.ruoyi.common.core.redis.NearCache;
+import com.ruoyi.common.core.redis.NearCacheManager;
 import com.ruoyi.common.utils.ServletUtils;
 import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.common.utils.ip.AddressUtils;
 import com.ruoyi.common.utils.ip.IpUtils;
 import com.ruoyi.common.utils.uuid.IdUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import eu.bitwalker.useragentutils.UserAgent;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
@@ -26,6 +32,9 @@ import io.jsonwebtoken.SignatureAlgorithm;
 /**
  * token验证处理
  *
+ * 登录用户在本地缓存一个短暂的副本（按令牌 uuid），过期后再从 Redis 读取；
+ * 刷新、修改、退出时通过二级缓存的发布订阅通知其他节点清除本地副本。
+ *
  * @author ruoyi
  */
 @Component
@@ -45,6 +54,14 @@ public class TokenService
     @Value("${token.expireTime}")
     private int expireTime;
 
+    // 登录用户本地缓存有效期（秒），即其他节点修改后本节点最长的延迟
+    @Value("${token.localTimeout:10}")
+    private int localTimeout;
+
+    // 登录用户本地缓存最大条数
+    @Value("${token.localMaximumSize:10000}")
+    private long localMaximumSize;
+
     protected static final long MILLIS_SECOND = 1000;
 
     protected static final long MILLIS_MINUTE = 60 * MILLIS_SECOND;
@@ -52,7 +69,27 @@ public class TokenService
     private static final Long MILLIS_MINUTE_TEN = 20 * 60 * 1000L;
 
     @Autowired
-    private RedisCache redisCache;
+    private NearCacheManager nearCacheManager;
+
+    @Autowired
+    private OnlineSessionRegistry sessionRegistry;
+
+    /** 登录用户缓存（本地 + Redis），键为令牌 uuid */
+    private NearCache<LoginUser> loginUserCache;
+
+    /** 已验签的令牌 -> uuid，令牌不含过期时间，验签结果不会变化 */
+    private Cache<String, String> tokenUuidCache;
+
+    @PostConstruct
+    public void init()
+    {
+        loginUserCache = nearCacheManager.createCache(CacheConstants.LOGIN_TOKEN_KEY, LoginUser.class,
+                localMaximumSize, localTimeout, (int) (expireTime * MILLIS_MINUTE / MILLIS_SECOND));
+        tokenUuidCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterAccess(expireTime, TimeUnit.MINUTES)
+                .build();
+    }
 
     /**
      * 获取用户身份信息
@@ -67,11 +104,18 @@ public class TokenService
         {
             try
             {
-                Claims claims = parseToken(token);
+                String uuid = tokenUuidCache.get(token, this::parseUuid);
+                if (uuid == null)
+                {
+                    return null;
+                }
                 // 解析对应的权限以及用户信息
-                String uuid = (String) claims.get(Constants.LOGIN_USER_KEY);
-                String userKey = getTokenKey(uuid);
-                LoginUser user = redisCache.getCacheObject(userKey);
+                LoginUser user = loginUserCache.get(uuid, () -> null);
+                if (user != null && user.getExpireTime() != null && user.getExpireTime() < System.currentTimeMillis())
+                {
+                    // 本地副本比 Redis 中的会话晚过期
+                    return null;
+                }
                 return user;
             }
             catch (Exception e)
@@ -100,9 +144,36 @@ public class TokenService
     {
         if (StringUtils.isNotEmpty(token))
         {
-            String userKey = getTokenKey(token);
-            redisCache.deleteObject(userKey);
+            LoginUser loginUser = loginUserCache.get(token, () -> null);
+            loginUserCache.evict(Collections.singletonList(token));
+            sessionRegistry.unregister(token, loginUser);
+        }
+    }
+
+    /**
+     * 删除用户的全部登录信息（强制下线），保留指定的令牌
+     *
+     * @param userName 用户名
+     * @param exceptToken 保留的令牌，为空时全部删除
+     * @return 删除的会话数
+     */
+    public int delLoginUsers(String userName, String exceptToken)
+    {
+        if (StringUtils.isEmpty(userName))
+        {
+            return 0;
+        }
+        List<String> tokens = sessionRegistry.selectTokens(userName, null);
+        int count = 0;
+        for (String token : tokens)
+        {
+            if (!token.equals(exceptToken))
+            {
+                delLoginUser(token);
+                count++;
+            }
         }
+        return count;
     }
 
     /**
@@ -149,8 +220,8 @@ public class TokenService
         loginUser.setLoginTime(System.currentTimeMillis());
         loginUser.setExpireTime(loginUser.getLoginTime() + expireTime * MILLIS_MINUTE);
         // 根据uuid将loginUser缓存
-        String userKey = getTokenKey(loginUser.getToken());
-        redisCache.setCacheObject(userKey, loginUser, expireTime, TimeUnit.MINUTES);
+        loginUserCache.put(loginUser.getToken(), loginUser);
+        sessionRegistry.register(loginUser);
     }
 
     /**
@@ -196,6 +267,17 @@ public class TokenService
                 .getBody();
     }
 
+    /**
+     * 验签并获取令牌对应的 uuid
+     *
+     * @param token 令牌
+     * @return uuid
+     */
+    private String parseUuid(String token)
+    {
+        return (String) parseToken(token).get(Constants.LOGIN_USER_KEY);
+    }
+
     /**
      * 从令牌中获取用户名
      *
@@ -223,9 +305,4 @@ public class TokenService
         }
         return token;
     }
-
-    private String getTokenKey(String uuid)
-    {
-        return CacheConstants.LOGIN_TOKEN_KEY + uuid;
-    }
 }
@@ -0,0 +1,25 @@
+package com.ruoyi.quartz.task;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.ruoyi.system.service.IBamsExportJobService;
+
+/**
+ * 后台导出定时任务
+ *
+ * @author ruoyi
+ */
+@Component("bamsExportTask")
+public class BamsExportTask
+{
+    @Autowired
+    private IBamsExportJobService exportJobService;
+
+    /**
+     * 清理已过期的导出文件及任务记录
+     */
+    public void cleanExpiredJobs()
+    {
+        exportJobService.cleanExpiredJobs();
+    }
+}
@@ -0,0 +1,57 @@
+package com.ruoyi.quartz.task;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.ruoyi.system.service.IBamsProjectStatisticsService;
+import com.ruoyi.system.service.IBamsTagRegistryService;
+import com.ruoyi.system.service.IDashboardService;
+
+/**
+ * 档案统计定时任务
+ *
+ * @author ruoyi
+ */
+@Component("bamsStatisticsTask")
+public class BamsStatisticsTask
+{
+    @Autowired
+    private IBamsProjectStatisticsService projectStatisticsService;
+
+    @Autowired
+    private IDashboardService dashboardService;
+
+    @Autowired
+    private IBamsTagRegistryService tagRegistryService;
+
+    /**
+     * 按档案表全量校对项目完整度
+     */
+    public void reconcileCompleteness()
+    {
+        projectStatisticsService.reconcileAll();
+    }
+
+    /**
+     * 增量刷新驾驶舱汇总表
+     */
+    public void refreshDashboard()
+    {
+        dashboardService.refreshDashboardStats();
+    }
+
+    /**
+     * 全量重建驾驶舱汇总表
+     */
+    public void rebuildDashboard()
+    {
+        dashboardService.rebuildDashboardStats();
+    }
+
+    /**
+     * 按档案标签校准标签使用次数
+     */
+    public void reconcileTagUsage()
+    {
+        tagRegistryService.reconcileUsageCount();
+    }
+}
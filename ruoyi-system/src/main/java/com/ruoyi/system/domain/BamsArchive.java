@@ -9,6 +9,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.ruoyi.common.annotation.Excel;
+import com.ruoyi.common.annotation.Excel.Type;
 import com.ruoyi.common.core.domain.BaseEntity;
 
 /**
@@ -81,11 +82,11 @@ public class BamsArchive extends BaseEntity
     private Date archivalDate;
 
     /** 文件类型（固定为 PDF） */
-    @Excel(name = "文件类型")
+    @Excel(name = "文件类型", type = Type.EXPORT)
     private String fileType;
 
     /** 当前版本文件大小（字节） */
-    @Excel(name = "文件大小(字节)")
+    @Excel(name = "文件大小(字节)", type = Type.EXPORT)
     private Long fileSize;
 
     /** 档案描述（人工填写） */
@@ -100,11 +101,11 @@ public class BamsArchive extends BaseEntity
     private String summary;
 
     /** 当前版本号 */
-    @Excel(name = "当前版本")
+    @Excel(name = "当前版本", type = Type.EXPORT)
     private String currentVersion;
 
     /** 总版本数 */
-    @Excel(name = "版本数")
+    @Excel(name = "版本数", type = Type.EXPORT)
     private Integer versionCount;
 
     /** 状态（0=正常, 1=草稿） */
@@ -120,6 +121,16 @@ public class BamsArchive extends BaseEntity
     /** 标签列表（非数据库字段，用于前端显示） */
     private List<String> tagList;
 
+    /** 附件文件名（非数据库字段，批量导入时指向导入目录或 ZIP 中的文件） */
+    @Excel(name = "附件文件名", type = Type.IMPORT)
+    private String attachmentName;
+
+    /** 标签ID筛选条件（非数据库字段，列表查询使用） */
+    private List<Long> tagIds;
+
+    /** 标签匹配方式（非数据库字段，any=包含任一标签, all=包含全部标签） */
+    private String tagMatch;
+
     public void setArchiveId(Long archiveId)
     {
         this.archiveId = archiveId;
@@ -350,6 +361,36 @@ public class BamsArchive extends BaseEntity
         this.tagList = tagList;
     }
 
+    public String getAttachmentName()
+    {
+        return attachmentName;
+    }
+
+    public void setAttachmentName(String attachmentName)
+    {
+        this.attachmentName = attachmentName;
+    }
+
+    public List<Long> getTagIds()
+    {
+        return tagIds;
+    }
+
+    public void setTagIds(List<Long> tagIds)
+    {
+        this.tagIds = tagIds;
+    }
+
+    public String getTagMatch()
+    {
+        return tagMatch;
+    }
+
+    public void setTagMatch(String tagMatch)
+    {
+        this.tagMatch = tagMatch;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this,ToStringStyle.MULTI_LINE_STYLE)
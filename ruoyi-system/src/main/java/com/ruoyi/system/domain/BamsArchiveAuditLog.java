@@ -1,11 +1,14 @@
 package com.ruoyi.system.domain;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.ruoyi.common.annotation.Excel;
 
 /**
@@ -77,6 +80,10 @@ public class BamsArchiveAuditLog
     /** 浏览器 User-Agent */
     private String userAgent;
 
+    /** 请求参数 */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, Object> params;
+
     public void setLogId(Long logId)
     {
         this.logId = logId;
@@ -227,6 +234,20 @@ public class BamsArchiveAuditLog
         return userAgent;
     }
 
+    public Map<String, Object> getParams()
+    {
+        if (params == null)
+        {
+            params = new HashMap<>();
+        }
+        return params;
+    }
+
+    public void setParams(Map<String, Object> params)
+    {
+        this.params = params;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this,ToStringStyle.MULTI_LINE_STYLE)
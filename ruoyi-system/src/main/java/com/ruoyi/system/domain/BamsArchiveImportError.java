@@ -0,0 +1,104 @@
+package com.ruoyi.system.domain;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.ruoyi.common.annotation.Excel;
+
+/**
+ * 档案导入错误明细对象 bams_archive_import_error
+ *
+ * @author ruoyi
+ */
+public class BamsArchiveImportError
+{
+    /** 主键 */
+    private Long errorId;
+
+    /** 任务ID */
+    private Long jobId;
+
+    /** Excel 行号 */
+    @Excel(name = "行号")
+    private Integer rowNum;
+
+    /** 档案题名 */
+    @Excel(name = "档案题名", width = 40)
+    private String title;
+
+    /** 错误原因 */
+    @Excel(name = "错误原因", width = 60)
+    private String errorMsg;
+
+    public BamsArchiveImportError()
+    {
+    }
+
+    public BamsArchiveImportError(Integer rowNum, String title, String errorMsg)
+    {
+        this.rowNum = rowNum;
+        this.title = title;
+        this.errorMsg = errorMsg;
+    }
+
+    public Long getErrorId()
+    {
+        return errorId;
+    }
+
+    public void setErrorId(Long errorId)
+    {
+        this.errorId = errorId;
+    }
+
+    public Long getJobId()
+    {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId)
+    {
+        this.jobId = jobId;
+    }
+
+    public Integer getRowNum()
+    {
+        return rowNum;
+    }
+
+    public void setRowNum(Integer rowNum)
+    {
+        this.rowNum = rowNum;
+    }
+
+    public String getTitle()
+    {
+        return title;
+    }
+
+    public void setTitle(String title)
+    {
+        this.title = title;
+    }
+
+    public String getErrorMsg()
+    {
+        return errorMsg;
+    }
+
+    public void setErrorMsg(String errorMsg)
+    {
+        this.errorMsg = errorMsg;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.MULTI_LINE_STYLE)
+                .append("errorId", getErrorId())
+                .append("jobId", getJobId())
+                .append("rowNum", getRowNum())
+                .append("title", getTitle())
+                .append("errorMsg", getErrorMsg())
+                .toString();
+    }
+}
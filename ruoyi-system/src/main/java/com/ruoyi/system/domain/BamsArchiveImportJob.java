@@ -0,0 +1,199 @@
+package com.ruoyi.system.domain;
+
+import java.util.Date;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ruoyi.common.core.domain.BaseEntity;
+
+/**
+ * 档案导入任务对象 bams_archive_import_job
+ *
+ * @author ruoyi
+ */
+public class BamsArchiveImportJob extends BaseEntity
+{
+    private static final long serialVersionUID = 1L;
+
+    /** 排队中 */
+    public static final String STATUS_QUEUED = "0";
+
+    /** 执行中 */
+    public static final String STATUS_RUNNING = "1";
+
+    /** 已完成 */
+    public static final String STATUS_SUCCESS = "2";
+
+    /** 失败 */
+    public static final String STATUS_FAILED = "3";
+
+    /** 已中断（服务重启） */
+    public static final String STATUS_INTERRUPTED = "4";
+
+    /** 任务ID */
+    private Long jobId;
+
+    /** 导入文件名 */
+    private String fileName;
+
+    /** 导入文件保存路径（相对路径，不含 /profile 前缀） */
+    @JsonIgnore
+    private String excelPath;
+
+    /** 附件来源（导入目录下的子目录或 ZIP 文件） */
+    private String sourcePath;
+
+    /** 状态（0排队中 1执行中 2已完成 3失败 4已中断） */
+    private String status;
+
+    /** 总行数 */
+    private Integer totalRows;
+
+    /** 已处理行数（断点位置） */
+    private Integer processedRows;
+
+    /** 成功行数 */
+    private Integer successRows;
+
+    /** 失败行数 */
+    private Integer failedRows;
+
+    /** 任务失败原因 */
+    private String errorMsg;
+
+    /** 完成时间 */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date finishTime;
+
+    public Long getJobId()
+    {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId)
+    {
+        this.jobId = jobId;
+    }
+
+    public String getFileName()
+    {
+        return fileName;
+    }
+
+    public void setFileName(String fileName)
+    {
+        this.fileName = fileName;
+    }
+
+    public String getExcelPath()
+    {
+        return excelPath;
+    }
+
+    public void setExcelPath(String excelPath)
+    {
+        this.excelPath = excelPath;
+    }
+
+    public String getSourcePath()
+    {
+        return sourcePath;
+    }
+
+    public void setSourcePath(String sourcePath)
+    {
+        this.sourcePath = sourcePath;
+    }
+
+    public String getStatus()
+    {
+        return status;
+    }
+
+    public void setStatus(String status)
+    {
+        this.status = status;
+    }
+
+    public Integer getTotalRows()
+    {
+        return totalRows;
+    }
+
+    public void setTotalRows(Integer totalRows)
+    {
+        this.totalRows = totalRows;
+    }
+
+    public Integer getProcessedRows()
+    {
+        return processedRows;
+    }
+
+    public void setProcessedRows(Integer processedRows)
+    {
+        this.processedRows = processedRows;
+    }
+
+    public Integer getSuccessRows()
+    {
+        return successRows;
+    }
+
+    public void setSuccessRows(Integer successRows)
+    {
+        this.successRows = successRows;
+    }
+
+    public Integer getFailedRows()
+    {
+        return failedRows;
+    }
+
+    public void setFailedRows(Integer failedRows)
+    {
+        this.failedRows = failedRows;
+    }
+
+    public String getErrorMsg()
+    {
+        return errorMsg;
+    }
+
+    public void setErrorMsg(String errorMsg)
+    {
+        this.errorMsg = errorMsg;
+    }
+
+    public Date getFinishTime()
+    {
+        return finishTime;
+    }
+
+    public void setFinishTime(Date finishTime)
+    {
+        this.finishTime = finishTime;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.MULTI_LINE_STYLE)
+                .append("jobId", getJobId())
+                .append("fileName", getFileName())
+                .append("excelPath", getExcelPath())
+                .append("sourcePath", getSourcePath())
+                .append("status", getStatus())
+                .append("totalRows", getTotalRows())
+                .append("processedRows", getProcessedRows())
+                .append("successRows", getSuccessRows())
+                .append("failedRows", getFailedRows())
+                .append("errorMsg", getErrorMsg())
+                .append("finishTime", getFinishTime())
+                .append("createBy", getCreateBy())
+                .append("createTime", getCreateTime())
+                .append("updateTime", getUpdateTime())
+                .toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.ruoyi.system.domain;
+
+/**
+ * 档案标签关系 bams_archive_tag
+ *
+ * @author ruoyi
+ */
+public class BamsArchiveTag
+{
+    /** 档案ID */
+    private Long archiveId;
+
+    /** 标签ID */
+    private Long tagId;
+
+    public BamsArchiveTag()
+    {
+    }
+
+    public BamsArchiveTag(Long archiveId, Long tagId)
+    {
+        this.archiveId = archiveId;
+        this.tagId = tagId;
+    }
+
+    public Long getArchiveId()
+    {
+        return archiveId;
+    }
+
+    public void setArchiveId(Long archiveId)
+    {
+        this.archiveId = archiveId;
+    }
+
+    public Long getTagId()
+    {
+        return tagId;
+    }
+
+    public void setTagId(Long tagId)
+    {
+        this.tagId = tagId;
+    }
+}
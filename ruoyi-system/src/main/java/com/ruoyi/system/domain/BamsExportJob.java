@@ -0,0 +1,259 @@
+package com.ruoyi.system.domain;
+
+import java.util.Date;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ruoyi.common.core.domain.BaseEntity;
+
+/**
+ * 后台导出任务对象 bams_export_job
+ *
+ * @author ruoyi
+ */
+public class BamsExportJob extends BaseEntity
+{
+    private static final long serialVersionUID = 1L;
+
+    /** 排队中 */
+    public static final String STATUS_QUEUED = "0";
+
+    /** 执行中 */
+    public static final String STATUS_RUNNING = "1";
+
+    /** 已完成 */
+    public static final String STATUS_SUCCESS = "2";
+
+    /** 失败 */
+    public static final String STATUS_FAILED = "3";
+
+    /** 任务ID */
+    private Long jobId;
+
+    /** 导出类型 */
+    private String jobType;
+
+    /** 下载文件名 */
+    private String fileName;
+
+    /** 结果文件路径（相对路径，不含 /profile 前缀） */
+    @JsonIgnore
+    private String filePath;
+
+    /** 结果文件大小（字节） */
+    private Long fileSize;
+
+    /** 状态（0排队中 1执行中 2已完成 3失败） */
+    private String status;
+
+    /** 总行数（未知时为空） */
+    private Long totalRows;
+
+    /** 已写入行数 */
+    private Long processedRows;
+
+    /** 查询条件（JSON） */
+    private String queryParams;
+
+    /** 失败原因 */
+    private String errorMsg;
+
+    /** 开始时间 */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date startTime;
+
+    /** 完成时间 */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date finishTime;
+
+    /** 文件过期时间 */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date expireTime;
+
+    /** 执行节点 */
+    private String nodeId;
+
+    public Long getJobId()
+    {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId)
+    {
+        this.jobId = jobId;
+    }
+
+    public String getJobType()
+    {
+        return jobType;
+    }
+
+    public void setJobType(String jobType)
+    {
+        this.jobType = jobType;
+    }
+
+    public String getFileName()
+    {
+        return fileName;
+    }
+
+    public void setFileName(String fileName)
+    {
+        this.fileName = fileName;
+    }
+
+    public String getFilePath()
+    {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath)
+    {
+        this.filePath = filePath;
+    }
+
+    public Long getFileSize()
+    {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize)
+    {
+        this.fileSize = fileSize;
+    }
+
+    public String getStatus()
+    {
+        return status;
+    }
+
+    public void setStatus(String status)
+    {
+        this.status = status;
+    }
+
+    public Long getTotalRows()
+    {
+        return totalRows;
+    }
+
+    public void setTotalRows(Long totalRows)
+    {
+        this.totalRows = totalRows;
+    }
+
+    public Long getProcessedRows()
+    {
+        return processedRows;
+    }
+
+    public void setProcessedRows(Long processedRows)
+    {
+        this.processedRows = processedRows;
+    }
+
+    /**
+     * 导出进度百分比（总行数未知时为空）
+     */
+    public Integer getProgress()
+    {
+        if (STATUS_SUCCESS.equals(status))
+        {
+            return 100;
+        }
+        if (totalRows == null || processedRows == null)
+        {
+            return null;
+        }
+        if (totalRows <= 0)
+        {
+            return 0;
+        }
+        return (int) Math.min(99, processedRows * 100 / totalRows);
+    }
+
+    public String getQueryParams()
+    {
+        return queryParams;
+    }
+
+    public void setQueryParams(String queryParams)
+    {
+        this.queryParams = queryParams;
+    }
+
+    public String getErrorMsg()
+    {
+        return errorMsg;
+    }
+
+    public void setErrorMsg(String errorMsg)
+    {
+        this.errorMsg = errorMsg;
+    }
+
+    public Date getStartTime()
+    {
+        return startTime;
+    }
+
+    public void setStartTime(Date startTime)
+    {
+        this.startTime = startTime;
+    }
+
+    public Date getFinishTime()
+    {
+        return finishTime;
+    }
+
+    public void setFinishTime(Date finishTime)
+    {
+        this.finishTime = finishTime;
+    }
+
+    public Date getExpireTime()
+    {
+        return expireTime;
+    }
+
+    public void setExpireTime(Date expireTime)
+    {
+        this.expireTime = expireTime;
+    }
+
+    public String getNodeId()
+    {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId)
+    {
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.MULTI_LINE_STYLE)
+                .append("jobId", getJobId())
+                .append("jobType", getJobType())
+                .append("fileName", getFileName())
+                .append("filePath", getFilePath())
+                .append("fileSize", getFileSize())
+                .append("status", getStatus())
+                .append("totalRows", getTotalRows())
+                .append("processedRows", getProcessedRows())
+                .append("queryParams", getQueryParams())
+                .append("errorMsg", getErrorMsg())
+                .append("createBy", getCreateBy())
+                .append("createTime", getCreateTime())
+                .append("startTime", getStartTime())
+                .append("finishTime", getFinishTime())
+                .append("expireTime", getExpireTime())
+                .append("nodeId", getNodeId())
+                .toString();
+    }
+}
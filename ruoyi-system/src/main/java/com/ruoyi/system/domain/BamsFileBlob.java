@@ -0,0 +1,92 @@
+package com.ruoyi.system.domain;
+
+import java.util.Date;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+/**
+ * 档案文件存储对象 bams_file_blob
+ *
+ * @author ruoyi
+ */
+public class BamsFileBlob
+{
+    /** 文件 SHA-256 哈希值 */
+    private String fileHash;
+
+    /** 文件存储路径（相对路径，不含 /profile 前缀） */
+    private String filePath;
+
+    /** 文件大小（字节） */
+    private Long fileSize;
+
+    /** 引用次数 */
+    private Integer refCount;
+
+    /** 创建时间 */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date createTime;
+
+    public String getFileHash()
+    {
+        return fileHash;
+    }
+
+    public void setFileHash(String fileHash)
+    {
+        this.fileHash = fileHash;
+    }
+
+    public String getFilePath()
+    {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath)
+    {
+        this.filePath = filePath;
+    }
+
+    public Long getFileSize()
+    {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize)
+    {
+        this.fileSize = fileSize;
+    }
+
+    public Integer getRefCount()
+    {
+        return refCount;
+    }
+
+    public void setRefCount(Integer refCount)
+    {
+        this.refCount = refCount;
+    }
+
+    public Date getCreateTime()
+    {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime)
+    {
+        this.createTime = createTime;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.MULTI_LINE_STYLE)
+                .append("fileHash", getFileHash())
+                .append("filePath", getFilePath())
+                .append("fileSize", getFileSize())
+                .append("refCount", getRefCount())
+                .append("createTime", getCreateTime())
+                .toString();
+    }
+}
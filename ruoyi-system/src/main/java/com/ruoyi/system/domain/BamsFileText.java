@@ -0,0 +1,187 @@
+package com.ruoyi.system.domain;
+
+import java.util.Date;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * 文件正文抽取结果对象 bams_file_text
+ *
+ * @author ruoyi
+ */
+public class BamsFileText
+{
+    /** 排队中 */
+    public static final String STATUS_QUEUED = "0";
+
+    /** 处理中 */
+    public static final String STATUS_RUNNING = "1";
+
+    /** 完成 */
+    public static final String STATUS_SUCCESS = "2";
+
+    /** 失败 */
+    public static final String STATUS_FAILED = "3";
+
+    /** 不支持（无可用的抽取方式） */
+    public static final String STATUS_UNSUPPORTED = "4";
+
+    /** 文件 SHA-256 哈希值 */
+    private String fileHash;
+
+    /** 原始文件名 */
+    private String fileName;
+
+    /** 文件存储路径（相对路径，不含 /profile 前缀） */
+    @JsonIgnore
+    private String filePath;
+
+    /** 状态（0=排队中, 1=处理中, 2=完成, 3=失败, 4=不支持） */
+    private String status;
+
+    /** 抽取方式（PDF、WORD、EXCEL、OCR） */
+    private String extractor;
+
+    /** 文件正文 */
+    private String content;
+
+    /** 正文字符数 */
+    private Integer contentLength;
+
+    /** 失败原因 */
+    private String errorMsg;
+
+    /** 创建时间 */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date createTime;
+
+    /** 更新时间 */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date updateTime;
+
+    public String getFileHash()
+    {
+        return fileHash;
+    }
+
+    public void setFileHash(String fileHash)
+    {
+        this.fileHash = fileHash;
+    }
+
+    public String getFileName()
+    {
+        return fileName;
+    }
+
+    public void setFileName(String fileName)
+    {
+        this.fileName = fileName;
+    }
+
+    public String getFilePath()
+    {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath)
+    {
+        this.filePath = filePath;
+    }
+
+    public String getStatus()
+    {
+        return status;
+    }
+
+    public void setStatus(String status)
+    {
+        this.status = status;
+    }
+
+    public String getExtractor()
+    {
+        return extractor;
+    }
+
+    public void setExtractor(String extractor)
+    {
+        this.extractor = extractor;
+    }
+
+    public String getContent()
+    {
+        return content;
+    }
+
+    public void setContent(String content)
+    {
+        this.content = content;
+    }
+
+    public Integer getContentLength()
+    {
+        return contentLength;
+    }
+
+    public void setContentLength(Integer contentLength)
+    {
+        this.contentLength = contentLength;
+    }
+
+    public String getErrorMsg()
+    {
+        return errorMsg;
+    }
+
+    public void setErrorMsg(String errorMsg)
+    {
+        this.errorMsg = errorMsg;
+    }
+
+    public Date getCreateTime()
+    {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime)
+    {
+        this.createTime = createTime;
+    }
+
+    public Date getUpdateTime()
+    {
+        return updateTime;
+    }
+
+    public void setUpdateTime(Date updateTime)
+    {
+        this.updateTime = updateTime;
+    }
+
+    /**
+     * 是否已结束（完成、失败或不支持），结束后不再重复抽取
+     */
+    public boolean isFinished()
+    {
+        return STATUS_SUCCESS.equals(status) || STATUS_FAILED.equals(status) || STATUS_UNSUPPORTED.equals(status);
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.MULTI_LINE_STYLE)
+                .append("fileHash", getFileHash())
+                .append("fileName", getFileName())
+                .append("filePath", getFilePath())
+                .append("status", getStatus())
+                .append("extractor", getExtractor())
+                .append("contentLength", getContentLength())
+                .append("errorMsg", getErrorMsg())
+                .append("createTime", getCreateTime())
+                .append("updateTime", getUpdateTime())
+                .toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.ruoyi.system.domain;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * 项目标准文件归档计数对象 bams_project_file_stat
+ *
+ * @author ruoyi
+ */
+public class BamsProjectFileStat
+{
+    /** 项目ID */
+    private Long projectId;
+
+    /** 阶段（字典值） */
+    private String stageId;
+
+    /** 标准文件（字典值） */
+    private String fileStandard;
+
+    /** 未删除的档案数（增量更新时为变化量） */
+    private Integer archiveCount;
+
+    public BamsProjectFileStat()
+    {
+    }
+
+    public BamsProjectFileStat(Long projectId, String stageId, String fileStandard, Integer archiveCount)
+    {
+        this.projectId = projectId;
+        this.stageId = stageId;
+        this.fileStandard = fileStandard;
+        this.archiveCount = archiveCount;
+    }
+
+    public Long getProjectId()
+    {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId)
+    {
+        this.projectId = projectId;
+    }
+
+    public String getStageId()
+    {
+        return stageId;
+    }
+
+    public void setStageId(String stageId)
+    {
+        this.stageId = stageId;
+    }
+
+    public String getFileStandard()
+    {
+        return fileStandard;
+    }
+
+    public void setFileStandard(String fileStandard)
+    {
+        this.fileStandard = fileStandard;
+    }
+
+    public Integer getArchiveCount()
+    {
+        return archiveCount;
+    }
+
+    public void setArchiveCount(Integer archiveCount)
+    {
+        this.archiveCount = archiveCount;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.MULTI_LINE_STYLE)
+                .append("projectId", getProjectId())
+                .append("stageId", getStageId())
+                .append("fileStandard", getFileStandard())
+                .append("archiveCount", getArchiveCount())
+                .toString();
+    }
+}
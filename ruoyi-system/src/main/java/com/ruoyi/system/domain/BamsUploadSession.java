@@ -0,0 +1,148 @@
+package com.ruoyi.system.domain;
+
+import java.util.Date;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+/**
+ * 分片上传会话（保存在 Redis 中，用于断点续传）
+ *
+ * @author ruoyi
+ */
+public class BamsUploadSession
+{
+    /** 上传会话ID */
+    private String uploadId;
+
+    /** 档案ID */
+    private Long archiveId;
+
+    /** 原始文件名（带扩展名） */
+    private String fileName;
+
+    /** 文件总大小（字节） */
+    private Long fileSize;
+
+    /** 建议分片大小（字节） */
+    private Long chunkSize;
+
+    /** 已确认接收的字节数（即下一个分片的偏移量） */
+    private Long uploadedSize;
+
+    /** 版本说明 */
+    private String versionRemark;
+
+    /** 上传人用户名 */
+    private String uploadBy;
+
+    /** 会话创建时间 */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private Date createTime;
+
+    public String getUploadId()
+    {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId)
+    {
+        this.uploadId = uploadId;
+    }
+
+    public Long getArchiveId()
+    {
+        return archiveId;
+    }
+
+    public void setArchiveId(Long archiveId)
+    {
+        this.archiveId = archiveId;
+    }
+
+    public String getFileName()
+    {
+        return fileName;
+    }
+
+    public void setFileName(String fileName)
+    {
+        this.fileName = fileName;
+    }
+
+    public Long getFileSize()
+    {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize)
+    {
+        this.fileSize = fileSize;
+    }
+
+    public Long getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Long chunkSize)
+    {
+        this.chunkSize = chunkSize;
+    }
+
+    public Long getUploadedSize()
+    {
+        return uploadedSize;
+    }
+
+    public void setUploadedSize(Long uploadedSize)
+    {
+        this.uploadedSize = uploadedSize;
+    }
+
+    public String getVersionRemark()
+    {
+        return versionRemark;
+    }
+
+    public void setVersionRemark(String versionRemark)
+    {
+        this.versionRemark = versionRemark;
+    }
+
+    public String getUploadBy()
+    {
+        return uploadBy;
+    }
+
+    public void setUploadBy(String uploadBy)
+    {
+        this.uploadBy = uploadBy;
+    }
+
+    public Date getCreateTime()
+    {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime)
+    {
+        this.createTime = createTime;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.MULTI_LINE_STYLE)
+                .append("uploadId", getUploadId())
+                .append("archiveId", getArchiveId())
+                .append("fileName", getFileName())
+                .append("fileSize", getFileSize())
+                .append("chunkSize", getChunkSize())
+                .append("uploadedSize", getUploadedSize())
+                .append("versionRemark", getVersionRemark())
+                .append("uploadBy", getUploadBy())
+                .append("createTime", getCreateTime())
+                .toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.ruoyi.system.domain.vo;
+
+/**
+ * 档案分面分组（门类、阶段、文件类型、年度组合下的档案数量）
+ *
+ * @author ruoyi
+ */
+public class BamsArchiveFacetGroup
+{
+    /** 档案门类 */
+    private String archiveCategory;
+
+    /** 阶段 */
+    private String stage;
+
+    /** 文件类型 */
+    private String fileType;
+
+    /** 文件日期所在年度 */
+    private String fileYear;
+
+    /** 档案数量 */
+    private Long count;
+
+    public String getArchiveCategory()
+    {
+        return archiveCategory;
+    }
+
+    public void setArchiveCategory(String archiveCategory)
+    {
+        this.archiveCategory = archiveCategory;
+    }
+
+    public String getStage()
+    {
+        return stage;
+    }
+
+    public void setStage(String stage)
+    {
+        this.stage = stage;
+    }
+
+    public String getFileType()
+    {
+        return fileType;
+    }
+
+    public void setFileType(String fileType)
+    {
+        this.fileType = fileType;
+    }
+
+    public String getFileYear()
+    {
+        return fileYear;
+    }
+
+    public void setFileYear(String fileYear)
+    {
+        this.fileYear = fileYear;
+    }
+
+    public Long getCount()
+    {
+        return count;
+    }
+
+    public void setCount(Long count)
+    {
+        this.count = count;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ruoyi.system.domain.vo;
+
+/**
+ * 分面统计项（筛选条件的某个取值及其档案数量）
+ *
+ * @author ruoyi
+ */
+public class BamsFacetCount
+{
+    /** 取值 */
+    private String value;
+
+    /** 显示名称 */
+    private String label;
+
+    /** 档案数量 */
+    private Long count;
+
+    public String getValue()
+    {
+        return value;
+    }
+
+    public void setValue(String value)
+    {
+        this.value = value;
+    }
+
+    public String getLabel()
+    {
+        return label;
+    }
+
+    public void setLabel(String label)
+    {
+        this.label = label;
+    }
+
+    public Long getCount()
+    {
+        return count;
+    }
+
+    public void setCount(Long count)
+    {
+        this.count = count;
+    }
+}
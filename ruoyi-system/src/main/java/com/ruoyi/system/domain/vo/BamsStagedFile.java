@@ -0,0 +1,76 @@
+package com.ruoyi.system.domain.vo;
+
+import java.io.File;
+
+/**
+ * 已写入临时目录并计算哈希值、尚未登记为版本的文件
+ *
+ * @author ruoyi
+ */
+public class BamsStagedFile
+{
+    /** 原始文件名 */
+    private String fileName;
+
+    /** 文件类型 */
+    private String fileType;
+
+    /** 文件大小（字节） */
+    private Long fileSize;
+
+    /** 文件 SHA-256 哈希值 */
+    private String fileHash;
+
+    /** 临时文件 */
+    private File tempFile;
+
+    public String getFileName()
+    {
+        return fileName;
+    }
+
+    public void setFileName(String fileName)
+    {
+        this.fileName = fileName;
+    }
+
+    public String getFileType()
+    {
+        return fileType;
+    }
+
+    public void setFileType(String fileType)
+    {
+        this.fileType = fileType;
+    }
+
+    public Long getFileSize()
+    {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize)
+    {
+        this.fileSize = fileSize;
+    }
+
+    public String getFileHash()
+    {
+        return fileHash;
+    }
+
+    public void setFileHash(String fileHash)
+    {
+        this.fileHash = fileHash;
+    }
+
+    public File getTempFile()
+    {
+        return tempFile;
+    }
+
+    public void setTempFile(File tempFile)
+    {
+        this.tempFile = tempFile;
+    }
+}
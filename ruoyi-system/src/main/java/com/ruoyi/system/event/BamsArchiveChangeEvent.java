@@ -0,0 +1,38 @@
+package com.ruoyi.system.event;
+
+import java.util.Collections;
+import java.util.List;
+import com.ruoyi.system.domain.BamsArchive;
+
+/**
+ * 档案变更事件
+ *
+ * 携带变更前后的档案快照（至少包含项目、阶段、标准文件和删除标志），
+ * 由监听方根据快照差异调整统计数据。新增时 before 为空，永久删除时 after 为空。
+ *
+ * @author ruoyi
+ */
+public class BamsArchiveChangeEvent
+{
+    /** 变更前的档案快照 */
+    private final List<BamsArchive> before;
+
+    /** 变更后的档案快照 */
+    private final List<BamsArchive> after;
+
+    public BamsArchiveChangeEvent(List<BamsArchive> before, List<BamsArchive> after)
+    {
+        this.before = before != null ? before : Collections.emptyList();
+        this.after = after != null ? after : Collections.emptyList();
+    }
+
+    public List<BamsArchive> getBefore()
+    {
+        return before;
+    }
+
+    public List<BamsArchive> getAfter()
+    {
+        return after;
+    }
+}
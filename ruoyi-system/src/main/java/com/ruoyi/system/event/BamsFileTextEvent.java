@@ -0,0 +1,33 @@
+package com.ruoyi.system.event;
+
+/**
+ * 文件正文抽取完成事件
+ *
+ * 抽取成功后在抽取线程中发布，引用该文件的档案（按文件哈希值关联的当前版本）据此更新检索正文。
+ *
+ * @author ruoyi
+ */
+public class BamsFileTextEvent
+{
+    /** 文件 SHA-256 哈希值 */
+    private final String fileHash;
+
+    /** 文件正文 */
+    private final String content;
+
+    public BamsFileTextEvent(String fileHash, String content)
+    {
+        this.fileHash = fileHash;
+        this.content = content;
+    }
+
+    public String getFileHash()
+    {
+        return fileHash;
+    }
+
+    public String getContent()
+    {
+        return content;
+    }
+}
@@ -28,6 +28,22 @@ public interface BamsArchiveAuditLogMapper
      */
     public List<BamsArchiveAuditLog> selectBamsArchiveAuditLogList(BamsArchiveAuditLog bamsArchiveAuditLog);
 
+    /**
+     * 按游标查询档案审计日志列表（params 中包含 cursorTime、cursorId、cursorLimit）
+     *
+     * @param bamsArchiveAuditLog 审计日志
+     * @return 审计日志集合
+     */
+    public List<BamsArchiveAuditLog> selectAuditLogListByCursor(BamsArchiveAuditLog bamsArchiveAuditLog);
+
+    /**
+     * 统计档案审计日志数量
+     *
+     * @param bamsArchiveAuditLog 审计日志
+     * @return 数量
+     */
+    public long countAuditLogList(BamsArchiveAuditLog bamsArchiveAuditLog);
+
     /**
      * 根据档案ID查询审计日志
      *
@@ -83,4 +99,12 @@ public interface BamsArchiveAuditLogMapper
      * @return 结果
      */
     public int deleteByArchiveId(Long archiveId);
+
+    /**
+     * 根据档案ID集合删除审计日志
+     *
+     * @param archiveIds 档案ID集合
+     * @return 结果
+     */
+    public int deleteByArchiveIds(Long[] archiveIds);
 }
@@ -0,0 +1,76 @@
+package com.ruoyi.system.mapper;
+
+import java.util.List;
+import com.ruoyi.system.domain.BamsArchiveImportError;
+import com.ruoyi.system.domain.BamsArchiveImportJob;
+
+/**
+ * 档案导入任务Mapper接口
+ *
+ * @author ruoyi
+ */
+public interface BamsArchiveImportJobMapper
+{
+    /**
+     * 查询导入任务
+     *
+     * @param jobId 任务ID
+     * @return 导入任务
+     */
+    public BamsArchiveImportJob selectImportJobById(Long jobId);
+
+    /**
+     * 查询导入任务列表
+     *
+     * @param bamsArchiveImportJob 导入任务
+     * @return 导入任务集合
+     */
+    public List<BamsArchiveImportJob> selectImportJobList(BamsArchiveImportJob bamsArchiveImportJob);
+
+    /**
+     * 新增导入任务
+     *
+     * @param bamsArchiveImportJob 导入任务
+     * @return 结果
+     */
+    public int insertImportJob(BamsArchiveImportJob bamsArchiveImportJob);
+
+    /**
+     * 修改导入任务状态
+     *
+     * @param bamsArchiveImportJob 导入任务
+     * @return 结果
+     */
+    public int updateImportJob(BamsArchiveImportJob bamsArchiveImportJob);
+
+    /**
+     * 更新导入断点及成功、失败行数
+     *
+     * @param bamsArchiveImportJob 导入任务
+     * @return 结果
+     */
+    public int updateImportProgress(BamsArchiveImportJob bamsArchiveImportJob);
+
+    /**
+     * 将未完成的任务标记为已中断（服务重启后执行线程已不存在，可从断点继续）
+     *
+     * @return 结果
+     */
+    public int interruptUnfinishedJobs();
+
+    /**
+     * 批量新增导入错误明细
+     *
+     * @param errors 错误明细集合
+     * @return 结果
+     */
+    public int batchInsertImportErrors(List<BamsArchiveImportError> errors);
+
+    /**
+     * 查询导入错误明细
+     *
+     * @param jobId 任务ID
+     * @return 错误明细集合
+     */
+    public List<BamsArchiveImportError> selectImportErrorList(Long jobId);
+}
@@ -1,8 +1,11 @@
 package com.ruoyi.system.mapper;
 
+import java.util.Collection;
 import java.util.List;
 import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.domain.vo.BamsArchiveFacetGroup;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 /**
  * 档案管理Mapper接口
@@ -20,6 +23,14 @@ public interface BamsArchiveMapper
      */
     public BamsArchive selectBamsArchiveByArchiveId(Long archiveId);
 
+    /**
+     * 批量查询档案
+     *
+     * @param archiveIds 档案主键集合
+     * @return 档案集合
+     */
+    public List<BamsArchive> selectBamsArchiveByArchiveIds(Long[] archiveIds);
+
     /**
      * 查询档案列表
      *
@@ -28,6 +39,38 @@ public interface BamsArchiveMapper
      */
     public List<BamsArchive> selectBamsArchiveList(BamsArchive bamsArchive);
 
+    /**
+     * 以游标方式流式查询档案列表（用于导出，需在事务内遍历）
+     *
+     * @param bamsArchive 档案
+     * @return 档案游标
+     */
+    public Cursor<BamsArchive> selectBamsArchiveListForExport(BamsArchive bamsArchive);
+
+    /**
+     * 按游标查询档案列表（params 中包含 cursorTime、cursorId、cursorLimit）
+     *
+     * @param bamsArchive 档案
+     * @return 档案集合
+     */
+    public List<BamsArchive> selectBamsArchiveListByCursor(BamsArchive bamsArchive);
+
+    /**
+     * 统计档案数量
+     *
+     * @param bamsArchive 档案
+     * @return 数量
+     */
+    public long countBamsArchiveList(BamsArchive bamsArchive);
+
+    /**
+     * 按门类、阶段、文件类型、年度组合统计档案数量
+     *
+     * @param bamsArchive 档案
+     * @return 分面分组集合
+     */
+    public List<BamsArchiveFacetGroup> selectArchiveFacetGroups(BamsArchive bamsArchive);
+
     /**
      * 新增档案
      *
@@ -68,6 +111,22 @@ public interface BamsArchiveMapper
      */
     public BamsArchive selectBamsArchiveByArchiveNumber(String archiveNumber);
 
+    /**
+     * 查询已存在的档号
+     *
+     * @param archiveNumbers 档号集合
+     * @return 已存在的档号
+     */
+    public List<String> selectExistingArchiveNumbers(@Param("archiveNumbers") Collection<String> archiveNumbers);
+
+    /**
+     * 批量新增档案（单条多行 INSERT）
+     *
+     * @param archives 档案集合
+     * @return 结果
+     */
+    public int batchInsertBamsArchive(List<BamsArchive> archives);
+
     /**
      * 获取指定项目下的最大流水号
      *
@@ -84,6 +143,23 @@ public interface BamsArchiveMapper
      */
     public int updateDelFlag(@Param("archiveId") Long archiveId, @Param("delFlag") String delFlag);
 
+    /**
+     * 批量逻辑删除/恢复档案
+     *
+     * @param archiveIds 档案主键集合
+     * @param delFlag 删除标志
+     * @return 结果
+     */
+    public int updateDelFlagByArchiveIds(@Param("archiveIds") Long[] archiveIds, @Param("delFlag") String delFlag);
+
+    /**
+     * 按当前版本批量回填档案的版本信息
+     *
+     * @param archiveIds 档案主键集合
+     * @return 结果
+     */
+    public int updateVersionInfoFromCurrent(@Param("archiveIds") List<Long> archiveIds);
+
     /**
      * 更新档案版本信息
      *
@@ -98,34 +174,6 @@ public interface BamsArchiveMapper
                                   @Param("versionCount") Integer versionCount,
                                   @Param("fileSize") Long fileSize);
 
-    /**
-     * 统计档案总数（排除已删除）
-     *
-     * @return 档案总数
-     */
-    Integer countTotalArchives();
-
-    /**
-     * 获取档案类型分布
-     *
-     * @return 档案类型分布列表
-     */
-    List<java.util.Map<String, Object>> getArchiveTypeDistribution();
-
-    /**
-     * 获取按阶段归档数量
-     *
-     * @return 按阶段归档数量列表
-     */
-    List<java.util.Map<String, Object>> getArchiveByStage();
-
-    /**
-     * 获取近半年新增趋势
-     *
-     * @return 近半年新增趋势列表
-     */
-    List<java.util.Map<String, Object>> getMonthlyTrend();
-
     /**
      * 统计指定项目的档案数量（排除已删除）
      *
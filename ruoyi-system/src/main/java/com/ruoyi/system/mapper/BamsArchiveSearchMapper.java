@@ -0,0 +1,91 @@
+package com.ruoyi.system.mapper;
+
+import java.util.List;
+import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.domain.BamsArchiveVersion;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 档案全文检索Mapper接口
+ *
+ * @author ruoyi
+ */
+public interface BamsArchiveSearchMapper
+{
+    /**
+     * 全文检索档案（按相关度排序）
+     *
+     * @param keyword 关键字
+     * @param archive 过滤条件
+     * @return 档案集合
+     */
+    public List<BamsArchive> searchArchiveList(@Param("keyword") String keyword, @Param("archive") BamsArchive archive);
+
+    /**
+     * 从档案表同步单个档案的元数据索引
+     *
+     * @param archiveId 档案ID
+     * @return 结果
+     */
+    public int syncSearchIndex(@Param("archiveId") Long archiveId);
+
+    /**
+     * 从档案表批量同步档案的元数据索引
+     *
+     * @param archiveIds 档案ID集合
+     * @return 结果
+     */
+    public int syncSearchIndexByArchiveIds(@Param("archiveIds") List<Long> archiveIds);
+
+    /**
+     * 从档案表同步全部档案的元数据索引
+     *
+     * @return 结果
+     */
+    public int syncAllSearchIndex();
+
+    /**
+     * 删除档案已不存在的索引
+     *
+     * @return 结果
+     */
+    public int deleteOrphanSearchIndex();
+
+    /**
+     * 更新文件正文索引（版本已不是当前版本时不更新）
+     *
+     * @param archiveId 档案ID
+     * @param versionId 版本ID
+     * @param content 文件正文
+     * @return 结果
+     */
+    public int updateSearchContent(@Param("archiveId") Long archiveId, @Param("versionId") Long versionId,
+            @Param("content") String content);
+
+    /**
+     * 批量删除档案索引
+     *
+     * @param archiveIds 档案ID集合
+     * @return 结果
+     */
+    public int deleteSearchIndexByArchiveIds(Long[] archiveIds);
+
+    /**
+     * 分批查询当前版本（用于重建正文索引）
+     *
+     * @param lastVersionId 上一批最后的版本ID
+     * @param limit 每批数量
+     * @return 当前版本集合
+     */
+    public List<BamsArchiveVersion> selectCurrentVersionsAfter(@Param("lastVersionId") Long lastVersionId,
+            @Param("limit") int limit);
+
+    /**
+     * 按文件哈希值更新以该文件为当前版本的档案的检索正文
+     *
+     * @param fileHash 文件哈希值
+     * @param content 文件正文
+     * @return 结果
+     */
+    public int updateSearchContentByFileHash(@Param("fileHash") String fileHash, @Param("content") String content);
+}
@@ -0,0 +1,80 @@
+package com.ruoyi.system.mapper;
+
+import java.util.Collection;
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.domain.BamsArchiveTag;
+import com.ruoyi.system.domain.vo.BamsFacetCount;
+
+/**
+ * 档案标签关系Mapper接口
+ *
+ * @author ruoyi
+ */
+public interface BamsArchiveTagMapper
+{
+    /**
+     * 批量新增档案标签关系（已存在的忽略）
+     *
+     * @param archiveTags 档案标签关系集合
+     * @return 结果
+     */
+    public int batchInsertArchiveTag(List<BamsArchiveTag> archiveTags);
+
+    /**
+     * 删除档案的指定标签
+     *
+     * @param archiveId 档案ID
+     * @param tagIds 标签ID集合
+     * @return 结果
+     */
+    public int deleteArchiveTags(@Param("archiveId") Long archiveId, @Param("tagIds") Collection<Long> tagIds);
+
+    /**
+     * 批量删除档案的全部标签关系
+     *
+     * @param archiveIds 档案ID集合
+     * @return 结果
+     */
+    public int deleteByArchiveIds(@Param("archiveIds") Long[] archiveIds);
+
+    /**
+     * 删除标签的全部档案关系
+     *
+     * @param tagIds 标签ID集合
+     * @return 结果
+     */
+    public int deleteByTagIds(@Param("tagIds") Long[] tagIds);
+
+    /**
+     * 按档案标签 JSON 回填指定标签的档案关系（新增或重命名标签时使用）
+     *
+     * @param tagId 标签ID
+     * @param tagName 标签名称
+     * @return 结果
+     */
+    public int backfillTag(@Param("tagId") Long tagId, @Param("tagName") String tagName);
+
+    /**
+     * 按档案标签 JSON 补录缺失的档案标签关系
+     *
+     * @return 结果
+     */
+    public int insertMissingArchiveTags();
+
+    /**
+     * 删除与档案标签 JSON 不一致的档案标签关系
+     *
+     * @return 结果
+     */
+    public int deleteStaleArchiveTags();
+
+    /**
+     * 统计满足档案查询条件的各标签档案数量（按数量倒序，params.facetLimit 为返回的标签数上限）
+     *
+     * @param archive 档案查询条件
+     * @return 标签分面统计
+     */
+    public List<BamsFacetCount> selectTagFacets(BamsArchive archive);
+}
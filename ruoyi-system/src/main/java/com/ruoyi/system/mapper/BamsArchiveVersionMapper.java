@@ -35,6 +35,32 @@ public interface BamsArchiveVersionMapper {
      */
     public List<BamsArchiveVersion> selectVersionsByArchiveId(Long archiveId);
 
+    /**
+     * 根据档案ID集合查询版本列表
+     *
+     * @param archiveIds 档案ID集合
+     * @return 版本列表
+     */
+    public List<BamsArchiveVersion> selectVersionsByArchiveIds(Long[] archiveIds);
+
+    /**
+     * 统计档案的版本数
+     *
+     * @param archiveId 档案ID
+     * @return 版本数
+     */
+    public int countVersionsByArchiveId(@Param("archiveId") Long archiveId);
+
+    /**
+     * 根据文件哈希值查询档案内的版本（用于查重）
+     *
+     * @param archiveId 档案ID
+     * @param fileHash  文件哈希值
+     * @return 档案版本
+     */
+    public BamsArchiveVersion selectVersionByFileHash(@Param("archiveId") Long archiveId,
+            @Param("fileHash") String fileHash);
+
     /**
      * 新增档案版本
      *
@@ -43,6 +69,14 @@ public interface BamsArchiveVersionMapper {
      */
     public int insertBamsArchiveVersion(BamsArchiveVersion bamsArchiveVersion);
 
+    /**
+     * 批量新增档案版本（单条多行 INSERT）
+     *
+     * @param versions 档案版本集合
+     * @return 结果
+     */
+    public int batchInsertBamsArchiveVersion(List<BamsArchiveVersion> versions);
+
     /**
      * 修改档案版本
      *
@@ -75,6 +109,14 @@ public interface BamsArchiveVersionMapper {
      */
     public int deleteByArchiveId(Long archiveId);
 
+    /**
+     * 根据档案ID集合删除版本记录
+     *
+     * @param archiveIds 档案ID集合
+     * @return 结果
+     */
+    public int deleteByArchiveIds(Long[] archiveIds);
+
     /**
      * 取消当前版本标识
      *
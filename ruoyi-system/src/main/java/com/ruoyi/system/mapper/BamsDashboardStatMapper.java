@@ -0,0 +1,75 @@
+package com.ruoyi.system.mapper;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 驾驶舱汇总Mapper接口
+ *
+ * @author ruoyi
+ */
+public interface BamsDashboardStatMapper
+{
+    /**
+     * 查询数据库当前时间
+     *
+     * @return 当前时间
+     */
+    public Date selectDbNow();
+
+    /**
+     * 查询指定时间之后新增或修改过的档案的创建日期
+     *
+     * @param since 起始时间
+     * @return 创建日期列表
+     */
+    public List<Date> selectChangedArchiveDates(@Param("since") Date since);
+
+    /**
+     * 删除汇总数据
+     *
+     * @param statDates 日期集合，为空时删除全部
+     * @return 结果
+     */
+    public int deleteDailyStats(@Param("statDates") Collection<Date> statDates);
+
+    /**
+     * 按档案表生成汇总数据
+     *
+     * @param statDates 日期集合，为空时生成全部
+     * @return 结果
+     */
+    public int insertDailyStats(@Param("statDates") Collection<Date> statDates);
+
+    /**
+     * 统计档案总量
+     *
+     * @return 档案总量
+     */
+    public Long sumTotalArchives();
+
+    /**
+     * 按档案分类汇总档案数
+     *
+     * @return 分类（name）及档案数（count）
+     */
+    public List<Map<String, Object>> sumArchivesByCategory();
+
+    /**
+     * 按阶段汇总档案数
+     *
+     * @return 阶段（name）及档案数（count）
+     */
+    public List<Map<String, Object>> sumArchivesByStage();
+
+    /**
+     * 按月汇总档案数
+     *
+     * @param startDate 起始日期
+     * @return 月份（month，yyyy-MM）及档案数（count）
+     */
+    public List<Map<String, Object>> sumArchivesByMonth(@Param("startDate") Date startDate);
+}
@@ -0,0 +1,69 @@
+package com.ruoyi.system.mapper;
+
+import java.util.List;
+import com.ruoyi.system.domain.BamsExportJob;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 后台导出任务Mapper接口
+ *
+ * @author ruoyi
+ */
+public interface BamsExportJobMapper
+{
+    /**
+     * 查询导出任务
+     *
+     * @param jobId 任务ID
+     * @return 导出任务
+     */
+    public BamsExportJob selectExportJobById(Long jobId);
+
+    /**
+     * 查询导出任务列表
+     *
+     * @param bamsExportJob 导出任务
+     * @return 导出任务集合
+     */
+    public List<BamsExportJob> selectExportJobList(BamsExportJob bamsExportJob);
+
+    /**
+     * 查询已过期的导出任务
+     *
+     * @return 导出任务集合
+     */
+    public List<BamsExportJob> selectExpiredJobs();
+
+    /**
+     * 新增导出任务
+     *
+     * @param bamsExportJob 导出任务
+     * @return 结果
+     */
+    public int insertExportJob(BamsExportJob bamsExportJob);
+
+    /**
+     * 修改导出任务
+     *
+     * @param bamsExportJob 导出任务
+     * @return 结果
+     */
+    public int updateExportJob(BamsExportJob bamsExportJob);
+
+    /**
+     * 将指定节点未完成的任务标记为失败（该节点重启后执行线程已不存在）
+     *
+     * @param nodeId 执行节点
+     * @param errorMsg 失败原因
+     * @return 结果
+     */
+    public int failInterruptedJobs(@Param("nodeId") String nodeId, @Param("errorMsg") String errorMsg);
+
+    /**
+     * 批量删除导出任务
+     *
+     * @param jobIds 需要删除的任务ID集合
+     * @return 结果
+     */
+    public int deleteExportJobByIds(Long[] jobIds);
+}
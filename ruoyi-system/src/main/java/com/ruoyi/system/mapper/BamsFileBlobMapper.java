@@ -0,0 +1,71 @@
+package com.ruoyi.system.mapper;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import com.ruoyi.system.domain.BamsFileBlob;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 档案文件存储Mapper接口
+ *
+ * @author ruoyi
+ */
+public interface BamsFileBlobMapper
+{
+    /**
+     * 根据哈希值查询文件（加行锁）
+     *
+     * @param fileHash 文件哈希值
+     * @return 文件存储记录
+     */
+    public BamsFileBlob selectBlobByHashForUpdate(String fileHash);
+
+    /**
+     * 根据哈希值批量查询文件（按哈希值顺序加行锁）
+     *
+     * @param fileHashes 文件哈希值集合
+     * @return 文件存储记录集合
+     */
+    public List<BamsFileBlob> selectBlobsByHashesForUpdate(@Param("fileHashes") Collection<String> fileHashes);
+
+    /**
+     * 新增文件记录，已存在时引用次数加一
+     *
+     * @param bamsFileBlob 文件存储记录
+     * @return 结果
+     */
+    public int insertOrIncrementBlob(BamsFileBlob bamsFileBlob);
+
+    /**
+     * 减少引用次数
+     *
+     * @param fileHash 文件哈希值
+     * @return 结果
+     */
+    public int decrementRefCount(@Param("fileHash") String fileHash);
+
+    /**
+     * 批量减少引用次数
+     *
+     * @param counts 文件哈希值 -> 减少的次数
+     * @return 结果
+     */
+    public int decrementRefCounts(@Param("counts") Map<String, Integer> counts);
+
+    /**
+     * 删除未被引用的文件记录
+     *
+     * @param fileHash 文件哈希值
+     * @return 结果
+     */
+    public int deleteUnreferencedBlob(@Param("fileHash") String fileHash);
+
+    /**
+     * 批量删除未被引用的文件记录
+     *
+     * @param fileHashes 文件哈希值集合
+     * @return 结果
+     */
+    public int deleteUnreferencedBlobs(@Param("fileHashes") Collection<String> fileHashes);
+}
@@ -0,0 +1,82 @@
+package com.ruoyi.system.mapper;
+
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import com.ruoyi.system.domain.BamsFileText;
+
+/**
+ * 文件正文抽取结果Mapper接口
+ *
+ * @author ruoyi
+ */
+public interface BamsFileTextMapper
+{
+    /**
+     * 按文件哈希值查询抽取结果
+     *
+     * @param fileHash 文件哈希值
+     * @param withContent 是否包含正文
+     * @return 抽取结果
+     */
+    public BamsFileText selectFileTextByHash(@Param("fileHash") String fileHash,
+            @Param("withContent") boolean withContent);
+
+    /**
+     * 新增排队中的抽取记录（已存在时忽略）
+     *
+     * @param fileText 抽取记录
+     * @return 结果
+     */
+    public int insertFileText(BamsFileText fileText);
+
+    /**
+     * 修改抽取记录的文件存储路径
+     *
+     * @param fileText 抽取记录
+     * @return 结果
+     */
+    public int updateFileTextPath(BamsFileText fileText);
+
+    /**
+     * 认领排队中的抽取任务（排队中改为处理中）
+     *
+     * @param fileHash 文件哈希值
+     * @return 结果，为 0 表示已被其他线程或节点认领
+     */
+    public int claimFileText(@Param("fileHash") String fileHash);
+
+    /**
+     * 写入抽取结果
+     *
+     * @param fileText 抽取结果
+     * @return 结果
+     */
+    public int updateFileTextResult(BamsFileText fileText);
+
+    /**
+     * 查询排队中的抽取记录（不含正文，按更新时间先后）
+     *
+     * @param limit 条数上限
+     * @return 抽取记录集合
+     */
+    public List<BamsFileText> selectQueuedFileTexts(@Param("limit") int limit);
+
+    /**
+     * 将处理超时的抽取记录重新排队
+     *
+     * @param timeoutSeconds 处理超时时间（秒）
+     * @return 结果
+     */
+    public int requeueStaleFileTexts(@Param("timeoutSeconds") int timeoutSeconds);
+
+    /**
+     * 将失败且未达到最大尝试次数的抽取记录重新排队
+     *
+     * @param fileHash 文件哈希值，为空时处理全部
+     * @param maxAttempts 最大尝试次数
+     * @param retryDelaySeconds 距上次失败的最短间隔（秒），按已尝试次数递增
+     * @return 结果
+     */
+    public int requeueFailedFileTexts(@Param("fileHash") String fileHash, @Param("maxAttempts") int maxAttempts,
+            @Param("retryDelaySeconds") int retryDelaySeconds);
+}
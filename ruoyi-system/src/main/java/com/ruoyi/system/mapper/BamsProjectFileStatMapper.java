@@ -0,0 +1,54 @@
+package com.ruoyi.system.mapper;
+
+import java.util.Collection;
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import com.ruoyi.system.domain.BamsProjectFileStat;
+
+/**
+ * 项目标准文件归档计数Mapper接口
+ *
+ * @author ruoyi
+ */
+public interface BamsProjectFileStatMapper
+{
+    /**
+     * 批量累加归档计数，记录不存在时新增
+     *
+     * @param deltas 计数变化量（archiveCount 可为负数）
+     * @return 结果
+     */
+    public int applyStatDeltas(List<BamsProjectFileStat> deltas);
+
+    /**
+     * 删除归档计数
+     *
+     * @param projectIds 项目ID集合，为空时删除全部
+     * @return 结果
+     */
+    public int deleteStats(@Param("projectIds") Collection<Long> projectIds);
+
+    /**
+     * 按档案表重新生成归档计数
+     *
+     * @param projectIds 项目ID集合，为空时生成全部
+     * @return 结果
+     */
+    public int insertStatsFromArchives(@Param("projectIds") Collection<Long> projectIds);
+
+    /**
+     * 按归档计数刷新阶段的已归档文件数和完整度
+     *
+     * @param projectIds 项目ID集合，为空时刷新全部
+     * @return 结果
+     */
+    public int refreshStageStatistics(@Param("projectIds") Collection<Long> projectIds);
+
+    /**
+     * 按阶段统计刷新项目的应归档文件数、已归档文件数和完整度
+     *
+     * @param projectIds 项目ID集合，为空时刷新全部
+     * @return 结果
+     */
+    public int refreshProjectStatistics(@Param("projectIds") Collection<Long> projectIds);
+}
@@ -1,5 +1,6 @@
 package com.ruoyi.system.mapper;
 
+import java.util.Collection;
 import java.util.List;
 import com.ruoyi.system.domain.BamsTagDictionary;
 import org.apache.ibatis.annotations.Param;
@@ -28,6 +29,14 @@ public interface BamsTagDictionaryMapper
      */
     public BamsTagDictionary selectBamsTagDictionaryByTagName(String tagName);
 
+    /**
+     * 根据标签名称批量查询标签
+     *
+     * @param tagNames 标签名称集合
+     * @return 标签字典集合
+     */
+    public List<BamsTagDictionary> selectBamsTagDictionaryByTagNames(@Param("tagNames") Collection<String> tagNames);
+
     /**
      * 查询标签字典列表
      *
@@ -95,15 +104,24 @@ public interface BamsTagDictionaryMapper
      * 批量增加标签使用次数
      *
      * @param tagIds 标签ID列表
+     * @param count 每个标签增加的次数
      * @return 结果
      */
-    public int batchIncrementUsageCount(@Param("tagIds") List<Long> tagIds);
+    public int batchIncrementUsageCount(@Param("tagIds") List<Long> tagIds, @Param("count") int count);
 
     /**
      * 批量减少标签使用次数
      *
      * @param tagIds 标签ID列表
+     * @param count 每个标签减少的次数
+     * @return 结果
+     */
+    public int batchDecrementUsageCount(@Param("tagIds") List<Long> tagIds, @Param("count") int count);
+
+    /**
+     * 按档案标签重新统计所有标签的使用次数
+     *
      * @return 结果
      */
-    public int batchDecrementUsageCount(@Param("tagIds") List<Long> tagIds);
+    public int reconcileUsageCount();
 }
@@ -1,6 +1,7 @@
 package com.ruoyi.system.service;
 
 import java.util.List;
+import java.util.Map;
 import com.ruoyi.system.domain.BamsArchiveAuditLog;
 
 /**
@@ -27,6 +28,22 @@ public interface IBamsArchiveAuditLogService
      */
     public List<BamsArchiveAuditLog> selectBamsArchiveAuditLogList(BamsArchiveAuditLog bamsArchiveAuditLog);
 
+    /**
+     * 按游标查询档案审计日志列表
+     *
+     * @param bamsArchiveAuditLog 审计日志（params 中包含游标条件）
+     * @return 审计日志集合
+     */
+    public List<BamsArchiveAuditLog> selectAuditLogListByCursor(BamsArchiveAuditLog bamsArchiveAuditLog);
+
+    /**
+     * 统计档案审计日志数量（结果短时缓存）
+     *
+     * @param bamsArchiveAuditLog 审计日志
+     * @return 数量
+     */
+    public long countAuditLogList(BamsArchiveAuditLog bamsArchiveAuditLog);
+
     /**
      * 根据档案ID查询审计日志
      *
@@ -58,4 +75,37 @@ public interface IBamsArchiveAuditLogService
      * @return 结果
      */
     public int deleteBamsArchiveAuditLogByLogIds(Long[] logIds);
+
+    /**
+     * 记录审计日志（异步批量写入）
+     *
+     * @param log 审计日志
+     */
+    public void recordAuditLog(BamsArchiveAuditLog log);
+
+    /**
+     * 批量记录审计日志（异步批量写入）
+     *
+     * 在事务中调用时，开启 outbox 模式则随业务事务一并提交，否则在事务提交后进入写入队列
+     *
+     * @param logs 审计日志列表
+     */
+    public void recordAuditLogs(List<BamsArchiveAuditLog> logs);
+
+    /**
+     * 立即写入队列中所有待写入的审计日志
+     */
+    public void flushAuditLogs();
+
+    /**
+     * 查询审计日志写入队列的运行指标
+     *
+     * @return 指标
+     */
+    public Map<String, Object> selectWriterStatistics();
+
+    /**
+     * 停止异步写入并写完队列中剩余的审计日志
+     */
+    public void shutdownWriter();
 }
@@ -0,0 +1,42 @@
+package com.ruoyi.system.service;
+
+import java.util.Collection;
+import java.util.List;
+import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.domain.BamsArchiveVersion;
+
+/**
+ * 档案详情缓存Service接口
+ *
+ * @author ruoyi
+ */
+public interface IBamsArchiveCacheService
+{
+    /**
+     * 查询档案详情（含版本列表及解析后的标签），返回的对象不得修改
+     *
+     * @param archiveId 档案主键
+     * @return 档案
+     */
+    public BamsArchive selectArchiveDetail(Long archiveId);
+
+    /**
+     * 查询档案的版本列表，返回的集合不得修改
+     *
+     * @param archiveId 档案主键
+     * @return 版本集合
+     */
+    public List<BamsArchiveVersion> selectArchiveVersions(Long archiveId);
+
+    /**
+     * 档案或其版本变更后失效缓存（立即失效，并在事务提交后再次失效）
+     *
+     * @param archiveIds 档案主键集合
+     */
+    public void evictArchives(Collection<Long> archiveIds);
+
+    /**
+     * 清空全部档案缓存（立即清空，并在事务提交后再次清空）
+     */
+    public void clearArchives();
+}
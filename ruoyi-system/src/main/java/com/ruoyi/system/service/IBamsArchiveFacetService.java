@@ -0,0 +1,27 @@
+package com.ruoyi.system.service;
+
+import java.util.List;
+import java.util.Map;
+import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.domain.vo.BamsFacetCount;
+
+/**
+ * 档案分面统计Service接口
+ *
+ * @author ruoyi
+ */
+public interface IBamsArchiveFacetService
+{
+    /**
+     * 按查询条件统计各分面（category、stage、fileType、year、tag）取值的档案数量，返回的对象不得修改
+     *
+     * @param bamsArchive 档案查询条件（标签筛选条件已规范）
+     * @return 分面名称 -> 分面统计
+     */
+    public Map<String, List<BamsFacetCount>> selectFacets(BamsArchive bamsArchive);
+
+    /**
+     * 档案变更后失效全部分面统计缓存（立即失效，并在事务提交后再次失效）
+     */
+    public void invalidate();
+}
@@ -0,0 +1,55 @@
+package com.ruoyi.system.service;
+
+import java.util.List;
+import org.springframework.web.multipart.MultipartFile;
+import com.ruoyi.system.domain.BamsArchiveImportError;
+import com.ruoyi.system.domain.BamsArchiveImportJob;
+
+/**
+ * 档案批量导入Service接口
+ *
+ * @author ruoyi
+ */
+public interface IBamsArchiveImportService
+{
+    /**
+     * 提交导入任务，在后台执行
+     *
+     * @param file 档案清单（Excel）
+     * @param sourcePath 附件来源（导入目录下的子目录或 ZIP 文件，可为空）
+     * @return 导入任务
+     */
+    public BamsArchiveImportJob submitImport(MultipartFile file, String sourcePath);
+
+    /**
+     * 从断点继续执行失败或中断的导入任务
+     *
+     * @param jobId 任务ID
+     * @return 导入任务
+     */
+    public BamsArchiveImportJob resumeImport(Long jobId);
+
+    /**
+     * 查询导入任务（仅本人或管理员可查看）
+     *
+     * @param jobId 任务ID
+     * @return 导入任务
+     */
+    public BamsArchiveImportJob selectImportJobById(Long jobId);
+
+    /**
+     * 查询导入任务列表（非管理员仅查看本人任务）
+     *
+     * @param bamsArchiveImportJob 查询条件
+     * @return 导入任务集合
+     */
+    public List<BamsArchiveImportJob> selectImportJobList(BamsArchiveImportJob bamsArchiveImportJob);
+
+    /**
+     * 查询导入错误明细
+     *
+     * @param jobId 任务ID
+     * @return 错误明细集合
+     */
+    public List<BamsArchiveImportError> selectImportErrorList(Long jobId);
+}
@@ -0,0 +1,57 @@
+package com.ruoyi.system.service;
+
+import java.util.List;
+import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.domain.BamsArchiveVersion;
+
+/**
+ * 档案全文检索Service接口
+ *
+ * @author ruoyi
+ */
+public interface IBamsArchiveSearchService
+{
+    /**
+     * 全文检索档案，按相关度排序
+     *
+     * @param keyword 关键字
+     * @param bamsArchive 过滤条件
+     * @return 档案集合
+     */
+    public List<BamsArchive> searchArchives(String keyword, BamsArchive bamsArchive);
+
+    /**
+     * 同步档案元数据索引（题名、描述、摘要、标签等）
+     *
+     * @param archiveId 档案ID
+     */
+    public void syncArchive(Long archiveId);
+
+    /**
+     * 批量同步档案元数据索引
+     *
+     * @param archiveIds 档案ID集合
+     */
+    public void syncArchives(List<Long> archiveIds);
+
+    /**
+     * 在当前事务提交后提交版本文件正文抽取，抽取完成后更新索引
+     *
+     * @param version 档案版本
+     */
+    public void indexVersionContent(BamsArchiveVersion version);
+
+    /**
+     * 删除档案索引
+     *
+     * @param archiveIds 档案ID集合
+     */
+    public void removeArchives(Long[] archiveIds);
+
+    /**
+     * 后台重建全部索引
+     *
+     * @return 是否已开始执行（已有重建任务在执行时返回 false）
+     */
+    public boolean rebuildIndex();
+}
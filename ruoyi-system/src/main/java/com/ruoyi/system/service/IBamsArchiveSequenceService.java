@@ -0,0 +1,43 @@
+package com.ruoyi.system.service;
+
+/**
+ * 档案流水号分配Service接口
+ *
+ * @author ruoyi
+ */
+public interface IBamsArchiveSequenceService
+{
+    /**
+     * 分配下一个档案编号
+     *
+     * @param projectCode 项目编号
+     * @return 档案编号（项目编号-4位流水号）
+     */
+    public String nextArchiveNumber(String projectCode);
+
+    /**
+     * 一次性分配一段连续的流水号
+     *
+     * @param projectCode 项目编号
+     * @param count 分配数量
+     * @return 本段第一个流水号，本段为 [返回值, 返回值 + count - 1]
+     */
+    public long allocateSequenceBlock(String projectCode, int count);
+
+    /**
+     * 登记手工指定的档案编号，保证之后分配的流水号不会与其重复
+     *
+     * @param projectCode 项目编号
+     * @param archiveNumber 档案编号
+     */
+    public void observeArchiveNumber(String projectCode, String archiveNumber);
+
+    /**
+     * 格式化档案编号
+     *
+     * @param projectCode 项目编号
+     * @param sequence 流水号
+     * @return 档案编号
+     */
+    public String formatArchiveNumber(String projectCode, long sequence);
+}
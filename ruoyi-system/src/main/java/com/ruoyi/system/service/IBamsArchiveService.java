@@ -1,7 +1,10 @@
 package com.ruoyi.system.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.domain.vo.BamsFacetCount;
 
 /**
  * 档案管理Service接口
@@ -19,6 +22,14 @@ public interface IBamsArchiveService
      */
     public BamsArchive selectBamsArchiveByArchiveId(Long archiveId);
 
+    /**
+     * 批量查询档案（不含版本列表）
+     *
+     * @param archiveIds 档案主键集合
+     * @return 档案集合
+     */
+    public List<BamsArchive> selectBamsArchiveByArchiveIds(Long[] archiveIds);
+
     /**
      * 查询档案列表
      *
@@ -27,6 +38,47 @@ public interface IBamsArchiveService
      */
     public List<BamsArchive> selectBamsArchiveList(BamsArchive bamsArchive);
 
+    /**
+     * 按游标查询档案列表
+     *
+     * @param bamsArchive 档案（params 中包含游标条件）
+     * @return 档案集合
+     */
+    public List<BamsArchive> selectBamsArchiveListByCursor(BamsArchive bamsArchive);
+
+    /**
+     * 流式导出档案列表，数据逐行交给写出方，不在内存中保留完整列表
+     *
+     * @param bamsArchive 档案
+     * @param writer 写出方，只能遍历一次数据源
+     */
+    public void exportBamsArchiveList(BamsArchive bamsArchive, Consumer<Iterable<BamsArchive>> writer);
+
+    /**
+     * 统计档案数量（结果短时缓存）
+     *
+     * @param bamsArchive 档案
+     * @return 数量
+     */
+    public long countBamsArchiveList(BamsArchive bamsArchive);
+
+    /**
+     * 统计满足查询条件的各标签档案数量（按数量倒序）
+     *
+     * @param bamsArchive 档案查询条件
+     * @param limit 返回的标签数上限
+     * @return 标签分面统计
+     */
+    public List<BamsFacetCount> selectTagFacets(BamsArchive bamsArchive, int limit);
+
+    /**
+     * 按查询条件统计各分面取值的档案数量（门类、阶段、文件类型、年度、标签），结果缓存至档案变更
+     *
+     * @param bamsArchive 档案查询条件
+     * @return 分面名称 -> 分面统计
+     */
+    public Map<String, List<BamsFacetCount>> selectArchiveFacets(BamsArchive bamsArchive);
+
     /**
      * 新增档案
      *
@@ -35,6 +87,14 @@ public interface IBamsArchiveService
      */
     public int insertBamsArchive(BamsArchive bamsArchive);
 
+    /**
+     * 批量新增档案（多行 INSERT），档号需由调用方预先分配
+     *
+     * @param archives 档案集合
+     * @return 结果
+     */
+    public int insertBamsArchiveBatch(List<BamsArchive> archives);
+
     /**
      * 修改档案
      *
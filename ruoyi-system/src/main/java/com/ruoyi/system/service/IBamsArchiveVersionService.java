@@ -1,7 +1,11 @@
 package com.ruoyi.system.service;
 
+import java.io.InputStream;
 import java.util.List;
+import com.ruoyi.system.domain.BamsArchive;
 import com.ruoyi.system.domain.BamsArchiveVersion;
+import com.ruoyi.system.domain.BamsUploadSession;
+import com.ruoyi.system.domain.vo.BamsStagedFile;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -44,10 +48,10 @@ public interface IBamsArchiveVersionService {
     public BamsArchiveVersion selectCurrentVersion(Long archiveId);
 
     /**
-     * 临时文件上传（用于OCR识别）
+     * 临时文件上传（提交正文抽取，返回题名、摘要、标签建议）
      *
      * @param file 文件
-     * @return 临时文件信息（包含文件路径、文件名等）
+     * @return 临时文件信息（包含文件路径、文件名、文件哈希值及识别建议 ocrResult 等）
      */
     public java.util.Map<String, Object> uploadTempFile(MultipartFile file);
 
@@ -61,6 +65,68 @@ public interface IBamsArchiveVersionService {
      */
     public BamsArchiveVersion uploadVersion(Long archiveId, MultipartFile file, String versionRemark);
 
+    /**
+     * 将文件写入临时目录并计算哈希值（不访问数据库，可并行调用）
+     *
+     * @param in       文件内容
+     * @param fileName 原始文件名
+     * @return 暂存文件
+     */
+    public BamsStagedFile stageFile(InputStream in, String fileName);
+
+    /**
+     * 为新导入的档案登记首个版本（批量写入版本并回填档案的版本信息）
+     *
+     * @param archives 已入库的档案
+     * @param files    与档案一一对应的暂存文件
+     * @return 新版本
+     */
+    public List<BamsArchiveVersion> insertImportedVersions(List<BamsArchive> archives, List<BamsStagedFile> files);
+
+    /**
+     * 初始化分片上传会话
+     *
+     * @param archiveId     档案ID
+     * @param fileName      原始文件名
+     * @param fileSize      文件总大小（字节）
+     * @param versionRemark 版本说明
+     * @return 上传会话
+     */
+    public BamsUploadSession initChunkUpload(Long archiveId, String fileName, Long fileSize, String versionRemark);
+
+    /**
+     * 查询分片上传会话
+     *
+     * @param uploadId 上传会话ID
+     * @return 上传会话（包含已上传偏移量）
+     */
+    public BamsUploadSession selectUploadSession(String uploadId);
+
+    /**
+     * 上传一个分片
+     *
+     * @param uploadId 上传会话ID
+     * @param offset   分片起始偏移量
+     * @param chunk    分片数据
+     * @return 更新后的上传会话
+     */
+    public BamsUploadSession uploadChunk(String uploadId, Long offset, MultipartFile chunk);
+
+    /**
+     * 完成分片上传并生成新版本
+     *
+     * @param uploadId 上传会话ID
+     * @return 新版本
+     */
+    public BamsArchiveVersion completeChunkUpload(String uploadId);
+
+    /**
+     * 取消分片上传
+     *
+     * @param uploadId 上传会话ID
+     */
+    public void abortChunkUpload(String uploadId);
+
     /**
      * 修改版本说明
      *
@@ -0,0 +1,76 @@
+package com.ruoyi.system.service;
+
+import java.io.File;
+import java.util.List;
+import java.util.function.Consumer;
+import com.ruoyi.system.domain.BamsExportJob;
+
+/**
+ * 后台导出任务Service接口
+ *
+ * @author ruoyi
+ */
+public interface IBamsExportJobService
+{
+    /**
+     * 导出数据源，将待导出的数据交给写出方（只能遍历一次）
+     */
+    @FunctionalInterface
+    public interface ExportDataProvider<T>
+    {
+        public void fetch(Consumer<Iterable<T>> writer);
+    }
+
+    /**
+     * 提交导出任务，在后台线程池中执行
+     *
+     * @param jobType 导出类型
+     * @param sheetName 工作表名称（同时作为下载文件名前缀）
+     * @param clazz 导出对象类型
+     * @param queryParams 查询条件（仅用于记录）
+     * @param totalRows 总行数，未知时传空（数据源为集合时自动取集合大小）
+     * @param provider 数据源
+     * @return 导出任务
+     */
+    public <T> BamsExportJob submitExportJob(String jobType, String sheetName, Class<T> clazz, Object queryParams,
+            Long totalRows, ExportDataProvider<T> provider);
+
+    /**
+     * 查询导出任务（只能查看本人提交的任务，管理员除外）
+     *
+     * @param jobId 任务ID
+     * @return 导出任务
+     */
+    public BamsExportJob selectExportJobById(Long jobId);
+
+    /**
+     * 查询当前用户的导出任务列表
+     *
+     * @param bamsExportJob 导出任务
+     * @return 导出任务集合
+     */
+    public List<BamsExportJob> selectExportJobList(BamsExportJob bamsExportJob);
+
+    /**
+     * 获取已完成任务的结果文件
+     *
+     * @param bamsExportJob 导出任务
+     * @return 结果文件
+     */
+    public File getExportFile(BamsExportJob bamsExportJob);
+
+    /**
+     * 批量删除导出任务及结果文件
+     *
+     * @param jobIds 需要删除的任务ID集合
+     * @return 结果
+     */
+    public int deleteExportJobByIds(Long[] jobIds);
+
+    /**
+     * 清理已过期的导出任务及结果文件
+     *
+     * @return 清理的任务数
+     */
+    public int cleanExpiredJobs();
+}
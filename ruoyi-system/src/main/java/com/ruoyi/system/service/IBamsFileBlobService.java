@@ -0,0 +1,38 @@
+package com.ruoyi.system.service;
+
+import java.io.File;
+import java.util.List;
+import com.ruoyi.system.domain.BamsArchiveVersion;
+
+/**
+ * 档案文件存储Service接口（按 SHA-256 内容寻址，引用计数去重）
+ *
+ * @author ruoyi
+ */
+public interface IBamsFileBlobService
+{
+    /**
+     * 保存文件内容，相同内容只保存一份
+     *
+     * @param tempFile 已写入磁盘的临时文件，调用后会被移动或删除
+     * @param fileHash 文件 SHA-256 哈希值
+     * @param fileSize 文件大小
+     * @return 文件存储的相对路径（不含 /profile 前缀）
+     */
+    public String storeBlob(File tempFile, String fileHash, long fileSize);
+
+    /**
+     * 释放一次文件引用，无引用时删除物理文件
+     *
+     * @param fileHash 文件 SHA-256 哈希值
+     * @param filePath 版本记录中的文件路径
+     */
+    public void releaseBlob(String fileHash, String filePath);
+
+    /**
+     * 批量释放版本的文件引用（按哈希值汇总后一次更新引用次数），无引用时删除物理文件
+     *
+     * @param versions 版本集合
+     */
+    public void releaseBlobs(List<BamsArchiveVersion> versions);
+}
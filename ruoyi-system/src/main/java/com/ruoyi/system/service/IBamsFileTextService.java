@@ -0,0 +1,48 @@
+package com.ruoyi.system.service;
+
+import java.util.Map;
+import com.ruoyi.system.domain.BamsFileText;
+
+/**
+ * 文件正文抽取Service接口
+ *
+ * @author ruoyi
+ */
+public interface IBamsFileTextService
+{
+    /**
+     * 提交正文抽取，相同哈希值的文件已抽取过时直接返回已有结果
+     *
+     * @param fileHash 文件 SHA-256 哈希值
+     * @param filePath 文件存储路径（相对路径，不含 /profile 前缀）
+     * @param fileName 原始文件名
+     * @return 抽取结果（已结束时包含正文），参数无效时返回空
+     */
+    public BamsFileText submitExtraction(String fileHash, String filePath, String fileName);
+
+    /**
+     * 按文件哈希值查询抽取结果
+     *
+     * @param fileHash 文件哈希值
+     * @param withContent 是否包含正文
+     * @return 抽取结果
+     */
+    public BamsFileText selectFileText(String fileHash, boolean withContent);
+
+    /**
+     * 查询版本文件的抽取结果
+     *
+     * @param versionId 版本ID
+     * @param withContent 是否包含正文
+     * @return 抽取结果，尚未提交抽取时返回空
+     */
+    public BamsFileText selectVersionFileText(Long versionId, boolean withContent);
+
+    /**
+     * 根据抽取出的正文生成档案元数据建议（题名、摘要、标签）
+     *
+     * @param fileHash 文件哈希值
+     * @return 建议内容，包含抽取状态
+     */
+    public Map<String, Object> selectTextSuggestion(String fileHash);
+}
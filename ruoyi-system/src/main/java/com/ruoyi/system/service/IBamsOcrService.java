@@ -0,0 +1,36 @@
+package com.ruoyi.system.service;
+
+import java.io.File;
+
+/**
+ * 图片文字识别（OCR）Service接口
+ *
+ * 正文抽取时使用第一个可用的实现，可按需注册其他本地识别引擎。
+ *
+ * @author ruoyi
+ */
+public interface IBamsOcrService
+{
+    /**
+     * 识别引擎名称
+     *
+     * @return 名称
+     */
+    public String getName();
+
+    /**
+     * 识别引擎是否可用（已配置且已安装）
+     *
+     * @return 结果
+     */
+    public boolean isAvailable();
+
+    /**
+     * 识别图片中的文字
+     *
+     * @param image 图片文件（JPG、PNG）
+     * @return 识别出的文字
+     * @throws Exception 识别失败
+     */
+    public String recognize(File image) throws Exception;
+}
@@ -0,0 +1,35 @@
+package com.ruoyi.system.service;
+
+import java.util.Collection;
+
+/**
+ * 项目完整度统计Service接口
+ *
+ * @author ruoyi
+ */
+public interface IBamsProjectStatisticsService
+{
+    /**
+     * 标记项目统计数据需要刷新（在事务中调用时于提交后生效），由后台合并刷新
+     *
+     * @param projectIds 项目ID集合
+     */
+    public void markProjectsDirty(Collection<Long> projectIds);
+
+    /**
+     * 按归档计数批量刷新已标记项目的阶段和项目统计数据
+     */
+    public void refreshDirtyProjects();
+
+    /**
+     * 按档案表重建指定项目的归档计数并刷新统计数据
+     *
+     * @param projectIds 项目ID集合
+     */
+    public void reconcileProjects(Collection<Long> projectIds);
+
+    /**
+     * 按档案表重建全部项目的归档计数并刷新统计数据
+     */
+    public void reconcileAll();
+}
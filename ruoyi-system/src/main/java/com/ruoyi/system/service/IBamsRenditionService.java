@@ -0,0 +1,49 @@
+package com.ruoyi.system.service;
+
+import java.io.File;
+import com.ruoyi.system.domain.BamsArchiveVersion;
+
+/**
+ * 档案文件缩略图、预览图Service接口
+ *
+ * @author ruoyi
+ */
+public interface IBamsRenditionService
+{
+    /** 缩略图（首页 PNG） */
+    public static final String TYPE_THUMB = "thumb";
+
+    /** 预览图（缩小后的 JPG） */
+    public static final String TYPE_PREVIEW = "preview";
+
+    /**
+     * 提交生成版本文件的缩略图和预览图，事务中调用时在提交后执行
+     *
+     * @param version 档案版本
+     */
+    public void submitRendition(BamsArchiveVersion version);
+
+    /**
+     * 获取版本文件的缩略图或预览图，尚未生成时提交生成
+     *
+     * @param version 档案版本
+     * @param type 类型（thumb、preview）
+     * @return 图片文件，尚未生成或文件格式不支持时返回空
+     */
+    public File getRendition(BamsArchiveVersion version, String type);
+
+    /**
+     * 获取缩略图或预览图的 Content-Type
+     *
+     * @param type 类型（thumb、preview）
+     * @return Content-Type
+     */
+    public String getContentType(String type);
+
+    /**
+     * 删除文件内容对应的缩略图和预览图，事务中调用时在提交后执行
+     *
+     * @param fileHash 文件哈希值
+     */
+    public void removeRenditions(String fileHash);
+}
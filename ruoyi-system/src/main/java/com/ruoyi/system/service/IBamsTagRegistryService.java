@@ -0,0 +1,57 @@
+package com.ruoyi.system.service;
+
+import java.util.List;
+import java.util.Map;
+import com.ruoyi.system.domain.BamsTagDictionary;
+
+/**
+ * 标签注册表Service接口（常驻内存的标签字典及使用次数计数）
+ *
+ * @author ruoyi
+ */
+public interface IBamsTagRegistryService
+{
+    /**
+     * 根据标签名称获取标签ID
+     *
+     * @param tagName 标签名称
+     * @return 标签ID，不在字典中时返回空
+     */
+    public Long getTagId(String tagName);
+
+    /**
+     * 查询所有启用的标签（按使用次数倒序）
+     *
+     * @return 标签列表
+     */
+    public List<BamsTagDictionary> selectEnabledTags();
+
+    /**
+     * 记录标签使用次数变化，当前事务提交后计入内存计数，由后台定时批量写入数据库
+     *
+     * @param deltas 标签名称 -> 变化量（负数表示减少），不在字典中的标签忽略
+     */
+    public void recordUsage(Map<String, Integer> deltas);
+
+    /**
+     * 将内存中累计的使用次数变化写入数据库
+     */
+    public void flushUsage();
+
+    /**
+     * 重新加载标签字典
+     */
+    public void refresh();
+
+    /**
+     * 按档案标签重新统计所有标签的使用次数
+     *
+     * @return 更新的标签数
+     */
+    public int reconcileUsageCount();
+
+    /**
+     * 停止定时写入并写完剩余的计数
+     */
+    public void shutdown();
+}
@@ -16,4 +16,14 @@ public interface IDashboardService
      * @return 统计数据
      */
     Map<String, Object> getDashboardOverview();
+
+    /**
+     * 增量刷新驾驶舱汇总表（只重算上次刷新后有档案变化的日期）
+     */
+    void refreshDashboardStats();
+
+    /**
+     * 全量重建驾驶舱汇总表
+     */
+    void rebuildDashboardStats();
 }
@@ -1,8 +1,31 @@
 package com.ruoyi.system.service.impl;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import jakarta.annotation.PostConstruct;
+import com.alibaba.fastjson2.JSON;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.core.redis.RedisCache;
+import com.ruoyi.common.core.text.Convert;
+import com.ruoyi.common.utils.sign.Md5Utils;
 import com.ruoyi.system.mapper.BamsArchiveAuditLogMapper;
 import com.ruoyi.system.domain.BamsArchiveAuditLog;
 import com.ruoyi.system.service.IBamsArchiveAuditLogService;
@@ -16,9 +39,75 @@ import com.ruoyi.system.service.IBamsArchiveAuditLogService;
 @Service
 public class BamsArchiveAuditLogServiceImpl implements IBamsArchiveAuditLogService
 {
+    private static final Logger log = LoggerFactory.getLogger(BamsArchiveAuditLogServiceImpl.class);
+
+    /** 列表总数缓存时间（秒） */
+    private static final int LIST_COUNT_EXPIRATION = 60;
+
     @Autowired
     private BamsArchiveAuditLogMapper bamsArchiveAuditLogMapper;
 
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    /** 每批写入的最大条数 */
+    @Value("${bams.audit.batchSize:200}")
+    private int batchSize;
+
+    /** 定时写入间隔（毫秒） */
+    @Value("${bams.audit.flushInterval:1000}")
+    private long flushInterval;
+
+    /** 写入队列容量，队列满时由调用线程直接写入 */
+    @Value("${bams.audit.queueCapacity:10000}")
+    private int queueCapacity;
+
+    /** 事务中的审计日志是否随业务事务一并提交 */
+    @Value("${bams.audit.outbox:true}")
+    private boolean outbox;
+
+    private BlockingQueue<BamsArchiveAuditLog> queue;
+
+    private ScheduledFuture<?> flushTask;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private volatile boolean closed;
+
+    /** 入队条数 */
+    private final LongAdder enqueuedCount = new LongAdder();
+
+    /** 已写入条数 */
+    private final LongAdder writtenCount = new LongAdder();
+
+    /** 已写入批次数 */
+    private final LongAdder batchCount = new LongAdder();
+
+    /** 队列已满、由调用线程同步写入的条数 */
+    private final LongAdder callerRunsCount = new LongAdder();
+
+    /** 写入失败被丢弃的条数 */
+    private final LongAdder failedCount = new LongAdder();
+
+    /** 队列最大积压 */
+    private final AtomicLong maxQueueSize = new AtomicLong();
+
+    /** 最近一次写入耗时（毫秒） */
+    private volatile long lastFlushCost;
+
+    @PostConstruct
+    public void init()
+    {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        flushTask = scheduledExecutorService.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval,
+                TimeUnit.MILLISECONDS);
+    }
+
     /**
      * 查询档案审计日志
      *
@@ -43,6 +132,38 @@ public class BamsArchiveAuditLogServiceImpl implements IBamsArchiveAuditLogServi
         return bamsArchiveAuditLogMapper.selectBamsArchiveAuditLogList(bamsArchiveAuditLog);
     }
 
+    /**
+     * 按游标查询档案审计日志列表
+     *
+     * @param bamsArchiveAuditLog 审计日志（params 中包含游标条件）
+     * @return 审计日志集合
+     */
+    @Override
+    public List<BamsArchiveAuditLog> selectAuditLogListByCursor(BamsArchiveAuditLog bamsArchiveAuditLog)
+    {
+        return bamsArchiveAuditLogMapper.selectAuditLogListByCursor(bamsArchiveAuditLog);
+    }
+
+    /**
+     * 统计档案审计日志数量（相同查询条件的结果缓存一分钟）
+     *
+     * @param bamsArchiveAuditLog 审计日志
+     * @return 数量
+     */
+    @Override
+    public long countAuditLogList(BamsArchiveAuditLog bamsArchiveAuditLog)
+    {
+        String key = CacheConstants.BAMS_LIST_COUNT_KEY + "auditLog:"
+                + Md5Utils.hash(JSON.toJSONString(bamsArchiveAuditLog));
+        Long count = Convert.toLong(redisCache.getCacheObject(key));
+        if (count == null)
+        {
+            count = bamsArchiveAuditLogMapper.countAuditLogList(bamsArchiveAuditLog);
+            redisCache.setCacheObject(key, count, LIST_COUNT_EXPIRATION, TimeUnit.SECONDS);
+        }
+        return count;
+    }
+
     /**
      * 根据档案ID查询审计日志
      *
@@ -90,4 +211,244 @@ public class BamsArchiveAuditLogServiceImpl implements IBamsArchiveAuditLogServi
     {
         return bamsArchiveAuditLogMapper.deleteBamsArchiveAuditLogByLogIds(logIds);
     }
+
+    /**
+     * 记录审计日志（异步批量写入）
+     *
+     * @param log 审计日志
+     */
+    @Override
+    public void recordAuditLog(BamsArchiveAuditLog log)
+    {
+        List<BamsArchiveAuditLog> logs = new ArrayList<>(1);
+        logs.add(log);
+        recordAuditLogs(logs);
+    }
+
+    /**
+     * 批量记录审计日志（异步批量写入）
+     *
+     * @param logs 审计日志列表
+     */
+    @Override
+    public void recordAuditLogs(List<BamsArchiveAuditLog> logs)
+    {
+        if (logs == null || logs.isEmpty())
+        {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            enqueue(logs);
+            return;
+        }
+        if (outbox)
+        {
+            // 同一事务内的审计日志在提交前一次性写入，业务回滚时一并回滚
+            getOutbox().logs.addAll(logs);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+        {
+            @Override
+            public void afterCommit()
+            {
+                enqueue(logs);
+            }
+        });
+    }
+
+    /**
+     * 立即写入队列中所有待写入的审计日志
+     */
+    @Override
+    public void flushAuditLogs()
+    {
+        flushLock.lock();
+        try
+        {
+            flushScheduled.set(false);
+            List<BamsArchiveAuditLog> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0)
+            {
+                long start = System.currentTimeMillis();
+                writeBatch(batch);
+                lastFlushCost = System.currentTimeMillis() - start;
+                batch.clear();
+            }
+        }
+        finally
+        {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 查询审计日志写入队列的运行指标
+     *
+     * @return 指标
+     */
+    @Override
+    public Map<String, Object> selectWriterStatistics()
+    {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("outbox", outbox);
+        stats.put("batchSize", batchSize);
+        stats.put("flushInterval", flushInterval);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("queueSize", queue.size());
+        stats.put("maxQueueSize", maxQueueSize.get());
+        stats.put("enqueuedCount", enqueuedCount.sum());
+        stats.put("writtenCount", writtenCount.sum());
+        stats.put("batchCount", batchCount.sum());
+        stats.put("callerRunsCount", callerRunsCount.sum());
+        stats.put("failedCount", failedCount.sum());
+        stats.put("lastFlushCost", lastFlushCost);
+        stats.put("closed", closed);
+        return stats;
+    }
+
+    /**
+     * 停止异步写入并写完队列中剩余的审计日志
+     */
+    @Override
+    public void shutdownWriter()
+    {
+        closed = true;
+        if (flushTask != null)
+        {
+            flushTask.cancel(false);
+        }
+        flushAuditLogs();
+    }
+
+    /**
+     * 放入写入队列，队列已满时由调用线程同步写入
+     */
+    private void enqueue(List<BamsArchiveAuditLog> logs)
+    {
+        if (closed)
+        {
+            writeBatch(logs);
+            return;
+        }
+        List<BamsArchiveAuditLog> overflow = null;
+        for (BamsArchiveAuditLog auditLog : logs)
+        {
+            if (queue.offer(auditLog))
+            {
+                enqueuedCount.increment();
+            }
+            else
+            {
+                if (overflow == null)
+                {
+                    overflow = new ArrayList<>();
+                }
+                overflow.add(auditLog);
+            }
+        }
+        int size = queue.size();
+        maxQueueSize.accumulateAndGet(size, Math::max);
+        if (overflow != null)
+        {
+            callerRunsCount.add(overflow.size());
+            writeBatch(overflow);
+        }
+        if (size >= batchSize && flushScheduled.compareAndSet(false, true))
+        {
+            scheduledExecutorService.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * 批量写入，失败时逐条重试，只丢弃确实无法写入的记录
+     */
+    private void writeBatch(List<BamsArchiveAuditLog> logs)
+    {
+        if (logs.isEmpty())
+        {
+            return;
+        }
+        try
+        {
+            bamsArchiveAuditLogMapper.batchInsertAuditLog(logs);
+            writtenCount.add(logs.size());
+            batchCount.increment();
+            return;
+        }
+        catch (Exception e)
+        {
+            log.error("批量写入审计日志失败，改为逐条写入，共 {} 条", logs.size(), e);
+        }
+        for (BamsArchiveAuditLog auditLog : logs)
+        {
+            try
+            {
+                bamsArchiveAuditLogMapper.insertBamsArchiveAuditLog(auditLog);
+                writtenCount.increment();
+            }
+            catch (Exception e)
+            {
+                failedCount.increment();
+                log.error("写入审计日志失败：档案ID={}，操作类型={}，描述={}", auditLog.getArchiveId(),
+                        auditLog.getOperationType(), auditLog.getOperationDesc(), e);
+            }
+        }
+    }
+
+    private void flushQuietly()
+    {
+        try
+        {
+            flushAuditLogs();
+        }
+        catch (Exception e)
+        {
+            log.error("写入审计日志队列失败", e);
+        }
+    }
+
+    /**
+     * 获取当前事务的审计日志缓冲，首次调用时注册事务同步
+     */
+    private AuditOutbox getOutbox()
+    {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations())
+        {
+            if (synchronization instanceof AuditOutbox && ((AuditOutbox) synchronization).owner == this)
+            {
+                return (AuditOutbox) synchronization;
+            }
+        }
+        AuditOutbox auditOutbox = new AuditOutbox(this);
+        TransactionSynchronizationManager.registerSynchronization(auditOutbox);
+        return auditOutbox;
+    }
+
+    /**
+     * 事务内的审计日志缓冲，在事务提交前与业务数据在同一连接中批量写入
+     */
+    private static class AuditOutbox implements TransactionSynchronization
+    {
+        private final BamsArchiveAuditLogServiceImpl owner;
+
+        private final List<BamsArchiveAuditLog> logs = new ArrayList<>();
+
+        AuditOutbox(BamsArchiveAuditLogServiceImpl owner)
+        {
+            this.owner = owner;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly)
+        {
+            for (int i = 0; i < logs.size(); i += owner.batchSize)
+            {
+                owner.bamsArchiveAuditLogMapper.batchInsertAuditLog(
+                        logs.subList(i, Math.min(i + owner.batchSize, logs.size())));
+            }
+            owner.writtenCount.add(logs.size());
+        }
+    }
 }
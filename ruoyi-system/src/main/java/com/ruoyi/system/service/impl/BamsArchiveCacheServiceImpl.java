@@ -0,0 +1,170 @@
+package com.ruoyi.system.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.TypeReference;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.core.redis.NearCache;
+import com.ruoyi.common.core.redis.NearCacheManager;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.domain.BamsArchiveVersion;
+import com.ruoyi.system.mapper.BamsArchiveMapper;
+import com.ruoyi.system.mapper.BamsArchiveVersionMapper;
+import com.ruoyi.system.service.IBamsArchiveCacheService;
+
+/**
+ * 档案详情缓存Service业务层处理
+ *
+ * 档案详情与版本列表分别缓存在本地（Caffeine）和 Redis 两级，档案、版本、标签变更时按档案失效。
+ * 失效在调用时执行一次、事务提交后再执行一次，避免提交前被并发读取回填旧值。
+ *
+ * @author ruoyi
+ */
+@Service
+public class BamsArchiveCacheServiceImpl implements IBamsArchiveCacheService
+{
+    @Autowired
+    private NearCacheManager nearCacheManager;
+
+    @Autowired
+    private BamsArchiveMapper archiveMapper;
+
+    @Autowired
+    private BamsArchiveVersionMapper versionMapper;
+
+    /** 本地缓存最大条数 */
+    @Value("${bams.cache.archive.maximumSize:10000}")
+    private long maximumSize;
+
+    /** 本地缓存有效期（秒） */
+    @Value("${bams.cache.archive.localTimeout:300}")
+    private int localTimeout;
+
+    /** Redis 缓存有效期（秒） */
+    @Value("${bams.cache.archive.redisTimeout:3600}")
+    private int redisTimeout;
+
+    private NearCache<BamsArchive> detailCache;
+
+    private NearCache<List<BamsArchiveVersion>> versionsCache;
+
+    @PostConstruct
+    public void init()
+    {
+        detailCache = nearCacheManager.createCache(CacheConstants.BAMS_ARCHIVE_KEY, BamsArchive.class,
+                maximumSize, localTimeout, redisTimeout);
+        versionsCache = nearCacheManager.createCache(CacheConstants.BAMS_ARCHIVE_VERSIONS_KEY,
+                new TypeReference<List<BamsArchiveVersion>>() {}.getType(), maximumSize, localTimeout, redisTimeout);
+    }
+
+    /**
+     * 查询档案详情（含版本列表及解析后的标签），返回的对象不得修改
+     *
+     * @param archiveId 档案主键
+     * @return 档案
+     */
+    @Override
+    public BamsArchive selectArchiveDetail(Long archiveId)
+    {
+        if (archiveId == null)
+        {
+            return null;
+        }
+        return detailCache.get(archiveId, () -> {
+            BamsArchive archive = archiveMapper.selectBamsArchiveByArchiveId(archiveId);
+            if (archive != null)
+            {
+                archive.setVersions(selectArchiveVersions(archiveId));
+                if (StringUtils.isNotEmpty(archive.getTags()))
+                {
+                    archive.setTagList(JSON.parseArray(archive.getTags(), String.class));
+                }
+            }
+            return archive;
+        });
+    }
+
+    /**
+     * 查询档案的版本列表，返回的集合不得修改
+     *
+     * @param archiveId 档案主键
+     * @return 版本集合
+     */
+    @Override
+    public List<BamsArchiveVersion> selectArchiveVersions(Long archiveId)
+    {
+        if (archiveId == null)
+        {
+            return new ArrayList<>();
+        }
+        return versionsCache.get(archiveId, () -> versionMapper.selectVersionsByArchiveId(archiveId));
+    }
+
+    /**
+     * 档案或其版本变更后失效缓存（立即失效，并在事务提交后再次失效）
+     *
+     * @param archiveIds 档案主键集合
+     */
+    @Override
+    public void evictArchives(Collection<Long> archiveIds)
+    {
+        if (archiveIds == null || archiveIds.isEmpty())
+        {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(archiveIds);
+        evictNow(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCompletion(int status)
+                {
+                    evictNow(ids);
+                }
+            });
+        }
+    }
+
+    /**
+     * 清空全部档案缓存（立即清空，并在事务提交后再次清空）
+     */
+    @Override
+    public void clearArchives()
+    {
+        clearNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCompletion(int status)
+                {
+                    clearNow();
+                }
+            });
+        }
+    }
+
+    private void evictNow(List<Long> archiveIds)
+    {
+        versionsCache.evict(archiveIds);
+        detailCache.evict(archiveIds);
+    }
+
+    private void clearNow()
+    {
+        detailCache.clear();
+        versionsCache.clear();
+    }
+}
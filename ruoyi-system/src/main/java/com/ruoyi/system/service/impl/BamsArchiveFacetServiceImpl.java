@@ -0,0 +1,182 @@
+package com.ruoyi.system.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.TypeReference;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.utils.sign.Md5Utils;
+import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.domain.vo.BamsArchiveFacetGroup;
+import com.ruoyi.system.domain.vo.BamsFacetCount;
+import com.ruoyi.system.mapper.BamsArchiveMapper;
+import com.ruoyi.system.mapper.BamsArchiveTagMapper;
+import com.ruoyi.system.service.IBamsArchiveFacetService;
+
+/**
+ * 档案分面统计Service业务层处理
+ *
+ * 门类、阶段、文件类型、年度按四个维度的组合一次分组查询后在内存中汇总，标签按档案标签关系表分组。
+ * 结果按查询条件缓存在本地和 Redis，缓存键包含 Redis 中的全局版本号，档案变更时递增版本号使所有节点的旧结果失效，
+ * 旧结果不再被访问，到期后自动清除。
+ *
+ * @author ruoyi
+ */
+@Service
+public class BamsArchiveFacetServiceImpl implements IBamsArchiveFacetService
+{
+    /** 分面统计版本号 redis key */
+    private static final String GENERATION_KEY = CacheConstants.BAMS_ARCHIVE_FACET_KEY + "generation";
+
+    private static final TypeReference<Map<String, List<BamsFacetCount>>> FACETS_TYPE =
+            new TypeReference<Map<String, List<BamsFacetCount>>>() {};
+
+    @Autowired
+    private BamsArchiveMapper archiveMapper;
+
+    @Autowired
+    private BamsArchiveTagMapper archiveTagMapper;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    /** 本地缓存的查询条件组合数上限 */
+    @Value("${bams.cache.facet.maximumSize:1000}")
+    private long maximumSize;
+
+    /** 缓存有效期（秒） */
+    @Value("${bams.cache.facet.timeout:600}")
+    private int timeout;
+
+    /** 标签分面返回的标签数上限 */
+    @Value("${bams.cache.facet.tagLimit:50}")
+    private int tagLimit;
+
+    /** 版本号:条件摘要 -> 分面统计 */
+    private Cache<String, Map<String, List<BamsFacetCount>>> localCache;
+
+    @PostConstruct
+    public void init()
+    {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeout, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 按查询条件统计各分面（category、stage、fileType、year、tag）取值的档案数量，返回的对象不得修改
+     *
+     * @param bamsArchive 档案查询条件（标签筛选条件已规范）
+     * @return 分面名称 -> 分面统计
+     */
+    @Override
+    public Map<String, List<BamsFacetCount>> selectFacets(BamsArchive bamsArchive)
+    {
+        bamsArchive.getParams().put("facetLimit", tagLimit);
+        String key = currentGeneration() + ":" + Md5Utils.hash(JSON.toJSONString(bamsArchive));
+        return localCache.get(key, k -> loadRemote(k, bamsArchive));
+    }
+
+    /**
+     * 档案变更后失效全部分面统计缓存（立即失效，并在事务提交后再次失效）
+     */
+    @Override
+    public void invalidate()
+    {
+        stringRedisTemplate.opsForValue().increment(GENERATION_KEY);
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            // 提交前并发读取到的旧数据会以新版本号回填，提交后再递增一次
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCompletion(int status)
+                {
+                    stringRedisTemplate.opsForValue().increment(GENERATION_KEY);
+                }
+            });
+        }
+    }
+
+    private String currentGeneration()
+    {
+        String generation = stringRedisTemplate.opsForValue().get(GENERATION_KEY);
+        return generation != null ? generation : "0";
+    }
+
+    private Map<String, List<BamsFacetCount>> loadRemote(String key, BamsArchive bamsArchive)
+    {
+        String redisKey = CacheConstants.BAMS_ARCHIVE_FACET_KEY + key;
+        String cached = stringRedisTemplate.opsForValue().get(redisKey);
+        if (cached != null)
+        {
+            return JSON.parseObject(cached, FACETS_TYPE);
+        }
+        Map<String, List<BamsFacetCount>> facets = computeFacets(bamsArchive);
+        stringRedisTemplate.opsForValue().set(redisKey, JSON.toJSONString(facets), timeout, TimeUnit.SECONDS);
+        return facets;
+    }
+
+    private Map<String, List<BamsFacetCount>> computeFacets(BamsArchive bamsArchive)
+    {
+        Map<String, Long> categories = new HashMap<>();
+        Map<String, Long> stages = new HashMap<>();
+        Map<String, Long> fileTypes = new HashMap<>();
+        Map<String, Long> years = new HashMap<>();
+        for (BamsArchiveFacetGroup group : archiveMapper.selectArchiveFacetGroups(bamsArchive))
+        {
+            accumulate(categories, group.getArchiveCategory(), group.getCount());
+            accumulate(stages, group.getStage(), group.getCount());
+            accumulate(fileTypes, group.getFileType(), group.getCount());
+            accumulate(years, group.getFileYear(), group.getCount());
+        }
+
+        Comparator<BamsFacetCount> byCount = Comparator.comparing(BamsFacetCount::getCount).reversed()
+                .thenComparing(BamsFacetCount::getValue);
+        Map<String, List<BamsFacetCount>> facets = new LinkedHashMap<>();
+        facets.put("category", toFacets(categories, byCount));
+        facets.put("stage", toFacets(stages, byCount));
+        facets.put("fileType", toFacets(fileTypes, byCount));
+        facets.put("year", toFacets(years, Comparator.comparing(BamsFacetCount::getValue).reversed()));
+        facets.put("tag", archiveTagMapper.selectTagFacets(bamsArchive));
+        return facets;
+    }
+
+    private void accumulate(Map<String, Long> counts, String value, Long count)
+    {
+        if (value != null && !value.isEmpty() && count != null)
+        {
+            counts.merge(value, count, Long::sum);
+        }
+    }
+
+    private List<BamsFacetCount> toFacets(Map<String, Long> counts, Comparator<BamsFacetCount> order)
+    {
+        List<BamsFacetCount> facets = new ArrayList<>(counts.size());
+        for (Map.Entry<String, Long> entry : counts.entrySet())
+        {
+            BamsFacetCount facet = new BamsFacetCount();
+            facet.setValue(entry.getKey());
+            facet.setLabel(entry.getKey());
+            facet.setCount(entry.getValue());
+            facets.add(facet);
+        }
+        facets.sort(order);
+        return facets;
+    }
+}
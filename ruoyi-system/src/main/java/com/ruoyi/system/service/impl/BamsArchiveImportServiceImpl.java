@@ -0,0 +1,814 @@
+package com.ruoyi.system.service.impl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import com.ruoyi.common.config.RuoYiConfig;
+import com.ruoyi.common.exception.ServiceException;
+import com.ruoyi.common.utils.DateUtils;
+import com.ruoyi.common.utils.SecurityUtils;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.bean.BeanValidators;
+import com.ruoyi.common.utils.file.FileUtils;
+import com.ruoyi.common.utils.poi.ExcelUtil;
+import com.ruoyi.common.utils.uuid.IdUtils;
+import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.domain.BamsArchiveImportError;
+import com.ruoyi.system.domain.BamsArchiveImportJob;
+import com.ruoyi.system.domain.BamsProject;
+import com.ruoyi.system.domain.vo.BamsStagedFile;
+import com.ruoyi.system.mapper.BamsArchiveImportJobMapper;
+import com.ruoyi.system.mapper.BamsArchiveMapper;
+import com.ruoyi.system.mapper.BamsProjectMapper;
+import com.ruoyi.system.service.IBamsArchiveImportService;
+import com.ruoyi.system.service.IBamsArchiveSequenceService;
+import com.ruoyi.system.service.IBamsArchiveService;
+import com.ruoyi.system.service.IBamsArchiveVersionService;
+
+/**
+ * 档案批量导入Service业务层处理
+ *
+ * 导入在独立线程池中按批执行：每批先校验、并行暂存附件（计算哈希），再按项目整块分配档号，
+ * 最后在一个事务内多行写入档案、版本、错误明细并推进断点，保证断点与已入库数据一致。
+ * 整批写入失败时退化为逐行事务，只把出错的行记入错误明细，每行事务同时推进断点。
+ *
+ * @author ruoyi
+ */
+@Service
+public class BamsArchiveImportServiceImpl implements IBamsArchiveImportService
+{
+    private static final Logger log = LoggerFactory.getLogger(BamsArchiveImportServiceImpl.class);
+
+    /** 导入文件保存目录（相对 profile） */
+    private static final String IMPORT_JOB_DIR = "/import/jobs/";
+
+    @Autowired
+    private BamsArchiveImportJobMapper importJobMapper;
+
+    @Autowired
+    private BamsArchiveMapper bamsArchiveMapper;
+
+    @Autowired
+    private BamsProjectMapper projectMapper;
+
+    @Autowired
+    private IBamsArchiveService archiveService;
+
+    @Autowired
+    private IBamsArchiveVersionService versionService;
+
+    @Autowired
+    private IBamsArchiveSequenceService archiveSequenceService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ThreadPoolTaskExecutor threadPoolTaskExecutor;
+
+    @Autowired
+    protected Validator validator;
+
+    /** 导入线程数 */
+    @Value("${bams.import.workers:1}")
+    private int workers;
+
+    /** 排队任务上限 */
+    @Value("${bams.import.queueCapacity:10}")
+    private int queueCapacity;
+
+    /** 每批处理行数（同时也是断点粒度） */
+    @Value("${bams.import.batchSize:500}")
+    private int batchSize;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init()
+    {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity),
+                new BasicThreadFactory.Builder().namingPattern("archive-import-%d").daemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        // 重启前未完成的任务已无执行线程，标记为中断，可从断点继续
+        int interrupted = importJobMapper.interruptUnfinishedJobs();
+        if (interrupted > 0)
+        {
+            log.warn("服务重启，{} 个未完成的导入任务已标记为中断", interrupted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交导入任务，在后台执行
+     *
+     * @param file 档案清单（Excel）
+     * @param sourcePath 附件来源（导入目录下的子目录或 ZIP 文件，可为空）
+     * @return 导入任务
+     */
+    @Override
+    public BamsArchiveImportJob submitImport(MultipartFile file, String sourcePath)
+    {
+        String fileName = file.getOriginalFilename();
+        if (file.isEmpty() || !StringUtils.endsWithAny(StringUtils.lowerCase(fileName), ".xls", ".xlsx"))
+        {
+            throw new ServiceException("请上传 Excel 格式的档案清单");
+        }
+        if (StringUtils.isNotEmpty(sourcePath))
+        {
+            sourcePath = sourcePath.trim();
+            if (!Files.exists(resolveSourcePath(sourcePath)))
+            {
+                throw new ServiceException("附件来源不存在：" + sourcePath);
+            }
+        }
+
+        String excelPath = IMPORT_JOB_DIR + DateUtils.datePath() + "/" + IdUtils.fastSimpleUUID() + "."
+                + StringUtils.substringAfterLast(fileName, ".");
+        File dest = new File(RuoYiConfig.getProfile() + excelPath);
+        try
+        {
+            dest.getParentFile().mkdirs();
+            file.transferTo(dest.getAbsoluteFile());
+        }
+        catch (IOException e)
+        {
+            throw new ServiceException("导入文件保存失败：" + e.getMessage());
+        }
+
+        BamsArchiveImportJob job = new BamsArchiveImportJob();
+        job.setFileName(fileName);
+        job.setExcelPath(excelPath);
+        job.setSourcePath(StringUtils.isNotEmpty(sourcePath) ? sourcePath : null);
+        job.setStatus(BamsArchiveImportJob.STATUS_QUEUED);
+        job.setCreateBy(SecurityUtils.getUsername());
+        importJobMapper.insertImportJob(job);
+        dispatch(job.getJobId());
+        return job;
+    }
+
+    /**
+     * 从断点继续执行失败或中断的导入任务
+     *
+     * @param jobId 任务ID
+     * @return 导入任务
+     */
+    @Override
+    public BamsArchiveImportJob resumeImport(Long jobId)
+    {
+        BamsArchiveImportJob job = selectImportJobById(jobId);
+        if (!BamsArchiveImportJob.STATUS_FAILED.equals(job.getStatus())
+                && !BamsArchiveImportJob.STATUS_INTERRUPTED.equals(job.getStatus()))
+        {
+            throw new ServiceException("只有失败或中断的导入任务可以继续执行");
+        }
+        BamsArchiveImportJob queued = new BamsArchiveImportJob();
+        queued.setJobId(jobId);
+        queued.setStatus(BamsArchiveImportJob.STATUS_QUEUED);
+        queued.setErrorMsg("");
+        importJobMapper.updateImportJob(queued);
+        dispatch(jobId);
+        job.setStatus(BamsArchiveImportJob.STATUS_QUEUED);
+        job.setErrorMsg(null);
+        return job;
+    }
+
+    /**
+     * 查询导入任务（仅本人或管理员可查看）
+     *
+     * @param jobId 任务ID
+     * @return 导入任务
+     */
+    @Override
+    public BamsArchiveImportJob selectImportJobById(Long jobId)
+    {
+        BamsArchiveImportJob job = importJobMapper.selectImportJobById(jobId);
+        if (job == null || !(SecurityUtils.isAdmin(SecurityUtils.getUserId())
+                || StringUtils.equals(job.getCreateBy(), SecurityUtils.getUsername())))
+        {
+            throw new ServiceException("导入任务不存在");
+        }
+        return job;
+    }
+
+    /**
+     * 查询导入任务列表（非管理员仅查看本人任务）
+     *
+     * @param bamsArchiveImportJob 查询条件
+     * @return 导入任务集合
+     */
+    @Override
+    public List<BamsArchiveImportJob> selectImportJobList(BamsArchiveImportJob bamsArchiveImportJob)
+    {
+        if (!SecurityUtils.isAdmin(SecurityUtils.getUserId()))
+        {
+            bamsArchiveImportJob.setCreateBy(SecurityUtils.getUsername());
+        }
+        return importJobMapper.selectImportJobList(bamsArchiveImportJob);
+    }
+
+    /**
+     * 查询导入错误明细
+     *
+     * @param jobId 任务ID
+     * @return 错误明细集合
+     */
+    @Override
+    public List<BamsArchiveImportError> selectImportErrorList(Long jobId)
+    {
+        selectImportJobById(jobId);
+        return importJobMapper.selectImportErrorList(jobId);
+    }
+
+    /**
+     * 将任务放入导入线程池
+     */
+    private void dispatch(Long jobId)
+    {
+        try
+        {
+            // 审计日志、版本上传人等依赖当前登录用户，需要将安全上下文带入导入线程
+            executor.execute(new DelegatingSecurityContextRunnable(() -> runJob(jobId)));
+        }
+        catch (RejectedExecutionException e)
+        {
+            finishJob(jobId, BamsArchiveImportJob.STATUS_FAILED, "导入任务排队已满");
+            throw new ServiceException("当前导入任务较多，请稍后再试");
+        }
+    }
+
+    /**
+     * 执行导入任务，从已提交的断点处开始
+     */
+    private void runJob(Long jobId)
+    {
+        BamsArchiveImportJob job = importJobMapper.selectImportJobById(jobId);
+        if (job == null)
+        {
+            return;
+        }
+        try
+        {
+            List<BamsArchive> rows;
+            List<Integer> rowNums;
+            try (InputStream in = new FileInputStream(RuoYiConfig.getProfile() + job.getExcelPath()))
+            {
+                ExcelUtil<BamsArchive> util = new ExcelUtil<BamsArchive>(BamsArchive.class);
+                rows = util.importExcel(in);
+                rowNums = util.getImportRowNums();
+            }
+
+            BamsArchiveImportJob running = new BamsArchiveImportJob();
+            running.setJobId(jobId);
+            running.setStatus(BamsArchiveImportJob.STATUS_RUNNING);
+            running.setTotalRows(rows.size());
+            importJobMapper.updateImportJob(running);
+
+            job.setProcessedRows(defaultZero(job.getProcessedRows()));
+            job.setSuccessRows(defaultZero(job.getSuccessRows()));
+            job.setFailedRows(defaultZero(job.getFailedRows()));
+            ImportContext context = new ImportContext();
+            try (AttachmentSource source = openSource(job.getSourcePath()))
+            {
+                for (int start = job.getProcessedRows(); start < rows.size(); start += batchSize)
+                {
+                    if (Thread.currentThread().isInterrupted())
+                    {
+                        throw new InterruptedException();
+                    }
+                    importChunk(job, rows, rowNums, start, Math.min(start + batchSize, rows.size()), source,
+                            context);
+                }
+            }
+            finishJob(jobId, BamsArchiveImportJob.STATUS_SUCCESS, null);
+            log.info("档案导入任务 {} 完成，成功 {} 行，失败 {} 行", jobId, job.getSuccessRows(), job.getFailedRows());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            finishJob(jobId, BamsArchiveImportJob.STATUS_INTERRUPTED, "导入已中断，可从断点继续");
+        }
+        catch (Exception e)
+        {
+            log.error("档案导入任务 {} 执行失败", jobId, e);
+            finishJob(jobId, BamsArchiveImportJob.STATUS_FAILED, StringUtils.substring(e.getMessage(), 0, 500));
+        }
+    }
+
+    /**
+     * 导入一批数据行 [start, end)，rowNums 为各行在 Excel 中的行号
+     */
+    private void importChunk(BamsArchiveImportJob job, List<BamsArchive> rows, List<Integer> rowNums, int start,
+            int end, AttachmentSource source, ImportContext context)
+    {
+        List<BamsArchiveImportError> errors = new ArrayList<>();
+        List<ImportRow> valid = new ArrayList<>(end - start);
+
+        // 1. 逐行校验，档号重复一次查询整批
+        Set<String> explicitNumbers = new HashSet<>();
+        for (int i = start; i < end; i++)
+        {
+            ImportRow row = new ImportRow(i, rowNums.get(i), rows.get(i));
+            String message = validateRow(row.archive, context);
+            if (message != null)
+            {
+                errors.add(newError(job, row, message));
+            }
+            else
+            {
+                valid.add(row);
+                if (StringUtils.isNotEmpty(row.archive.getArchiveNumber()))
+                {
+                    explicitNumbers.add(row.archive.getArchiveNumber());
+                }
+            }
+        }
+        Set<String> existing = explicitNumbers.isEmpty() ? new HashSet<>()
+                : new HashSet<>(bamsArchiveMapper.selectExistingArchiveNumbers(explicitNumbers));
+        for (int i = 0; i < valid.size(); i++)
+        {
+            ImportRow row = valid.get(i);
+            String number = row.archive.getArchiveNumber();
+            if (StringUtils.isNotEmpty(number) && (existing.contains(number) || !context.numbers.add(number)))
+            {
+                errors.add(newError(job, row, "档案编号已存在：" + number));
+                valid.remove(i--);
+            }
+        }
+
+        // 2. 并行暂存附件（复制到临时目录并计算哈希），与数据库写入解耦
+        stageAttachments(job, valid, source, errors);
+
+        try
+        {
+            // 3. 按项目整块分配档号，每个项目只访问一次序列
+            assignArchiveNumbers(valid);
+
+            // 4. 整批写入，断点与数据在同一事务内提交
+            try
+            {
+                commitChunk(job, valid, errors, end);
+            }
+            catch (RuntimeException e)
+            {
+                log.warn("档案导入任务 {} 第 {}-{} 行整批写入失败，改为逐行写入：{}", job.getJobId(),
+                        rowNums.get(start), rowNums.get(end - 1), e.getMessage());
+                commitRowByRow(job, valid, errors, end);
+            }
+        }
+        finally
+        {
+            for (ImportRow row : valid)
+            {
+                if (row.staged != null)
+                {
+                    FileUtils.deleteFile(row.staged.getTempFile().getPath());
+                }
+            }
+        }
+    }
+
+    /**
+     * 校验数据行并补全项目信息，返回空表示通过
+     */
+    private String validateRow(BamsArchive archive, ImportContext context)
+    {
+        try
+        {
+            BeanValidators.validateWithException(validator, archive);
+        }
+        catch (ConstraintViolationException e)
+        {
+            return e.getConstraintViolations().stream().map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("；"));
+        }
+        BamsProject project = context.projects.computeIfAbsent(archive.getProjectCode(),
+                code -> projectMapper.selectProjectByCode(code));
+        if (project == null)
+        {
+            return "项目编号不存在：" + archive.getProjectCode();
+        }
+        archive.setProjectId(project.getProjectId());
+        archive.setProjectName(project.getProjectName());
+        archive.setArchiveNumber(StringUtils.trimToNull(archive.getArchiveNumber()));
+        archive.setAttachmentName(StringUtils.trimToNull(archive.getAttachmentName()));
+        archive.setCreateBy(SecurityUtils.getUsername());
+        return null;
+    }
+
+    /**
+     * 并行暂存本批附件，读取失败的行移入错误明细
+     */
+    private void stageAttachments(BamsArchiveImportJob job, List<ImportRow> valid, AttachmentSource source,
+            List<BamsArchiveImportError> errors)
+    {
+        List<CompletableFuture<BamsStagedFile>> futures = new ArrayList<>(valid.size());
+        for (ImportRow row : valid)
+        {
+            String name = row.archive.getAttachmentName();
+            futures.add(name == null ? null : CompletableFuture.supplyAsync(() -> stage(source, name), threadPoolTaskExecutor));
+        }
+        for (int i = 0, n = valid.size(); i < n; i++)
+        {
+            CompletableFuture<BamsStagedFile> future = futures.get(i);
+            if (future == null)
+            {
+                continue;
+            }
+            ImportRow row = valid.get(i);
+            try
+            {
+                row.staged = future.join();
+            }
+            catch (CompletionException e)
+            {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                row.error = StringUtils.isNotEmpty(cause.getMessage()) ? cause.getMessage() : "附件读取失败";
+            }
+        }
+        valid.removeIf(row -> {
+            if (row.error != null)
+            {
+                errors.add(newError(job, row, row.error));
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private BamsStagedFile stage(AttachmentSource source, String name)
+    {
+        try (InputStream in = source.open(name))
+        {
+            if (in == null)
+            {
+                throw new ServiceException("附件不存在：" + name);
+            }
+            return versionService.stageFile(in, FileUtils.getName(name));
+        }
+        catch (IOException e)
+        {
+            throw new ServiceException("附件读取失败：" + name);
+        }
+    }
+
+    /**
+     * 未填写档号的行按项目整块分配档号；手工填写的档号登记到序列，避免之后自动生成的编号与之重复
+     */
+    private void assignArchiveNumbers(List<ImportRow> valid)
+    {
+        Map<String, List<BamsArchive>> pending = new LinkedHashMap<>();
+        for (ImportRow row : valid)
+        {
+            BamsArchive archive = row.archive;
+            if (archive.getArchiveNumber() == null)
+            {
+                pending.computeIfAbsent(archive.getProjectCode(), code -> new ArrayList<>()).add(archive);
+            }
+            else
+            {
+                archiveSequenceService.observeArchiveNumber(archive.getProjectCode(), archive.getArchiveNumber());
+            }
+        }
+        for (Map.Entry<String, List<BamsArchive>> entry : pending.entrySet())
+        {
+            String projectCode = entry.getKey();
+            long sequence = archiveSequenceService.allocateSequenceBlock(projectCode, entry.getValue().size());
+            for (BamsArchive archive : entry.getValue())
+            {
+                archive.setArchiveNumber(archiveSequenceService.formatArchiveNumber(projectCode, sequence++));
+            }
+        }
+    }
+
+    /**
+     * 在一个事务内写入整批档案、附件版本和错误明细，并推进断点
+     */
+    private void commitChunk(BamsArchiveImportJob job, List<ImportRow> valid, List<BamsArchiveImportError> errors,
+            int end)
+    {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<BamsArchive> archives = new ArrayList<>(valid.size());
+            List<BamsArchive> withFiles = new ArrayList<>();
+            List<BamsStagedFile> files = new ArrayList<>();
+            for (ImportRow row : valid)
+            {
+                archives.add(row.archive);
+                if (row.staged != null)
+                {
+                    withFiles.add(row.archive);
+                    files.add(row.staged);
+                }
+            }
+            archiveService.insertBamsArchiveBatch(archives);
+            versionService.insertImportedVersions(withFiles, files);
+            saveProgress(job, valid.size(), errors, end);
+        });
+        advance(job, valid.size(), errors.size(), end);
+    }
+
+    /**
+     * 整批失败后逐行写入，每行一个事务，失败行记入错误明细
+     *
+     * 每行的事务同时写入此前尚未写入的错误明细并把断点推进到该行之后，
+     * 中途中断时从断点继续不会重复写入已提交的行。
+     */
+    private void commitRowByRow(BamsArchiveImportJob job, List<ImportRow> valid, List<BamsArchiveImportError> errors,
+            int end)
+    {
+        errors.sort(Comparator.comparing(BamsArchiveImportError::getRowNum));
+        List<BamsArchiveImportError> pending = new ArrayList<>();
+        int next = 0;
+        for (ImportRow row : valid)
+        {
+            while (next < errors.size() && errors.get(next).getRowNum() < row.rowNum)
+            {
+                pending.add(errors.get(next++));
+            }
+            try
+            {
+                transactionTemplate.executeWithoutResult(status -> {
+                    row.archive.setArchiveId(null);
+                    archiveService.insertBamsArchiveBatch(List.of(row.archive));
+                    if (row.staged != null)
+                    {
+                        versionService.insertImportedVersions(List.of(row.archive), List.of(row.staged));
+                    }
+                    saveProgress(job, 1, pending, row.index + 1);
+                });
+                advance(job, 1, pending.size(), row.index + 1);
+                pending.clear();
+            }
+            catch (RuntimeException e)
+            {
+                pending.add(newError(job, row, StringUtils.defaultIfEmpty(e.getMessage(), "写入失败")));
+            }
+        }
+        while (next < errors.size())
+        {
+            pending.add(errors.get(next++));
+        }
+        transactionTemplate.executeWithoutResult(status -> saveProgress(job, 0, pending, end));
+        advance(job, 0, pending.size(), end);
+    }
+
+    /**
+     * 写入错误明细并更新断点（在调用方事务内执行）
+     */
+    private void saveProgress(BamsArchiveImportJob job, int success, List<BamsArchiveImportError> errors, int end)
+    {
+        if (!errors.isEmpty())
+        {
+            importJobMapper.batchInsertImportErrors(errors);
+        }
+        BamsArchiveImportJob progress = new BamsArchiveImportJob();
+        progress.setJobId(job.getJobId());
+        progress.setProcessedRows(end);
+        progress.setSuccessRows(job.getSuccessRows() + success);
+        progress.setFailedRows(job.getFailedRows() + errors.size());
+        importJobMapper.updateImportProgress(progress);
+    }
+
+    /**
+     * 事务提交后同步内存中的计数
+     */
+    private void advance(BamsArchiveImportJob job, int success, int failed, int end)
+    {
+        job.setProcessedRows(end);
+        job.setSuccessRows(job.getSuccessRows() + success);
+        job.setFailedRows(job.getFailedRows() + failed);
+    }
+
+    private BamsArchiveImportError newError(BamsArchiveImportJob job, ImportRow row, String message)
+    {
+        BamsArchiveImportError error = new BamsArchiveImportError(row.rowNum,
+                StringUtils.substring(row.archive.getTitle(), 0, 500), StringUtils.substring(message, 0, 1000));
+        error.setJobId(job.getJobId());
+        return error;
+    }
+
+    private void finishJob(Long jobId, String status, String errorMsg)
+    {
+        BamsArchiveImportJob finished = new BamsArchiveImportJob();
+        finished.setJobId(jobId);
+        finished.setStatus(status);
+        finished.setErrorMsg(errorMsg);
+        finished.setFinishTime(DateUtils.getNowDate());
+        importJobMapper.updateImportJob(finished);
+    }
+
+    private static int defaultZero(Integer value)
+    {
+        return value != null ? value : 0;
+    }
+
+    /**
+     * 解析附件来源路径，只允许导入目录下的文件
+     */
+    private Path resolveSourcePath(String sourcePath)
+    {
+        Path root = Paths.get(RuoYiConfig.getImportPath()).toAbsolutePath().normalize();
+        Path path = root.resolve(StringUtils.stripStart(sourcePath, "/\\")).normalize();
+        if (!path.startsWith(root))
+        {
+            throw new ServiceException("附件来源必须位于导入目录下");
+        }
+        return path;
+    }
+
+    /**
+     * 打开附件来源：目录或 ZIP 文件；未指定时任何附件都视为不存在
+     */
+    private AttachmentSource openSource(String sourcePath) throws IOException
+    {
+        if (StringUtils.isEmpty(sourcePath))
+        {
+            return name -> null;
+        }
+        Path path = resolveSourcePath(sourcePath);
+        if (Files.isDirectory(path))
+        {
+            return new DirectorySource(path);
+        }
+        if (Files.isRegularFile(path))
+        {
+            return new ZipSource(path.toFile());
+        }
+        throw new ServiceException("附件来源不存在：" + sourcePath);
+    }
+
+    /**
+     * 单个任务执行期间的缓存
+     */
+    private static class ImportContext
+    {
+        /** 项目编号 -> 项目（不存在时为空） */
+        final Map<String, BamsProject> projects = new HashMap<>();
+
+        /** 本文件中已出现的档号 */
+        final Set<String> numbers = new HashSet<>();
+    }
+
+    /**
+     * 待导入的数据行
+     */
+    private static class ImportRow
+    {
+        /** 在导入数据中的下标（断点按下标记录） */
+        final int index;
+
+        /** Excel 行号 */
+        final int rowNum;
+
+        final BamsArchive archive;
+
+        BamsStagedFile staged;
+
+        String error;
+
+        ImportRow(int index, int rowNum, BamsArchive archive)
+        {
+            this.index = index;
+            this.rowNum = rowNum;
+            this.archive = archive;
+        }
+    }
+
+    /**
+     * 附件来源
+     */
+    private interface AttachmentSource extends Closeable
+    {
+        /**
+         * 打开附件，不存在时返回空
+         */
+        InputStream open(String name) throws IOException;
+
+        @Override
+        default void close() throws IOException
+        {
+        }
+    }
+
+    /**
+     * 目录形式的附件来源，附件名为相对路径
+     */
+    private static class DirectorySource implements AttachmentSource
+    {
+        private final Path base;
+
+        DirectorySource(Path base)
+        {
+            this.base = base;
+        }
+
+        @Override
+        public InputStream open(String name) throws IOException
+        {
+            Path file = base.resolve(name).normalize();
+            if (!file.startsWith(base) || !Files.isRegularFile(file))
+            {
+                return null;
+            }
+            return Files.newInputStream(file);
+        }
+    }
+
+    /**
+     * ZIP 形式的附件来源，条目名为附件名；兼容 Windows 下以 GBK 编码文件名的压缩包
+     */
+    private static class ZipSource implements AttachmentSource
+    {
+        private final ZipFile zipFile;
+
+        ZipSource(File file) throws IOException
+        {
+            this.zipFile = openZip(file);
+        }
+
+        private static ZipFile openZip(File file) throws IOException
+        {
+            ZipFile zip = new ZipFile(file, StandardCharsets.UTF_8);
+            try
+            {
+                // 文件名编码不符时在遍历条目时才会报错
+                zip.stream().forEach(entry -> { });
+                return zip;
+            }
+            catch (IllegalArgumentException e)
+            {
+                zip.close();
+                return new ZipFile(file, Charset.forName("GBK"));
+            }
+        }
+
+        @Override
+        public InputStream open(String name) throws IOException
+        {
+            ZipEntry entry = zipFile.getEntry(name.replace('\\', '/'));
+            if (entry == null || entry.isDirectory())
+            {
+                return null;
+            }
+            try
+            {
+                return zipFile.getInputStream(entry);
+            }
+            catch (ZipException e)
+            {
+                throw new IOException("压缩包条目损坏：" + name, e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            zipFile.close();
+        }
+    }
+}
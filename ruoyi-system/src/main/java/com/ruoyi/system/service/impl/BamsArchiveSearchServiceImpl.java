@@ -0,0 +1,204 @@
+package com.ruoyi.system.service.impl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.domain.BamsArchiveVersion;
+import com.ruoyi.system.domain.BamsFileText;
+import com.ruoyi.system.event.BamsFileTextEvent;
+import com.ruoyi.system.mapper.BamsArchiveSearchMapper;
+import com.ruoyi.system.service.IBamsArchiveSearchService;
+import com.ruoyi.system.service.IBamsFileTextService;
+
+/**
+ * 档案全文检索Service业务层处理
+ *
+ * 索引保存在 bams_archive_search 表的 FULLTEXT（ngram）倒排索引中，
+ * 元数据随档案写入同步更新，文件正文在版本上传提交后交给正文抽取服务，抽取完成后写入索引。
+ *
+ * @author ruoyi
+ */
+@Service
+public class BamsArchiveSearchServiceImpl implements IBamsArchiveSearchService
+{
+    private static final Logger log = LoggerFactory.getLogger(BamsArchiveSearchServiceImpl.class);
+
+    /** 重建索引时每批处理的版本数 */
+    private static final int REBUILD_BATCH_SIZE = 200;
+
+    @Autowired
+    private BamsArchiveSearchMapper searchMapper;
+
+    @Autowired
+    private IBamsFileTextService fileTextService;
+
+    @Autowired
+    private ThreadPoolTaskExecutor threadPoolTaskExecutor;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    /**
+     * 全文检索档案，按相关度排序
+     *
+     * @param keyword 关键字
+     * @param bamsArchive 过滤条件
+     * @return 档案集合
+     */
+    @Override
+    public List<BamsArchive> searchArchives(String keyword, BamsArchive bamsArchive)
+    {
+        return searchMapper.searchArchiveList(keyword.trim(), bamsArchive);
+    }
+
+    /**
+     * 同步档案元数据索引
+     *
+     * @param archiveId 档案ID
+     */
+    @Override
+    public void syncArchive(Long archiveId)
+    {
+        searchMapper.syncSearchIndex(archiveId);
+    }
+
+    /**
+     * 批量同步档案元数据索引
+     *
+     * @param archiveIds 档案ID集合
+     */
+    @Override
+    public void syncArchives(List<Long> archiveIds)
+    {
+        if (archiveIds == null || archiveIds.isEmpty())
+        {
+            return;
+        }
+        searchMapper.syncSearchIndexByArchiveIds(archiveIds);
+    }
+
+    /**
+     * 在当前事务提交后提交版本文件正文抽取，抽取完成后更新索引
+     *
+     * @param version 档案版本
+     */
+    @Override
+    public void indexVersionContent(BamsArchiveVersion version)
+    {
+        Runnable task = () -> threadPoolTaskExecutor.execute(() -> updateContent(version));
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    task.run();
+                }
+            });
+        }
+        else
+        {
+            task.run();
+        }
+    }
+
+    /**
+     * 删除档案索引
+     *
+     * @param archiveIds 档案ID集合
+     */
+    @Override
+    public void removeArchives(Long[] archiveIds)
+    {
+        if (archiveIds != null && archiveIds.length > 0)
+        {
+            searchMapper.deleteSearchIndexByArchiveIds(archiveIds);
+        }
+    }
+
+    /**
+     * 后台重建全部索引
+     *
+     * @return 是否已开始执行
+     */
+    @Override
+    public boolean rebuildIndex()
+    {
+        if (!rebuilding.compareAndSet(false, true))
+        {
+            return false;
+        }
+        threadPoolTaskExecutor.execute(() -> {
+            try
+            {
+                long start = System.currentTimeMillis();
+                searchMapper.syncAllSearchIndex();
+                searchMapper.deleteOrphanSearchIndex();
+
+                int count = 0;
+                long lastVersionId = 0;
+                List<BamsArchiveVersion> versions;
+                do
+                {
+                    versions = searchMapper.selectCurrentVersionsAfter(lastVersionId, REBUILD_BATCH_SIZE);
+                    for (BamsArchiveVersion version : versions)
+                    {
+                        updateContent(version);
+                        lastVersionId = version.getVersionId();
+                        count++;
+                    }
+                }
+                while (versions.size() == REBUILD_BATCH_SIZE);
+                log.info("档案检索索引重建完成，处理版本 {} 个，耗时 {} ms", count, System.currentTimeMillis() - start);
+            }
+            catch (Exception e)
+            {
+                log.error("档案检索索引重建失败", e);
+            }
+            finally
+            {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 文件正文抽取完成后更新引用该文件的档案的检索正文
+     *
+     * @param event 抽取完成事件
+     */
+    @EventListener
+    public void onFileTextExtracted(BamsFileTextEvent event)
+    {
+        searchMapper.updateSearchContentByFileHash(event.getFileHash(), event.getContent());
+    }
+
+    /**
+     * 提交版本文件正文抽取，已有抽取结果时直接写入索引，否则在抽取完成事件中写入
+     */
+    private void updateContent(BamsArchiveVersion version)
+    {
+        try
+        {
+            BamsFileText fileText = fileTextService.submitExtraction(version.getFileHash(), version.getFilePath(),
+                    version.getFileName());
+            if (fileText != null && BamsFileText.STATUS_SUCCESS.equals(fileText.getStatus()))
+            {
+                searchMapper.updateSearchContent(version.getArchiveId(), version.getVersionId(), fileText.getContent());
+            }
+        }
+        catch (Exception e)
+        {
+            log.warn("提交文件正文抽取失败，版本ID：{}，原因：{}", version.getVersionId(), e.getMessage());
+        }
+    }
+}
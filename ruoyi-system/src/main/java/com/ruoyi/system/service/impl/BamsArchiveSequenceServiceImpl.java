@@ -0,0 +1,198 @@
+package com.ruoyi.system.service.impl;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.exception.ServiceException;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.system.mapper.BamsArchiveMapper;
+import com.ruoyi.system.service.IBamsArchiveSequenceService;
+
+/**
+ * 档案流水号分配Service业务层处理
+ *
+ * 每个项目的流水号保存在 Redis 计数器中，首次使用时从数据库最大流水号初始化，
+ * 之后通过 INCRBY 原子分配，不加锁、不等待。Redis 不可用时退化为本机加锁查询数据库，
+ * 恢复后先将计数器校正到数据库最大值再继续分配。
+ *
+ * @author ruoyi
+ */
+@Service
+public class BamsArchiveSequenceServiceImpl implements IBamsArchiveSequenceService
+{
+    private static final Logger log = LoggerFactory.getLogger(BamsArchiveSequenceServiceImpl.class);
+
+    /** 计数器存在时分配 count 个流水号并返回本段最后一个，不存在时返回 -1 */
+    private static final DefaultRedisScript<Long> INCR_IF_EXISTS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 1 then\n" +
+            "    return redis.call('incrby', KEYS[1], ARGV[1])\n" +
+            "end\n" +
+            "return -1", Long.class);
+
+    /** 计数器小于给定值时将其提升到该值 */
+    private static final DefaultRedisScript<Long> RAISE_TO_SCRIPT = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('get', KEYS[1]) or '0')\n" +
+            "if current < tonumber(ARGV[1]) then\n" +
+            "    redis.call('set', KEYS[1], ARGV[1])\n" +
+            "    return tonumber(ARGV[1])\n" +
+            "end\n" +
+            "return current", Long.class);
+
+    @Autowired
+    private BamsArchiveMapper bamsArchiveMapper;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    /** 数据库降级模式下使用的项目级本地锁 */
+    private final Map<String, Object> fallbackLocks = new ConcurrentHashMap<>();
+
+    /** 数据库降级期间各项目已分配的最大流水号，Redis 恢复后用于校正计数器 */
+    private final Map<String, Long> fallbackIssued = new ConcurrentHashMap<>();
+
+    /**
+     * 分配下一个档案编号
+     *
+     * @param projectCode 项目编号
+     * @return 档案编号
+     */
+    @Override
+    public String nextArchiveNumber(String projectCode)
+    {
+        return formatArchiveNumber(projectCode, allocateSequenceBlock(projectCode, 1));
+    }
+
+    /**
+     * 一次性分配一段连续的流水号
+     *
+     * @param projectCode 项目编号
+     * @param count 分配数量
+     * @return 本段第一个流水号
+     */
+    @Override
+    public long allocateSequenceBlock(String projectCode, int count)
+    {
+        if (StringUtils.isEmpty(projectCode))
+        {
+            throw new ServiceException("项目编号不能为空");
+        }
+        if (count <= 0)
+        {
+            throw new ServiceException("分配数量必须大于0");
+        }
+        String key = getSequenceKey(projectCode);
+        try
+        {
+            Long issued = fallbackIssued.get(projectCode);
+            if (issued != null)
+            {
+                // 降级期间从数据库分配过流水号，先校正计数器；校正成功后才移除，
+                // 期间又分配过（标记已变化）时保留新的标记，下次再校正
+                raiseTo(key, Math.max(issued, bamsArchiveMapper.getMaxSequenceByProject(projectCode)));
+                fallbackIssued.remove(projectCode, issued);
+            }
+            Long last = incrementIfExists(key, count);
+            if (last == null || last < 0)
+            {
+                // 首次使用：从数据库初始化，多个节点并发初始化时取较大值
+                raiseTo(key, bamsArchiveMapper.getMaxSequenceByProject(projectCode));
+                last = incrementIfExists(key, count);
+            }
+            return last - count + 1;
+        }
+        catch (RedisConnectionFailureException | RedisSystemException | QueryTimeoutException e)
+        {
+            log.warn("Redis 不可用，档案流水号改为数据库分配：{}", e.getMessage());
+            return allocateFromDatabase(projectCode, count);
+        }
+    }
+
+    /**
+     * 登记手工指定的档案编号
+     *
+     * @param projectCode 项目编号
+     * @param archiveNumber 档案编号
+     */
+    @Override
+    public void observeArchiveNumber(String projectCode, String archiveNumber)
+    {
+        if (StringUtils.isEmpty(projectCode) || StringUtils.isEmpty(archiveNumber)
+                || !archiveNumber.startsWith(projectCode + "-"))
+        {
+            return;
+        }
+        String suffix = archiveNumber.substring(projectCode.length() + 1);
+        if (suffix.isEmpty() || suffix.length() > 18 || !StringUtils.isNumeric(suffix))
+        {
+            return;
+        }
+        String key = getSequenceKey(projectCode);
+        try
+        {
+            // 计数器尚未初始化时无需处理，初始化时会读取数据库最大值
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(key)))
+            {
+                raiseTo(key, Long.parseLong(suffix));
+            }
+        }
+        catch (RedisConnectionFailureException | RedisSystemException | QueryTimeoutException e)
+        {
+            fallbackIssued.merge(projectCode, Long.parseLong(suffix), Math::max);
+        }
+    }
+
+    /**
+     * 格式化档案编号：项目编号-流水号（4位）
+     *
+     * @param projectCode 项目编号
+     * @param sequence 流水号
+     * @return 档案编号
+     */
+    @Override
+    public String formatArchiveNumber(String projectCode, long sequence)
+    {
+        return String.format("%s-%04d", projectCode, sequence);
+    }
+
+    /**
+     * Redis 不可用时从数据库分配，本机内按项目串行
+     */
+    private long allocateFromDatabase(String projectCode, int count)
+    {
+        Object lock = fallbackLocks.computeIfAbsent(projectCode, k -> new Object());
+        synchronized (lock)
+        {
+            // 已分配但尚未入库的流水号也要跳过
+            long max = Math.max(bamsArchiveMapper.getMaxSequenceByProject(projectCode),
+                    fallbackIssued.getOrDefault(projectCode, 0L));
+            fallbackIssued.put(projectCode, max + count);
+            return max + 1;
+        }
+    }
+
+    private Long incrementIfExists(String key, int count)
+    {
+        return stringRedisTemplate.execute(INCR_IF_EXISTS_SCRIPT, Collections.singletonList(key),
+                String.valueOf(count));
+    }
+
+    private void raiseTo(String key, long value)
+    {
+        stringRedisTemplate.execute(RAISE_TO_SCRIPT, Collections.singletonList(key), String.valueOf(value));
+    }
+
+    private String getSequenceKey(String projectCode)
+    {
+        return CacheConstants.BAMS_ARCHIVE_SEQ_KEY + projectCode;
+    }
+}
@@ -1,26 +1,48 @@
 package com.ruoyi.system.service.impl;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.apache.ibatis.cursor.Cursor;
 
 import com.alibaba.fastjson2.JSON;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.core.redis.RedisCache;
+import com.ruoyi.common.core.text.Convert;
+import com.ruoyi.common.exception.ServiceException;
 import com.ruoyi.common.utils.SecurityUtils;
 import com.ruoyi.common.utils.ServletUtils;
 import com.ruoyi.common.utils.ip.IpUtils;
+import com.ruoyi.common.utils.sign.Md5Utils;
 import com.ruoyi.system.domain.BamsArchiveAuditLog;
+import com.ruoyi.system.domain.BamsArchiveTag;
 import com.ruoyi.system.domain.BamsArchiveVersion;
-import com.ruoyi.system.domain.BamsTagDictionary;
+import com.ruoyi.system.domain.vo.BamsFacetCount;
+import com.ruoyi.system.event.BamsArchiveChangeEvent;
 import com.ruoyi.system.mapper.BamsArchiveAuditLogMapper;
+import com.ruoyi.system.mapper.BamsArchiveTagMapper;
 import com.ruoyi.system.mapper.BamsArchiveVersionMapper;
-import com.ruoyi.system.mapper.BamsTagDictionaryMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import com.ruoyi.system.mapper.BamsArchiveMapper;
 import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.service.IBamsArchiveAuditLogService;
+import com.ruoyi.system.service.IBamsArchiveCacheService;
+import com.ruoyi.system.service.IBamsArchiveFacetService;
+import com.ruoyi.system.service.IBamsArchiveSearchService;
+import com.ruoyi.system.service.IBamsArchiveSequenceService;
 import com.ruoyi.system.service.IBamsArchiveService;
+import com.ruoyi.system.service.IBamsFileBlobService;
+import com.ruoyi.system.service.IBamsTagRegistryService;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -32,8 +54,14 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class BamsArchiveServiceImpl implements IBamsArchiveService
 {
-    private static final String ARCHIVE_NUMBER_LOCK_KEY = "bams:archive:number:lock:";
-    private static final long LOCK_TIMEOUT = 10;
+    /** 列表总数缓存时间（秒） */
+    private static final int LIST_COUNT_EXPIRATION = 60;
+
+    /** 单次查询的标签筛选条件上限 */
+    private static final int MAX_TAG_FILTER = 20;
+
+    /** 标签分面返回的标签数上限 */
+    private static final int MAX_TAG_FACET = 200;
 
     @Autowired
     private BamsArchiveMapper bamsArchiveMapper;
@@ -45,10 +73,34 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
     private BamsArchiveAuditLogMapper auditLogMapper;
 
     @Autowired
-    private BamsTagDictionaryMapper tagDictionaryMapper;
+    private BamsArchiveTagMapper archiveTagMapper;
+
+    @Autowired
+    private IBamsArchiveAuditLogService auditLogService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private IBamsTagRegistryService tagRegistryService;
+
+    @Autowired
+    private IBamsFileBlobService fileBlobService;
+
+    @Autowired
+    private IBamsArchiveSearchService archiveSearchService;
+
+    @Autowired
+    private IBamsArchiveSequenceService archiveSequenceService;
+
+    @Autowired
+    private IBamsArchiveCacheService archiveCacheService;
 
     @Autowired
-    private RedisTemplate<Object, Object> redisTemplate;
+    private IBamsArchiveFacetService archiveFacetService;
 
     /**
      * 查询档案
@@ -59,20 +111,20 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
     @Override
     public BamsArchive selectBamsArchiveByArchiveId(Long archiveId)
     {
-        BamsArchive archive = bamsArchiveMapper.selectBamsArchiveByArchiveId(archiveId);
-        if (archive != null)
-        {
-            // 查询版本列表
-            List<BamsArchiveVersion> versions = versionMapper.selectVersionsByArchiveId(archiveId);
-            archive.setVersions(versions);
+        // 详情（含版本列表、标签）走二级缓存
+        return archiveCacheService.selectArchiveDetail(archiveId);
+    }
 
-            // 解析标签JSON
-            if (archive.getTags() != null && !archive.getTags().isEmpty())
-            {
-                archive.setTagList(JSON.parseArray(archive.getTags(), String.class));
-            }
-        }
-        return archive;
+    /**
+     * 批量查询档案（不含版本列表）
+     *
+     * @param archiveIds 档案主键集合
+     * @return 档案集合
+     */
+    @Override
+    public List<BamsArchive> selectBamsArchiveByArchiveIds(Long[] archiveIds)
+    {
+        return selectExistingArchives(archiveIds);
     }
 
     /**
@@ -84,8 +136,121 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
     @Override
     public List<BamsArchive> selectBamsArchiveList(BamsArchive bamsArchive)
     {
-        List<BamsArchive> list = bamsArchiveMapper.selectBamsArchiveList(bamsArchive);
-        // 解析标签
+        normalizeTagFilter(bamsArchive);
+        return parseTags(bamsArchiveMapper.selectBamsArchiveList(bamsArchive));
+    }
+
+    /**
+     * 按游标查询档案列表
+     *
+     * @param bamsArchive 档案（params 中包含游标条件）
+     * @return 档案集合
+     */
+    @Override
+    public List<BamsArchive> selectBamsArchiveListByCursor(BamsArchive bamsArchive)
+    {
+        normalizeTagFilter(bamsArchive);
+        return parseTags(bamsArchiveMapper.selectBamsArchiveListByCursor(bamsArchive));
+    }
+
+    /**
+     * 流式导出档案列表，数据逐行交给写出方，不在内存中保留完整列表
+     *
+     * @param bamsArchive 档案
+     * @param writer 写出方，只能遍历一次数据源
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBamsArchiveList(BamsArchive bamsArchive, Consumer<Iterable<BamsArchive>> writer)
+    {
+        normalizeTagFilter(bamsArchive);
+        // 游标依赖当前 SqlSession，必须在事务内遍历完毕
+        try (Cursor<BamsArchive> cursor = bamsArchiveMapper.selectBamsArchiveListForExport(bamsArchive))
+        {
+            writer.accept(cursor);
+        }
+        catch (IOException e)
+        {
+            throw new ServiceException("导出档案失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 统计档案数量（相同查询条件的结果缓存一分钟）
+     *
+     * @param bamsArchive 档案
+     * @return 数量
+     */
+    @Override
+    public long countBamsArchiveList(BamsArchive bamsArchive)
+    {
+        normalizeTagFilter(bamsArchive);
+        String key = CacheConstants.BAMS_LIST_COUNT_KEY + "archive:" + Md5Utils.hash(JSON.toJSONString(bamsArchive));
+        Long count = Convert.toLong(redisCache.getCacheObject(key));
+        if (count == null)
+        {
+            count = bamsArchiveMapper.countBamsArchiveList(bamsArchive);
+            redisCache.setCacheObject(key, count, LIST_COUNT_EXPIRATION, TimeUnit.SECONDS);
+        }
+        return count;
+    }
+
+    /**
+     * 统计满足查询条件的各标签档案数量（按数量倒序）
+     *
+     * @param bamsArchive 档案查询条件
+     * @param limit 返回的标签数上限
+     * @return 标签分面统计
+     */
+    @Override
+    public List<BamsFacetCount> selectTagFacets(BamsArchive bamsArchive, int limit)
+    {
+        normalizeTagFilter(bamsArchive);
+        bamsArchive.getParams().put("facetLimit", Math.max(1, Math.min(limit, MAX_TAG_FACET)));
+        return archiveTagMapper.selectTagFacets(bamsArchive);
+    }
+
+    /**
+     * 按查询条件统计各分面取值的档案数量（门类、阶段、文件类型、年度、标签）
+     *
+     * @param bamsArchive 档案查询条件
+     * @return 分面名称 -> 分面统计
+     */
+    @Override
+    public Map<String, List<BamsFacetCount>> selectArchiveFacets(BamsArchive bamsArchive)
+    {
+        normalizeTagFilter(bamsArchive);
+        return archiveFacetService.selectFacets(bamsArchive);
+    }
+
+    /**
+     * 规范标签筛选条件：去除空值和重复的标签ID（all 匹配按数量比较），匹配方式默认为 any
+     */
+    private void normalizeTagFilter(BamsArchive bamsArchive)
+    {
+        List<Long> tagIds = bamsArchive.getTagIds();
+        if (tagIds == null || tagIds.isEmpty())
+        {
+            return;
+        }
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>(tagIds);
+        distinct.remove(null);
+        if (distinct.size() > MAX_TAG_FILTER)
+        {
+            throw new ServiceException("标签筛选条件不能超过 " + MAX_TAG_FILTER + " 个");
+        }
+        bamsArchive.setTagIds(new ArrayList<>(distinct));
+        if (!"all".equals(bamsArchive.getTagMatch()))
+        {
+            bamsArchive.setTagMatch("any");
+        }
+    }
+
+    /**
+     * 解析标签
+     */
+    private List<BamsArchive> parseTags(List<BamsArchive> list)
+    {
         for (BamsArchive archive : list)
         {
             if (archive.getTags() != null && !archive.getTags().isEmpty())
@@ -112,9 +277,14 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
             String archiveNumber = generateArchiveNumber(bamsArchive.getProjectCode());
             bamsArchive.setArchiveNumber(archiveNumber);
         }
+        else
+        {
+            // 手工指定的编号，避免之后自动生成的编号与之重复
+            archiveSequenceService.observeArchiveNumber(bamsArchive.getProjectCode(), bamsArchive.getArchiveNumber());
+        }
 
         // 处理标签
-        handleTags(bamsArchive, null);
+        Map<String, Integer> tagDeltas = handleTags(bamsArchive, null);
 
         // 设置创建信息
         bamsArchive.setCreateTime(new Date());
@@ -123,6 +293,14 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
 
         // 插入档案记录
         int result = bamsArchiveMapper.insertBamsArchive(bamsArchive);
+        syncArchiveTags(bamsArchive.getArchiveId(), tagDeltas);
+        archiveFacetService.invalidate();
+
+        // 更新检索索引
+        archiveSearchService.syncArchive(bamsArchive.getArchiveId());
+
+        // 调整项目完整度计数
+        eventPublisher.publishEvent(new BamsArchiveChangeEvent(null, Collections.singletonList(bamsArchive)));
 
         // 记录审计日志
         String createDesc = String.format("创建档案【%s】，档案编号：%s",
@@ -133,6 +311,79 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
         return result;
     }
 
+    /**
+     * 批量新增档案（多行 INSERT），档号需由调用方预先分配
+     *
+     * @param archives 档案集合
+     * @return 结果
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int insertBamsArchiveBatch(List<BamsArchive> archives)
+    {
+        if (archives == null || archives.isEmpty())
+        {
+            return 0;
+        }
+
+        Date now = new Date();
+        for (BamsArchive archive : archives)
+        {
+            List<String> tagList = archive.getTagList();
+            archive.setTags(tagList != null && !tagList.isEmpty() ? JSON.toJSONString(tagList) : null);
+            archive.setCreateTime(now);
+            archive.setDelFlag("0");
+            if (archive.getStatus() == null)
+            {
+                archive.setStatus("0");
+            }
+        }
+        int result = bamsArchiveMapper.batchInsertBamsArchive(archives);
+
+        // 标签关系、标签使用次数、检索索引按整批更新
+        List<BamsArchiveTag> archiveTags = new ArrayList<>();
+        for (BamsArchive archive : archives)
+        {
+            if (archive.getTagList() != null)
+            {
+                for (String tagName : new LinkedHashSet<>(archive.getTagList()))
+                {
+                    Long tagId = tagRegistryService.getTagId(tagName);
+                    if (tagId != null)
+                    {
+                        archiveTags.add(new BamsArchiveTag(archive.getArchiveId(), tagId));
+                    }
+                }
+            }
+        }
+        if (!archiveTags.isEmpty())
+        {
+            archiveTagMapper.batchInsertArchiveTag(archiveTags);
+        }
+        adjustTagUsage(archives, true);
+        archiveFacetService.invalidate();
+        List<Long> archiveIds = new ArrayList<>(archives.size());
+        for (BamsArchive archive : archives)
+        {
+            archiveIds.add(archive.getArchiveId());
+        }
+        archiveSearchService.syncArchives(archiveIds);
+
+        // 调整项目完整度计数
+        eventPublisher.publishEvent(new BamsArchiveChangeEvent(null, archives));
+
+        // 记录审计日志
+        List<BamsArchiveAuditLog> logs = new ArrayList<>(archives.size());
+        for (BamsArchive archive : archives)
+        {
+            String desc = String.format("导入档案【%s】，档案编号：%s", archive.getTitle(), archive.getArchiveNumber());
+            logs.add(buildAuditLog(archive.getArchiveId(), null, "CREATE", "档案管理", desc, null, null, null));
+        }
+        auditLogService.recordAuditLogs(logs);
+
+        return result;
+    }
+
     /**
      * 修改档案
      *
@@ -150,14 +401,39 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
             throw new RuntimeException("档案不存在");
         }
 
-        // 处理标签变更
-        handleTags(bamsArchive, oldArchive.getTags());
+        // 处理标签变更（未传标签列表时保持原标签）
+        Map<String, Integer> tagDeltas = Collections.emptyMap();
+        if (bamsArchive.getTagList() != null)
+        {
+            tagDeltas = handleTags(bamsArchive, oldArchive.getTags());
+        }
+        else
+        {
+            bamsArchive.setTags(oldArchive.getTags());
+        }
 
         // 设置更新时间
         bamsArchive.setUpdateTime(new Date());
 
         // 更新档案
         int result = bamsArchiveMapper.updateBamsArchive(bamsArchive);
+        syncArchiveTags(bamsArchive.getArchiveId(), tagDeltas);
+        archiveCacheService.evictArchives(Collections.singletonList(bamsArchive.getArchiveId()));
+        archiveFacetService.invalidate();
+
+        // 更新检索索引
+        archiveSearchService.syncArchive(bamsArchive.getArchiveId());
+
+        // 项目、阶段或标准文件变化时调整项目完整度计数
+        BamsArchive newSnapshot = statSnapshot(bamsArchive, oldArchive);
+        if (!equals(oldArchive.getProjectId(), newSnapshot.getProjectId())
+                || !equals(oldArchive.getStage(), newSnapshot.getStage())
+                || !equals(oldArchive.getFileStandard(), newSnapshot.getFileStandard())
+                || !equals(oldArchive.getDelFlag(), newSnapshot.getDelFlag()))
+        {
+            eventPublisher.publishEvent(new BamsArchiveChangeEvent(Collections.singletonList(oldArchive),
+                    Collections.singletonList(newSnapshot)));
+        }
 
         // 记录元数据修改审计日志
         recordMetadataChanges(bamsArchive, oldArchive);
@@ -175,12 +451,46 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
     @Transactional(rollbackFor = Exception.class)
     public int deleteBamsArchiveByArchiveIds(Long[] archiveIds)
     {
-        int count = 0;
-        for (Long archiveId : archiveIds)
+        List<BamsArchive> archives = selectExistingArchives(archiveIds);
+        if (archives.isEmpty())
         {
-            count += deleteBamsArchiveByArchiveId(archiveId);
+            return 0;
         }
-        return count;
+        Long[] existingIds = archives.stream().map(BamsArchive::getArchiveId).toArray(Long[]::new);
+
+        // 删除标签关系，按标签汇总后批量减少使用次数
+        archiveTagMapper.deleteByArchiveIds(existingIds);
+        adjustTagUsage(archives, false);
+
+        // 按文件汇总释放版本文件引用，并删除版本记录
+        fileBlobService.releaseBlobs(versionMapper.selectVersionsByArchiveIds(existingIds));
+        versionMapper.deleteByArchiveIds(existingIds);
+
+        // 删除审计日志
+        auditLogMapper.deleteByArchiveIds(existingIds);
+
+        // 删除检索索引
+        archiveSearchService.removeArchives(existingIds);
+
+        // 记录删除日志
+        List<BamsArchiveAuditLog> logs = new ArrayList<>();
+        for (BamsArchive archive : archives)
+        {
+            String deleteDesc = String.format("永久删除档案【%s】（编号：%s）",
+                    archive.getTitle(), archive.getArchiveNumber());
+            logs.add(buildAuditLog(archive.getArchiveId(), null, "DELETE", "档案管理",
+                    deleteDesc, null, null, null));
+        }
+        auditLogService.recordAuditLogs(logs);
+
+        // 调整项目完整度计数
+        eventPublisher.publishEvent(new BamsArchiveChangeEvent(archives, null));
+
+        // 删除档案
+        int result = bamsArchiveMapper.deleteBamsArchiveByArchiveIds(existingIds);
+        archiveCacheService.evictArchives(Arrays.asList(existingIds));
+        archiveFacetService.invalidate();
+        return result;
     }
 
     /**
@@ -193,29 +503,7 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
     @Transactional(rollbackFor = Exception.class)
     public int deleteBamsArchiveByArchiveId(Long archiveId)
     {
-        BamsArchive archive = bamsArchiveMapper.selectBamsArchiveByArchiveId(archiveId);
-        if (archive == null)
-        {
-            return 0;
-        }
-
-        // 减少标签使用次数
-        decrementTagUsage(archive.getTags());
-
-        // 删除版本记录
-        versionMapper.deleteByArchiveId(archiveId);
-
-        // 删除审计日志
-        auditLogMapper.deleteByArchiveId(archiveId);
-
-        // 记录删除日志
-        String deleteDesc = String.format("永久删除档案【%s】（编号：%s）",
-                archive.getTitle(), archive.getArchiveNumber());
-        createAuditLog(archiveId, null, "DELETE", "档案管理",
-                deleteDesc, null, null, null);
-
-        // 删除档案
-        return bamsArchiveMapper.deleteBamsArchiveByArchiveId(archiveId);
+        return deleteBamsArchiveByArchiveIds(new Long[] { archiveId });
     }
 
     /**
@@ -228,19 +516,7 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
     @Transactional(rollbackFor = Exception.class)
     public int recycleBamsArchive(Long archiveId)
     {
-        BamsArchive archive = bamsArchiveMapper.selectBamsArchiveByArchiveId(archiveId);
-        if (archive == null)
-        {
-            return 0;
-        }
-
-        // 记录审计日志
-        String recycleDesc = String.format("将档案【%s】（编号：%s）移至回收站",
-                archive.getTitle(), archive.getArchiveNumber());
-        createAuditLog(archiveId, null, "RECYCLE", "档案管理",
-                recycleDesc, null, null, null);
-
-        return bamsArchiveMapper.updateDelFlag(archiveId, "1");
+        return recycleBamsArchiveByIds(new Long[] { archiveId });
     }
 
     /**
@@ -253,12 +529,7 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
     @Transactional(rollbackFor = Exception.class)
     public int recycleBamsArchiveByIds(Long[] archiveIds)
     {
-        int count = 0;
-        for (Long archiveId : archiveIds)
-        {
-            count += recycleBamsArchive(archiveId);
-        }
-        return count;
+        return updateDelFlag(archiveIds, "1", "RECYCLE", "将档案【%s】（编号：%s）移至回收站");
     }
 
     /**
@@ -271,19 +542,7 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
     @Transactional(rollbackFor = Exception.class)
     public int restoreBamsArchive(Long archiveId)
     {
-        BamsArchive archive = bamsArchiveMapper.selectBamsArchiveByArchiveId(archiveId);
-        if (archive == null)
-        {
-            return 0;
-        }
-
-        // 记录审计日志
-        String restoreDesc = String.format("从回收站恢复档案【%s】（编号：%s）",
-                archive.getTitle(), archive.getArchiveNumber());
-        createAuditLog(archiveId, null, "RESTORE", "档案管理",
-                restoreDesc, null, null, null);
-
-        return bamsArchiveMapper.updateDelFlag(archiveId, "0");
+        return restoreBamsArchiveByIds(new Long[] { archiveId });
     }
 
     /**
@@ -296,61 +555,77 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
     @Transactional(rollbackFor = Exception.class)
     public int restoreBamsArchiveByIds(Long[] archiveIds)
     {
-        int count = 0;
-        for (Long archiveId : archiveIds)
-        {
-            count += restoreBamsArchive(archiveId);
-        }
-        return count;
+        return updateDelFlag(archiveIds, "0", "RESTORE", "从回收站恢复档案【%s】（编号：%s）");
     }
 
     /**
-     * 生成档案编号
+     * 批量修改删除标志并记录审计日志
      *
-     * @param projectCode 项目编号
-     * @return 档案编号
+     * @param archiveIds 档案主键集合
+     * @param delFlag 删除标志
+     * @param operationType 操作类型
+     * @param descFormat 操作描述模板（参数为题名、档案编号）
+     * @return 结果
      */
-    @Override
-    public String generateArchiveNumber(String projectCode)
+    private int updateDelFlag(Long[] archiveIds, String delFlag, String operationType, String descFormat)
     {
-        String lockKey = ARCHIVE_NUMBER_LOCK_KEY + projectCode;
-        try
+        List<BamsArchive> archives = selectExistingArchives(archiveIds);
+        if (archives.isEmpty())
         {
-            // 获取分布式锁
-            Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, "1", LOCK_TIMEOUT, TimeUnit.SECONDS);
-            if (Boolean.TRUE.equals(locked))
-            {
-                try
-                {
-                    // 查询当前项目最大流水号
-                    int maxSeq = bamsArchiveMapper.getMaxSequenceByProject(projectCode);
-                    int nextSeq = maxSeq + 1;
+            return 0;
+        }
 
-                    // 生成档案编号：项目编号-流水号（4位）
-                    return String.format("%s-%04d", projectCode, nextSeq);
-                }
-                finally
-                {
-                    // 释放锁
-                    redisTemplate.delete(lockKey);
-                }
-            }
-            else
-            {
-                // 获取锁失败，等待重试
-                Thread.sleep(100);
-                return generateArchiveNumber(projectCode);
-            }
+        List<BamsArchiveAuditLog> logs = new ArrayList<>();
+        for (BamsArchive archive : archives)
+        {
+            String desc = String.format(descFormat, archive.getTitle(), archive.getArchiveNumber());
+            logs.add(buildAuditLog(archive.getArchiveId(), null, operationType, "档案管理",
+                    desc, null, null, null));
         }
-        catch (InterruptedException e)
+        auditLogService.recordAuditLogs(logs);
+
+        // 调整项目完整度计数
+        List<BamsArchive> updated = new ArrayList<>(archives.size());
+        for (BamsArchive archive : archives)
         {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("生成档案编号失败：线程被中断", e);
+            BamsArchive snapshot = statSnapshot(archive, archive);
+            snapshot.setDelFlag(delFlag);
+            updated.add(snapshot);
         }
-        catch (Exception e)
+        eventPublisher.publishEvent(new BamsArchiveChangeEvent(archives, updated));
+
+        Long[] existingIds = archives.stream().map(BamsArchive::getArchiveId).toArray(Long[]::new);
+        int result = bamsArchiveMapper.updateDelFlagByArchiveIds(existingIds, delFlag);
+        archiveCacheService.evictArchives(Arrays.asList(existingIds));
+        archiveFacetService.invalidate();
+        return result;
+    }
+
+    /**
+     * 批量查询档案（一次查询）
+     *
+     * @param archiveIds 档案主键集合
+     * @return 存在的档案
+     */
+    private List<BamsArchive> selectExistingArchives(Long[] archiveIds)
+    {
+        if (archiveIds == null || archiveIds.length == 0)
         {
-            throw new RuntimeException("生成档案编号失败", e);
+            return new ArrayList<>();
         }
+        return bamsArchiveMapper.selectBamsArchiveByArchiveIds(archiveIds);
+    }
+
+    /**
+     * 生成档案编号
+     *
+     * @param projectCode 项目编号
+     * @return 档案编号
+     */
+    @Override
+    public String generateArchiveNumber(String projectCode)
+    {
+        return archiveSequenceService.nextArchiveNumber(projectCode);
     }
 
     /**
@@ -368,8 +643,10 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
 
     /**
      * 处理标签
+     *
+     * @return 标签名称 -> 变化量（正数为新增的标签，负数为移除的标签）
      */
-    private void handleTags(BamsArchive archive, String oldTagsJson)
+    private Map<String, Integer> handleTags(BamsArchive archive, String oldTagsJson)
     {
         List<String> newTags = archive.getTagList();
         List<String> oldTags = new ArrayList<>();
@@ -379,6 +656,7 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
             oldTags = JSON.parseArray(oldTagsJson, String.class);
         }
 
+        Map<String, Integer> deltas = new HashMap<>();
         // 转换为JSON字符串
         if (newTags != null && !newTags.isEmpty())
         {
@@ -389,17 +667,14 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
             {
                 if (!oldTags.contains(tagName))
                 {
-                    BamsTagDictionary tag = tagDictionaryMapper.selectBamsTagDictionaryByTagName(tagName);
-                    if (tag != null)
-                    {
-                        tagDictionaryMapper.incrementUsageCount(tag.getTagId());
-                    }
+                    deltas.merge(tagName, 1, Integer::sum);
                 }
             }
         }
         else
         {
-            archive.setTags(null);
+            // 修改时清空标签需写入空数组，否则更新语句会跳过该字段
+            archive.setTags(oldTagsJson != null && !oldTagsJson.isEmpty() ? "[]" : null);
         }
 
         // 减少移除标签的使用次数
@@ -407,32 +682,66 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
         {
             if (newTags == null || !newTags.contains(tagName))
             {
-                BamsTagDictionary tag = tagDictionaryMapper.selectBamsTagDictionaryByTagName(tagName);
-                if (tag != null)
-                {
-                    tagDictionaryMapper.decrementUsageCount(tag.getTagId());
-                }
+                deltas.merge(tagName, -1, Integer::sum);
             }
         }
+
+        // 计数在事务提交后累加到内存，由标签注册表批量写入
+        tagRegistryService.recordUsage(deltas);
+        return deltas;
     }
 
     /**
-     * 减少标签使用次数
+     * 按标签变化维护档案标签关系（不在标签字典中的标签不登记）
      */
-    private void decrementTagUsage(String tagsJson)
+    private void syncArchiveTags(Long archiveId, Map<String, Integer> deltas)
     {
-        if (tagsJson != null && !tagsJson.isEmpty())
+        List<BamsArchiveTag> added = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : deltas.entrySet())
         {
-            List<String> tags = JSON.parseArray(tagsJson, String.class);
-            for (String tagName : tags)
+            Long tagId = tagRegistryService.getTagId(entry.getKey());
+            if (tagId == null || entry.getValue() == 0)
             {
-                BamsTagDictionary tag = tagDictionaryMapper.selectBamsTagDictionaryByTagName(tagName);
-                if (tag != null)
+                continue;
+            }
+            if (entry.getValue() > 0)
+            {
+                added.add(new BamsArchiveTag(archiveId, tagId));
+            }
+            else
+            {
+                removed.add(tagId);
+            }
+        }
+        if (!removed.isEmpty())
+        {
+            archiveTagMapper.deleteArchiveTags(archiveId, removed);
+        }
+        if (!added.isEmpty())
+        {
+            archiveTagMapper.batchInsertArchiveTag(added);
+        }
+    }
+
+    /**
+     * 增加或减少标签使用次数（按标签汇总后交给标签注册表累计）
+     */
+    private void adjustTagUsage(List<BamsArchive> archives, boolean increment)
+    {
+        int delta = increment ? 1 : -1;
+        Map<String, Integer> deltas = new HashMap<>();
+        for (BamsArchive archive : archives)
+        {
+            if (archive.getTags() != null && !archive.getTags().isEmpty())
+            {
+                for (String tagName : JSON.parseArray(archive.getTags(), String.class))
                 {
-                    tagDictionaryMapper.decrementUsageCount(tag.getTagId());
+                    deltas.merge(tagName, delta, Integer::sum);
                 }
             }
         }
+        tagRegistryService.recordUsage(deltas);
     }
 
     /**
@@ -494,7 +803,7 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
         // 批量插入审计日志
         if (!logs.isEmpty())
         {
-            auditLogMapper.batchInsertAuditLog(logs);
+            auditLogService.recordAuditLogs(logs);
         }
     }
 
@@ -586,6 +895,17 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
     private void createAuditLog(Long archiveId, Long versionId, String operationType,
                                  String module, String desc, String fieldName,
                                  String oldValue, String newValue)
+    {
+        auditLogService.recordAuditLog(buildAuditLog(archiveId, versionId, operationType,
+                module, desc, fieldName, oldValue, newValue));
+    }
+
+    /**
+     * 构建审计日志
+     */
+    private BamsArchiveAuditLog buildAuditLog(Long archiveId, Long versionId, String operationType,
+                                              String module, String desc, String fieldName,
+                                              String oldValue, String newValue)
     {
         BamsArchiveAuditLog log = new BamsArchiveAuditLog();
         log.setArchiveId(archiveId);
@@ -599,7 +919,25 @@ public class BamsArchiveServiceImpl implements IBamsArchiveService
         log.setOperator(SecurityUtils.getUsername());
         log.setOperationTime(new Date());
         log.setIpAddress(IpUtils.getIpAddr());
-        auditLogMapper.insertBamsArchiveAuditLog(log);
+        return log;
+    }
+
+    /**
+     * 构建统计用的档案快照，未修改的字段沿用原值
+     *
+     * @param archive 修改后的档案（字段为空表示未修改）
+     * @param oldArchive 原档案
+     * @return 档案快照
+     */
+    private BamsArchive statSnapshot(BamsArchive archive, BamsArchive oldArchive)
+    {
+        BamsArchive snapshot = new BamsArchive();
+        snapshot.setArchiveId(oldArchive.getArchiveId());
+        snapshot.setProjectId(archive.getProjectId() != null ? archive.getProjectId() : oldArchive.getProjectId());
+        snapshot.setStage(archive.getStage() != null ? archive.getStage() : oldArchive.getStage());
+        snapshot.setFileStandard(archive.getFileStandard() != null ? archive.getFileStandard() : oldArchive.getFileStandard());
+        snapshot.setDelFlag(archive.getDelFlag() != null ? archive.getDelFlag() : oldArchive.getDelFlag());
+        return snapshot;
     }
 
     /**
@@ -2,25 +2,52 @@ package com.ruoyi.system.service.impl;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.core.redis.RedisCache;
 import com.ruoyi.common.exception.ServiceException;
 import com.ruoyi.common.utils.SecurityUtils;
 import com.ruoyi.common.utils.ip.IpUtils;
+import com.ruoyi.common.utils.uuid.IdUtils;
 import com.ruoyi.system.domain.BamsArchive;
 import com.ruoyi.system.domain.BamsArchiveAuditLog;
-import com.ruoyi.system.mapper.BamsArchiveAuditLogMapper;
+import com.ruoyi.system.domain.BamsUploadSession;
+import com.ruoyi.system.domain.vo.BamsStagedFile;
 import com.ruoyi.system.mapper.BamsArchiveMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.ruoyi.system.mapper.BamsArchiveVersionMapper;
 import com.ruoyi.system.domain.BamsArchiveVersion;
+import com.ruoyi.system.service.IBamsArchiveAuditLogService;
+import com.ruoyi.system.service.IBamsArchiveCacheService;
+import com.ruoyi.system.service.IBamsArchiveFacetService;
+import com.ruoyi.system.service.IBamsArchiveSearchService;
 import com.ruoyi.system.service.IBamsArchiveVersionService;
+import com.ruoyi.system.service.IBamsFileTextService;
+import com.ruoyi.system.service.IBamsRenditionService;
+import com.ruoyi.system.service.IBamsFileBlobService;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -31,6 +58,8 @@ import org.springframework.web.multipart.MultipartFile;
  */
 @Service
 public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService {
+    private static final Logger log = LoggerFactory.getLogger(BamsArchiveVersionServiceImpl.class);
+
     @Autowired
     private BamsArchiveVersionMapper versionMapper;
 
@@ -38,11 +67,58 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
     private BamsArchiveMapper archiveMapper;
 
     @Autowired
-    private BamsArchiveAuditLogMapper auditLogMapper;
+    private IBamsArchiveAuditLogService auditLogService;
+
+    @Autowired
+    private IBamsFileBlobService fileBlobService;
+
+    @Autowired
+    private IBamsArchiveSearchService archiveSearchService;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private IBamsArchiveCacheService archiveCacheService;
+
+    @Autowired
+    private IBamsArchiveFacetService archiveFacetService;
+
+    @Autowired
+    private IBamsFileTextService fileTextService;
+
+    @Autowired
+    private IBamsRenditionService renditionService;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
 
     @Value("${ruoyi.profile}")
     private String uploadPath;
 
+    /** 建议分片大小（字节），需小于 spring.servlet.multipart.max-file-size */
+    @Value("${bams.upload.chunkSize:5242880}")
+    private Long chunkSize;
+
+    /** 上传会话有效期（小时） */
+    private static final int UPLOAD_SESSION_EXPIRE_HOURS = 24;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** 各上传会话的增量哈希状态，key 为上传会话ID */
+    private final Map<String, UploadDigest> uploadDigests = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        scheduledExecutorService.scheduleWithFixedDelay(() -> {
+            try {
+                purgeExpiredUploads();
+            } catch (Exception e) {
+                log.error("清理过期上传会话失败", e);
+            }
+        }, 1, 1, TimeUnit.HOURS);
+    }
+
     /**
      * 查询档案版本
      *
@@ -73,7 +149,7 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
      */
     @Override
     public List<BamsArchiveVersion> selectVersionsByArchiveId(Long archiveId) {
-        return versionMapper.selectVersionsByArchiveId(archiveId);
+        return archiveCacheService.selectArchiveVersions(archiveId);
     }
 
     /**
@@ -88,7 +164,7 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
     }
 
     /**
-     * 临时文件上传（用于OCR识别）
+     * 临时文件上传（提交正文抽取，返回题名、摘要、标签建议）
      *
      * @param file 文件
      * @return 临时文件信息
@@ -120,15 +196,11 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
         result.put("fileSize", file.getSize());
         result.put("fileType", fileType);
 
-        // TODO: 这里后续可以调用OCR服务识别文件内容
-        // 目前返回模拟数据
-        result.put("ocrResult", new java.util.HashMap<String, Object>() {
-            {
-                put("title", "");
-                put("summary", "AI 正在分析文件内容...");
-                put("tags", new String[] {});
-            }
-        });
+        // 按内容哈希提交正文抽取，相同内容已识别过时直接返回建议，否则前端按哈希值轮询
+        String fileHash = hashFile(new File(uploadPath + filePath));
+        result.put("fileHash", fileHash);
+        fileTextService.submitExtraction(fileHash, filePath, fileName);
+        result.put("ocrResult", fileTextService.selectTextSuggestion(fileHash));
 
         return result;
     }
@@ -156,37 +228,344 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
             throw new ServiceException("不支持的文件格式。仅支持 Word、PDF、JPG、PNG、Excel、CAD 格式");
         }
 
-        // 计算文件哈希值
-        String fileHash;
-        try {
-            fileHash = calculateFileHash(file.getBytes());
-        } catch (IOException | NoSuchAlgorithmException e) {
-            throw new ServiceException("计算文件哈希值失败");
+        // 边写入磁盘边计算哈希值，避免将整个文件读入内存
+        File tempFile = getPartFile(IdUtils.fastSimpleUUID());
+        MessageDigest digest = newDigest();
+        try (InputStream in = file.getInputStream();
+                FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeAndDigest(in, channel, digest);
+        } catch (IOException e) {
+            tempFile.delete();
+            throw new ServiceException("文件上传失败：" + e.getMessage());
         }
 
-        // 检查是否重复上传
-        List<BamsArchiveVersion> existingVersions = versionMapper.selectVersionsByArchiveId(archiveId);
-        for (BamsArchiveVersion version : existingVersions) {
-            if (fileHash.equals(version.getFileHash())) {
-                throw new ServiceException("文件已存在，请勿重复上传");
-            }
+        return storeVersion(archive, tempFile, fileName, file.getSize(), toHex(digest.digest()), versionRemark);
+    }
+
+    /**
+     * 将文件写入临时目录并计算哈希值（不访问数据库，可并行调用）
+     *
+     * @param in       文件内容
+     * @param fileName 原始文件名
+     * @return 暂存文件
+     */
+    @Override
+    public BamsStagedFile stageFile(InputStream in, String fileName) {
+        if (!isValidFileType(fileName)) {
+            throw new ServiceException("不支持的文件格式。仅支持 Word、PDF、JPG、PNG、Excel、CAD 格式");
         }
 
-        // 生成版本号
-        String versionNumber = generateVersionNumber(existingVersions.size());
+        File tempFile = getPartFile(IdUtils.fastSimpleUUID());
+        MessageDigest digest = newDigest();
+        long fileSize;
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            fileSize = writeAndDigest(in, channel, digest);
+        } catch (IOException e) {
+            tempFile.delete();
+            throw new ServiceException("文件读取失败：" + e.getMessage());
+        }
 
-        // 上传文件
-        String filePath;
+        BamsStagedFile staged = new BamsStagedFile();
+        staged.setFileName(fileName);
+        staged.setFileType(getFileType(fileName));
+        staged.setFileSize(fileSize);
+        staged.setFileHash(toHex(digest.digest()));
+        staged.setTempFile(tempFile);
+        return staged;
+    }
+
+    /**
+     * 为新导入的档案登记首个版本（批量写入版本并回填档案的版本信息）
+     *
+     * @param archives 已入库的档案
+     * @param files    与档案一一对应的暂存文件
+     * @return 新版本
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public List<BamsArchiveVersion> insertImportedVersions(List<BamsArchive> archives, List<BamsStagedFile> files) {
+        List<BamsArchiveVersion> versions = new ArrayList<>(archives.size());
+        if (archives.isEmpty()) {
+            return versions;
+        }
+
+        String versionNumber = generateVersionNumber(0);
+        String username = SecurityUtils.getUsername();
+        Date now = new Date();
+        List<Long> archiveIds = new ArrayList<>(archives.size());
+        for (int i = 0; i < archives.size(); i++) {
+            BamsArchive archive = archives.get(i);
+            BamsStagedFile file = files.get(i);
+            // 按内容哈希保存文件，相同内容在所有档案间只保存一份
+            String filePath = fileBlobService.storeBlob(file.getTempFile(), file.getFileHash(), file.getFileSize());
+
+            BamsArchiveVersion version = new BamsArchiveVersion();
+            version.setArchiveId(archive.getArchiveId());
+            version.setVersionNumber(versionNumber);
+            version.setFileName(file.getFileName());
+            version.setFilePath(filePath);
+            version.setFileType(file.getFileType());
+            version.setFileSize(file.getFileSize());
+            version.setFileHash(file.getFileHash());
+            version.setIsCurrent("1");
+            version.setVersionRemark("批量导入");
+            version.setUploadBy(username);
+            version.setUploadTime(now);
+            versions.add(version);
+            archiveIds.add(archive.getArchiveId());
+        }
+
+        versionMapper.batchInsertBamsArchiveVersion(versions);
+        archiveMapper.updateVersionInfoFromCurrent(archiveIds);
+
+        List<BamsArchiveAuditLog> logs = new ArrayList<>(versions.size());
+        for (BamsArchiveVersion version : versions) {
+            String uploadDesc = String.format("上传新版本【%s】，文件名：%s，大小：%s",
+                    version.getVersionNumber(), version.getFileName(), formatFileSize(version.getFileSize()));
+            logs.add(buildAuditLog(version.getArchiveId(), version.getVersionId(), "VERSION_UPLOAD", "版本管理",
+                    uploadDesc));
+            // 提交后异步抽取文件正文，更新检索索引
+            archiveSearchService.indexVersionContent(version);
+            renditionService.submitRendition(version);
+        }
+        auditLogService.recordAuditLogs(logs);
+        return versions;
+    }
+
+    /**
+     * 初始化分片上传会话
+     *
+     * @param archiveId     档案ID
+     * @param fileName      原始文件名
+     * @param fileSize      文件总大小（字节）
+     * @param versionRemark 版本说明
+     * @return 上传会话
+     */
+    @Override
+    public BamsUploadSession initChunkUpload(Long archiveId, String fileName, Long fileSize, String versionRemark) {
+        BamsArchive archive = archiveMapper.selectBamsArchiveByArchiveId(archiveId);
+        if (archive == null) {
+            throw new ServiceException("档案不存在");
+        }
+        if (!isValidFileType(fileName)) {
+            throw new ServiceException("不支持的文件格式。仅支持 Word、PDF、JPG、PNG、Excel、CAD 格式");
+        }
+        if (fileSize == null || fileSize <= 0) {
+            throw new ServiceException("文件大小无效");
+        }
+
+        BamsUploadSession session = new BamsUploadSession();
+        session.setUploadId(IdUtils.fastSimpleUUID());
+        session.setArchiveId(archiveId);
+        session.setFileName(fileName);
+        session.setFileSize(fileSize);
+        session.setChunkSize(chunkSize);
+        session.setUploadedSize(0L);
+        session.setVersionRemark(versionRemark);
+        session.setUploadBy(SecurityUtils.getUsername());
+        session.setCreateTime(new Date());
+
+        // 预先创建空的分片文件
+        File partFile = getPartFile(session.getUploadId());
         try {
-            // 构建存储路径：archive/{archiveId}/
-            String subDir = "archive/" + archiveId;
-            // 使用档案编号和版本号命名文件，避免中文乱码
-            String customFileName = archive.getArchiveNumber() + "_" + versionNumber;
-            filePath = uploadFile(file, subDir, customFileName);
+            Files.deleteIfExists(partFile.toPath());
+            Files.createFile(partFile.toPath());
         } catch (IOException e) {
-            throw new ServiceException("文件上传失败：" + e.getMessage());
+            throw new ServiceException("创建上传会话失败：" + e.getMessage());
+        }
+
+        uploadDigests.put(session.getUploadId(), new UploadDigest(newDigest(), 0));
+        saveUploadSession(session);
+        return session;
+    }
+
+    /**
+     * 查询分片上传会话（用于断点续传获取已上传偏移量）
+     *
+     * @param uploadId 上传会话ID
+     * @return 上传会话
+     */
+    @Override
+    public BamsUploadSession selectUploadSession(String uploadId) {
+        return getUploadSession(uploadId);
+    }
+
+    /**
+     * 上传一个分片，分片数据直接写入磁盘并增量更新哈希值
+     *
+     * @param uploadId 上传会话ID
+     * @param offset   分片起始偏移量，必须等于已确认接收的字节数
+     * @param chunk    分片数据
+     * @return 更新后的上传会话
+     */
+    @Override
+    public BamsUploadSession uploadChunk(String uploadId, Long offset, MultipartFile chunk) {
+        BamsUploadSession session = getUploadSession(uploadId);
+        UploadDigest holder = getUploadDigest(session);
+        synchronized (holder) {
+            // 并发请求下以 Redis 中最新的会话状态为准
+            session = getUploadSession(uploadId);
+            long uploaded = session.getUploadedSize();
+            if (offset == null || offset != uploaded) {
+                throw new ServiceException("分片偏移量不匹配，服务端已接收 " + uploaded + " 字节");
+            }
+            syncUploadDigest(holder, session);
+
+            File partFile = getPartFile(uploadId);
+            // 在副本上计算哈希，写入失败时不会污染已确认的哈希状态
+            MessageDigest digest = cloneDigest(holder.digest);
+            long written;
+            try (InputStream in = chunk.getInputStream();
+                    FileChannel channel = FileChannel.open(partFile.toPath(), StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE)) {
+                channel.position(uploaded);
+                written = writeAndDigest(in, channel, digest);
+                if (uploaded + written > session.getFileSize()) {
+                    channel.truncate(uploaded);
+                    throw new ServiceException("分片数据超出文件总大小");
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                truncatePartFile(partFile, uploaded);
+                throw new ServiceException("分片上传失败：" + e.getMessage());
+            }
+
+            holder.digest = digest;
+            holder.offset = uploaded + written;
+            holder.lastAccessTime = System.currentTimeMillis();
+            session.setUploadedSize(uploaded + written);
+            saveUploadSession(session);
+            return session;
+        }
+    }
+
+    /**
+     * 完成分片上传并生成新版本
+     *
+     * @param uploadId 上传会话ID
+     * @return 新版本
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public BamsArchiveVersion completeChunkUpload(String uploadId) {
+        BamsUploadSession session = getUploadSession(uploadId);
+        UploadDigest holder = getUploadDigest(session);
+        synchronized (holder) {
+            session = getUploadSession(uploadId);
+            if (!session.getUploadedSize().equals(session.getFileSize())) {
+                throw new ServiceException("文件尚未上传完成，已接收 " + session.getUploadedSize() + " / "
+                        + session.getFileSize() + " 字节");
+            }
+
+            BamsArchive archive = archiveMapper.selectBamsArchiveByArchiveId(session.getArchiveId());
+            if (archive == null) {
+                abortChunkUpload(uploadId);
+                throw new ServiceException("档案不存在");
+            }
+
+            syncUploadDigest(holder, session);
+            String fileHash = toHex(cloneDigest(holder.digest).digest());
+            try {
+                BamsArchiveVersion version = storeVersion(archive, getPartFile(uploadId), session.getFileName(),
+                        session.getFileSize(), fileHash, session.getVersionRemark());
+                releaseUploadSessionAfterCompletion(uploadId);
+                return version;
+            } catch (RuntimeException e) {
+                releaseUploadSessionAfterCompletion(uploadId);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 事务结束后清理分片上传会话
+     * 提交后删除会话；回滚时若分片文件已被恢复则保留会话，允许重新调用完成接口。
+     * 需在存储文件之后注册，以便在文件回滚恢复之后执行。
+     *
+     * @param uploadId 上传会话ID
+     */
+    private void releaseUploadSessionAfterCompletion(String uploadId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 无事务时分片文件已被移动或删除，会话不再可用
+            releaseUploadSession(uploadId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED || !getPartFile(uploadId).exists()) {
+                    releaseUploadSession(uploadId);
+                }
+            }
+        });
+    }
+
+    /**
+     * 删除分片上传会话及其摘要状态
+     *
+     * @param uploadId 上传会话ID
+     */
+    private void releaseUploadSession(String uploadId) {
+        uploadDigests.remove(uploadId);
+        redisCache.deleteObject(getUploadSessionKey(uploadId));
+    }
+
+    /**
+     * 取消分片上传并清理临时文件
+     *
+     * @param uploadId 上传会话ID
+     */
+    @Override
+    public void abortChunkUpload(String uploadId) {
+        BamsUploadSession session = redisCache.getCacheObject(getUploadSessionKey(uploadId));
+        if (session != null && !SecurityUtils.getUsername().equals(session.getUploadBy())) {
+            throw new ServiceException("无权访问该上传会话");
+        }
+        uploadDigests.remove(uploadId);
+        redisCache.deleteObject(getUploadSessionKey(uploadId));
+        getPartFile(uploadId).delete();
+    }
+
+    /**
+     * 将已落盘的文件登记为档案的新版本
+     *
+     * @param archive       档案
+     * @param tempFile      已写入磁盘的临时文件
+     * @param fileName      原始文件名
+     * @param fileSize      文件大小
+     * @param fileHash      文件 SHA-256 哈希值
+     * @param versionRemark 版本说明
+     * @return 新版本
+     */
+    private BamsArchiveVersion storeVersion(BamsArchive archive, File tempFile, String fileName, long fileSize,
+            String fileHash, String versionRemark) {
+        Long archiveId = archive.getArchiveId();
+
+        // 检查是否重复上传（按哈希索引查询）
+        if (versionMapper.selectVersionByFileHash(archiveId, fileHash) != null) {
+            tempFile.delete();
+            throw new ServiceException("文件已存在，请勿重复上传");
         }
 
+        // 生成版本号
+        int existingCount = versionMapper.countVersionsByArchiveId(archiveId);
+        String versionNumber = generateVersionNumber(existingCount);
+
+        // 按内容哈希保存文件，相同内容在所有档案间只保存一份
+        String filePath = fileBlobService.storeBlob(tempFile, fileHash, fileSize);
+
+        return insertVersion(archiveId, versionNumber, existingCount + 1, fileName, filePath,
+                fileSize, fileHash, versionRemark);
+    }
+
+    /**
+     * 插入版本记录并更新档案的版本信息
+     */
+    private BamsArchiveVersion insertVersion(Long archiveId, String versionNumber, int versionCount,
+            String fileName, String filePath, long fileSize, String fileHash, String versionRemark) {
+
         // 获取文件类型
         String fileType = getFileType(fileName);
 
@@ -197,7 +576,7 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
         version.setFileName(fileName);
         version.setFilePath(filePath);
         version.setFileType(fileType);
-        version.setFileSize(file.getSize());
+        version.setFileSize(fileSize);
         version.setFileHash(fileHash);
         version.setIsCurrent("1"); // 新上传的版本自动设为当前版本
         version.setVersionRemark(versionRemark);
@@ -211,15 +590,20 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
         versionMapper.insertBamsArchiveVersion(version);
 
         // 更新档案的版本信息
-        int versionCount = existingVersions.size() + 1;
-        archiveMapper.updateVersionInfo(archiveId, versionNumber, versionCount, file.getSize());
+        archiveMapper.updateVersionInfo(archiveId, versionNumber, versionCount, fileSize);
+        archiveCacheService.evictArchives(Collections.singletonList(archiveId));
+        archiveFacetService.invalidate();
 
         // 记录审计日志
         String uploadDesc = String.format("上传新版本【%s】，文件名：%s，大小：%s",
-                versionNumber, fileName, formatFileSize(file.getSize()));
+                versionNumber, fileName, formatFileSize(fileSize));
         createAuditLog(archiveId, version.getVersionId(), "VERSION_UPLOAD", "版本管理",
                 uploadDesc);
 
+        // 提交后异步抽取文件正文，更新检索索引，生成缩略图和预览图
+        archiveSearchService.indexVersionContent(version);
+        renditionService.submitRendition(version);
+
         return version;
     }
 
@@ -236,6 +620,8 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
                 bamsArchiveVersion.getVersionId());
 
         int result = versionMapper.updateBamsArchiveVersion(bamsArchiveVersion);
+        archiveCacheService.evictArchives(Collections.singletonList(oldVersion.getArchiveId()));
+        archiveFacetService.invalidate();
 
         // 记录审计日志
         if (!equals(oldVersion.getVersionRemark(), bamsArchiveVersion.getVersionRemark())) {
@@ -265,8 +651,8 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
             throw new ServiceException("当前版本不允许删除，请先切换到其他版本");
         }
 
-        // 删除物理文件
-        deletePhysicalFile(version.getFilePath());
+        // 释放文件引用，无其他版本引用时删除物理文件
+        fileBlobService.releaseBlob(version.getFileHash(), version.getFilePath());
 
         // 记录审计日志
         String deleteDesc = String.format("删除版本【%s】，文件：%s",
@@ -278,8 +664,10 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
         int result = versionMapper.deleteBamsArchiveVersionByVersionId(versionId);
 
         // 更新档案的版本计数
-        List<BamsArchiveVersion> remainingVersions = versionMapper.selectVersionsByArchiveId(version.getArchiveId());
-        archiveMapper.updateVersionInfo(version.getArchiveId(), null, remainingVersions.size(), null);
+        int remainingCount = versionMapper.countVersionsByArchiveId(version.getArchiveId());
+        archiveMapper.updateVersionInfo(version.getArchiveId(), null, remainingCount, null);
+        archiveCacheService.evictArchives(Collections.singletonList(version.getArchiveId()));
+        archiveFacetService.invalidate();
 
         return result;
     }
@@ -330,18 +718,6 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
      * @return 相对路径，例如：/archive/4/2025/11/21/xxx.jpg
      */
     private String uploadFile(MultipartFile file, String subDir) throws IOException {
-        return uploadFile(file, subDir, null);
-    }
-
-    /**
-     * 上传文件并返回相对路径（支持自定义文件名）
-     * 
-     * @param file           文件
-     * @param subDir         子目录
-     * @param customFileName 自定义文件名（不含扩展名），如果为 null 则使用原文件名
-     * @return 相对路径，例如：/archive/4/2025/11/21/xxx.jpg
-     */
-    private String uploadFile(MultipartFile file, String subDir, String customFileName) throws IOException {
         // 生成文件名：日期路径/文件名_时间戳.扩展名
         String datePath = java.time.LocalDate.now().toString().replace("-", "/");
         String originalFilename = file.getOriginalFilename();
@@ -354,16 +730,7 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
 
         // 获取扩展名
         String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-
-        // 使用自定义文件名或原文件名
-        String baseName;
-        if (customFileName != null && !customFileName.isEmpty()) {
-            // 使用自定义文件名（档案编号_版本号），避免中文乱码
-            baseName = customFileName;
-        } else {
-            // 使用原文件名（可能包含中文）
-            baseName = originalFilename.substring(0, originalFilename.lastIndexOf("."));
-        }
+        String baseName = originalFilename.substring(0, originalFilename.lastIndexOf("."));
 
         // 文件名格式：日期路径/基础名_时间戳.扩展名
         String fileName = datePath + "/" + baseName + "_" + System.currentTimeMillis() + extension;
@@ -384,6 +751,160 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
         return "/" + subDir + "/" + fileName;
     }
 
+    /**
+     * 计算已保存文件的 SHA-256 哈希值
+     */
+    private String hashFile(File file) {
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new ServiceException("文件读取失败：" + e.getMessage());
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * 获取上传中的临时分片文件
+     */
+    private File getPartFile(String uploadId) {
+        File dir = new File(uploadPath + "/temp/chunk");
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        return new File(dir, uploadId + ".part");
+    }
+
+    /**
+     * 将输入流写入文件通道，同时更新哈希值
+     *
+     * @return 写入的字节数
+     */
+    private long writeAndDigest(InputStream in, FileChannel channel, MessageDigest digest) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int bytesRead;
+        while ((bytesRead = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, bytesRead);
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, bytesRead);
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer);
+            }
+            total += bytesRead;
+        }
+        return total;
+    }
+
+    /**
+     * 将分片文件截断到已确认的偏移量
+     */
+    private void truncatePartFile(File partFile, long size) {
+        try (FileChannel channel = FileChannel.open(partFile.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        } catch (IOException e) {
+            // 忽略截断失败，下次写入会覆盖该区域
+        }
+    }
+
+    /**
+     * 查询上传会话，不存在或不属于当前用户时抛出异常
+     */
+    private BamsUploadSession getUploadSession(String uploadId) {
+        BamsUploadSession session = redisCache.getCacheObject(getUploadSessionKey(uploadId));
+        if (session == null) {
+            uploadDigests.remove(uploadId);
+            throw new ServiceException("上传会话不存在或已过期");
+        }
+        if (!SecurityUtils.getUsername().equals(session.getUploadBy())) {
+            throw new ServiceException("无权访问该上传会话");
+        }
+        return session;
+    }
+
+    /**
+     * 保存上传会话并刷新过期时间
+     */
+    private void saveUploadSession(BamsUploadSession session) {
+        redisCache.setCacheObject(getUploadSessionKey(session.getUploadId()), session,
+                UPLOAD_SESSION_EXPIRE_HOURS, TimeUnit.HOURS);
+    }
+
+    private String getUploadSessionKey(String uploadId) {
+        return CacheConstants.BAMS_UPLOAD_SESSION_KEY + uploadId;
+    }
+
+    /**
+     * 获取上传会话的增量哈希状态，本节点尚无状态时创建，使用前需调用 syncUploadDigest 与会话对齐
+     */
+    private UploadDigest getUploadDigest(BamsUploadSession session) {
+        return uploadDigests.computeIfAbsent(session.getUploadId(), uploadId -> new UploadDigest(null, -1));
+    }
+
+    /**
+     * 哈希状态覆盖的偏移量与会话已确认的字节数不一致时（服务重启、分片落到其他节点），
+     * 按已确认的字节数重新读取分片文件恢复哈希状态，调用方需持有 holder 的锁
+     */
+    private void syncUploadDigest(UploadDigest holder, BamsUploadSession session) {
+        long uploadedSize = session.getUploadedSize();
+        if (holder.digest != null && holder.offset == uploadedSize) {
+            return;
+        }
+        MessageDigest digest = newDigest();
+        long remaining = uploadedSize;
+        try (InputStream in = Files.newInputStream(getPartFile(session.getUploadId()).toPath())) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (remaining > 0) {
+                int bytesRead = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (bytesRead == -1) {
+                    break;
+                }
+                digest.update(buffer, 0, bytesRead);
+                remaining -= bytesRead;
+            }
+        } catch (IOException e) {
+            throw new ServiceException("恢复上传会话失败：" + e.getMessage());
+        }
+        if (remaining > 0) {
+            throw new ServiceException("分片文件已损坏，请重新上传");
+        }
+        holder.digest = digest;
+        holder.offset = uploadedSize;
+    }
+
+    /**
+     * 清理过期的上传：移除长时间未活动的哈希状态，删除超过会话有效期未写入的分片文件，
+     * 并删除对应的 Redis 会话（与取消上传相同），避免放弃的上传长期占用磁盘
+     */
+    private void purgeExpiredUploads() {
+        long expireTime = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(UPLOAD_SESSION_EXPIRE_HOURS);
+        uploadDigests.values().removeIf(holder -> holder.lastAccessTime < expireTime);
+
+        File[] partFiles = new File(uploadPath + "/temp/chunk").listFiles((dir, name) -> name.endsWith(".part"));
+        if (partFiles == null) {
+            return;
+        }
+        int count = 0;
+        for (File partFile : partFiles) {
+            // 每个分片写入都会刷新会话有效期和文件修改时间，两者同时过期
+            if (partFile.lastModified() >= expireTime) {
+                continue;
+            }
+            String uploadId = partFile.getName().substring(0, partFile.getName().length() - ".part".length());
+            uploadDigests.remove(uploadId);
+            redisCache.deleteObject(getUploadSessionKey(uploadId));
+            if (partFile.delete()) {
+                count++;
+            }
+        }
+        if (count > 0) {
+            log.info("清理过期的分片上传文件：{} 个", count);
+        }
+    }
+
     /**
      * 验证文件类型是否支持
      */
@@ -439,13 +960,31 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
     }
 
     /**
-     * 计算文件SHA-256哈希值
+     * 创建SHA-256摘要
      */
-    private String calculateFileHash(byte[] fileBytes) throws NoSuchAlgorithmException {
-        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-        byte[] hashBytes = digest.digest(fileBytes);
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ServiceException("计算文件哈希值失败");
+        }
+    }
 
-        // 转换为16进制字符串
+    /**
+     * 复制摘要的中间状态
+     */
+    private MessageDigest cloneDigest(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new ServiceException("计算文件哈希值失败");
+        }
+    }
+
+    /**
+     * 将哈希值转换为16进制字符串
+     */
+    private String toHex(byte[] hashBytes) {
         StringBuilder hexString = new StringBuilder();
         for (byte b : hashBytes) {
             String hex = Integer.toHexString(0xff & b);
@@ -458,25 +997,17 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
     }
 
     /**
-     * 删除物理文件
+     * 创建审计日志
      */
-    private void deletePhysicalFile(String filePath) {
-        if (filePath != null && !filePath.isEmpty()) {
-            try {
-                File file = new File(uploadPath + filePath);
-                if (file.exists()) {
-                    file.delete();
-                }
-            } catch (Exception e) {
-                // 忽略文件删除失败
-            }
-        }
+    private void createAuditLog(Long archiveId, Long versionId, String operationType,
+            String module, String desc) {
+        auditLogService.recordAuditLog(buildAuditLog(archiveId, versionId, operationType, module, desc));
     }
 
     /**
-     * 创建审计日志
+     * 构建审计日志
      */
-    private void createAuditLog(Long archiveId, Long versionId, String operationType,
+    private BamsArchiveAuditLog buildAuditLog(Long archiveId, Long versionId, String operationType,
             String module, String desc) {
         BamsArchiveAuditLog log = new BamsArchiveAuditLog();
         log.setArchiveId(archiveId);
@@ -487,7 +1018,7 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
         log.setOperator(SecurityUtils.getUsername());
         log.setOperationTime(new Date());
         log.setIpAddress(IpUtils.getIpAddr());
-        auditLogMapper.insertBamsArchiveAuditLog(log);
+        return log;
     }
 
     /**
@@ -522,4 +1053,21 @@ public class BamsArchiveVersionServiceImpl implements IBamsArchiveVersionService
         }
         return obj1.equals(obj2);
     }
+
+    /**
+     * 上传会话的增量哈希状态
+     */
+    private static class UploadDigest {
+        private MessageDigest digest;
+
+        /** 哈希状态已覆盖的字节数，-1 表示尚未恢复 */
+        private long offset;
+
+        private long lastAccessTime = System.currentTimeMillis();
+
+        UploadDigest(MessageDigest digest, long offset) {
+            this.digest = digest;
+            this.offset = offset;
+        }
+    }
 }
@@ -0,0 +1,516 @@
+package com.ruoyi.system.service.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import com.alibaba.fastjson2.JSON;
+import com.ruoyi.common.config.RuoYiConfig;
+import com.ruoyi.common.exception.ServiceException;
+import com.ruoyi.common.utils.DateUtils;
+import com.ruoyi.common.utils.SecurityUtils;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.file.FileUtils;
+import com.ruoyi.common.utils.ip.IpUtils;
+import com.ruoyi.common.utils.poi.ExcelUtil;
+import com.ruoyi.common.utils.uuid.IdUtils;
+import com.ruoyi.system.domain.BamsExportJob;
+import com.ruoyi.system.mapper.BamsExportJobMapper;
+import com.ruoyi.system.service.IBamsExportJobService;
+
+/**
+ * 后台导出任务Service业务层处理
+ *
+ * 导出在独立的有界线程池中执行，不占用 Tomcat 请求线程；每个用户同时未完成的任务数受限。
+ * 执行中任务的进度只保存在内存中，任务状态、结果文件路径和执行节点持久化到数据库。
+ *
+ * @author ruoyi
+ */
+@Service
+public class BamsExportJobServiceImpl implements IBamsExportJobService
+{
+    private static final Logger log = LoggerFactory.getLogger(BamsExportJobServiceImpl.class);
+
+    /** 结果文件目录（相对 profile） */
+    private static final String EXPORT_DIR = "/export/";
+
+    @Autowired
+    private BamsExportJobMapper exportJobMapper;
+
+    /** 导出线程数 */
+    @Value("${bams.export.workers:2}")
+    private int workers;
+
+    /** 排队任务上限 */
+    @Value("${bams.export.queueCapacity:20}")
+    private int queueCapacity;
+
+    /** 每个用户同时未完成的任务上限 */
+    @Value("${bams.export.maxPerUser:2}")
+    private int maxPerUser;
+
+    /** 结果文件保留时长（小时） */
+    @Value("${bams.export.retentionHours:24}")
+    private int retentionHours;
+
+    /** 执行节点标识，为空时使用主机名:端口（重启后保持不变） */
+    @Value("${bams.export.nodeId:}")
+    private String nodeId;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    private ThreadPoolExecutor executor;
+
+    /** 各用户未完成的任务数 */
+    private final Map<String, Integer> activeJobs = new ConcurrentHashMap<String, Integer>();
+
+    /** 执行中任务的实时进度 */
+    private final Map<Long, JobProgress> runningJobs = new ConcurrentHashMap<Long, JobProgress>();
+
+    @PostConstruct
+    public void init()
+    {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity),
+                new BasicThreadFactory.Builder().namingPattern("export-job-%d").daemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        if (StringUtils.isEmpty(nodeId))
+        {
+            nodeId = IpUtils.getHostName() + ":" + serverPort;
+        }
+        // 本节点重启前未完成的任务已无执行线程，标记为失败；其他节点的任务及已完成的文件不受影响
+        int interrupted = exportJobMapper.failInterruptedJobs(nodeId, "服务重启，导出任务已中断，请重新提交");
+        if (interrupted > 0)
+        {
+            log.warn("服务重启，{} 个未完成的导出任务已标记为失败", interrupted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交导出任务，在后台线程池中执行
+     *
+     * @param jobType 导出类型
+     * @param sheetName 工作表名称（同时作为下载文件名前缀）
+     * @param clazz 导出对象类型
+     * @param queryParams 查询条件（仅用于记录）
+     * @param totalRows 总行数，未知时传空（数据源为集合时自动取集合大小）
+     * @param provider 数据源
+     * @return 导出任务
+     */
+    @Override
+    public <T> BamsExportJob submitExportJob(String jobType, String sheetName, Class<T> clazz, Object queryParams,
+            Long totalRows, ExportDataProvider<T> provider)
+    {
+        String username = SecurityUtils.getUsername();
+        acquireSlot(username);
+        BamsExportJob job = new BamsExportJob();
+        try
+        {
+            job.setJobType(jobType);
+            job.setFileName(sheetName + "_" + DateUtils.dateTimeNow() + ".xlsx");
+            job.setStatus(BamsExportJob.STATUS_QUEUED);
+            job.setTotalRows(totalRows);
+            job.setProcessedRows(0L);
+            job.setQueryParams(StringUtils.substring(JSON.toJSONString(queryParams), 0, 2000));
+            job.setCreateBy(username);
+            job.setCreateTime(DateUtils.getNowDate());
+            job.setExpireTime(DateUtils.addHours(job.getCreateTime(), retentionHours));
+            job.setNodeId(nodeId);
+            exportJobMapper.insertExportJob(job);
+        }
+        catch (RuntimeException e)
+        {
+            releaseSlot(username);
+            throw e;
+        }
+
+        Long jobId = job.getJobId();
+        RequestAttributes requestAttributes = DetachedRequestAttributes.copyOf(RequestContextHolder.getRequestAttributes());
+        Runnable task = () -> {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try
+            {
+                runJob(jobId, sheetName, clazz, totalRows, provider);
+            }
+            finally
+            {
+                RequestContextHolder.resetRequestAttributes();
+                releaseSlot(username);
+            }
+        };
+        try
+        {
+            // 数据权限等依赖当前登录用户，需要将安全上下文带入导出线程
+            executor.execute(new DelegatingSecurityContextRunnable(task));
+        }
+        catch (RejectedExecutionException e)
+        {
+            releaseSlot(username);
+            finishJob(jobId, BamsExportJob.STATUS_FAILED, "导出任务排队已满");
+            throw new ServiceException("当前导出任务较多，请稍后再试");
+        }
+        return job;
+    }
+
+    /**
+     * 执行导出任务
+     */
+    private <T> void runJob(Long jobId, String sheetName, Class<T> clazz, Long totalRows, ExportDataProvider<T> provider)
+    {
+        JobProgress progress = new JobProgress(totalRows);
+        runningJobs.put(jobId, progress);
+        String filePath = EXPORT_DIR + DateUtils.datePath() + "/" + IdUtils.fastSimpleUUID() + ".xlsx";
+        File file = new File(RuoYiConfig.getProfile() + filePath);
+        try
+        {
+            BamsExportJob running = new BamsExportJob();
+            running.setJobId(jobId);
+            running.setStatus(BamsExportJob.STATUS_RUNNING);
+            running.setStartTime(DateUtils.getNowDate());
+            exportJobMapper.updateExportJob(running);
+
+            file.getParentFile().mkdirs();
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file)))
+            {
+                ExcelUtil<T> util = new ExcelUtil<T>(clazz);
+                provider.fetch(rows -> util.exportExcelStream(out, trackProgress(rows, progress), sheetName));
+            }
+
+            Date finishTime = DateUtils.getNowDate();
+            BamsExportJob finished = new BamsExportJob();
+            finished.setJobId(jobId);
+            finished.setStatus(BamsExportJob.STATUS_SUCCESS);
+            finished.setFilePath(filePath);
+            finished.setFileSize(file.length());
+            finished.setTotalRows(progress.processedRows.get());
+            finished.setProcessedRows(progress.processedRows.get());
+            finished.setFinishTime(finishTime);
+            finished.setExpireTime(DateUtils.addHours(finishTime, retentionHours));
+            exportJobMapper.updateExportJob(finished);
+        }
+        catch (Exception e)
+        {
+            log.error("导出任务 {} 执行失败", jobId, e);
+            FileUtils.deleteFile(file.getPath());
+            finishJob(jobId, BamsExportJob.STATUS_FAILED, StringUtils.substring(e.getMessage(), 0, 500));
+        }
+        finally
+        {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    /**
+     * 包装数据源，遍历时累计已写入行数
+     */
+    private <T> Iterable<T> trackProgress(Iterable<T> rows, JobProgress progress)
+    {
+        if (rows instanceof Collection)
+        {
+            progress.totalRows = (long) ((Collection<?>) rows).size();
+        }
+        return () -> {
+            Iterator<T> iterator = rows.iterator();
+            return new Iterator<T>()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public T next()
+                {
+                    T row = iterator.next();
+                    progress.processedRows.incrementAndGet();
+                    return row;
+                }
+            };
+        };
+    }
+
+    /**
+     * 更新任务的最终状态
+     */
+    private void finishJob(Long jobId, String status, String errorMsg)
+    {
+        BamsExportJob job = new BamsExportJob();
+        job.setJobId(jobId);
+        job.setStatus(status);
+        job.setErrorMsg(StringUtils.isEmpty(errorMsg) ? "导出失败" : errorMsg);
+        job.setFinishTime(DateUtils.getNowDate());
+        exportJobMapper.updateExportJob(job);
+    }
+
+    /**
+     * 占用用户的任务名额，超出上限时拒绝提交
+     */
+    private void acquireSlot(String username)
+    {
+        activeJobs.compute(username, (key, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxPerUser)
+            {
+                throw new ServiceException("您已有 " + maxPerUser + " 个导出任务未完成，请完成后再提交");
+            }
+            return current + 1;
+        });
+    }
+
+    /**
+     * 释放用户的任务名额
+     */
+    private void releaseSlot(String username)
+    {
+        activeJobs.computeIfPresent(username, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * 查询导出任务（只能查看本人提交的任务，管理员除外）
+     *
+     * @param jobId 任务ID
+     * @return 导出任务
+     */
+    @Override
+    public BamsExportJob selectExportJobById(Long jobId)
+    {
+        BamsExportJob job = exportJobMapper.selectExportJobById(jobId);
+        if (job == null || !(SecurityUtils.isAdmin(SecurityUtils.getUserId())
+                || StringUtils.equals(job.getCreateBy(), SecurityUtils.getUsername())))
+        {
+            throw new ServiceException("导出任务不存在");
+        }
+        fillProgress(job);
+        return job;
+    }
+
+    /**
+     * 查询当前用户的导出任务列表
+     *
+     * @param bamsExportJob 导出任务
+     * @return 导出任务集合
+     */
+    @Override
+    public List<BamsExportJob> selectExportJobList(BamsExportJob bamsExportJob)
+    {
+        bamsExportJob.setCreateBy(SecurityUtils.getUsername());
+        List<BamsExportJob> list = exportJobMapper.selectExportJobList(bamsExportJob);
+        for (BamsExportJob job : list)
+        {
+            fillProgress(job);
+        }
+        return list;
+    }
+
+    /**
+     * 用内存中的实时进度覆盖执行中任务的进度
+     */
+    private void fillProgress(BamsExportJob job)
+    {
+        JobProgress progress = runningJobs.get(job.getJobId());
+        if (progress != null)
+        {
+            job.setProcessedRows(progress.processedRows.get());
+            if (progress.totalRows != null)
+            {
+                job.setTotalRows(progress.totalRows);
+            }
+        }
+    }
+
+    /**
+     * 获取已完成任务的结果文件
+     *
+     * @param bamsExportJob 导出任务
+     * @return 结果文件
+     */
+    @Override
+    public File getExportFile(BamsExportJob bamsExportJob)
+    {
+        if (!BamsExportJob.STATUS_SUCCESS.equals(bamsExportJob.getStatus()))
+        {
+            throw new ServiceException("导出任务尚未完成");
+        }
+        File file = new File(RuoYiConfig.getProfile() + bamsExportJob.getFilePath());
+        if (!file.exists())
+        {
+            throw new ServiceException("导出文件已过期或不存在，请重新导出");
+        }
+        return file;
+    }
+
+    /**
+     * 批量删除导出任务及结果文件
+     *
+     * @param jobIds 需要删除的任务ID集合
+     * @return 结果
+     */
+    @Override
+    public int deleteExportJobByIds(Long[] jobIds)
+    {
+        for (Long jobId : jobIds)
+        {
+            BamsExportJob job = selectExportJobById(jobId);
+            if (BamsExportJob.STATUS_QUEUED.equals(job.getStatus()) || BamsExportJob.STATUS_RUNNING.equals(job.getStatus()))
+            {
+                throw new ServiceException("导出任务尚未完成，不能删除");
+            }
+            deleteJobFile(job);
+        }
+        return exportJobMapper.deleteExportJobByIds(jobIds);
+    }
+
+    /**
+     * 清理已过期的导出任务及结果文件
+     *
+     * @return 清理的任务数
+     */
+    @Override
+    public int cleanExpiredJobs()
+    {
+        List<BamsExportJob> expired = exportJobMapper.selectExpiredJobs();
+        List<Long> jobIds = new ArrayList<Long>();
+        for (BamsExportJob job : expired)
+        {
+            // 执行中的任务完成时会重新设置过期时间
+            if (runningJobs.containsKey(job.getJobId()))
+            {
+                continue;
+            }
+            deleteJobFile(job);
+            jobIds.add(job.getJobId());
+        }
+        if (jobIds.isEmpty())
+        {
+            return 0;
+        }
+        log.info("清理过期导出任务 {} 个", jobIds.size());
+        return exportJobMapper.deleteExportJobByIds(jobIds.toArray(new Long[0]));
+    }
+
+    private void deleteJobFile(BamsExportJob job)
+    {
+        if (StringUtils.isNotEmpty(job.getFilePath()))
+        {
+            FileUtils.deleteFile(RuoYiConfig.getProfile() + job.getFilePath());
+        }
+    }
+
+    /**
+     * 执行中任务的进度
+     */
+    private static class JobProgress
+    {
+        private final AtomicLong processedRows = new AtomicLong();
+
+        private volatile Long totalRows;
+
+        JobProgress(Long totalRows)
+        {
+            this.totalRows = totalRows;
+        }
+    }
+
+    /**
+     * 脱离原始请求的请求属性，仅保留提交时的字符串属性（如数据权限标识），供导出线程使用
+     */
+    private static class DetachedRequestAttributes implements RequestAttributes
+    {
+        private final Map<String, Object> attributes = new ConcurrentHashMap<String, Object>();
+
+        static RequestAttributes copyOf(RequestAttributes source)
+        {
+            DetachedRequestAttributes copy = new DetachedRequestAttributes();
+            if (source != null)
+            {
+                for (String name : source.getAttributeNames(SCOPE_REQUEST))
+                {
+                    Object value = source.getAttribute(name, SCOPE_REQUEST);
+                    if (value instanceof String)
+                    {
+                        copy.attributes.put(name, value);
+                    }
+                }
+            }
+            return copy;
+        }
+
+        @Override
+        public Object getAttribute(String name, int scope)
+        {
+            return attributes.get(name);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value, int scope)
+        {
+            attributes.put(name, value);
+        }
+
+        @Override
+        public void removeAttribute(String name, int scope)
+        {
+            attributes.remove(name);
+        }
+
+        @Override
+        public String[] getAttributeNames(int scope)
+        {
+            return attributes.keySet().toArray(new String[0]);
+        }
+
+        @Override
+        public void registerDestructionCallback(String name, Runnable callback, int scope)
+        {
+        }
+
+        @Override
+        public Object resolveReference(String key)
+        {
+            return null;
+        }
+
+        @Override
+        public String getSessionId()
+        {
+            return StringUtils.EMPTY;
+        }
+
+        @Override
+        public Object getSessionMutex()
+        {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.ruoyi.system.service.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.ruoyi.common.exception.ServiceException;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.uuid.IdUtils;
+import com.ruoyi.system.domain.BamsArchiveVersion;
+import com.ruoyi.system.domain.BamsFileBlob;
+import com.ruoyi.system.mapper.BamsFileBlobMapper;
+import com.ruoyi.system.service.IBamsFileBlobService;
+import com.ruoyi.system.service.IBamsRenditionService;
+
+/**
+ * 档案文件存储Service业务层处理
+ *
+ * 文件保存在 blob/{hash前2位}/{hash第3-4位}/{hash} 下，bams_file_blob 记录引用次数。
+ * 引用计数的增减都持有该哈希对应的行锁，保证同一内容的并发上传与删除互斥。
+ *
+ * @author ruoyi
+ */
+@Service
+public class BamsFileBlobServiceImpl implements IBamsFileBlobService
+{
+    private static final Logger log = LoggerFactory.getLogger(BamsFileBlobServiceImpl.class);
+
+    @Autowired
+    private BamsFileBlobMapper blobMapper;
+
+    @Autowired
+    private IBamsRenditionService renditionService;
+
+    @Value("${ruoyi.profile}")
+    private String uploadPath;
+
+    /**
+     * 保存文件内容，相同内容只保存一份
+     *
+     * @param tempFile 已写入磁盘的临时文件，调用后会被移动或删除
+     * @param fileHash 文件 SHA-256 哈希值
+     * @param fileSize 文件大小
+     * @return 文件存储的相对路径（不含 /profile 前缀）
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public String storeBlob(File tempFile, String fileHash, long fileSize)
+    {
+        BamsFileBlob blob = new BamsFileBlob();
+        blob.setFileHash(fileHash);
+        blob.setFilePath(buildBlobPath(fileHash));
+        blob.setFileSize(fileSize);
+        // 新增或引用次数加一，同时锁定该行直到事务结束
+        blobMapper.insertOrIncrementBlob(blob);
+        BamsFileBlob stored = blobMapper.selectBlobByHashForUpdate(fileHash);
+
+        File destFile = new File(uploadPath + stored.getFilePath());
+        try
+        {
+            if (destFile.exists() && destFile.length() == fileSize)
+            {
+                // 内容已存在，丢弃本次上传的副本
+                Files.deleteIfExists(tempFile.toPath());
+            }
+            else
+            {
+                destFile.getParentFile().mkdirs();
+                Files.move(tempFile.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                restoreOnRollback(tempFile, destFile, fileHash);
+            }
+        }
+        catch (IOException e)
+        {
+            tempFile.delete();
+            throw new ServiceException("文件保存失败：" + e.getMessage());
+        }
+        return stored.getFilePath();
+    }
+
+    /**
+     * 释放一次文件引用，无引用时删除物理文件
+     *
+     * @param fileHash 文件 SHA-256 哈希值
+     * @param filePath 版本记录中的文件路径
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void releaseBlob(String fileHash, String filePath)
+    {
+        if (StringUtils.isEmpty(filePath))
+        {
+            return;
+        }
+        BamsFileBlob blob = StringUtils.isEmpty(fileHash) ? null : blobMapper.selectBlobByHashForUpdate(fileHash);
+        if (blob == null || !filePath.equals(blob.getFilePath()))
+        {
+            // 去重存储之前上传的历史文件，每个版本独占一份，直接删除
+            deletePhysicalFile(filePath);
+            return;
+        }
+
+        blobMapper.decrementRefCount(fileHash);
+        if (blobMapper.deleteUnreferencedBlob(fileHash) > 0)
+        {
+            deletePhysicalFile(blob.getFilePath());
+            renditionService.removeRenditions(fileHash);
+        }
+    }
+
+    /**
+     * 批量释放版本的文件引用（按哈希值汇总后一次更新引用次数），无引用时删除物理文件
+     *
+     * 引用次数的更新、无引用记录的删除各只执行一条语句；物理文件在事务中改名，提交后删除，
+     * 预览文件在提交后删除。未登记到存储表的历史文件逐个直接删除。
+     *
+     * @param versions 版本集合
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void releaseBlobs(List<BamsArchiveVersion> versions)
+    {
+        Map<String, String> paths = new HashMap<>();
+        for (BamsArchiveVersion version : versions)
+        {
+            if (StringUtils.isNotEmpty(version.getFileHash()) && StringUtils.isNotEmpty(version.getFilePath()))
+            {
+                paths.put(version.getFileHash(), version.getFilePath());
+            }
+        }
+        Map<String, BamsFileBlob> blobs = new HashMap<>();
+        if (!paths.isEmpty())
+        {
+            for (BamsFileBlob blob : blobMapper.selectBlobsByHashesForUpdate(paths.keySet()))
+            {
+                blobs.put(blob.getFileHash(), blob);
+            }
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (BamsArchiveVersion version : versions)
+        {
+            if (StringUtils.isEmpty(version.getFilePath()))
+            {
+                continue;
+            }
+            BamsFileBlob blob = version.getFileHash() != null ? blobs.get(version.getFileHash()) : null;
+            if (blob == null || !version.getFilePath().equals(blob.getFilePath()))
+            {
+                // 去重存储之前上传的历史文件，每个版本独占一份，直接删除
+                deletePhysicalFile(version.getFilePath());
+                continue;
+            }
+            counts.merge(blob.getFileHash(), 1, Integer::sum);
+        }
+        if (counts.isEmpty())
+        {
+            return;
+        }
+
+        blobMapper.decrementRefCounts(counts);
+        blobMapper.deleteUnreferencedBlobs(counts.keySet());
+        for (String fileHash : counts.keySet())
+        {
+            BamsFileBlob blob = blobs.get(fileHash);
+            // 引用全部释放（记录已在本事务中删除）
+            if (blob.getRefCount() <= counts.get(fileHash))
+            {
+                deletePhysicalFile(blob.getFilePath());
+                renditionService.removeRenditions(fileHash);
+            }
+        }
+    }
+
+    /**
+     * 本次新写入的文件在事务回滚后移回临时文件，由调用方重试或清理，避免存储目录中留下无引用的文件
+     */
+    private void restoreOnRollback(File tempFile, File destFile, String fileHash)
+    {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+        {
+            @Override
+            public void afterCompletion(int status)
+            {
+                // 回滚后已有其他事务登记了该内容时保留文件
+                if (status == STATUS_COMMITTED || blobMapper.selectBlobByHashForUpdate(fileHash) != null)
+                {
+                    return;
+                }
+                if (!destFile.renameTo(tempFile) && !destFile.delete())
+                {
+                    log.warn("回滚后清理文件失败：{}", destFile.getPath());
+                }
+            }
+        });
+    }
+
+    /**
+     * 生成文件存储路径
+     */
+    private String buildBlobPath(String fileHash)
+    {
+        return "/blob/" + fileHash.substring(0, 2) + "/" + fileHash.substring(2, 4) + "/" + fileHash;
+    }
+
+    /**
+     * 删除物理文件
+     *
+     * 事务中先将文件改名，提交后再真正删除，回滚时还原；改名期间仍持有行锁，
+     * 并发上传同一内容的请求会等待本事务结束后重新写入文件。
+     */
+    private void deletePhysicalFile(String filePath)
+    {
+        File file = new File(uploadPath + filePath);
+        if (!file.exists())
+        {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            file.delete();
+            return;
+        }
+
+        File trashFile = new File(file.getPath() + "." + IdUtils.fastSimpleUUID() + ".deleted");
+        if (!file.renameTo(trashFile))
+        {
+            log.warn("文件删除失败：{}", filePath);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+        {
+            @Override
+            public void afterCompletion(int status)
+            {
+                if (status == STATUS_COMMITTED)
+                {
+                    trashFile.delete();
+                }
+                else if (!file.exists())
+                {
+                    trashFile.renameTo(file);
+                }
+                else
+                {
+                    trashFile.delete();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,555 @@
+package com.ruoyi.system.service.impl;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.hwpf.extractor.WordExtractor;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import com.ruoyi.common.exception.ServiceException;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.system.domain.BamsArchiveVersion;
+import com.ruoyi.system.domain.BamsFileText;
+import com.ruoyi.system.domain.BamsTagDictionary;
+import com.ruoyi.system.event.BamsFileTextEvent;
+import com.ruoyi.system.mapper.BamsArchiveVersionMapper;
+import com.ruoyi.system.mapper.BamsFileTextMapper;
+import com.ruoyi.system.service.IBamsFileTextService;
+import com.ruoyi.system.service.IBamsOcrService;
+import com.ruoyi.system.service.IBamsTagRegistryService;
+
+/**
+ * 文件正文抽取Service业务层处理
+ *
+ * 抽取在独立的有界线程池中执行，结果按文件哈希值保存在 bams_file_text，相同内容的文件只抽取一次。
+ * 队列已满或服务重启时任务保持排队状态，由后台定时补交；多个节点通过认领（排队中改为处理中）避免重复处理。
+ * 失败的任务在达到最大尝试次数前按递增间隔重新排队，相同文件再次提交时立即重新排队。
+ *
+ * @author ruoyi
+ */
+@Service
+public class BamsFileTextServiceImpl implements IBamsFileTextService
+{
+    private static final Logger log = LoggerFactory.getLogger(BamsFileTextServiceImpl.class);
+
+    /** 单个文件保存正文的最大字符数 */
+    private static final int MAX_CONTENT_LENGTH = 200000;
+
+    /** 建议题名的最大字符数 */
+    private static final int SUGGEST_TITLE_LENGTH = 100;
+
+    /** 建议摘要的最大字符数 */
+    private static final int SUGGEST_SUMMARY_LENGTH = 200;
+
+    /** 建议标签的最大个数 */
+    private static final int SUGGEST_TAG_COUNT = 10;
+
+    /** 扫描版 PDF 识别时的渲染分辨率 */
+    private static final int OCR_RENDER_DPI = 200;
+
+    @Autowired
+    private BamsFileTextMapper fileTextMapper;
+
+    @Autowired
+    private BamsArchiveVersionMapper versionMapper;
+
+    @Autowired
+    private IBamsTagRegistryService tagRegistryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @Autowired(required = false)
+    private List<IBamsOcrService> ocrServices = new ArrayList<>();
+
+    @Value("${ruoyi.profile}")
+    private String uploadPath;
+
+    /** 抽取线程数 */
+    @Value("${bams.extract.workers:2}")
+    private int workers;
+
+    /** 排队任务上限，超出的任务由定时补交 */
+    @Value("${bams.extract.queueCapacity:200}")
+    private int queueCapacity;
+
+    /** 定时补交排队任务的间隔（毫秒） */
+    @Value("${bams.extract.resubmitInterval:30000}")
+    private long resubmitInterval;
+
+    /** 处理超时时间（秒），超时的任务视为执行节点已退出，重新排队 */
+    @Value("${bams.extract.staleTimeout:1800}")
+    private int staleTimeout;
+
+    /** 抽取失败后最多尝试的次数 */
+    @Value("${bams.extract.maxAttempts:3}")
+    private int maxAttempts;
+
+    /** 失败后重新排队的间隔（秒），按已尝试次数递增 */
+    @Value("${bams.extract.retryDelay:600}")
+    private int retryDelay;
+
+    /** PDF 最多抽取的页数 */
+    @Value("${bams.extract.maxPages:500}")
+    private int maxPages;
+
+    /** 扫描版 PDF 最多识别的页数 */
+    @Value("${bams.extract.ocrMaxPages:20}")
+    private int ocrMaxPages;
+
+    /** 已提交到本节点线程池、尚未结束的文件哈希值 */
+    private final Set<String> submitted = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor executor;
+
+    private ScheduledFuture<?> resubmitTask;
+
+    @PostConstruct
+    public void init()
+    {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity),
+                new BasicThreadFactory.Builder().namingPattern("file-extract-%d").daemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        resubmitTask = scheduledExecutorService.scheduleWithFixedDelay(this::resubmitQuietly, resubmitInterval,
+                resubmitInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        if (resubmitTask != null)
+        {
+            resubmitTask.cancel(false);
+        }
+        // 未执行完的任务保持处理中，超时后由其他节点或重启后重新排队
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交正文抽取，相同哈希值的文件已抽取过时直接返回已有结果
+     *
+     * @param fileHash 文件 SHA-256 哈希值
+     * @param filePath 文件存储路径（相对路径，不含 /profile 前缀）
+     * @param fileName 原始文件名
+     * @return 抽取结果（已结束时包含正文），参数无效时返回空
+     */
+    @Override
+    public BamsFileText submitExtraction(String fileHash, String filePath, String fileName)
+    {
+        if (StringUtils.isEmpty(fileHash) || StringUtils.isEmpty(filePath))
+        {
+            return null;
+        }
+        BamsFileText fileText = fileTextMapper.selectFileTextByHash(fileHash, true);
+        if (fileText == null)
+        {
+            fileText = new BamsFileText();
+            fileText.setFileHash(fileHash);
+            fileText.setFileName(fileName);
+            fileText.setFilePath(filePath);
+            fileText.setStatus(BamsFileText.STATUS_QUEUED);
+            fileTextMapper.insertFileText(fileText);
+        }
+        else
+        {
+            // 先登记的可能是之后会被清理的临时文件，改为永久存储路径
+            if (!filePath.equals(fileText.getFilePath())
+                    && (!isTempPath(filePath) || !new File(uploadPath + fileText.getFilePath()).exists()))
+            {
+                fileText.setFilePath(filePath);
+                fileText.setFileName(fileName);
+                fileTextMapper.updateFileTextPath(fileText);
+            }
+            if (BamsFileText.STATUS_FAILED.equals(fileText.getStatus())
+                    && fileTextMapper.requeueFailedFileTexts(fileHash, maxAttempts, 0) > 0)
+            {
+                fileText.setStatus(BamsFileText.STATUS_QUEUED);
+            }
+        }
+        if (BamsFileText.STATUS_QUEUED.equals(fileText.getStatus()))
+        {
+            enqueue(fileText.getFileHash(), fileText.getFilePath(), fileText.getFileName());
+        }
+        return fileText;
+    }
+
+    /**
+     * 按文件哈希值查询抽取结果
+     *
+     * @param fileHash 文件哈希值
+     * @param withContent 是否包含正文
+     * @return 抽取结果
+     */
+    @Override
+    public BamsFileText selectFileText(String fileHash, boolean withContent)
+    {
+        if (StringUtils.isEmpty(fileHash))
+        {
+            return null;
+        }
+        return fileTextMapper.selectFileTextByHash(fileHash, withContent);
+    }
+
+    /**
+     * 查询版本文件的抽取结果
+     *
+     * @param versionId 版本ID
+     * @param withContent 是否包含正文
+     * @return 抽取结果，尚未提交抽取时返回空
+     */
+    @Override
+    public BamsFileText selectVersionFileText(Long versionId, boolean withContent)
+    {
+        BamsArchiveVersion version = versionMapper.selectBamsArchiveVersionByVersionId(versionId);
+        if (version == null)
+        {
+            throw new ServiceException("版本不存在");
+        }
+        return selectFileText(version.getFileHash(), withContent);
+    }
+
+    /**
+     * 根据抽取出的正文生成档案元数据建议（题名、摘要、标签）
+     *
+     * @param fileHash 文件哈希值
+     * @return 建议内容，包含抽取状态
+     */
+    @Override
+    public Map<String, Object> selectTextSuggestion(String fileHash)
+    {
+        BamsFileText fileText = selectFileText(fileHash, true);
+        Map<String, Object> suggestion = new HashMap<>();
+        suggestion.put("fileHash", fileHash);
+        suggestion.put("status", fileText != null ? fileText.getStatus() : null);
+        suggestion.put("finished", fileText != null && fileText.isFinished());
+        suggestion.put("title", "");
+        suggestion.put("summary", "");
+        suggestion.put("tags", new ArrayList<String>());
+        if (fileText == null || !fileText.isFinished())
+        {
+            suggestion.put("summary", "正在识别文件内容...");
+            return suggestion;
+        }
+        String content = fileText.getContent();
+        if (StringUtils.isBlank(content))
+        {
+            return suggestion;
+        }
+
+        // 第一个非空行作为题名
+        for (String line : content.split("\\R"))
+        {
+            if (StringUtils.isNotBlank(line))
+            {
+                suggestion.put("title", StringUtils.substring(line.trim(), 0, SUGGEST_TITLE_LENGTH));
+                break;
+            }
+        }
+        String plain = content.replaceAll("\\s+", " ").trim();
+        suggestion.put("summary", StringUtils.substring(plain, 0, SUGGEST_SUMMARY_LENGTH));
+
+        // 正文中出现的启用标签（按使用次数倒序）
+        List<String> tags = new ArrayList<>();
+        for (BamsTagDictionary tag : tagRegistryService.selectEnabledTags())
+        {
+            if (plain.contains(tag.getTagName()))
+            {
+                tags.add(tag.getTagName());
+                if (tags.size() >= SUGGEST_TAG_COUNT)
+                {
+                    break;
+                }
+            }
+        }
+        suggestion.put("tags", tags);
+        return suggestion;
+    }
+
+    /**
+     * 是否为临时文件路径（未提交为版本的上传文件，之后会被清理）
+     */
+    private boolean isTempPath(String filePath)
+    {
+        return filePath.startsWith("/temp/");
+    }
+
+    /**
+     * 提交到本节点线程池，队列已满时保持排队状态等待定时补交
+     */
+    private void enqueue(String fileHash, String filePath, String fileName)
+    {
+        if (!submitted.add(fileHash))
+        {
+            return;
+        }
+        try
+        {
+            executor.execute(() -> process(fileHash, filePath, fileName));
+        }
+        catch (RejectedExecutionException e)
+        {
+            submitted.remove(fileHash);
+            log.debug("正文抽取队列已满，文件 {} 等待补交", fileHash);
+        }
+    }
+
+    /**
+     * 认领并执行抽取，成功后发布抽取完成事件
+     */
+    private void process(String fileHash, String filePath, String fileName)
+    {
+        try
+        {
+            if (fileTextMapper.claimFileText(fileHash) == 0)
+            {
+                return;
+            }
+            BamsFileText result = new BamsFileText();
+            result.setFileHash(fileHash);
+            try
+            {
+                extract(new File(uploadPath + filePath), fileName, result);
+            }
+            catch (Exception e)
+            {
+                log.warn("抽取文件正文失败，文件：{}，原因：{}", fileName, e.getMessage());
+                result.setStatus(BamsFileText.STATUS_FAILED);
+                result.setErrorMsg(StringUtils.substring(e.getMessage(), 0, 500));
+            }
+            if (result.getContent() != null)
+            {
+                result.setContent(StringUtils.substring(result.getContent(), 0, MAX_CONTENT_LENGTH));
+                result.setContentLength(result.getContent().length());
+            }
+            fileTextMapper.updateFileTextResult(result);
+            if (BamsFileText.STATUS_SUCCESS.equals(result.getStatus()))
+            {
+                eventPublisher.publishEvent(new BamsFileTextEvent(fileHash, result.getContent()));
+            }
+        }
+        catch (Exception e)
+        {
+            log.error("保存文件正文抽取结果失败，文件：{}", fileName, e);
+        }
+        finally
+        {
+            submitted.remove(fileHash);
+        }
+    }
+
+    /**
+     * 按文件格式抽取正文：PDF、Word、Excel 直接读取文本，图片及无文本层的 PDF 使用 OCR
+     */
+    private void extract(File file, String fileName, BamsFileText result) throws Exception
+    {
+        if (!file.exists())
+        {
+            throw new ServiceException("文件不存在");
+        }
+        String lowerFileName = StringUtils.isNotEmpty(fileName) ? fileName.toLowerCase() : "";
+        String text = null;
+        if (lowerFileName.endsWith(".pdf"))
+        {
+            result.setExtractor("PDF");
+            text = extractPdfText(file, result);
+        }
+        else if (lowerFileName.endsWith(".docx"))
+        {
+            result.setExtractor("WORD");
+            try (InputStream in = Files.newInputStream(file.toPath());
+                    XWPFWordExtractor extractor = new XWPFWordExtractor(new XWPFDocument(in)))
+            {
+                text = extractor.getText();
+            }
+        }
+        else if (lowerFileName.endsWith(".doc"))
+        {
+            result.setExtractor("WORD");
+            try (InputStream in = Files.newInputStream(file.toPath());
+                    WordExtractor extractor = new WordExtractor(in))
+            {
+                text = extractor.getText();
+            }
+        }
+        else if (lowerFileName.endsWith(".xls") || lowerFileName.endsWith(".xlsx"))
+        {
+            result.setExtractor("EXCEL");
+            text = extractWorkbookText(file);
+        }
+        else if (lowerFileName.endsWith(".jpg") || lowerFileName.endsWith(".jpeg") || lowerFileName.endsWith(".png"))
+        {
+            IBamsOcrService ocrService = getOcrService();
+            if (ocrService == null)
+            {
+                result.setStatus(BamsFileText.STATUS_UNSUPPORTED);
+                result.setErrorMsg("未配置文字识别引擎");
+                return;
+            }
+            result.setExtractor("OCR:" + ocrService.getName());
+            text = ocrService.recognize(file);
+        }
+        else
+        {
+            result.setStatus(BamsFileText.STATUS_UNSUPPORTED);
+            result.setErrorMsg("不支持抽取该格式的正文");
+            return;
+        }
+        result.setStatus(BamsFileText.STATUS_SUCCESS);
+        result.setContent(text);
+    }
+
+    /**
+     * 抽取 PDF 文本层，没有文本层（扫描件）且配置了识别引擎时逐页渲染后识别
+     */
+    private String extractPdfText(File file, BamsFileText result) throws Exception
+    {
+        try (PDDocument document = Loader.loadPDF(file))
+        {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setEndPage(maxPages);
+            String text = stripper.getText(document);
+            IBamsOcrService ocrService = getOcrService();
+            if (StringUtils.isNotBlank(text) || ocrService == null)
+            {
+                return text;
+            }
+
+            result.setExtractor("PDF+OCR:" + ocrService.getName());
+            StringBuilder ocrText = new StringBuilder();
+            PDFRenderer renderer = new PDFRenderer(document);
+            int pages = Math.min(document.getNumberOfPages(), ocrMaxPages);
+            for (int i = 0; i < pages && ocrText.length() < MAX_CONTENT_LENGTH; i++)
+            {
+                BufferedImage image = renderer.renderImageWithDPI(i, OCR_RENDER_DPI, ImageType.GRAY);
+                File pageFile = File.createTempFile("ocr-page-", ".png");
+                try
+                {
+                    ImageIO.write(image, "png", pageFile);
+                    ocrText.append(ocrService.recognize(pageFile)).append('\n');
+                }
+                finally
+                {
+                    pageFile.delete();
+                }
+            }
+            return ocrText.toString();
+        }
+    }
+
+    /**
+     * 抽取 Excel 单元格文本
+     */
+    private String extractWorkbookText(File file) throws Exception
+    {
+        StringBuilder text = new StringBuilder();
+        DataFormatter formatter = new DataFormatter();
+        try (Workbook workbook = WorkbookFactory.create(file, null, true))
+        {
+            for (Sheet sheet : workbook)
+            {
+                for (Row row : sheet)
+                {
+                    for (Cell cell : row)
+                    {
+                        String value = formatter.formatCellValue(cell);
+                        if (StringUtils.isNotEmpty(value))
+                        {
+                            text.append(value).append(' ');
+                        }
+                    }
+                    if (text.length() >= MAX_CONTENT_LENGTH)
+                    {
+                        return text.toString();
+                    }
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * 第一个可用的文字识别引擎
+     */
+    private IBamsOcrService getOcrService()
+    {
+        for (IBamsOcrService ocrService : ocrServices)
+        {
+            if (ocrService.isAvailable())
+            {
+                return ocrService;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 超时的任务重新排队，并按线程池空闲容量补交排队中的任务
+     */
+    private void resubmitQuietly()
+    {
+        try
+        {
+            int requeued = fileTextMapper.requeueStaleFileTexts(staleTimeout);
+            if (requeued > 0)
+            {
+                log.warn("{} 个文件正文抽取任务处理超时，已重新排队", requeued);
+            }
+            int retried = fileTextMapper.requeueFailedFileTexts(null, maxAttempts, retryDelay);
+            if (retried > 0)
+            {
+                log.info("{} 个抽取失败的文件已重新排队", retried);
+            }
+            int capacity = executor.getQueue().remainingCapacity();
+            if (capacity <= 0)
+            {
+                return;
+            }
+            for (BamsFileText fileText : fileTextMapper.selectQueuedFileTexts(capacity))
+            {
+                enqueue(fileText.getFileHash(), fileText.getFilePath(), fileText.getFileName());
+            }
+        }
+        catch (Exception e)
+        {
+            log.error("补交文件正文抽取任务失败", e);
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.ruoyi.system.service.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.ruoyi.common.core.domain.entity.SysDictData;
 import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.common.exception.ServiceException;
 import com.ruoyi.system.domain.BamsArchive;
@@ -18,9 +23,12 @@ import com.ruoyi.system.domain.BamsStageTemplateDetail;
 import com.ruoyi.system.mapper.BamsArchiveMapper;
 import com.ruoyi.system.mapper.BamsProjectMapper;
 import com.ruoyi.system.mapper.BamsProjectStageMapper;
+import com.ruoyi.system.service.IBamsArchiveCacheService;
+import com.ruoyi.system.service.IBamsArchiveFacetService;
 import com.ruoyi.system.service.IBamsProjectService;
+import com.ruoyi.system.service.IBamsProjectStatisticsService;
 import com.ruoyi.system.service.IBamsStageTemplateService;
-import com.ruoyi.system.service.ISysDictDataService;
+import com.ruoyi.system.service.ISysDictTypeService;
 
 /**
  * 项目信息Service业务层处理
@@ -39,11 +47,20 @@ public class BamsProjectServiceImpl implements IBamsProjectService {
     private IBamsStageTemplateService stageTemplateService;
 
     @Autowired
-    private ISysDictDataService dictDataService;
+    private ISysDictTypeService dictTypeService;
 
     @Autowired
     private BamsArchiveMapper archiveMapper;
 
+    @Autowired
+    private IBamsProjectStatisticsService projectStatisticsService;
+
+    @Autowired
+    private IBamsArchiveCacheService archiveCacheService;
+
+    @Autowired
+    private IBamsArchiveFacetService archiveFacetService;
+
     /**
      * 查询项目列表
      *
@@ -184,6 +201,9 @@ public class BamsProjectServiceImpl implements IBamsProjectService {
         for (Long projectId : projectIds) {
             archiveMapper.deleteArchivesByProjectId(projectId);
         }
+        archiveCacheService.clearArchives();
+        archiveFacetService.invalidate();
+        projectStatisticsService.reconcileProjects(Arrays.asList(projectIds));
 
         // 2. 逻辑删除项目（del_flag = '2'）
         // 阶段数据保留，不删除，以便项目恢复时数据完整
@@ -210,19 +230,33 @@ public class BamsProjectServiceImpl implements IBamsProjectService {
      * 查询项目的阶段列表
      * 将 requiredFiles 字段中的字典值翻译成对象数组（包含ID、中文名称和对应的档案列表）
      *
+     * 项目下的档案只查询一次，在内存中按（阶段，标准文件）分组，字典标签从缓存中一次性读取，
+     * 查询次数与阶段数、标准文件数无关
+     *
      * @param projectId 项目ID
      * @return 阶段列表
      */
     @Override
     public List<BamsProjectStage> selectProjectStages(Long projectId) {
         List<BamsProjectStage> stages = projectStageMapper.selectByProjectId(projectId);
+        if (stages.isEmpty()) {
+            return stages;
+        }
 
-        // 翻译 requiredFiles 字段中的字典值为对象数组，并关联查询档案列表
+        // 一次性查询项目下所有未删除的档案
+        BamsArchive archiveQuery = new BamsArchive();
+        archiveQuery.setProjectId(projectId);
+        archiveQuery.setDelFlag("0");
+        Map<String, Map<String, List<BamsArchive>>> archiveGroups = groupArchivesByStageAndFile(
+                archiveMapper.selectBamsArchiveList(archiveQuery));
+        Map<String, String> fileLabels = getFileStandardLabels();
+
+        // 翻译 requiredFiles 字段中的字典值为对象数组，并关联档案列表
         for (BamsProjectStage stage : stages) {
             if (StringUtils.isNotEmpty(stage.getRequiredFiles())) {
-                List<BamsProjectStage.FileOption> fileOptions = translateRequiredFilesToOptionsWithArchives(projectId,
-                        stage.getStageId(), stage.getRequiredFiles());
-                stage.setRequiredFileList(fileOptions);
+                Map<String, List<BamsArchive>> stageArchives = archiveGroups.getOrDefault(stage.getStageId(),
+                        Collections.emptyMap());
+                stage.setRequiredFileList(buildFileOptions(stage.getRequiredFiles(), stageArchives, fileLabels));
             }
         }
 
@@ -230,43 +264,66 @@ public class BamsProjectServiceImpl implements IBamsProjectService {
     }
 
     /**
-     * 翻译标准文件字段为对象数组，并关联查询对应的档案列表
+     * 将档案按（阶段，标准文件）分组，保持查询结果的原有顺序
+     *
+     * @param archives 档案列表
+     * @return 阶段 -> 标准文件 -> 档案列表
+     */
+    private Map<String, Map<String, List<BamsArchive>>> groupArchivesByStageAndFile(List<BamsArchive> archives) {
+        Map<String, Map<String, List<BamsArchive>>> groups = new HashMap<>();
+        if (archives == null) {
+            return groups;
+        }
+        for (BamsArchive archive : archives) {
+            if (archive.getStage() == null || archive.getFileStandard() == null) {
+                continue;
+            }
+            groups.computeIfAbsent(archive.getStage(), k -> new HashMap<>())
+                    .computeIfAbsent(archive.getFileStandard(), k -> new ArrayList<>())
+                    .add(archive);
+        }
+        return groups;
+    }
+
+    /**
+     * 读取标准文件字典（bams_file_conf）的值与中文名称对应关系
+     *
+     * @return 字典值 -> 字典标签
+     */
+    private Map<String, String> getFileStandardLabels() {
+        Map<String, String> labels = new HashMap<>();
+        List<SysDictData> dictDatas = dictTypeService.selectDictDataByType("bams_file_conf");
+        if (dictDatas != null) {
+            for (SysDictData dictData : dictDatas) {
+                labels.put(dictData.getDictValue(), dictData.getDictLabel());
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * 翻译标准文件字段为对象数组，并关联对应的档案列表
      * 将字典值（如 "design_file,construction_file"）翻译成对象数组
      * 每个对象包含 id（字典值）、name（中文名称）和 archives（档案列表）
      *
-     * @param projectId     项目ID
-     * @param stageId       阶段ID（字典值，如 "0", "1", "2", "3"）
      * @param requiredFiles 字典值列表，逗号分隔
+     * @param stageArchives 该阶段的档案，按标准文件分组
+     * @param fileLabels    字典值与中文名称对应关系
      * @return 文件选项列表
      */
-    private List<BamsProjectStage.FileOption> translateRequiredFilesToOptionsWithArchives(
-            Long projectId, String stageId, String requiredFiles) {
-        String[] dictValues = requiredFiles.split(",");
+    private List<BamsProjectStage.FileOption> buildFileOptions(String requiredFiles,
+            Map<String, List<BamsArchive>> stageArchives, Map<String, String> fileLabels) {
         List<BamsProjectStage.FileOption> fileOptions = new ArrayList<>();
 
-        for (String dictValue : dictValues) {
+        for (String dictValue : requiredFiles.split(",")) {
             String trimmedValue = dictValue.trim();
             if (StringUtils.isNotEmpty(trimmedValue)) {
-                // 从数据字典 bams_file_conf 查询中文名称
-                String dictLabel = dictDataService.selectDictLabel("bams_file_conf", trimmedValue);
-
                 // 如果找到对应的中文名称，使用中文；否则使用字典值本身
+                String dictLabel = fileLabels.get(trimmedValue);
                 String displayName = StringUtils.isNotEmpty(dictLabel) ? dictLabel : trimmedValue;
 
-                // 创建文件选项对象
                 BamsProjectStage.FileOption option = new BamsProjectStage.FileOption(trimmedValue, displayName);
-
-                // 查询该标准文件对应的档案列表
-                // 注意：档案表的 stage 字段现在存储字典值（如 "0", "1", "2", "3"）
-                BamsArchive archiveQuery = new BamsArchive();
-                archiveQuery.setProjectId(projectId);
-                archiveQuery.setStage(stageId); // 使用字典值查询
-                archiveQuery.setFileStandard(trimmedValue);
-                archiveQuery.setDelFlag("0"); // 只查询未删除的档案
-
-                List<BamsArchive> archives = archiveMapper.selectBamsArchiveList(archiveQuery);
-                option.setArchives(archives != null ? archives : new ArrayList<>());
-
+                option.setArchives(new ArrayList<>(stageArchives.getOrDefault(trimmedValue, Collections.emptyList())));
                 fileOptions.add(option);
             }
         }
@@ -331,72 +388,13 @@ public class BamsProjectServiceImpl implements IBamsProjectService {
      * 更新项目和阶段的统计数据
      * 包括：已归档文件数、完整度
      *
+     * 日常由档案变更事件增量维护，仅供手动刷新接口调用：按档案表重建该项目的归档计数后立即刷新
+     *
      * @param projectId 项目ID
      */
     @Override
     public void updateProjectStatistics(Long projectId) {
-        // 1. 更新每个阶段的统计数据
-        List<BamsProjectStage> stages = projectStageMapper.selectByProjectId(projectId);
-
-        for (BamsProjectStage stage : stages) {
-            // 统计该阶段已归档的文件数（按标准文件分组去重）
-            BamsArchive query = new BamsArchive();
-            query.setProjectId(projectId);
-            query.setStage(stage.getStageId());
-            query.setDelFlag("0");
-
-            List<BamsArchive> archives = archiveMapper.selectBamsArchiveList(query);
-
-            // 按标准文件去重统计
-            long archivedCount = archives.stream()
-                    .map(BamsArchive::getFileStandard)
-                    .distinct()
-                    .count();
-
-            // 计算完整度
-            int completeness = 0;
-            if (stage.getRequiredFileCount() != null && stage.getRequiredFileCount() > 0) {
-                completeness = (int) Math.round(archivedCount * 100.0 / stage.getRequiredFileCount());
-            }
-
-            // 更新阶段统计数据
-            BamsProjectStage updateStage = new BamsProjectStage();
-            updateStage.setId(stage.getId());
-            updateStage.setArchivedFileCount((int) archivedCount);
-            updateStage.setCompletenessRate(completeness);
-            projectStageMapper.updateById(updateStage);
-        }
-
-        // 2. 更新项目总体统计数据
-        BamsProject project = selectProjectById(projectId);
-        if (project != null) {
-            // 重新查询所有阶段的统计数据
-            stages = projectStageMapper.selectByProjectId(projectId);
-
-            // 重新计算总要求文件数（从阶段统计中累加）
-            int totalRequired = stages.stream()
-                    .mapToInt(stage -> stage.getRequiredFileCount() != null ? stage.getRequiredFileCount() : 0)
-                    .sum();
-
-            // 计算总已归档文件数
-            int totalArchived = stages.stream()
-                    .mapToInt(stage -> stage.getArchivedFileCount() != null ? stage.getArchivedFileCount() : 0)
-                    .sum();
-
-            // 计算总完整度
-            int totalCompleteness = 0;
-            if (totalRequired > 0) {
-                totalCompleteness = (int) Math.round(totalArchived * 100.0 / totalRequired);
-            }
-
-            // 更新项目统计数据
-            BamsProject updateProject = new BamsProject();
-            updateProject.setProjectId(projectId);
-            updateProject.setTotalRequiredFiles(totalRequired);
-            updateProject.setActualArchivedFiles(totalArchived);
-            updateProject.setCompletenessRate(totalCompleteness);
-            projectMapper.updateProject(updateProject);
-        }
+        projectStatisticsService.reconcileProjects(Collections.singletonList(projectId));
     }
 
     /**
@@ -465,6 +463,9 @@ public class BamsProjectServiceImpl implements IBamsProjectService {
         projectUpdate.setActualArchivedFiles(0);
         projectUpdate.setCompletenessRate(0);
         projectMapper.updateProject(projectUpdate);
+
+        // 7. 按已有档案重新计算新阶段的完整度
+        projectStatisticsService.markProjectsDirty(Collections.singletonList(projectId));
     }
 
     /**
@@ -0,0 +1,274 @@
+package com.ruoyi.system.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import jakarta.annotation.PostConstruct;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.domain.BamsProjectFileStat;
+import com.ruoyi.system.event.BamsArchiveChangeEvent;
+import com.ruoyi.system.mapper.BamsProjectFileStatMapper;
+import com.ruoyi.system.service.IBamsProjectStatisticsService;
+
+/**
+ * 项目完整度统计Service业务层处理
+ *
+ * 归档计数随档案变更事件在业务事务内增量调整；阶段和项目的完整度由后台按计数合并刷新，
+ * 同一项目在一个刷新周期内的多次变更只刷新一次。
+ *
+ * @author ruoyi
+ */
+@Service
+public class BamsProjectStatisticsServiceImpl implements IBamsProjectStatisticsService
+{
+    private static final Logger log = LoggerFactory.getLogger(BamsProjectStatisticsServiceImpl.class);
+
+    /** 项目信息缓存名称（与 BamsProjectServiceImpl 一致） */
+    private static final String PROJECT_CACHE = "bams:project";
+
+    /** 每批刷新的项目数 */
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private static final Comparator<BamsProjectFileStat> STAT_ORDER = Comparator
+            .comparing(BamsProjectFileStat::getProjectId)
+            .thenComparing(BamsProjectFileStat::getStageId)
+            .thenComparing(BamsProjectFileStat::getFileStandard);
+
+    @Autowired
+    private BamsProjectFileStatMapper projectFileStatMapper;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /** 统计刷新间隔（毫秒） */
+    @Value("${bams.statistics.flushInterval:5000}")
+    private long flushInterval;
+
+    /** 待刷新的项目 */
+    private final Set<Long> dirtyProjects = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init()
+    {
+        scheduledExecutorService.scheduleWithFixedDelay(() -> {
+            try
+            {
+                refreshDirtyProjects();
+            }
+            catch (Exception e)
+            {
+                log.error("刷新项目完整度统计失败", e);
+            }
+        }, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 在业务事务提交前调整归档计数，与档案变更一同提交或回滚
+     *
+     * @param event 档案变更事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void applyArchiveChange(BamsArchiveChangeEvent event)
+    {
+        Map<String, BamsProjectFileStat> deltas = new HashMap<>();
+        collectDeltas(deltas, event.getBefore(), -1);
+        collectDeltas(deltas, event.getAfter(), 1);
+
+        List<BamsProjectFileStat> changed = new ArrayList<>();
+        for (BamsProjectFileStat delta : deltas.values())
+        {
+            if (delta.getArchiveCount() != 0)
+            {
+                changed.add(delta);
+            }
+        }
+        if (!changed.isEmpty())
+        {
+            // 按主键顺序加锁，避免并发事务互相等待
+            changed.sort(STAT_ORDER);
+            projectFileStatMapper.applyStatDeltas(changed);
+        }
+    }
+
+    /**
+     * 事务提交后标记受影响的项目，等待后台刷新
+     *
+     * @param event 档案变更事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void markArchiveChange(BamsArchiveChangeEvent event)
+    {
+        List<Long> projectIds = new ArrayList<>();
+        for (BamsArchive archive : event.getBefore())
+        {
+            projectIds.add(archive.getProjectId());
+        }
+        for (BamsArchive archive : event.getAfter())
+        {
+            projectIds.add(archive.getProjectId());
+        }
+        addDirty(projectIds);
+    }
+
+    /**
+     * 标记项目统计数据需要刷新
+     *
+     * @param projectIds 项目ID集合
+     */
+    @Override
+    public void markProjectsDirty(Collection<Long> projectIds)
+    {
+        if (projectIds == null || projectIds.isEmpty())
+        {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            List<Long> ids = new ArrayList<>(projectIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    addDirty(ids);
+                }
+            });
+            return;
+        }
+        addDirty(projectIds);
+    }
+
+    /**
+     * 按归档计数批量刷新已标记项目的阶段和项目统计数据
+     */
+    @Override
+    public void refreshDirtyProjects()
+    {
+        while (!dirtyProjects.isEmpty())
+        {
+            List<Long> batch = new ArrayList<>(REFRESH_BATCH_SIZE);
+            Iterator<Long> iterator = dirtyProjects.iterator();
+            while (iterator.hasNext() && batch.size() < REFRESH_BATCH_SIZE)
+            {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            try
+            {
+                refreshStatistics(batch);
+            }
+            catch (RuntimeException e)
+            {
+                // 下个周期重试
+                dirtyProjects.addAll(batch);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 按档案表重建指定项目的归档计数并刷新统计数据
+     *
+     * @param projectIds 项目ID集合
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void reconcileProjects(Collection<Long> projectIds)
+    {
+        if (projectIds == null || projectIds.isEmpty())
+        {
+            return;
+        }
+        projectFileStatMapper.deleteStats(projectIds);
+        projectFileStatMapper.insertStatsFromArchives(projectIds);
+        refreshStatistics(projectIds);
+    }
+
+    /**
+     * 按档案表重建全部项目的归档计数并刷新统计数据
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void reconcileAll()
+    {
+        long start = System.currentTimeMillis();
+        projectFileStatMapper.deleteStats(null);
+        int rows = projectFileStatMapper.insertStatsFromArchives(null);
+        projectFileStatMapper.refreshStageStatistics(null);
+        projectFileStatMapper.refreshProjectStatistics(null);
+        Cache cache = cacheManager.getCache(PROJECT_CACHE);
+        if (cache != null)
+        {
+            cache.clear();
+        }
+        log.info("项目完整度校对完成，计数 {} 条，耗时 {} ms", rows, System.currentTimeMillis() - start);
+    }
+
+    private void refreshStatistics(Collection<Long> projectIds)
+    {
+        projectFileStatMapper.refreshStageStatistics(projectIds);
+        projectFileStatMapper.refreshProjectStatistics(projectIds);
+        Cache cache = cacheManager.getCache(PROJECT_CACHE);
+        if (cache != null)
+        {
+            for (Long projectId : projectIds)
+            {
+                cache.evict(projectId);
+            }
+        }
+    }
+
+    private void addDirty(Collection<Long> projectIds)
+    {
+        for (Long projectId : projectIds)
+        {
+            if (projectId != null)
+            {
+                dirtyProjects.add(projectId);
+            }
+        }
+    }
+
+    /**
+     * 汇总计数变化量，只统计未删除且项目、阶段、标准文件齐全的档案
+     */
+    private void collectDeltas(Map<String, BamsProjectFileStat> deltas, List<BamsArchive> archives, int sign)
+    {
+        for (BamsArchive archive : archives)
+        {
+            if (!"0".equals(archive.getDelFlag()) || archive.getProjectId() == null
+                    || StringUtils.isEmpty(archive.getStage()) || StringUtils.isEmpty(archive.getFileStandard()))
+            {
+                continue;
+            }
+            String key = archive.getProjectId() + "\u0001" + archive.getStage() + "\u0001" + archive.getFileStandard();
+            BamsProjectFileStat delta = deltas.computeIfAbsent(key, k -> new BamsProjectFileStat(
+                    archive.getProjectId(), archive.getStage(), archive.getFileStandard(), 0));
+            delta.setArchiveCount(delta.getArchiveCount() + sign);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.ruoyi.system.service.impl;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ruoyi.common.exception.ServiceException;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.file.ImageUtils;
+import com.ruoyi.common.utils.uuid.IdUtils;
+import com.ruoyi.system.domain.BamsArchiveVersion;
+import com.ruoyi.system.service.IBamsRenditionService;
+
+/**
+ * 档案文件缩略图、预览图Service业务层处理
+ *
+ * 上传后在独立的有界线程池中生成 PDF 首页和图片的缩略图（PNG）与预览图（JPG），
+ * 按文件哈希值保存在 rendition/{hash前2位}/{hash第3-4位}/ 下，相同内容只生成一次。
+ * 文件存在即表示已生成；队列已满或服务重启丢失的任务在下次访问时重新提交。
+ *
+ * @author ruoyi
+ */
+@Service
+public class BamsRenditionServiceImpl implements IBamsRenditionService
+{
+    private static final Logger log = LoggerFactory.getLogger(BamsRenditionServiceImpl.class);
+
+    /** 预览图 JPG 压缩质量 */
+    private static final float PREVIEW_QUALITY = 0.8f;
+
+    /** PDF 渲染的最大缩放倍数（相对 72dpi），避免页面尺寸异常小时渲染过大 */
+    private static final float MAX_PDF_SCALE = 4f;
+
+    @Value("${ruoyi.profile}")
+    private String uploadPath;
+
+    /** 生成线程数 */
+    @Value("${bams.rendition.workers:2}")
+    private int workers;
+
+    /** 排队任务上限，超出的任务在访问时重新提交 */
+    @Value("${bams.rendition.queueCapacity:500}")
+    private int queueCapacity;
+
+    /** 缩略图宽、高的最大像素数 */
+    @Value("${bams.rendition.thumbSize:320}")
+    private int thumbSize;
+
+    /** 预览图宽、高的最大像素数 */
+    @Value("${bams.rendition.previewSize:1600}")
+    private int previewSize;
+
+    /** 生成失败后不再重试的时间（分钟） */
+    @Value("${bams.rendition.failureExpire:60}")
+    private int failureExpire;
+
+    /** 已提交到线程池、尚未结束的文件哈希值 */
+    private final Set<String> submitted = ConcurrentHashMap.newKeySet();
+
+    /** 最近生成失败的文件哈希值，避免损坏的文件被反复提交 */
+    private Cache<String, Boolean> failures;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init()
+    {
+        failures = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(failureExpire, TimeUnit.MINUTES)
+                .build();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity),
+                new BasicThreadFactory.Builder().namingPattern("file-rendition-%d").daemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交生成版本文件的缩略图和预览图，事务中调用时在提交后执行
+     *
+     * @param version 档案版本
+     */
+    @Override
+    public void submitRendition(BamsArchiveVersion version)
+    {
+        if (!isSupported(version))
+        {
+            return;
+        }
+        String fileHash = version.getFileHash();
+        String filePath = version.getFilePath();
+        String fileName = version.getFileName();
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    enqueue(fileHash, filePath, fileName);
+                }
+            });
+        }
+        else
+        {
+            enqueue(fileHash, filePath, fileName);
+        }
+    }
+
+    /**
+     * 获取版本文件的缩略图或预览图，尚未生成时提交生成
+     *
+     * @param version 档案版本
+     * @param type 类型（thumb、preview）
+     * @return 图片文件，尚未生成或文件格式不支持时返回空
+     */
+    @Override
+    public File getRendition(BamsArchiveVersion version, String type)
+    {
+        if (!TYPE_THUMB.equals(type) && !TYPE_PREVIEW.equals(type))
+        {
+            throw new ServiceException("不支持的预览类型：" + type);
+        }
+        if (!isSupported(version))
+        {
+            return null;
+        }
+        File file = getRenditionFile(version.getFileHash(), type);
+        if (file.exists())
+        {
+            return file;
+        }
+        enqueue(version.getFileHash(), version.getFilePath(), version.getFileName());
+        return null;
+    }
+
+    /**
+     * 获取缩略图或预览图的 Content-Type
+     *
+     * @param type 类型（thumb、preview）
+     * @return Content-Type
+     */
+    @Override
+    public String getContentType(String type)
+    {
+        return TYPE_THUMB.equals(type) ? "image/png" : "image/jpeg";
+    }
+
+    /**
+     * 删除文件内容对应的缩略图和预览图，事务中调用时在提交后执行
+     *
+     * @param fileHash 文件哈希值
+     */
+    @Override
+    public void removeRenditions(String fileHash)
+    {
+        if (StringUtils.isEmpty(fileHash))
+        {
+            return;
+        }
+        Runnable task = () -> {
+            getRenditionFile(fileHash, TYPE_THUMB).delete();
+            getRenditionFile(fileHash, TYPE_PREVIEW).delete();
+            failures.invalidate(fileHash);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    task.run();
+                }
+            });
+        }
+        else
+        {
+            task.run();
+        }
+    }
+
+    /**
+     * 提交到线程池，已在处理、最近失败或已生成时忽略
+     */
+    private void enqueue(String fileHash, String filePath, String fileName)
+    {
+        if (failures.getIfPresent(fileHash) != null || getRenditionFile(fileHash, TYPE_THUMB).exists()
+                || !submitted.add(fileHash))
+        {
+            return;
+        }
+        try
+        {
+            executor.execute(() -> process(fileHash, filePath, fileName));
+        }
+        catch (RejectedExecutionException e)
+        {
+            submitted.remove(fileHash);
+            log.debug("缩略图生成队列已满，文件 {} 等待下次访问时提交", fileHash);
+        }
+    }
+
+    /**
+     * 生成预览图，再由预览图缩小得到缩略图；缩略图最后写入，作为生成完成的标记
+     */
+    private void process(String fileHash, String filePath, String fileName)
+    {
+        try
+        {
+            File source = new File(uploadPath + filePath);
+            if (!source.exists())
+            {
+                throw new ServiceException("文件不存在");
+            }
+            BufferedImage preview = isPdf(fileName) ? renderPdfFirstPage(source)
+                    : ImageUtils.readScaled(source, previewSize);
+            if (preview == null)
+            {
+                throw new ServiceException("无法识别的图片格式");
+            }
+            writeRendition(preview, "jpg", getRenditionFile(fileHash, TYPE_PREVIEW));
+            writeRendition(ImageUtils.scale(preview, thumbSize), "png", getRenditionFile(fileHash, TYPE_THUMB));
+        }
+        catch (Exception e)
+        {
+            failures.put(fileHash, Boolean.TRUE);
+            log.warn("生成缩略图失败，文件：{}，原因：{}", fileName, e.getMessage());
+        }
+        finally
+        {
+            submitted.remove(fileHash);
+        }
+    }
+
+    /**
+     * 按预览图尺寸渲染 PDF 首页
+     */
+    private BufferedImage renderPdfFirstPage(File file) throws IOException
+    {
+        try (PDDocument document = Loader.loadPDF(file))
+        {
+            if (document.getNumberOfPages() == 0)
+            {
+                return null;
+            }
+            PDRectangle box = document.getPage(0).getCropBox();
+            float longest = Math.max(box.getWidth(), box.getHeight());
+            float scale = longest > 0 ? Math.min(MAX_PDF_SCALE, previewSize / longest) : 1f;
+            BufferedImage image = new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+            return ImageUtils.scale(image, previewSize);
+        }
+    }
+
+    /**
+     * 先写入临时文件再改名，访问方不会读到写了一半的图片
+     */
+    private void writeRendition(BufferedImage image, String format, File dest) throws IOException
+    {
+        dest.getParentFile().mkdirs();
+        File tempFile = new File(dest.getPath() + "." + IdUtils.fastSimpleUUID() + ".tmp");
+        try
+        {
+            ImageUtils.write(image, format, PREVIEW_QUALITY, tempFile);
+            try
+            {
+                Files.move(tempFile.toPath(), dest.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(tempFile.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    /**
+     * 生成缩略图存储路径
+     */
+    private File getRenditionFile(String fileHash, String type)
+    {
+        String suffix = TYPE_THUMB.equals(type) ? "_thumb.png" : "_preview.jpg";
+        return new File(uploadPath + "/rendition/" + fileHash.substring(0, 2) + "/" + fileHash.substring(2, 4) + "/"
+                + fileHash + suffix);
+    }
+
+    /**
+     * 是否支持生成缩略图（PDF 和图片，且已记录文件哈希值）
+     */
+    private boolean isSupported(BamsArchiveVersion version)
+    {
+        if (version == null || StringUtils.isEmpty(version.getFileHash()) || version.getFileHash().length() < 4
+                || StringUtils.isEmpty(version.getFilePath()) || StringUtils.isEmpty(version.getFileName()))
+        {
+            return false;
+        }
+        String lowerFileName = version.getFileName().toLowerCase();
+        return isPdf(lowerFileName) || lowerFileName.endsWith(".jpg") || lowerFileName.endsWith(".jpeg")
+                || lowerFileName.endsWith(".png");
+    }
+
+    private boolean isPdf(String fileName)
+    {
+        return fileName.toLowerCase().endsWith(".pdf");
+    }
+}
@@ -7,9 +7,13 @@ import com.ruoyi.common.exception.ServiceException;
 import com.ruoyi.common.utils.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.ruoyi.system.mapper.BamsArchiveTagMapper;
 import com.ruoyi.system.mapper.BamsTagDictionaryMapper;
 import com.ruoyi.system.domain.BamsTagDictionary;
+import com.ruoyi.system.service.IBamsArchiveFacetService;
 import com.ruoyi.system.service.IBamsTagDictionaryService;
+import com.ruoyi.system.service.IBamsTagRegistryService;
 
 /**
  * 标签字典Service业务层处理
@@ -23,6 +27,15 @@ public class BamsTagDictionaryServiceImpl implements IBamsTagDictionaryService
     @Autowired
     private BamsTagDictionaryMapper bamsTagDictionaryMapper;
 
+    @Autowired
+    private BamsArchiveTagMapper archiveTagMapper;
+
+    @Autowired
+    private IBamsTagRegistryService tagRegistryService;
+
+    @Autowired
+    private IBamsArchiveFacetService archiveFacetService;
+
     /**
      * 查询标签字典
      *
@@ -67,7 +80,7 @@ public class BamsTagDictionaryServiceImpl implements IBamsTagDictionaryService
     @Override
     public List<BamsTagDictionary> selectEnabledTags()
     {
-        return bamsTagDictionaryMapper.selectEnabledTags();
+        return tagRegistryService.selectEnabledTags();
     }
 
     /**
@@ -77,6 +90,7 @@ public class BamsTagDictionaryServiceImpl implements IBamsTagDictionaryService
      * @return 结果
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public int insertBamsTagDictionary(BamsTagDictionary bamsTagDictionary)
     {
         // 校验标签名称唯一性
@@ -89,7 +103,12 @@ public class BamsTagDictionaryServiceImpl implements IBamsTagDictionaryService
         bamsTagDictionary.setStatus("0");
         bamsTagDictionary.setCreateBy(SecurityUtils.getUsername());
         bamsTagDictionary.setCreateTime(new Date());
-        return bamsTagDictionaryMapper.insertBamsTagDictionary(bamsTagDictionary);
+        int result = bamsTagDictionaryMapper.insertBamsTagDictionary(bamsTagDictionary);
+        // 已有档案中使用了同名标签的，补登记标签关系
+        archiveTagMapper.backfillTag(bamsTagDictionary.getTagId(), bamsTagDictionary.getTagName());
+        tagRegistryService.refresh();
+        archiveFacetService.invalidate();
+        return result;
     }
 
     /**
@@ -99,6 +118,7 @@ public class BamsTagDictionaryServiceImpl implements IBamsTagDictionaryService
      * @return 结果
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public int updateBamsTagDictionary(BamsTagDictionary bamsTagDictionary)
     {
         BamsTagDictionary existingTag = bamsTagDictionaryMapper.selectBamsTagDictionaryByTagName(
@@ -110,7 +130,18 @@ public class BamsTagDictionaryServiceImpl implements IBamsTagDictionaryService
             throw new ServiceException("标签名称已存在");
         }
 
-        return bamsTagDictionaryMapper.updateBamsTagDictionary(bamsTagDictionary);
+        BamsTagDictionary oldTag = bamsTagDictionaryMapper.selectBamsTagDictionaryByTagId(bamsTagDictionary.getTagId());
+        int result = bamsTagDictionaryMapper.updateBamsTagDictionary(bamsTagDictionary);
+        // 重命名后按新名称重新登记标签关系
+        if (oldTag != null && bamsTagDictionary.getTagName() != null
+                && !bamsTagDictionary.getTagName().equals(oldTag.getTagName()))
+        {
+            archiveTagMapper.deleteByTagIds(new Long[] { oldTag.getTagId() });
+            archiveTagMapper.backfillTag(oldTag.getTagId(), bamsTagDictionary.getTagName());
+        }
+        tagRegistryService.refresh();
+        archiveFacetService.invalidate();
+        return result;
     }
 
     /**
@@ -120,9 +151,11 @@ public class BamsTagDictionaryServiceImpl implements IBamsTagDictionaryService
      * @return 结果
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public int deleteBamsTagDictionaryByTagIds(Long[] tagIds)
     {
-        // 检查标签是否被使用
+        // 先写入内存中累计的使用次数，再检查标签是否被使用
+        tagRegistryService.flushUsage();
         for (Long tagId : tagIds)
         {
             BamsTagDictionary tag = bamsTagDictionaryMapper.selectBamsTagDictionaryByTagId(tagId);
@@ -132,7 +165,11 @@ public class BamsTagDictionaryServiceImpl implements IBamsTagDictionaryService
             }
         }
 
-        return bamsTagDictionaryMapper.deleteBamsTagDictionaryByTagIds(tagIds);
+        archiveTagMapper.deleteByTagIds(tagIds);
+        int result = bamsTagDictionaryMapper.deleteBamsTagDictionaryByTagIds(tagIds);
+        tagRegistryService.refresh();
+        archiveFacetService.invalidate();
+        return result;
     }
 
     /**
@@ -142,15 +179,21 @@ public class BamsTagDictionaryServiceImpl implements IBamsTagDictionaryService
      * @return 结果
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public int deleteBamsTagDictionaryByTagId(Long tagId)
     {
+        tagRegistryService.flushUsage();
         BamsTagDictionary tag = bamsTagDictionaryMapper.selectBamsTagDictionaryByTagId(tagId);
         if (tag != null && tag.getUsageCount() > 0)
         {
             throw new ServiceException("标签【" + tag.getTagName() + "】正在使用中，不允许删除");
         }
 
-        return bamsTagDictionaryMapper.deleteBamsTagDictionaryByTagId(tagId);
+        archiveTagMapper.deleteByTagIds(new Long[] { tagId });
+        int result = bamsTagDictionaryMapper.deleteBamsTagDictionaryByTagId(tagId);
+        tagRegistryService.refresh();
+        archiveFacetService.invalidate();
+        return result;
     }
 
     /**
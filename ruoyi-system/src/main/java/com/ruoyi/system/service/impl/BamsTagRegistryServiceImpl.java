@@ -0,0 +1,303 @@
+package com.ruoyi.system.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.ruoyi.system.domain.BamsTagDictionary;
+import com.ruoyi.system.mapper.BamsArchiveTagMapper;
+import com.ruoyi.system.mapper.BamsTagDictionaryMapper;
+import com.ruoyi.system.service.IBamsTagRegistryService;
+
+/**
+ * 标签注册表Service业务层处理
+ *
+ * 标签字典常驻内存，按名称查找标签不再访问数据库；使用次数的变化在事务提交后累加到每个标签独立的
+ * LongAdder 中，由后台定时按相同变化量合并为批量更新，避免热门标签行在每次档案写入时产生行锁竞争。
+ * 计数与档案数据之间的偏差（如进程异常退出时未写入的部分）由 reconcileUsageCount 先按档案标签修复档案标签关系，
+ * 再按关系表重新统计修正。
+ *
+ * @author ruoyi
+ */
+@Service
+public class BamsTagRegistryServiceImpl implements IBamsTagRegistryService
+{
+    private static final Logger log = LoggerFactory.getLogger(BamsTagRegistryServiceImpl.class);
+
+    @Autowired
+    private BamsTagDictionaryMapper tagDictionaryMapper;
+
+    @Autowired
+    private BamsArchiveTagMapper archiveTagMapper;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    /** 使用次数定时写入间隔（毫秒） */
+    @Value("${bams.tag.flushInterval:5000}")
+    private long flushInterval;
+
+    /** 标签字典定时重新加载间隔（毫秒），用于同步其他节点的字典修改 */
+    @Value("${bams.tag.refreshInterval:60000}")
+    private long refreshInterval;
+
+    /** 标签名称 -> 标签（整体替换，读取无需加锁） */
+    private volatile Map<String, BamsTagDictionary> tagsByName = Collections.emptyMap();
+
+    /** 启用的标签（按使用次数倒序） */
+    private volatile List<BamsTagDictionary> enabledTags = Collections.emptyList();
+
+    /** 最近一次加载字典的时间 */
+    private volatile long lastRefreshTime;
+
+    /** 标签ID -> 尚未写入数据库的使用次数变化 */
+    private final Map<Long, LongAdder> pendingDeltas = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private ScheduledFuture<?> flushTask;
+
+    private volatile boolean closed;
+
+    @PostConstruct
+    public void init()
+    {
+        refresh();
+        flushTask = scheduledExecutorService.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 根据标签名称获取标签ID
+     *
+     * @param tagName 标签名称
+     * @return 标签ID，不在字典中时返回空
+     */
+    @Override
+    public Long getTagId(String tagName)
+    {
+        BamsTagDictionary tag = tagName != null ? tagsByName.get(tagName) : null;
+        return tag != null ? tag.getTagId() : null;
+    }
+
+    /**
+     * 查询所有启用的标签（按使用次数倒序）
+     *
+     * @return 标签列表
+     */
+    @Override
+    public List<BamsTagDictionary> selectEnabledTags()
+    {
+        return enabledTags;
+    }
+
+    /**
+     * 记录标签使用次数变化，当前事务提交后计入内存计数，由后台定时批量写入数据库
+     *
+     * @param deltas 标签名称 -> 变化量（负数表示减少），不在字典中的标签忽略
+     */
+    @Override
+    public void recordUsage(Map<String, Integer> deltas)
+    {
+        if (deltas == null || deltas.isEmpty())
+        {
+            return;
+        }
+        Map<Long, Integer> tagDeltas = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : deltas.entrySet())
+        {
+            Long tagId = getTagId(entry.getKey());
+            if (tagId != null && entry.getValue() != 0)
+            {
+                tagDeltas.merge(tagId, entry.getValue(), Integer::sum);
+            }
+        }
+        if (tagDeltas.isEmpty())
+        {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            // 事务回滚时计数不变
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    addPending(tagDeltas);
+                }
+            });
+        }
+        else
+        {
+            addPending(tagDeltas);
+        }
+    }
+
+    /**
+     * 将内存中累计的使用次数变化写入数据库
+     */
+    @Override
+    public void flushUsage()
+    {
+        flushLock.lock();
+        try
+        {
+            // 取出并清零各标签的累计值，相同变化量的标签合并为一条更新语句
+            Map<Long, List<Long>> tagIdsByDelta = new HashMap<>();
+            for (Map.Entry<Long, LongAdder> entry : pendingDeltas.entrySet())
+            {
+                long delta = entry.getValue().sumThenReset();
+                if (delta != 0)
+                {
+                    tagIdsByDelta.computeIfAbsent(delta, k -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+            RuntimeException failure = null;
+            for (Map.Entry<Long, List<Long>> entry : tagIdsByDelta.entrySet())
+            {
+                long delta = entry.getKey();
+                try
+                {
+                    if (delta > 0)
+                    {
+                        tagDictionaryMapper.batchIncrementUsageCount(entry.getValue(), (int) delta);
+                    }
+                    else
+                    {
+                        tagDictionaryMapper.batchDecrementUsageCount(entry.getValue(), (int) -delta);
+                    }
+                }
+                catch (RuntimeException e)
+                {
+                    // 写入失败的变化量放回，下次重试
+                    for (Long tagId : entry.getValue())
+                    {
+                        pendingDeltas.computeIfAbsent(tagId, k -> new LongAdder()).add(delta);
+                    }
+                    failure = e;
+                }
+            }
+            if (failure != null)
+            {
+                throw failure;
+            }
+            if (!tagIdsByDelta.isEmpty() || System.currentTimeMillis() - lastRefreshTime >= refreshInterval)
+            {
+                refresh();
+            }
+        }
+        finally
+        {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 重新加载标签字典
+     */
+    @Override
+    public void refresh()
+    {
+        List<BamsTagDictionary> tags = tagDictionaryMapper.selectBamsTagDictionaryList(new BamsTagDictionary());
+        Map<String, BamsTagDictionary> byName = new HashMap<>(tags.size() * 2);
+        List<BamsTagDictionary> enabled = new ArrayList<>();
+        for (BamsTagDictionary tag : tags)
+        {
+            byName.put(tag.getTagName(), tag);
+            if ("0".equals(tag.getStatus()))
+            {
+                enabled.add(tag);
+            }
+        }
+        tagsByName = Collections.unmodifiableMap(byName);
+        enabledTags = Collections.unmodifiableList(enabled);
+        lastRefreshTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 按档案标签修复档案标签关系，并重新统计所有标签的使用次数
+     *
+     * @return 更新的标签数
+     */
+    @Override
+    public int reconcileUsageCount()
+    {
+        flushLock.lock();
+        try
+        {
+            // 先写入已累计的变化，统计结果即为最终值
+            flushUsage();
+            int stale = archiveTagMapper.deleteStaleArchiveTags();
+            int missing = archiveTagMapper.insertMissingArchiveTags();
+            if (stale > 0 || missing > 0)
+            {
+                log.info("档案标签关系校准完成，删除 {} 条，补录 {} 条", stale, missing);
+            }
+            int rows = tagDictionaryMapper.reconcileUsageCount();
+            if (rows > 0)
+            {
+                log.info("标签使用次数校准完成，修正 {} 个标签", rows);
+            }
+            refresh();
+            return rows;
+        }
+        finally
+        {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 停止定时写入并写完剩余的计数
+     */
+    @Override
+    public void shutdown()
+    {
+        closed = true;
+        if (flushTask != null)
+        {
+            flushTask.cancel(false);
+        }
+        flushUsage();
+    }
+
+    private void addPending(Map<Long, Integer> tagDeltas)
+    {
+        for (Map.Entry<Long, Integer> entry : tagDeltas.entrySet())
+        {
+            pendingDeltas.computeIfAbsent(entry.getKey(), k -> new LongAdder()).add(entry.getValue());
+        }
+        if (closed)
+        {
+            flushQuietly();
+        }
+    }
+
+    private void flushQuietly()
+    {
+        try
+        {
+            flushUsage();
+        }
+        catch (Exception e)
+        {
+            log.error("写入标签使用次数失败", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.ruoyi.system.service.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.system.service.IBamsOcrService;
+
+/**
+ * 基于本机 Tesseract 命令行的文字识别
+ *
+ * 未配置 bams.extract.ocr.command 时不可用，图片类文件的正文抽取结果记为不支持。
+ *
+ * @author ruoyi
+ */
+@Service
+public class BamsTesseractOcrServiceImpl implements IBamsOcrService
+{
+    /** Tesseract 可执行文件（如 tesseract 或完整路径），为空表示不启用 */
+    @Value("${bams.extract.ocr.command:}")
+    private String command;
+
+    /** 识别语言 */
+    @Value("${bams.extract.ocr.language:chi_sim+eng}")
+    private String language;
+
+    /** 单张图片识别超时时间（秒） */
+    @Value("${bams.extract.ocr.timeout:120}")
+    private int timeout;
+
+    @Override
+    public String getName()
+    {
+        return "tesseract";
+    }
+
+    @Override
+    public boolean isAvailable()
+    {
+        return StringUtils.isNotBlank(command);
+    }
+
+    @Override
+    public String recognize(File image) throws Exception
+    {
+        // 输出写入临时文件，避免子进程因标准输出缓冲区写满而阻塞
+        File output = File.createTempFile("ocr-", ".txt");
+        try
+        {
+            Process process = new ProcessBuilder(command, image.getAbsolutePath(), "stdout", "-l", language)
+                    .redirectOutput(output)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (!process.waitFor(timeout, TimeUnit.SECONDS))
+            {
+                process.destroyForcibly();
+                throw new IOException("文字识别超时");
+            }
+            if (process.exitValue() != 0)
+            {
+                throw new IOException("文字识别失败，退出码：" + process.exitValue());
+            }
+            return new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8);
+        }
+        finally
+        {
+            output.delete();
+        }
+    }
+}
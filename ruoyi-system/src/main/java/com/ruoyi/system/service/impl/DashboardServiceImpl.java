@@ -1,30 +1,80 @@
 package com.ruoyi.system.service.impl;
 
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import com.ruoyi.common.core.domain.entity.SysDictData;
+import com.ruoyi.common.utils.DateUtils;
+import com.ruoyi.system.domain.BamsArchive;
+import com.ruoyi.system.event.BamsArchiveChangeEvent;
+import com.ruoyi.system.mapper.BamsDashboardStatMapper;
 import com.ruoyi.system.mapper.BamsProjectMapper;
-import com.ruoyi.system.mapper.BamsArchiveMapper;
 import com.ruoyi.system.service.IDashboardService;
+import com.ruoyi.system.service.ISysDictTypeService;
 
 /**
  * 驾驶舱Service业务层处理
  *
+ * 统计数据来自汇总表 bams_archive_daily_stat，由定时任务增量刷新；
+ * 接口返回内存快照，快照超过 bams.dashboard.maxStaleness 秒后由一个请求重建，其余请求继续使用旧快照。
+ *
  * @author ruoyi
  * @date 2025-11-24
  */
 @Service
 public class DashboardServiceImpl implements IDashboardService
 {
+    private static final Logger log = LoggerFactory.getLogger(DashboardServiceImpl.class);
+
+    /** 近几个月新增趋势 */
+    private static final int TREND_MONTHS = 6;
+
+    /** 每批重算的日期数 */
+    private static final int REFRESH_BATCH_SIZE = 100;
+
+    /** 增量刷新时回看的时间（毫秒），覆盖刷新期间尚未提交的事务 */
+    private static final long REFRESH_OVERLAP = 60 * 1000L;
+
     @Autowired
     private BamsProjectMapper projectMapper;
 
     @Autowired
-    private BamsArchiveMapper archiveMapper;
+    private BamsDashboardStatMapper dashboardStatMapper;
+
+    @Autowired
+    private ISysDictTypeService dictTypeService;
+
+    /** 快照最长使用时间（秒） */
+    @Value("${bams.dashboard.maxStaleness:300}")
+    private long maxStaleness;
+
+    private volatile Map<String, Object> snapshot;
+
+    private volatile long snapshotTime;
+
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    /** 上次增量刷新的数据库时间，为空时下次刷新做全量重建 */
+    private volatile Date refreshWatermark;
+
+    /** 永久删除的档案的创建日期（无法通过修改时间发现），等待下次刷新 */
+    private final Set<Date> pendingDates = ConcurrentHashMap.newKeySet();
 
     /**
      * 获取驾驶舱统计数据
@@ -33,6 +83,140 @@ public class DashboardServiceImpl implements IDashboardService
      */
     @Override
     public Map<String, Object> getDashboardOverview()
+    {
+        Map<String, Object> current = snapshot;
+        if (current != null && System.currentTimeMillis() - snapshotTime < maxStaleness * 1000)
+        {
+            return current;
+        }
+        if (current == null)
+        {
+            snapshotLock.lock();
+        }
+        else if (!snapshotLock.tryLock())
+        {
+            // 其他请求正在重建，先返回旧快照
+            return current;
+        }
+        try
+        {
+            if (snapshot != current && snapshot != null)
+            {
+                return snapshot;
+            }
+            Map<String, Object> result = buildSnapshot();
+            snapshot = result;
+            snapshotTime = System.currentTimeMillis();
+            return result;
+        }
+        finally
+        {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * 增量刷新驾驶舱汇总表
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void refreshDashboardStats()
+    {
+        Date now = dashboardStatMapper.selectDbNow();
+        Date watermark = refreshWatermark;
+        if (watermark == null)
+        {
+            rebuildDashboardStats();
+            return;
+        }
+        Set<Date> dates = new TreeSet<>();
+        for (Date date : dashboardStatMapper.selectChangedArchiveDates(new Date(watermark.getTime() - REFRESH_OVERLAP)))
+        {
+            dates.add(truncateDate(date));
+        }
+        List<Date> pending = new ArrayList<>(pendingDates);
+        pendingDates.removeAll(pending);
+        dates.addAll(pending);
+
+        List<Date> batch = new ArrayList<>(REFRESH_BATCH_SIZE);
+        for (Date date : dates)
+        {
+            batch.add(date);
+            if (batch.size() == REFRESH_BATCH_SIZE)
+            {
+                refreshDates(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+        {
+            refreshDates(batch);
+        }
+        refreshWatermark = now;
+        if (!dates.isEmpty())
+        {
+            expireSnapshot();
+        }
+    }
+
+    /**
+     * 全量重建驾驶舱汇总表
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuildDashboardStats()
+    {
+        long start = System.currentTimeMillis();
+        Date now = dashboardStatMapper.selectDbNow();
+        pendingDates.clear();
+        dashboardStatMapper.deleteDailyStats(null);
+        int rows = dashboardStatMapper.insertDailyStats(null);
+        refreshWatermark = now;
+        expireSnapshot();
+        log.info("驾驶舱汇总重建完成，汇总 {} 条，耗时 {} ms", rows, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 记录永久删除的档案的创建日期
+     *
+     * @param event 档案变更事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onArchiveChange(BamsArchiveChangeEvent event)
+    {
+        if (!event.getAfter().isEmpty())
+        {
+            return;
+        }
+        for (BamsArchive archive : event.getBefore())
+        {
+            if (archive.getCreateTime() != null)
+            {
+                pendingDates.add(truncateDate(archive.getCreateTime()));
+            }
+        }
+    }
+
+    private void refreshDates(List<Date> dates)
+    {
+        dashboardStatMapper.deleteDailyStats(dates);
+        dashboardStatMapper.insertDailyStats(dates);
+    }
+
+    private void expireSnapshot()
+    {
+        snapshotTime = 0;
+    }
+
+    private Date truncateDate(Date date)
+    {
+        return DateUtils.parseDate(DateUtils.parseDateToStr(DateUtils.YYYY_MM_DD, date));
+    }
+
+    /**
+     * 从汇总表构建驾驶舱快照
+     */
+    private Map<String, Object> buildSnapshot()
     {
         Map<String, Object> result = new HashMap<>();
 
@@ -54,6 +238,9 @@ public class DashboardServiceImpl implements IDashboardService
         // 项目完成度分布
         result.put("completenessDistribution", getCompletenessDistribution());
 
+        // 快照生成时间
+        result.put("snapshotTime", DateUtils.getTime());
+
         return result;
     }
 
@@ -69,7 +256,7 @@ public class DashboardServiceImpl implements IDashboardService
         kpi.put("totalProjects", totalProjects != null ? totalProjects : 0);
 
         // 档案总量（排除已删除）
-        Integer totalArchives = archiveMapper.countTotalArchives();
+        Long totalArchives = dashboardStatMapper.sumTotalArchives();
         kpi.put("totalArchives", totalArchives != null ? totalArchives : 0);
 
         // 在建中项目（completeness_rate < 100 且 status = '0'）
@@ -88,7 +275,8 @@ public class DashboardServiceImpl implements IDashboardService
      */
     private List<Map<String, Object>> getArchiveTypeDistribution()
     {
-        return archiveMapper.getArchiveTypeDistribution();
+        return translateByDict("bams_archives_classification", "name",
+                toCountMap(dashboardStatMapper.sumArchivesByCategory()));
     }
 
     /**
@@ -96,7 +284,7 @@ public class DashboardServiceImpl implements IDashboardService
      */
     private List<Map<String, Object>> getArchiveByStage()
     {
-        return archiveMapper.getArchiveByStage();
+        return translateByDict("bams_project_phase", "stage", toCountMap(dashboardStatMapper.sumArchivesByStage()));
     }
 
     /**
@@ -104,7 +292,22 @@ public class DashboardServiceImpl implements IDashboardService
      */
     private List<Map<String, Object>> getMonthlyTrend()
     {
-        return archiveMapper.getMonthlyTrend();
+        YearMonth startMonth = YearMonth.now().minusMonths(TREND_MONTHS - 1);
+        Map<String, Long> counts = new HashMap<>();
+        for (Map<String, Object> row : dashboardStatMapper.sumArchivesByMonth(DateUtils.toDate(startMonth.atDay(1))))
+        {
+            counts.put(String.valueOf(row.get("month")), toLong(row.get("count")));
+        }
+        List<Map<String, Object>> trend = new ArrayList<>(TREND_MONTHS);
+        for (int i = 0; i < TREND_MONTHS; i++)
+        {
+            String month = startMonth.plusMonths(i).toString();
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("month", month);
+            item.put("count", counts.getOrDefault(month, 0L));
+            trend.add(item);
+        }
+        return trend;
     }
 
     /**
@@ -114,4 +317,45 @@ public class DashboardServiceImpl implements IDashboardService
     {
         return projectMapper.getCompletenessDistribution();
     }
+
+    /**
+     * 按字典顺序输出各字典项的档案数，汇总值既可能是字典值也可能是字典标签
+     */
+    private List<Map<String, Object>> translateByDict(String dictType, String labelKey, Map<String, Long> counts)
+    {
+        List<Map<String, Object>> result = new ArrayList<>();
+        List<SysDictData> dictDatas = dictTypeService.selectDictDataByType(dictType);
+        if (dictDatas == null)
+        {
+            return result;
+        }
+        for (SysDictData dictData : dictDatas)
+        {
+            long count = counts.getOrDefault(dictData.getDictValue(), 0L);
+            if (!dictData.getDictLabel().equals(dictData.getDictValue()))
+            {
+                count += counts.getOrDefault(dictData.getDictLabel(), 0L);
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put(labelKey, dictData.getDictLabel());
+            item.put("count", count);
+            result.add(item);
+        }
+        return result;
+    }
+
+    private Map<String, Long> toCountMap(List<Map<String, Object>> rows)
+    {
+        Map<String, Long> counts = new HashMap<>();
+        for (Map<String, Object> row : rows)
+        {
+            counts.put(String.valueOf(row.get("name")), toLong(row.get("count")));
+        }
+        return counts;
+    }
+
+    private long toLong(Object value)
+    {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
 }
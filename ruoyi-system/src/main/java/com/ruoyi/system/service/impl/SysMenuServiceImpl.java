@@ -100,6 +100,26 @@ public class SysMenuServiceImpl implements ISysMenuService
         return permsSet;
     }
 
+    /**
+     * 查询全部菜单权限
+     * 
+     * @return 权限列表
+     */
+    @Override
+    public Set<String> selectMenuPerms()
+    {
+        List<String> perms = menuMapper.selectMenuPerms();
+        Set<String> permsSet = new HashSet<>();
+        for (String perm : perms)
+        {
+            if (StringUtils.isNotEmpty(perm))
+            {
+                permsSet.addAll(Arrays.asList(perm.trim().split(",")));
+            }
+        }
+        return permsSet;
+    }
+
     /**
      * 根据角色ID查询权限
      * 
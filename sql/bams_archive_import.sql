@@ -0,0 +1,37 @@
+-- 档案批量导入
+-- 执行日期: 2025-12-01
+-- 说明：导入任务按批次提交，每批数据、错误明细和任务进度在同一事务中写入，
+--       processed_rows 即断点位置，任务中断或失败后可从断点继续导入。
+
+USE `ry-vue`;
+
+DROP TABLE IF EXISTS `bams_archive_import_job`;
+CREATE TABLE `bams_archive_import_job` (
+  `job_id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '任务ID',
+  `file_name` VARCHAR(200) NOT NULL COMMENT '导入文件名',
+  `excel_path` VARCHAR(500) NOT NULL COMMENT '导入文件保存路径（相对路径，不含 /profile 前缀）',
+  `source_path` VARCHAR(500) DEFAULT NULL COMMENT '附件来源（导入目录下的子目录或 ZIP 文件）',
+  `status` CHAR(1) NOT NULL DEFAULT '0' COMMENT '状态（0排队中 1执行中 2已完成 3失败 4已中断）',
+  `total_rows` INT DEFAULT NULL COMMENT '总行数',
+  `processed_rows` INT NOT NULL DEFAULT 0 COMMENT '已处理行数（断点位置）',
+  `success_rows` INT NOT NULL DEFAULT 0 COMMENT '成功行数',
+  `failed_rows` INT NOT NULL DEFAULT 0 COMMENT '失败行数',
+  `error_msg` VARCHAR(500) DEFAULT NULL COMMENT '任务失败原因',
+  `create_by` VARCHAR(64) DEFAULT '' COMMENT '提交人',
+  `create_time` DATETIME DEFAULT NULL COMMENT '提交时间',
+  `update_time` DATETIME DEFAULT NULL COMMENT '更新时间',
+  `finish_time` DATETIME DEFAULT NULL COMMENT '完成时间',
+  PRIMARY KEY (`job_id`),
+  KEY `idx_create_by` (`create_by`, `create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='档案导入任务表';
+
+DROP TABLE IF EXISTS `bams_archive_import_error`;
+CREATE TABLE `bams_archive_import_error` (
+  `error_id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键',
+  `job_id` BIGINT NOT NULL COMMENT '任务ID',
+  `row_num` INT NOT NULL COMMENT 'Excel 行号',
+  `title` VARCHAR(500) DEFAULT NULL COMMENT '档案题名',
+  `error_msg` VARCHAR(1000) NOT NULL COMMENT '错误原因',
+  PRIMARY KEY (`error_id`),
+  KEY `idx_job_row` (`job_id`, `row_num`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='档案导入错误明细表';
@@ -0,0 +1,29 @@
+-- 档案全文检索索引表
+-- 执行日期: 2025-12-02
+-- 说明：使用 InnoDB FULLTEXT 倒排索引（ngram 分词，支持中文），替代 like '%关键字%' 全表扫描。
+--       索引由档案新增/修改/上传版本时增量维护，文件正文在版本上传提交后异步抽取。
+--       ngram 分词长度由 MySQL 参数 ngram_token_size 控制（默认 2，适合中文词语检索）。
+--       已按旧版本建表的库执行：ALTER TABLE `bams_archive_search` MODIFY `tags` TEXT COMMENT '标签（空格分隔）';
+
+USE `ry-vue`;
+
+DROP TABLE IF EXISTS `bams_archive_search`;
+CREATE TABLE `bams_archive_search` (
+  `archive_id` BIGINT NOT NULL COMMENT '档案ID',
+  `archive_number` VARCHAR(100) DEFAULT NULL COMMENT '档案编号',
+  `title` VARCHAR(500) DEFAULT NULL COMMENT '档案题名',
+  `description` TEXT COMMENT '描述',
+  `summary` TEXT COMMENT '摘要',
+  `tags` TEXT COMMENT '标签（空格分隔）',
+  `content` MEDIUMTEXT COMMENT '当前版本文件正文',
+  `content_version_id` BIGINT DEFAULT NULL COMMENT '正文对应的版本ID',
+  `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`archive_id`),
+  FULLTEXT KEY `ft_archive_search` (`archive_number`, `title`, `description`, `summary`, `tags`, `content`) WITH PARSER ngram
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='档案全文检索索引表';
+
+-- 初始化已有档案的元数据索引（文件正文通过"重建检索索引"接口抽取）
+INSERT INTO `bams_archive_search` (`archive_id`, `archive_number`, `title`, `description`, `summary`, `tags`)
+SELECT `archive_id`, `archive_number`, `title`, `description`, `summary`,
+       REPLACE(REPLACE(REPLACE(REPLACE(`tags`, '[', ''), ']', ''), '"', ''), ',', ' ')
+FROM `bams_archive`;
@@ -0,0 +1,23 @@
+-- 档案标签关系表
+-- 执行日期: 2025-12-03
+-- 说明：档案的标签除 bams_archive.tags（JSON）外，另按标签ID登记到 bams_archive_tag，
+--       按标签筛选档案、统计标签分面数量时走索引连接，不再逐行解析 JSON。
+--       只登记标签字典中存在的标签；历史数据按 JSON 回填（需要 MySQL 8.0 的 JSON_TABLE）。
+
+USE `ry-vue`;
+
+DROP TABLE IF EXISTS `bams_archive_tag`;
+CREATE TABLE `bams_archive_tag` (
+  `archive_id` BIGINT NOT NULL COMMENT '档案ID',
+  `tag_id` BIGINT NOT NULL COMMENT '标签ID',
+  PRIMARY KEY (`archive_id`, `tag_id`),
+  KEY `idx_tag_archive` (`tag_id`, `archive_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='档案标签关系表';
+
+-- 按现有档案的标签 JSON 回填
+INSERT IGNORE INTO `bams_archive_tag` (`archive_id`, `tag_id`)
+SELECT a.archive_id, d.tag_id
+FROM bams_archive a,
+     JSON_TABLE(a.tags, '$[*]' COLUMNS (tag_name VARCHAR(100) PATH '$')) jt
+JOIN bams_tag_dictionary d ON d.tag_name = jt.tag_name COLLATE utf8mb4_unicode_ci
+WHERE a.tags IS NOT NULL AND JSON_VALID(a.tags);
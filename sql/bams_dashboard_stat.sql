@@ -0,0 +1,33 @@
+-- 驾驶舱汇总表
+-- 执行日期: 2025-12-04
+-- 说明：按（创建日期，项目，档案分类，阶段）汇总未删除的档案数，驾驶舱只读汇总表，不再直接扫描 bams_archive。
+--       定时任务按 update_time 增量重算发生变化的日期，每天凌晨全量重建一次。
+
+USE `ry-vue`;
+
+DROP TABLE IF EXISTS `bams_archive_daily_stat`;
+CREATE TABLE `bams_archive_daily_stat` (
+  `stat_date` DATE NOT NULL COMMENT '档案创建日期',
+  `project_id` BIGINT NOT NULL DEFAULT 0 COMMENT '项目ID',
+  `archive_category` VARCHAR(100) NOT NULL DEFAULT '' COMMENT '档案分类（字典值）',
+  `stage` VARCHAR(50) NOT NULL DEFAULT '' COMMENT '阶段（字典值）',
+  `archive_count` INT NOT NULL DEFAULT 0 COMMENT '未删除的档案数',
+  `refresh_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '刷新时间',
+  PRIMARY KEY (`stat_date`, `project_id`, `archive_category`, `stage`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='档案每日汇总表';
+
+-- 增量刷新按修改时间查找变化的档案
+ALTER TABLE `bams_archive` ADD INDEX `idx_update_time` (`update_time`);
+
+-- 初始化汇总数据
+INSERT INTO `bams_archive_daily_stat` (`stat_date`, `project_id`, `archive_category`, `stage`, `archive_count`)
+SELECT DATE(`create_time`), IFNULL(`project_id`, 0), IFNULL(`archive_category`, ''), IFNULL(`stage`, ''), COUNT(*)
+FROM `bams_archive`
+WHERE `del_flag` = '0' AND `create_time` IS NOT NULL
+GROUP BY DATE(`create_time`), IFNULL(`project_id`, 0), IFNULL(`archive_category`, ''), IFNULL(`stage`, '');
+
+-- 汇总刷新定时任务（每 5 分钟增量刷新，每天 02:30 全量重建，禁止并发）
+INSERT INTO `sys_job` (`job_name`, `job_group`, `invoke_target`, `cron_expression`, `misfire_policy`, `concurrent`, `status`, `create_by`, `create_time`, `remark`)
+VALUES ('驾驶舱汇总增量刷新', 'SYSTEM', 'bamsStatisticsTask.refreshDashboard', '0 0/5 * * * ?', '3', '1', '0', 'admin', sysdate(), '按修改时间重算发生变化日期的档案汇总');
+INSERT INTO `sys_job` (`job_name`, `job_group`, `invoke_target`, `cron_expression`, `misfire_policy`, `concurrent`, `status`, `create_by`, `create_time`, `remark`)
+VALUES ('驾驶舱汇总全量重建', 'SYSTEM', 'bamsStatisticsTask.rebuildDashboard', '0 30 2 * * ?', '3', '1', '0', 'admin', sysdate(), '按档案表全量重建档案汇总');
@@ -0,0 +1,33 @@
+-- 后台导出任务
+-- 执行日期: 2025-12-01
+-- 说明：导出任务在后台线程池中执行，结果文件保存在 uploadPath/export 下，过期后由定时任务清理。
+--       任务状态持久化到本表，服务重启后已完成的文件仍可下载；节点重启时只将本节点未完成的任务标记为失败。
+
+USE `ry-vue`;
+
+DROP TABLE IF EXISTS `bams_export_job`;
+CREATE TABLE `bams_export_job` (
+  `job_id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '任务ID',
+  `job_type` VARCHAR(50) NOT NULL COMMENT '导出类型（archive/project/operlog/user）',
+  `file_name` VARCHAR(200) NOT NULL COMMENT '下载文件名',
+  `file_path` VARCHAR(500) DEFAULT NULL COMMENT '结果文件路径（相对路径，不含 /profile 前缀）',
+  `file_size` BIGINT DEFAULT NULL COMMENT '结果文件大小（字节）',
+  `status` CHAR(1) NOT NULL DEFAULT '0' COMMENT '状态（0排队中 1执行中 2已完成 3失败）',
+  `total_rows` BIGINT DEFAULT NULL COMMENT '总行数（未知时为空）',
+  `processed_rows` BIGINT NOT NULL DEFAULT 0 COMMENT '已写入行数',
+  `query_params` VARCHAR(2000) DEFAULT NULL COMMENT '查询条件（JSON）',
+  `error_msg` VARCHAR(500) DEFAULT NULL COMMENT '失败原因',
+  `create_by` VARCHAR(64) DEFAULT '' COMMENT '提交人',
+  `create_time` DATETIME DEFAULT NULL COMMENT '提交时间',
+  `start_time` DATETIME DEFAULT NULL COMMENT '开始时间',
+  `finish_time` DATETIME DEFAULT NULL COMMENT '完成时间',
+  `expire_time` DATETIME DEFAULT NULL COMMENT '文件过期时间',
+  `node_id` VARCHAR(128) DEFAULT NULL COMMENT '执行节点（主机名:端口）',
+  PRIMARY KEY (`job_id`),
+  KEY `idx_create_by` (`create_by`, `create_time`),
+  KEY `idx_expire_time` (`expire_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='后台导出任务表';
+
+-- 过期导出文件清理定时任务（每小时执行，禁止并发）
+INSERT INTO `sys_job` (`job_name`, `job_group`, `invoke_target`, `cron_expression`, `misfire_policy`, `concurrent`, `status`, `create_by`, `create_time`, `remark`)
+VALUES ('过期导出文件清理', 'SYSTEM', 'bamsExportTask.cleanExpiredJobs', '0 10 * * * ?', '3', '1', '0', 'admin', sysdate(), '删除已过期的导出文件及任务记录');
@@ -0,0 +1,17 @@
+-- 档案文件内容寻址存储（按 SHA-256 去重）
+-- 执行日期: 2025-12-01
+-- 说明：相同内容的文件只在 uploadPath/blob 下保存一份，通过引用计数管理物理文件的生命周期。
+--       历史版本文件仍保存在 uploadPath/archive/{archiveId} 下，不登记到本表，删除时按原方式直接删除。
+
+USE `ry-vue`;
+
+DROP TABLE IF EXISTS `bams_file_blob`;
+CREATE TABLE `bams_file_blob` (
+  `file_hash` VARCHAR(64) NOT NULL COMMENT '文件 SHA-256 哈希值',
+  `file_path` VARCHAR(500) NOT NULL COMMENT '文件存储路径（相对路径，不含 /profile 前缀）',
+  `file_size` BIGINT DEFAULT NULL COMMENT '文件大小（字节）',
+  `ref_count` INT NOT NULL DEFAULT 0 COMMENT '引用次数（引用该文件的版本数）',
+  `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`file_hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='档案文件存储表';
@@ -0,0 +1,25 @@
+-- 文件正文抽取结果
+-- 执行日期: 2025-12-04
+-- 说明：版本文件上传提交后由独立线程池异步抽取正文（PDF、Word、Excel，图片及扫描版 PDF 走 OCR），
+--       结果按文件 SHA-256 哈希值保存，相同内容的文件只抽取一次；版本通过 bams_archive_version.file_hash 关联。
+--       排队中的任务在服务重启或队列已满时由后台定时补交，处理中超时的任务重新排队，
+--       失败的任务在达到最大尝试次数前按间隔重新排队。
+
+USE `ry-vue`;
+
+DROP TABLE IF EXISTS `bams_file_text`;
+CREATE TABLE `bams_file_text` (
+  `file_hash` VARCHAR(64) NOT NULL COMMENT '文件 SHA-256 哈希值',
+  `file_name` VARCHAR(255) DEFAULT NULL COMMENT '原始文件名（用于判断文件格式）',
+  `file_path` VARCHAR(500) DEFAULT NULL COMMENT '文件存储路径（相对路径，不含 /profile 前缀）',
+  `status` CHAR(1) NOT NULL DEFAULT '0' COMMENT '状态（0=排队中, 1=处理中, 2=完成, 3=失败, 4=不支持）',
+  `extractor` VARCHAR(50) DEFAULT NULL COMMENT '抽取方式（PDF、WORD、EXCEL、OCR）',
+  `content` MEDIUMTEXT COMMENT '文件正文',
+  `content_length` INT DEFAULT NULL COMMENT '正文字符数',
+  `error_msg` VARCHAR(500) DEFAULT NULL COMMENT '失败原因',
+  `attempt_count` INT NOT NULL DEFAULT 0 COMMENT '已尝试抽取次数',
+  `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`file_hash`),
+  KEY `idx_status_update_time` (`status`, `update_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='文件正文抽取结果表';
@@ -0,0 +1,27 @@
+-- 项目完整度增量统计
+-- 执行日期: 2025-12-03
+-- 说明：按（项目，阶段，标准文件）维护未删除档案数，档案新增、回收、恢复、删除及阶段/标准文件变更时增量调整，
+--       阶段与项目的完整度由后台按计数批量刷新；每天凌晨由定时任务全量校对一次。
+
+USE `ry-vue`;
+
+DROP TABLE IF EXISTS `bams_project_file_stat`;
+CREATE TABLE `bams_project_file_stat` (
+  `project_id` BIGINT NOT NULL COMMENT '项目ID',
+  `stage_id` VARCHAR(50) NOT NULL COMMENT '阶段（字典值）',
+  `file_standard` VARCHAR(100) NOT NULL COMMENT '标准文件（字典值）',
+  `archive_count` INT NOT NULL DEFAULT 0 COMMENT '未删除的档案数',
+  `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`project_id`, `stage_id`, `file_standard`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='项目标准文件归档计数表';
+
+-- 初始化计数
+INSERT INTO `bams_project_file_stat` (`project_id`, `stage_id`, `file_standard`, `archive_count`)
+SELECT `project_id`, `stage`, `file_standard`, COUNT(*)
+FROM `bams_archive`
+WHERE `del_flag` = '0' AND `project_id` IS NOT NULL AND `stage` IS NOT NULL AND `file_standard` IS NOT NULL
+GROUP BY `project_id`, `stage`, `file_standard`;
+
+-- 全量校对定时任务（每天 02:00，禁止并发）
+INSERT INTO `sys_job` (`job_name`, `job_group`, `invoke_target`, `cron_expression`, `misfire_policy`, `concurrent`, `status`, `create_by`, `create_time`, `remark`)
+VALUES ('项目完整度校对', 'SYSTEM', 'bamsStatisticsTask.reconcileCompleteness', '0 0 2 * * ?', '3', '1', '0', 'admin', sysdate(), '按档案表重建项目完整度计数');
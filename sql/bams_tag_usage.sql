@@ -0,0 +1,10 @@
+-- 标签使用次数批量累计
+-- 执行日期: 2025-12-02
+-- 说明：档案写入时标签使用次数先在内存中累计，由后台定时批量写入 bams_tag_dictionary；
+--       每天凌晨按档案标签全量校准一次，修正进程异常退出等原因造成的偏差（需要 MySQL 8.0 的 JSON_TABLE）。
+
+USE `ry-vue`;
+
+-- 标签使用次数校准定时任务（每天 02:40 执行，禁止并发）
+INSERT INTO `sys_job` (`job_name`, `job_group`, `invoke_target`, `cron_expression`, `misfire_policy`, `concurrent`, `status`, `create_by`, `create_time`, `remark`)
+VALUES ('标签使用次数校准', 'SYSTEM', 'bamsStatisticsTask.reconcileTagUsage', '0 40 2 * * ?', '3', '1', '0', 'admin', sysdate(), '按档案标签重新统计标签使用次数');